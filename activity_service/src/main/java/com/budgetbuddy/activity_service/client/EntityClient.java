@@ -0,0 +1,49 @@
+package com.budgetbuddy.activity_service.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls the batch-get endpoints of the expense, income and budget services. The caller's
+ * bearer token is forwarded, so each service only returns entities the caller owns.
+ */
+@Service
+public class EntityClient {
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> ENTITY_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final Map<String, String> batchGetUrls;
+
+    public EntityClient(RestTemplate restTemplate,
+                        @Value("${budgetbuddy.activity.enrichment.expense-url:http://localhost:8082}") String expenseUrl,
+                        @Value("${budgetbuddy.activity.enrichment.income-url:http://localhost:8083}") String incomeUrl,
+                        @Value("${budgetbuddy.activity.enrichment.budget-url:http://localhost:8084}") String budgetUrl) {
+        this.restTemplate = restTemplate;
+        this.batchGetUrls = Map.of(
+                "EXPENSE", expenseUrl + "/expenses/batch-get",
+                "INCOME", incomeUrl + "/income/batch-get",
+                "BUDGET", budgetUrl + "/budgets/batch-get");
+    }
+
+    public boolean supports(String entityType) {
+        return batchGetUrls.containsKey(entityType);
+    }
+
+    public List<Map<String, Object>> batchGet(String entityType, Collection<String> ids, String authorization) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        List<Map<String, Object>> body = restTemplate.exchange(batchGetUrls.get(entityType), HttpMethod.POST,
+                new HttpEntity<>(List.copyOf(ids), headers), ENTITY_LIST).getBody();
+        return body != null ? body : List.of();
+    }
+}
@@ -0,0 +1,40 @@
+package com.budgetbuddy.activity_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Where and how activity logs are stored. Registered as "activityStorage" so
+ * {@link com.budgetbuddy.activity_service.model.ActivityLog} can resolve its collection name.
+ */
+@Component("activityStorage")
+public class ActivityStorageSettings {
+
+    @Value("${budgetbuddy.activity.storage.collection:activity_logs}")
+    private String collection;
+
+    @Value("${budgetbuddy.activity.storage.time-series:false}")
+    private boolean timeSeries;
+
+    @Value("${budgetbuddy.activity.storage.meta-field:userId}")
+    private String metaField;
+
+    @Value("${budgetbuddy.activity.storage.granularity:hours}")
+    private String granularity;
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public boolean isTimeSeries() {
+        return timeSeries;
+    }
+
+    public String getMetaField() {
+        return metaField;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+}
@@ -0,0 +1,77 @@
+package com.budgetbuddy.activity_service.config;
+
+import com.budgetbuddy.activity_service.service.ActivityFeedService;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+
+/**
+ * Producers key activity events by userId, so each user's events land on one partition.
+ * A partition is only ever read by one listener thread, which preserves per-user order
+ * while the container runs one consumer per partition (up to max-concurrency).
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${budgetbuddy.activity.topic:user-activity-logs}")
+    private String topic;
+
+    @Value("${budgetbuddy.activity.partitions:6}")
+    private int partitions;
+
+    @Value("${budgetbuddy.activity.replicas:1}")
+    private int replicas;
+
+    @Value("${budgetbuddy.activity.consumer.max-concurrency:6}")
+    private int maxConcurrency;
+
+    // KafkaAdmin creates the topic, or adds partitions if it exists with fewer
+    @Bean
+    public NewTopic activityTopic() {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            ActivityFeedService feed) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        // Threads beyond the partition count would sit idle
+        factory.setConcurrency(Math.max(1, Math.min(partitions, maxConcurrency)));
+        // The in-memory feed is only authoritative for users on partitions this node consumes
+        factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+                if (assigned.stream().anyMatch(tp -> topic.equals(tp.topic()))) {
+                    feed.partitionsAssigned(assigned, consumer.partitionsFor(topic).size());
+                }
+            }
+
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+                feed.partitionsRevoked(revoked);
+            }
+
+            @Override
+            public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+                feed.partitionsRevoked(lost);
+            }
+        });
+        return factory;
+    }
+}
@@ -0,0 +1,42 @@
+package com.budgetbuddy.activity_service.config;
+
+import com.budgetbuddy.events.ActivityEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Producer used to forward records to the retry topics and the DLT, and to replay from it.
+ * Records that failed deserialization are forwarded as their raw bytes, everything else as JSON.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public ProducerFactory<Object, Object> producerFactory(KafkaProperties properties, MeterRegistry meterRegistry) {
+        Map<Class<?>, Serializer<?>> byType = new LinkedHashMap<>();
+        byType.put(byte[].class, new ByteArraySerializer());
+        byType.put(ActivityEvent.class, new JsonSerializer<>());
+
+        Map<String, Object> config = properties.buildProducerProperties(null);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        DefaultKafkaProducerFactory<Object, Object> factory =
+                new DefaultKafkaProducerFactory<>(config, null, new DelegatingByTypeSerializer(byType));
+        // Boot only binds client metrics to the producer factory it creates itself
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+}
@@ -0,0 +1,110 @@
+package com.budgetbuddy.activity_service.config;
+
+import com.budgetbuddy.migrations.Migration;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.util.Locale;
+
+/**
+ * Stores activity logs in a MongoDB time-series collection (timeField = timestamp,
+ * metaField = userId by default). Documents keep their flat shape, so repository
+ * queries are unchanged; buckets are per user, which compresses well and keeps
+ * timestamp range scans to a few buckets.
+ *
+ * <p>A time-series collection cannot be created by converting or renaming an existing
+ * one, so switching an installation over means pointing
+ * budgetbuddy.activity.storage.collection at a new name and setting migrate-from to the
+ * old collection. New events go to the new collection right away, and the copy runs
+ * through the migration runner (budgetbuddy.migrations.enabled=true). History is
+ * complete once that migration finishes; the old collection can then be dropped.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "budgetbuddy.activity.storage", name = "time-series", havingValue = "true")
+public class TimeSeriesStorageConfig {
+    private static final Logger LOG = LoggerFactory.getLogger(TimeSeriesStorageConfig.class);
+
+    // Runs before Kafka listeners start, otherwise the first insert would create a plain collection
+    @Bean
+    public SmartInitializingSingleton timeSeriesCollectionInitializer(MongoTemplate mongoTemplate,
+                                                                      ActivityStorageSettings storage) {
+        return () -> {
+            if (mongoTemplate.collectionExists(storage.getCollection())) {
+                return;
+            }
+            CollectionOptions options = CollectionOptions.empty().timeSeries(
+                    CollectionOptions.TimeSeriesOptions.timeSeries("timestamp")
+                            .metaField(storage.getMetaField())
+                            .granularity(Granularity.valueOf(storage.getGranularity().toUpperCase(Locale.ROOT))));
+            mongoTemplate.createCollection(storage.getCollection(), options);
+            LOG.info("Created time-series collection {} (meta={}, granularity={})",
+                    storage.getCollection(), storage.getMetaField(), storage.getGranularity());
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "budgetbuddy.activity.storage", name = "migrate-from")
+    public Migration timeSeriesBackfill(ActivityStorageSettings storage,
+                                        @Value("${budgetbuddy.activity.storage.migrate-from}") String source) {
+        return new CopyToTimeSeries(source, storage.getCollection());
+    }
+
+    /**
+     * Copies documents unchanged except for a migratedFrom marker. Inserts into a
+     * time-series collection are not idempotent (its _id is not unique), so on resume
+     * the copies past the watermark are deleted first; this needs MongoDB 7.0+, which
+     * allows deletes on non-meta fields of time-series collections.
+     */
+    static class CopyToTimeSeries implements Migration {
+        private final String source;
+        private final String target;
+
+        CopyToTimeSeries(String source, String target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public String id() {
+            return "activity-logs-to-timeseries:" + source + "->" + target;
+        }
+
+        @Override
+        public String collection() {
+            return source;
+        }
+
+        @Override
+        public String targetCollection() {
+            return target;
+        }
+
+        @Override
+        public WriteModel<Document> migrate(Document document) {
+            if (document.get("timestamp") == null) {
+                return null; // time-series documents must carry the time field
+            }
+            return new InsertOneModel<>(document.append("migratedFrom", source));
+        }
+
+        @Override
+        public void beforeResume(MongoDatabase database, Object watermark) {
+            database.getCollection(target).deleteMany(watermark == null
+                    ? Filters.eq("migratedFrom", source)
+                    : Filters.and(Filters.eq("migratedFrom", source), Filters.gt("_id", watermark)));
+        }
+    }
+}
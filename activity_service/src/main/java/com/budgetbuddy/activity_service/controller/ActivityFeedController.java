@@ -0,0 +1,37 @@
+package com.budgetbuddy.activity_service.controller;
+
+import com.budgetbuddy.activity_service.model.ActivityFeedItem;
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.service.ActivityFeedService;
+import com.budgetbuddy.activity_service.service.FeedEnrichmentService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/activity/feed")
+public class ActivityFeedController {
+    private final ActivityFeedService feed;
+    private final FeedEnrichmentService enrichment;
+
+    public ActivityFeedController(ActivityFeedService feed, FeedEnrichmentService enrichment) {
+        this.feed = feed;
+        this.enrichment = enrichment;
+    }
+
+    // Newest first; served from memory when this node consumes the user's partition
+    @GetMapping("/{userId}")
+    public List<ActivityLog> recent(@PathVariable String userId,
+                                    @RequestParam(defaultValue = "20") int limit) {
+        return feed.recent(userId, Math.max(1, Math.min(limit, 500)));
+    }
+
+    // Same page with readable summaries; entities are resolved with the caller's token
+    @GetMapping("/{userId}/enriched")
+    public List<ActivityFeedItem> enriched(@PathVariable String userId,
+                                           @RequestParam(defaultValue = "20") int limit,
+                                           @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return enrichment.enrich(feed.recent(userId, Math.max(1, Math.min(limit, 500))), authorization);
+    }
+}
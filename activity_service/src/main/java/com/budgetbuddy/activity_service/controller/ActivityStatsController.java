@@ -0,0 +1,56 @@
+package com.budgetbuddy.activity_service.controller;
+
+import com.budgetbuddy.activity_service.model.ActivityStat;
+import com.budgetbuddy.activity_service.service.ActivityStatsService;
+import com.budgetbuddy.activity_service.service.ActivityStatsService.Granularity;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Windowed counts from the pre-aggregated buckets, e.g.
+ * <ul>
+ *   <li>expense edits per day: {@code ?entityType=EXPENSE&action=UPDATED&groupBy=bucket}</li>
+ *   <li>most active users this week: {@code ?from=...&groupBy=userId&limit=10}</li>
+ * </ul>
+ */
+@RestController
+@RequestMapping("/activity/stats")
+public class ActivityStatsController {
+    private final ActivityStatsService stats;
+
+    public ActivityStatsController(ActivityStatsService stats) {
+        this.stats = stats;
+    }
+
+    @GetMapping
+    public List<ActivityStat> stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String action,
+            @RequestParam(defaultValue = ActivityStatsService.BUCKET) String groupBy,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(7));
+        List<String> groups = Arrays.stream(groupBy.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toList();
+        try {
+            return stats.query(Granularity.parse(granularity), start, end, userId, entityType, action,
+                    groups, Math.max(1, Math.min(limit, 1000)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
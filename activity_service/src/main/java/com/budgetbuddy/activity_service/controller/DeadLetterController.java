@@ -0,0 +1,31 @@
+package com.budgetbuddy.activity_service.controller;
+
+import com.budgetbuddy.activity_service.model.DeadLetterRecord;
+import com.budgetbuddy.activity_service.service.DeadLetterService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/activity/admin/dlt")
+public class DeadLetterController {
+    private final DeadLetterService deadLetters;
+
+    public DeadLetterController(DeadLetterService deadLetters) {
+        this.deadLetters = deadLetters;
+    }
+
+    @GetMapping
+    public List<DeadLetterRecord> list(@RequestParam(defaultValue = "50") int limit) {
+        return deadLetters.list(Math.min(limit, 500));
+    }
+
+    @PostMapping("/replay")
+    public DeadLetterRecord replay(@RequestParam int partition, @RequestParam long offset) throws Exception {
+        return deadLetters.replay(partition, offset)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No dead-letter record at partition " + partition + ", offset " + offset));
+    }
+}
@@ -0,0 +1,13 @@
+package com.budgetbuddy.activity_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/** An activity log with a readable summary and, when it could be resolved, the entity it refers to. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ActivityFeedItem(
+        ActivityLog activity,
+        String summary,
+        Map<String, Object> entity
+) {}
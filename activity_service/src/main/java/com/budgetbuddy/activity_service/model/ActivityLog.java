@@ -6,7 +6,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
-@Document(collection = "activity_logs")
+@Document(collection = "#{@activityStorage.collection}")
 public class ActivityLog {
     @Id
     private String id;
@@ -0,0 +1,15 @@
+package com.budgetbuddy.activity_service.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/** One row of a /activity/stats answer; fields that were not grouped on are omitted. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ActivityStat(
+        Instant bucketStart,
+        String userId,
+        String entityType,
+        String action,
+        long count
+) {}
@@ -0,0 +1,13 @@
+package com.budgetbuddy.activity_service.model;
+
+import java.time.Instant;
+
+public record DeadLetterRecord(
+        int partition,
+        long offset,
+        String key,
+        Instant timestamp,
+        String exceptionClass,
+        String exceptionMessage,
+        String payload
+) {}
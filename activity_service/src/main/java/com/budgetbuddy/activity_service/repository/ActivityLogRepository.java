@@ -1,6 +1,7 @@
 package com.budgetbuddy.activity_service.repository;
 
 import com.budgetbuddy.activity_service.model.ActivityLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,8 +9,9 @@ import java.time.Instant;
 import java.util.List;
 
 @Repository
-public interface ActivityLogRepository extends MongoRepository<ActivityLog, String> {
+public interface ActivityLogRepository extends MongoRepository<ActivityLog, String>, ActivityLogRepositoryCustom {
     List<ActivityLog> findByUserId(String userId);
     List<ActivityLog> findByTimestampBetween(Instant start, Instant end);
     List<ActivityLog> findByEntityType(String entityType);
+    List<ActivityLog> findByUserIdOrderByTimestampDesc(String userId, Limit limit);
 }
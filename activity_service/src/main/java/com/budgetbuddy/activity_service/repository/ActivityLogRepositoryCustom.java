@@ -0,0 +1,13 @@
+package com.budgetbuddy.activity_service.repository;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+
+import java.util.List;
+
+public interface ActivityLogRepositoryCustom {
+    /**
+     * Writes all logs in one unordered bulk request; a log whose id already exists is replaced.
+     * Returns the logs that were inserted, i.e. not redeliveries of ones already stored.
+     */
+    List<ActivityLog> upsertAll(List<ActivityLog> logs);
+}
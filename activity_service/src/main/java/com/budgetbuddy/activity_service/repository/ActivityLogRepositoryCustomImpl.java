@@ -0,0 +1,36 @@
+package com.budgetbuddy.activity_service.repository;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// saveAll() would issue one upsert round trip per document; a batch event can carry hundreds
+class ActivityLogRepositoryCustomImpl implements ActivityLogRepositoryCustom {
+    private final MongoTemplate mongo;
+
+    ActivityLogRepositoryCustomImpl(MongoTemplate mongo) {
+        this.mongo = mongo;
+    }
+
+    @Override
+    public List<ActivityLog> upsertAll(List<ActivityLog> logs) {
+        if (logs.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations ops = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityLog.class);
+        for (ActivityLog log : logs) {
+            ops.replaceOne(Query.query(Criteria.where("_id").is(log.getId())), log, FindAndReplaceOptions.options().upsert());
+        }
+        BulkWriteResult result = ops.execute();
+        List<ActivityLog> inserted = new ArrayList<>(result.getUpserts().size());
+        result.getUpserts().forEach(upsert -> inserted.add(logs.get(upsert.getIndex())));
+        return inserted;
+    }
+}
@@ -1,29 +1,194 @@
 package com.budgetbuddy.activity_service.service;
 
+import com.budgetbuddy.activity_service.config.ActivityStorageSettings;
 import com.budgetbuddy.activity_service.model.ActivityLog;
 import com.budgetbuddy.activity_service.repository.ActivityLogRepository;
+import com.budgetbuddy.activity_service.util.RecentIdCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EventIds;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 
 @Service
 public class ActivityConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(ActivityConsumer.class);
+
     private final ActivityLogRepository repo;
+    private final ActivityStorageSettings storage;
+    private final ActivityStatsService stats;
+    private final ActivityFeedService feed;
+    private final FeedEnrichmentService enrichment;
+    private final RecentIdCache recentEventIds;
+    private final String topic;
+    private final MeterRegistry meters;
 
-    public ActivityConsumer(ActivityLogRepository r) { this.repo = r; }
+    public ActivityConsumer(ActivityLogRepository r,
+                            ActivityStorageSettings storage,
+                            ActivityStatsService stats,
+                            ActivityFeedService feed,
+                            FeedEnrichmentService enrichment,
+                            @Value("${budgetbuddy.activity.dedupe-cache-size:10000}") int dedupeCacheSize,
+                            @Value("${budgetbuddy.activity.topic:user-activity-logs}") String topic,
+                            MeterRegistry meters) {
+        this.repo = r;
+        this.storage = storage;
+        this.stats = stats;
+        this.feed = feed;
+        this.enrichment = enrichment;
+        this.recentEventIds = new RecentIdCache(dedupeCacheSize);
+        this.topic = topic;
+        this.meters = meters;
+    }
+
+    // A failing record is moved to user-activity-logs-retry-N (with growing delays) and finally
+    // to user-activity-logs-dlt, so the main partition keeps flowing. Deserialization errors are
+    // not retryable and go straight to the DLT.
+    @RetryableTopic(
+            attempts = "${budgetbuddy.activity.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${budgetbuddy.activity.retry.initial-delay-ms:1000}",
+                    multiplierExpression = "${budgetbuddy.activity.retry.multiplier:2.0}",
+                    maxDelayExpression = "${budgetbuddy.activity.retry.max-delay-ms:30000}"),
+            numPartitions = "${budgetbuddy.activity.partitions:6}",
+            replicationFactor = "${budgetbuddy.activity.replicas:1}",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR)
+    @KafkaListener(topics="${budgetbuddy.activity.topic:user-activity-logs}", groupId="activity-service")
+    public void listen(ActivityEvent evt, @Header(KafkaHeaders.RECEIVED_TOPIC) String receivedTopic) {
+        String eventId = evt.getEventId();
+        if (eventId != null && recentEventIds.contains(eventId)) {
+            LOG.debug("Skipping redelivered activity event {}", eventId);
+            return;
+        }
+        // Retry topic partitions are assigned apart from the main topic's, so this node may not own the user's feed
+        boolean retried = !topic.equals(receivedTopic);
+        try {
+            if (evt.hasEntityIds()) {
+                saveBatch(evt, retried);
+            } else {
+                save(evt, retried);
+            }
+        } catch (RuntimeException e) {
+            if (!retried) {
+                feed.retrying(evt.getUserId());
+            }
+            throw e;
+        }
+        if (eventId != null) {
+            recentEventIds.add(eventId);
+        }
+    }
 
-    @KafkaListener(topics="user-activity-logs", groupId="activity-service")
-    public void listen(ActivityEvent evt) {
-        // Convert to your Mongo-backed domain if needed
-        // ActivityLog l = new ActivityLog();
+    private void save(ActivityEvent evt, boolean retried) {
+        ActivityLog log = toLog(evt, evt.getEntityId(), evt.getEventId());
+        // eventId becomes _id, so the write is an upsert and a redelivery overwrites instead of duplicating.
+        // Time-series collections reject upserts; there the recent-id cache is the only dedupe.
+        List<ActivityLog> inserted;
+        if (storage.isTimeSeries()) {
+            repo.insert(log);
+            inserted = null;
+        } else if (log.getId() == null) {
+            repo.save(log);
+            inserted = List.of(log);
+        } else {
+            inserted = repo.upsertAll(List.of(log));
+        }
+        count(evt, List.of(log), inserted);
+        afterSave(log, retried);
+        System.out.println("Saved: " + log);
+    }
+
+    // A batch event becomes one log per entity. Child ids derive from the eventId, so a
+    // redelivered batch replaces the same documents instead of duplicating them.
+    private void saveBatch(ActivityEvent evt, boolean retried) {
+        List<String> ids = evt.getEntityIds();
+        List<ActivityLog> logs = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            logs.add(toLog(evt, ids.get(i), evt.getEventId() == null ? null : EventIds.child(evt.getEventId(), i)));
+        }
+        List<ActivityLog> inserted;
+        if (storage.isTimeSeries() || evt.getEventId() == null) {
+            repo.insert(logs);
+            inserted = storage.isTimeSeries() ? null : logs;
+        } else {
+            inserted = repo.upsertAll(logs);
+        }
+        count(evt, logs, inserted);
+        logs.forEach(log -> afterSave(log, retried));
+        LOG.info("Saved batch of {} {} {} logs for user {}", logs.size(), evt.getAction(), evt.getEntityType(), evt.getUserId());
+    }
+
+    /**
+     * Counts each log once, however often its event is delivered: only the logs the upsert
+     * inserted, or, where the write cannot tell (time-series inserts, {@code inserted} null),
+     * the logs whose id the stats have not counted before. Events without an eventId have
+     * nothing to dedupe on and are always counted.
+     */
+    private void count(ActivityEvent evt, List<ActivityLog> logs, List<ActivityLog> inserted) {
+        // Counters are derived data: a failed increment is logged rather than sending the event to retry
+        try {
+            if (inserted != null) {
+                stats.recordAll(inserted);
+            } else if (evt.getEventId() == null) {
+                stats.recordAll(logs);
+            } else {
+                stats.recordOnce(logs);
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not update activity stats for event {}: {}", evt.getEventId(), e.getMessage());
+        }
+    }
+
+    private static ActivityLog toLog(ActivityEvent evt, String entityId, String id) {
         ActivityLog log = new ActivityLog(
-                evt.getTimestamp(),
+                evt.getTimestamp() != null ? evt.getTimestamp() : Instant.now(),
                 evt.getUserId(),
                 evt.getAction(),
                 evt.getEntityType(),
-                evt.getEntityId()
+                entityId
         );
-        repo.save(log);
-        System.out.println("Saved: " + log);
+        log.setId(id);
+        return log;
+    }
+
+    private void afterSave(ActivityLog log, boolean retried) {
+        if (retried) {
+            feed.invalidate(log.getUserId());
+        } else {
+            feed.append(log);
+        }
+        if ("UPDATED".equals(log.getAction()) || "DELETED".equals(log.getAction())) {
+            enrichment.evict(log.getEntityType(), log.getEntityId());
+        }
+    }
+
+    // The DLT is read as raw bytes (see spring.kafka.value.serialization.bytopic.config), so records
+    // that never deserialized arrive here too instead of failing again before the handler.
+    @DltHandler
+    public void deadLetter(ConsumerRecord<String, byte[]> record) {
+        String exception = DeadLetterService.header(record, KafkaHeaders.DLT_EXCEPTION_FQCN);
+        meters.counter("budgetbuddy.activity.dead_letters",
+                "exception", Objects.requireNonNullElse(exception, "none")).increment();
+        LOG.warn("Dead-lettered activity event at {}-{}@{} (key={}, {} bytes): {}: {}",
+                record.topic(), record.partition(), record.offset(), record.key(),
+                record.value() == null ? 0 : record.value().length,
+                exception, DeadLetterService.header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,186 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.repository.ActivityLogRepository;
+import com.budgetbuddy.activity_service.util.ActivityRingBuffer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves a user's most recent activity from a per-user {@link ActivityRingBuffer} fed by
+ * {@link ActivityConsumer}, falling back to a sorted, limited, indexed Mongo query.
+ *
+ * <p>A buffer can only be trusted on the node that consumes the user's partition; any
+ * other node never sees that user's new events. Since producers key events by userId, the
+ * partition follows from the key, so reads for users on partitions assigned elsewhere go
+ * straight to Mongo, and buffers are dropped when their partition is revoked. This relies
+ * on the default userId partition key; set budgetbuddy.activity.feed.enabled=false if
+ * producers key by entityId.
+ *
+ * <p>An event whose write fails is redelivered from the retry topics, whose partitions may
+ * be consumed by another node. Its log is then never appended here, so the owner drops the
+ * user's buffer and reads from Mongo for {@code retry-window-ms}, after which it reseeds.
+ */
+@Service
+public class ActivityFeedService {
+    private final ActivityLogRepository repo;
+    private final MongoTemplate mongo;
+    private final String topic;
+    private final boolean enabled;
+    private final int capacity;
+    private final Map<String, ActivityRingBuffer> buffers;
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+    private final long retryWindowMs;
+    private final Clock clock;
+    private final Map<String, Long> retryingUntil = new ConcurrentHashMap<>();
+    private volatile int partitionCount;
+    private volatile boolean indexed;
+
+    @Autowired
+    public ActivityFeedService(ActivityLogRepository repo,
+                               MongoTemplate mongo,
+                               @Value("${budgetbuddy.activity.topic:user-activity-logs}") String topic,
+                               @Value("${budgetbuddy.activity.feed.enabled:true}") boolean enabled,
+                               @Value("${budgetbuddy.activity.feed.capacity:50}") int capacity,
+                               @Value("${budgetbuddy.activity.feed.max-users:10000}") int maxUsers,
+                               @Value("${budgetbuddy.activity.feed.retry-window-ms:60000}") long retryWindowMs) {
+        this(repo, mongo, topic, enabled, capacity, maxUsers, retryWindowMs, Clock.systemUTC());
+    }
+
+    ActivityFeedService(ActivityLogRepository repo, MongoTemplate mongo, String topic, boolean enabled,
+                        int capacity, int maxUsers, long retryWindowMs, Clock clock) {
+        this.repo = repo;
+        this.mongo = mongo;
+        this.topic = topic;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.retryWindowMs = retryWindowMs;
+        this.clock = clock;
+        this.buffers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ActivityRingBuffer> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /** Called after the log has been written, so a concurrent seed either sees it in Mongo or here. */
+    public void append(ActivityLog log) {
+        if (!enabled || log.getUserId() == null || !owns(log.getUserId())) {
+            return;
+        }
+        ActivityRingBuffer buffer;
+        synchronized (buffers) {
+            buffer = buffers.computeIfAbsent(log.getUserId(), u -> new ActivityRingBuffer(capacity));
+        }
+        buffer.add(log);
+    }
+
+    /** A log was written from the retry topics: the user's buffer reseeds from Mongo on its next read. */
+    public void invalidate(String userId) {
+        if (userId != null) {
+            synchronized (buffers) {
+                buffers.remove(userId);
+            }
+        }
+    }
+
+    /** A write for the user failed and went to the retry topics, maybe to be written on another node. */
+    public void retrying(String userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        long now = clock.millis();
+        retryingUntil.values().removeIf(until -> until <= now);
+        retryingUntil.put(userId, now + retryWindowMs);
+        invalidate(userId);
+    }
+
+    /** The user's newest {@code limit} logs, newest first. */
+    public List<ActivityLog> recent(String userId, int limit) {
+        if (!enabled || limit > capacity || !owns(userId) || isRetrying(userId)) {
+            return query(userId, limit);
+        }
+        ActivityRingBuffer buffer;
+        synchronized (buffers) {
+            buffer = buffers.computeIfAbsent(userId, u -> new ActivityRingBuffer(capacity));
+        }
+        if (!buffer.isComplete()) {
+            buffer.seed(query(userId, capacity));
+        }
+        return buffer.newest(limit);
+    }
+
+    public void partitionsAssigned(Collection<TopicPartition> partitions, int totalPartitions) {
+        for (TopicPartition tp : partitions) {
+            if (topic.equals(tp.topic())) {
+                partitionCount = totalPartitions;
+                ownedPartitions.add(tp.partition());
+            }
+        }
+    }
+
+    public void partitionsRevoked(Collection<TopicPartition> partitions) {
+        boolean changed = false;
+        for (TopicPartition tp : partitions) {
+            if (topic.equals(tp.topic())) {
+                changed |= ownedPartitions.remove(tp.partition());
+            }
+        }
+        if (changed) {
+            synchronized (buffers) {
+                buffers.keySet().removeIf(userId -> !owns(userId));
+            }
+        }
+    }
+
+    private boolean isRetrying(String userId) {
+        Long until = retryingUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until > clock.millis()) {
+            return true;
+        }
+        retryingUntil.remove(userId, until);
+        return false;
+    }
+
+    // The partition the default partitioner picks for a keyed record
+    boolean owns(String userId) {
+        int count = partitionCount;
+        return count > 0 && ownedPartitions.contains(
+                Utils.toPositive(Utils.murmur2(userId.getBytes(StandardCharsets.UTF_8))) % count);
+    }
+
+    private List<ActivityLog> query(String userId, int limit) {
+        ensureIndex();
+        return repo.findByUserIdOrderByTimestampDesc(userId, Limit.of(limit));
+    }
+
+    // Created on first use rather than at startup so the service still boots while Mongo is down
+    private void ensureIndex() {
+        if (!indexed) {
+            mongo.indexOps(ActivityLog.class).createIndex(new Index()
+                    .on("userId", Sort.Direction.ASC)
+                    .on("timestamp", Sort.Direction.DESC));
+            indexed = true;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.model.ActivityStat;
+import com.budgetbuddy.activity_service.model.ActivityStatBucket;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps hour and day counters per (userId, entityType, action) as events are consumed,
+ * and answers windowed stats queries from those buckets instead of the raw logs.
+ *
+ * <p>An event is counted once however often it is delivered, on whichever node: the
+ * consumer only counts logs its upsert actually inserted, and where the write cannot tell,
+ * {@link #recordOnce} claims each log id in {@value #CLAIMS} before counting it.
+ */
+@Service
+public class ActivityStatsService {
+    public static final String BUCKET = "bucket";
+    public static final List<String> GROUP_FIELDS = List.of(BUCKET, "userId", "entityType", "action");
+    static final String CLAIMS = "activity_stat_claims";
+    private static final int DUPLICATE_KEY = 11000;
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS), DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public Instant bucketStart(Instant t) {
+            return t.truncatedTo(unit);
+        }
+
+        public static Granularity parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final MongoTemplate mongo;
+    private final long claimTtlHours;
+    private volatile boolean indexed;
+    private volatile boolean claimsIndexed;
+
+    public ActivityStatsService(MongoTemplate mongo,
+                                @Value("${budgetbuddy.activity.stats.claim-ttl-hours:168}") long claimTtlHours) {
+        this.mongo = mongo;
+        this.claimTtlHours = claimTtlHours;
+    }
+
+    /** Adds one to the hour and the day bucket of the log, in a single round trip. */
+    public void record(ActivityLog log) {
+        recordAll(List.of(log));
+    }
+
+    /**
+     * Counts several logs in a single round trip. Logs that fall into the same bucket, as
+     * the logs of one batch event do, are folded into one increment.
+     */
+    public void recordAll(List<ActivityLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        ensureIndex();
+        // Update.inc on the same field overwrites rather than adds, so count per bucket first
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Map<String, Update> updates = new LinkedHashMap<>();
+        for (ActivityLog log : logs) {
+            for (Granularity g : Granularity.values()) {
+                Instant start = g.bucketStart(log.getTimestamp());
+                String id = bucketId(g, start, log);
+                counts.merge(id, 1, Integer::sum);
+                updates.computeIfAbsent(id, k -> new Update()
+                        .setOnInsert("granularity", g.name())
+                        .setOnInsert("bucketStart", start)
+                        .setOnInsert("userId", log.getUserId())
+                        .setOnInsert("entityType", log.getEntityType())
+                        .setOnInsert("action", log.getAction()));
+            }
+        }
+        BulkOperations ops = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatBucket.class);
+        updates.forEach((id, update) ->
+                ops.upsert(Query.query(Criteria.where("_id").is(id)), update.inc("count", counts.get(id))));
+        ops.execute();
+    }
+
+    /**
+     * Counts the logs whose ids have not been counted before, for writes that cannot report
+     * whether a log was new. Each id is claimed with one unordered bulk insert; the ids that
+     * were already claimed are skipped. Claims expire after claim-ttl-hours, which must
+     * outlast the topic's retention, the longest a redelivery can come after the first.
+     */
+    public void recordOnce(List<ActivityLog> logs) {
+        recordAll(claim(logs));
+    }
+
+    List<ActivityLog> claim(List<ActivityLog> logs) {
+        if (logs.isEmpty()) {
+            return logs;
+        }
+        ensureClaimsIndex();
+        BulkOperations ops = mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, CLAIMS);
+        Date now = new Date();
+        logs.forEach(log -> ops.insert(new Document("_id", log.getId()).append("claimedAt", now)));
+        try {
+            ops.execute();
+            return logs;
+        } catch (BulkOperationException e) {
+            Set<Integer> claimed = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                claimed.add(error.getIndex());
+            }
+            List<ActivityLog> fresh = new ArrayList<>(logs.size() - claimed.size());
+            for (int i = 0; i < logs.size(); i++) {
+                if (!claimed.contains(i)) {
+                    fresh.add(logs.get(i));
+                }
+            }
+            return fresh;
+        }
+    }
+
+    /**
+     * Sums the buckets whose start lies in [from, to), with from rounded down to a bucket
+     * boundary. Rows are grouped by any of {@link #GROUP_FIELDS}; grouped by bucket they come
+     * back in time order, otherwise busiest first.
+     */
+    public List<ActivityStat> query(Granularity granularity, Instant from, Instant to,
+                                    String userId, String entityType, String action,
+                                    List<String> groupBy, int limit) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        for (String field : groupBy) {
+            if (!GROUP_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Cannot group by '" + field + "', expected one of " + GROUP_FIELDS);
+            }
+        }
+
+        Criteria match = Criteria.where("granularity").is(granularity.name())
+                .and("bucketStart").gte(granularity.bucketStart(from)).lt(to);
+        if (userId != null) {
+            match.and("userId").is(userId);
+        }
+        if (entityType != null) {
+            match.and("entityType").is(entityType);
+        }
+        if (action != null) {
+            match.and("action").is(action);
+        }
+
+        String[] keys = groupBy.stream().map(f -> BUCKET.equals(f) ? "bucketStart" : f).toArray(String[]::new);
+        GroupOperation group = (keys.length == 0 ? Aggregation.group() : Aggregation.group(keys))
+                .sum("count").as("count");
+        AggregationOperation sort = groupBy.contains(BUCKET)
+                ? Aggregation.sort(Sort.Direction.ASC, "bucketStart")
+                : Aggregation.sort(Sort.Direction.DESC, "count");
+
+        List<Document> rows = mongo.aggregate(
+                Aggregation.newAggregation(Aggregation.match(match), group, sort, Aggregation.limit(limit)),
+                ActivityStatBucket.class, Document.class).getMappedResults();
+
+        List<ActivityStat> out = new ArrayList<>(rows.size());
+        for (Document row : rows) {
+            out.add(new ActivityStat(
+                    (Instant) groupValue(row, keys, "bucketStart"),
+                    (String) groupValue(row, keys, "userId"),
+                    (String) groupValue(row, keys, "entityType"),
+                    (String) groupValue(row, keys, "action"),
+                    ((Number) row.get("count")).longValue()));
+        }
+        return out;
+    }
+
+    static String bucketId(Granularity g, Instant start, ActivityLog log) {
+        return g.name() + "|" + start.getEpochSecond() + "|" + log.getUserId()
+                + "|" + log.getEntityType() + "|" + log.getAction();
+    }
+
+    // $group keeps a single key as a scalar _id and several keys as an _id sub-document
+    private static Object groupValue(Document row, String[] keys, String field) {
+        if (keys.length == 1) {
+            return keys[0].equals(field) ? convert(row.get("_id")) : null;
+        }
+        Object id = row.get("_id");
+        return id instanceof Document d ? convert(d.get(field)) : null;
+    }
+
+    private static Object convert(Object value) {
+        return value instanceof Date d ? d.toInstant() : value;
+    }
+
+    // Created on first use rather than at startup so the service still boots while Mongo is down
+    private void ensureIndex() {
+        if (!indexed) {
+            mongo.indexOps(ActivityStatBucket.class).createIndex(new Index()
+                    .on("granularity", Sort.Direction.ASC)
+                    .on("bucketStart", Sort.Direction.ASC)
+                    .on("userId", Sort.Direction.ASC));
+            indexed = true;
+        }
+    }
+
+    private void ensureClaimsIndex() {
+        if (!claimsIndexed) {
+            mongo.indexOps(CLAIMS).createIndex(new Index()
+                    .on("claimedAt", Sort.Direction.ASC)
+                    .expire(Duration.ofHours(claimTtlHours)));
+            claimsIndexed = true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.model.DeadLetterRecord;
+import com.budgetbuddy.events.serde.ActivityEventAvroCodec;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the dead-letter topic with a throwaway, group-less consumer (so inspecting never
+ * moves any committed offsets) and republishes chosen records to the main topic.
+ */
+@Service
+public class DeadLetterService {
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<Object, Object> kafka;
+    private final String topic;
+    private final String dltTopic;
+
+    public DeadLetterService(KafkaProperties properties,
+                             KafkaTemplate<Object, Object> kafka,
+                             @Value("${budgetbuddy.activity.topic:user-activity-logs}") String topic) {
+        Map<String, Object> config = properties.buildConsumerProperties(null);
+        config.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new ByteArrayDeserializer());
+        this.kafka = kafka;
+        this.topic = topic;
+        this.dltTopic = topic + "-dlt";
+    }
+
+    public List<DeadLetterRecord> list(int limit) {
+        List<DeadLetterRecord> out = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = partitions(consumer);
+            if (partitions.isEmpty()) {
+                return out;
+            }
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+
+            long deadline = System.nanoTime() + READ_TIMEOUT.toNanos();
+            while (out.size() < limit && !atEnd(consumer, end) && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(200))) {
+                    out.add(toDto(record));
+                    if (out.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    public Optional<DeadLetterRecord> replay(int partition, long offset) throws Exception {
+        Optional<ConsumerRecord<String, byte[]>> found = read(partition, offset);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ConsumerRecord<String, byte[]> record = found.get();
+        ProducerRecord<Object, Object> replay = new ProducerRecord<>(
+                topic, null, record.key(), record.value(), replayHeaders(record.headers()));
+        kafka.send(replay).get(READ_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        return Optional.of(toDto(record));
+    }
+
+    private Optional<ConsumerRecord<String, byte[]>> read(int partition, long offset) {
+        TopicPartition tp = new TopicPartition(dltTopic, partition);
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            if (partitions(consumer).stream().noneMatch(tp::equals)) {
+                return Optional.empty();
+            }
+            consumer.assign(List.of(tp));
+            consumer.seek(tp, offset);
+            long deadline = System.nanoTime() + READ_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(200))) {
+                    return record.offset() == offset ? Optional.of(record) : Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, byte[]> consumer) {
+        List<PartitionInfo> infos = consumer.partitionsFor(dltTopic);
+        if (infos == null) {
+            return List.of();
+        }
+        return infos.stream().map(p -> new TopicPartition(dltTopic, p.partition())).toList();
+    }
+
+    private static boolean atEnd(Consumer<String, byte[]> consumer, Map<TopicPartition, Long> end) {
+        return end.entrySet().stream().allMatch(e -> consumer.position(e.getKey()) >= e.getValue());
+    }
+
+    // Keep the type header for JSON payloads; drop DLT and retry bookkeeping
+    private static Headers replayHeaders(Headers original) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header h : original) {
+            if (!h.key().startsWith("kafka_") && !h.key().startsWith("retry_topic-")) {
+                headers.add(h);
+            }
+        }
+        return headers;
+    }
+
+    private static DeadLetterRecord toDto(ConsumerRecord<String, byte[]> record) {
+        return new DeadLetterRecord(
+                record.partition(),
+                record.offset(),
+                record.key(),
+                Instant.ofEpochMilli(record.timestamp()),
+                header(record, KafkaHeaders.DLT_EXCEPTION_FQCN),
+                header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE),
+                payload(record.value()));
+    }
+
+    // Avro payloads are binary, so they are shown base64-encoded
+    private static String payload(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length > 0 && value[0] == ActivityEventAvroCodec.MAGIC) {
+            return "base64:" + Base64.getEncoder().encodeToString(value);
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    static String header(ConsumerRecord<?, ?> record, String name) {
+        Header h = record.headers().lastHeader(name);
+        return h == null ? null : new String(h.value(), StandardCharsets.UTF_8);
+    }
+}
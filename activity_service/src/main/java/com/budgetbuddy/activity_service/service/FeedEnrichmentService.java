@@ -0,0 +1,128 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.client.EntityClient;
+import com.budgetbuddy.activity_service.model.ActivityFeedItem;
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.util.ExpiringLruCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Turns a page of activity logs into readable feed items. The entity ids of the page are
+ * grouped by type and resolved with at most one batch-get per type, all types in parallel,
+ * so a page costs one round trip however many logs it holds.
+ *
+ * <p>Resolved entities are cached briefly per bearer token: the resource services decide
+ * what a token may see, and a cache shared across tokens would bypass that. The consumer
+ * evicts an entity as soon as it sees it updated or deleted.
+ */
+@Service
+public class FeedEnrichmentService {
+    private static final Logger LOG = LoggerFactory.getLogger(FeedEnrichmentService.class);
+
+    private record Key(String token, String entityType, String entityId) {}
+
+    private final EntityClient client;
+    private final ExpiringLruCache<Key, Map<String, Object>> cache;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public FeedEnrichmentService(EntityClient client,
+                                 @Value("${budgetbuddy.activity.enrichment.cache-size:2000}") int cacheSize,
+                                 @Value("${budgetbuddy.activity.enrichment.cache-ttl-ms:60000}") long cacheTtlMs) {
+        this.client = client;
+        this.cache = new ExpiringLruCache<>(cacheSize, cacheTtlMs);
+    }
+
+    public List<ActivityFeedItem> enrich(List<ActivityLog> logs, String authorization) {
+        Map<String, Map<String, Object>> resolved = authorization == null ? Map.of() : resolve(logs, authorization);
+        List<ActivityFeedItem> out = new ArrayList<>(logs.size());
+        for (ActivityLog log : logs) {
+            Map<String, Object> entity = resolved.get(log.getEntityType() + ":" + log.getEntityId());
+            out.add(new ActivityFeedItem(log, summarize(log, entity), entity));
+        }
+        return out;
+    }
+
+    public void evict(String entityType, String entityId) {
+        cache.removeIf(k -> k.entityId().equals(entityId) && k.entityType().equals(entityType));
+    }
+
+    /** Returns entities keyed by "TYPE:id"; types whose service failed are simply missing. */
+    private Map<String, Map<String, Object>> resolve(List<ActivityLog> logs, String authorization) {
+        Map<String, Map<String, Object>> resolved = new HashMap<>();
+        Map<String, Set<String>> missing = new HashMap<>();
+        for (ActivityLog log : logs) {
+            if (log.getEntityId() == null || "DELETED".equals(log.getAction()) || !client.supports(log.getEntityType())) {
+                continue;
+            }
+            Map<String, Object> cached = cache.get(new Key(authorization, log.getEntityType(), log.getEntityId()));
+            if (cached != null) {
+                resolved.put(log.getEntityType() + ":" + log.getEntityId(), cached);
+            } else {
+                missing.computeIfAbsent(log.getEntityType(), t -> new LinkedHashSet<>()).add(log.getEntityId());
+            }
+        }
+
+        Map<String, CompletableFuture<List<Map<String, Object>>>> calls = new HashMap<>();
+        missing.forEach((type, ids) -> calls.put(type,
+                CompletableFuture.supplyAsync(() -> client.batchGet(type, ids, authorization), executor)));
+
+        calls.forEach((type, call) -> {
+            try {
+                for (Map<String, Object> entity : call.join()) {
+                    Object id = entity.get("id");
+                    if (id != null) {
+                        cache.put(new Key(authorization, type, id.toString()), entity);
+                        resolved.put(type + ":" + id, entity);
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Could not resolve {} entities for the activity feed: {}", type, e.getMessage());
+            }
+        });
+        return resolved;
+    }
+
+    static String summarize(ActivityLog log, Map<String, Object> entity) {
+        String verb = switch (log.getAction() == null ? "" : log.getAction()) {
+            case "CREATED" -> "Added";
+            case "UPDATED" -> "Updated";
+            case "DELETED" -> "Deleted";
+            default -> log.getAction();
+        };
+        String type = log.getEntityType() == null ? "item" : log.getEntityType().toLowerCase(Locale.ROOT);
+        if (entity == null) {
+            return verb + " " + type;
+        }
+        return switch (log.getEntityType()) {
+            case "EXPENSE" -> verb + " " + money(entity.get("amount")) + " " + entity.get("description");
+            case "INCOME" -> verb + " " + money(entity.get("amount")) + " income from " + entity.get("source");
+            case "BUDGET" -> verb + " " + entity.get("category") + " budget for " + entity.get("monthYear")
+                    + " (" + money(entity.get("limitAmount")) + ")";
+            default -> verb + " " + type;
+        };
+    }
+
+    private static String money(Object amount) {
+        return amount instanceof Number n ? String.format(Locale.US, "$%,.2f", n.doubleValue()) : "";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.budgetbuddy.activity_service.util;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The newest {@code capacity} activity logs of one user, kept in timestamp order in a
+ * fixed array. Events normally arrive in order and are appended in O(1), overwriting the
+ * oldest slot once full; the occasional late event (e.g. from a retry topic) is shifted
+ * into place. Logs with an id already present are ignored, so redeliveries and seeding
+ * from Mongo can overlap with live appends.
+ */
+public class ActivityRingBuffer {
+    private final ActivityLog[] slots;
+    private int head; // index of the oldest entry
+    private int size;
+    private boolean complete;
+
+    public ActivityRingBuffer(int capacity) {
+        this.slots = new ActivityLog[capacity];
+    }
+
+    public synchronized void add(ActivityLog log) {
+        if (containsId(log.getId())) {
+            return;
+        }
+        int cap = slots.length;
+        // Find how many of the newest entries are strictly newer than the log
+        int newer = 0;
+        while (newer < size && at(size - 1 - newer).getTimestamp().isAfter(log.getTimestamp())) {
+            newer++;
+        }
+        if (size == cap) {
+            if (newer == size) {
+                return; // older than everything we keep
+            }
+            // Drop the oldest to make room
+            slots[head] = null;
+            head = (head + 1) % cap;
+            size--;
+        }
+        // Shift the newer entries up by one and drop the log in below them
+        for (int i = size; i > size - newer; i--) {
+            slots[(head + i) % cap] = at(i - 1);
+        }
+        slots[(head + size - newer) % cap] = log;
+        size++;
+    }
+
+    /** Merges a newest-first page from the database and marks the buffer as holding the full recent history. */
+    public synchronized void seed(List<ActivityLog> newestFirst) {
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            add(newestFirst.get(i));
+        }
+        complete = true;
+    }
+
+    /** True once seeded: the buffer then holds the user's newest min(capacity, total) events. */
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public synchronized List<ActivityLog> newest(int limit) {
+        int n = Math.min(limit, size);
+        List<ActivityLog> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(at(size - 1 - i));
+        }
+        return out;
+    }
+
+    private ActivityLog at(int logicalIndex) {
+        return slots[(head + logicalIndex) % slots.length];
+    }
+
+    private boolean containsId(String id) {
+        if (id == null) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(at(i).getId(), id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
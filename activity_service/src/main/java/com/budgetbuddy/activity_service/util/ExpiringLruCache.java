@@ -0,0 +1,53 @@
+package com.budgetbuddy.activity_service.util;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Small LRU map whose entries also expire a fixed time after they were written.
+ * Expired entries are dropped lazily when they are looked up.
+ */
+public class ExpiringLruCache<K, V> {
+    private record Entry<V>(V value, long expiresAtMillis) {}
+
+    private final Map<K, Entry<V>> entries;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    public ExpiringLruCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, Clock.systemUTC());
+    }
+
+    ExpiringLruCache(int maxSize, long ttlMillis, Clock clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        Entry<V> e = entries.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (e.expiresAtMillis() <= clock.millis()) {
+            entries.remove(key);
+            return null;
+        }
+        return e.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+    }
+
+    public synchronized void removeIf(Predicate<K> keyMatches) {
+        entries.keySet().removeIf(keyMatches);
+    }
+}
@@ -0,0 +1,30 @@
+package com.budgetbuddy.activity_service.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded set of recently processed ids; the least recently seen id is evicted first.
+ * Redeliveries after a rebalance arrive shortly after the original, so a small window
+ * catches nearly all of them without a database round trip.
+ */
+public class RecentIdCache {
+    private final Map<String, Boolean> ids;
+
+    public RecentIdCache(int maxSize) {
+        this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized boolean contains(String id) {
+        return ids.get(id) != null;
+    }
+
+    public synchronized void add(String id) {
+        ids.put(id, Boolean.TRUE);
+    }
+}
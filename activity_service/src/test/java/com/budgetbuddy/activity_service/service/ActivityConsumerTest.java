@@ -0,0 +1,225 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.config.ActivityStorageSettings;
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.repository.ActivityLogRepository;
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EventIds;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityConsumerTest {
+    private static final String TOPIC = "user-activity-logs";
+
+    @Mock
+    private ActivityLogRepository repo;
+
+    @Mock
+    private ActivityStorageSettings storage;
+
+    @Mock
+    private ActivityStatsService stats;
+
+    @Mock
+    private ActivityFeedService feed;
+
+    @Mock
+    private FeedEnrichmentService enrichment;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    private ActivityConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new ActivityConsumer(repo, storage, stats, feed, enrichment, 100, TOPIC, meters);
+    }
+
+    private ActivityEvent event(String eventId) {
+        ActivityEvent evt = new ActivityEvent("u1", "CREATED", "EXPENSE", "exp1", Instant.now());
+        evt.setEventId(eventId);
+        return evt;
+    }
+
+    @Test
+    void listen_usesEventIdAsDocumentId() {
+        String id = EventIds.next();
+
+        consumer.listen(event(id), TOPIC);
+
+        ArgumentCaptor<List<ActivityLog>> cap = ArgumentCaptor.forClass(List.class);
+        verify(repo).upsertAll(cap.capture());
+        ActivityLog log = cap.getValue().get(0);
+        assertThat(log.getId()).isEqualTo(id);
+        assertThat(log.getEntityId()).isEqualTo("exp1");
+        verify(feed).append(log);
+        verifyNoInteractions(enrichment);
+    }
+
+    @Test
+    void listen_redeliveredEvent_isSavedOnce() {
+        String id = EventIds.next();
+        when(repo.upsertAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        consumer.listen(event(id), TOPIC);
+        consumer.listen(event(id), TOPIC);
+
+        verify(repo, times(1)).upsertAll(anyList());
+        verify(stats, times(1)).recordAll(argThat(logs -> logs.size() == 1));
+    }
+
+    @Test
+    void listen_redeliveryOnAnotherNode_isStoredAgainButCountedOnce() {
+        String id = EventIds.next();
+        // The first write inserts the log; the redelivery replaces it
+        when(repo.upsertAll(anyList())).thenAnswer(inv -> inv.getArgument(0)).thenReturn(List.of());
+        ActivityConsumer otherNode = new ActivityConsumer(repo, storage, stats, feed, enrichment, 100, TOPIC, meters);
+
+        consumer.listen(event(id), TOPIC);
+        otherNode.listen(event(id), TOPIC);
+
+        verify(repo, times(2)).upsertAll(anyList());
+        verify(stats, times(1)).recordAll(argThat(logs -> logs.size() == 1));
+        verify(stats, times(1)).recordAll(List.of());
+    }
+
+    @Test
+    void listen_updateEvent_evictsCachedEntity() {
+        ActivityEvent evt = new ActivityEvent("u1", "UPDATED", "EXPENSE", "exp1", Instant.now());
+
+        consumer.listen(evt, TOPIC);
+
+        verify(enrichment).evict("EXPENSE", "exp1");
+    }
+
+    @Test
+    void listen_statsFailure_doesNotFailTheEvent() {
+        doThrow(new RuntimeException("mongo down")).when(stats).recordAll(anyList());
+
+        consumer.listen(event(EventIds.next()), TOPIC);
+
+        verify(repo).upsertAll(anyList());
+        verify(feed).append(any(ActivityLog.class));
+    }
+
+    @Test
+    void listen_failedSave_isNotRememberedSoRetryStillWrites() {
+        String id = EventIds.next();
+        when(repo.upsertAll(anyList()))
+                .thenThrow(new RuntimeException("mongo down"))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        assertThatThrownBy(() -> consumer.listen(event(id), TOPIC)).isInstanceOf(RuntimeException.class);
+        consumer.listen(event(id), TOPIC);
+
+        verify(repo, times(2)).upsertAll(anyList());
+        verify(feed).retrying("u1");
+    }
+
+    @Test
+    void listen_fromARetryTopic_dropsTheFeedBufferInsteadOfAppending() {
+        when(repo.upsertAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        consumer.listen(event(EventIds.next()), TOPIC + "-retry-0");
+
+        verify(feed).invalidate("u1");
+        verify(feed, never()).append(any(ActivityLog.class));
+    }
+
+    @Test
+    void listen_failedRetry_doesNotRestartTheOwnersWindow() {
+        when(repo.upsertAll(anyList())).thenThrow(new RuntimeException("mongo down"));
+
+        assertThatThrownBy(() -> consumer.listen(event(EventIds.next()), TOPIC + "-retry-1"))
+                .isInstanceOf(RuntimeException.class);
+
+        verify(feed, never()).retrying(anyString());
+    }
+
+    @Test
+    void listen_legacyEventWithoutId_isStillSaved() {
+        consumer.listen(event(null), TOPIC);
+        consumer.listen(event(null), TOPIC);
+
+        verify(repo, times(2)).save(any(ActivityLog.class));
+        verify(stats, times(2)).recordAll(argThat(logs -> logs.size() == 1));
+    }
+
+    @Test
+    void listen_timeSeriesMode_insertsInsteadOfUpserting() {
+        when(storage.isTimeSeries()).thenReturn(true);
+        String id = EventIds.next();
+
+        consumer.listen(event(id), TOPIC);
+        consumer.listen(event(id), TOPIC);
+
+        verify(repo, times(1)).insert(any(ActivityLog.class));
+        verify(repo, never()).save(any(ActivityLog.class));
+        // The write cannot tell a redelivery apart, so the stats claim the id before counting
+        verify(stats, times(1)).recordOnce(argThat(logs -> logs.get(0).getId().equals(id)));
+    }
+
+    @Test
+    void listen_batchEvent_fansOutToOneLogPerEntityInOneBulkWrite() {
+        ActivityEvent evt = ActivityEvent.batch("u1", "CREATED", "BUDGET", List.of("b1", "b2", "b3"), 100, Instant.now()).get(0);
+        evt.setEventId(EventIds.next());
+
+        when(repo.upsertAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        consumer.listen(evt, TOPIC);
+        consumer.listen(evt, TOPIC);
+
+        ArgumentCaptor<List<ActivityLog>> cap = ArgumentCaptor.forClass(List.class);
+        verify(repo, times(1)).upsertAll(cap.capture());
+        assertThat(cap.getValue()).extracting(ActivityLog::getEntityId).containsExactly("b1", "b2", "b3");
+        assertThat(cap.getValue()).extracting(ActivityLog::getId)
+                .containsExactly(EventIds.child(evt.getEventId(), 0), EventIds.child(evt.getEventId(), 1),
+                        EventIds.child(evt.getEventId(), 2));
+        verify(stats).recordAll(cap.getValue());
+        verify(feed, times(3)).append(any(ActivityLog.class));
+        verify(repo, never()).save(any(ActivityLog.class));
+    }
+
+    @Test
+    void eventIds_areUniqueAndObjectIdShaped() {
+        String a = EventIds.next();
+        String b = EventIds.next();
+
+        assertThat(a).hasSize(24).matches("[0-9a-f]{24}");
+        assertThat(a).isNotEqualTo(b);
+        assertThat(ObjectId.isValid(a)).isTrue();
+    }
+
+    @Test
+    void deadLetter_countsRecordsThatNeverDeserialized() {
+        ConsumerRecord<String, byte[]> poison = new ConsumerRecord<>(TOPIC + "-dlt", 0, 7L, "u1",
+                "{not json".getBytes(StandardCharsets.UTF_8));
+        poison.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN,
+                "org.springframework.kafka.support.serializer.DeserializationException".getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> bare = new ConsumerRecord<>(TOPIC + "-dlt", 0, 8L, "u1", null);
+
+        consumer.deadLetter(poison);
+        consumer.deadLetter(bare);
+
+        assertThat(meters.counter("budgetbuddy.activity.dead_letters",
+                "exception", "org.springframework.kafka.support.serializer.DeserializationException").count()).isEqualTo(1.0);
+        assertThat(meters.counter("budgetbuddy.activity.dead_letters", "exception", "none").count()).isEqualTo(1.0);
+        verifyNoInteractions(repo, stats, feed);
+    }
+}
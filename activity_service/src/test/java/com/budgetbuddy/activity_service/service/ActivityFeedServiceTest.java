@@ -0,0 +1,164 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.repository.ActivityLogRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityFeedServiceTest {
+    private static final String TOPIC = "user-activity-logs";
+
+    @Mock
+    private ActivityLogRepository repo;
+
+    @Mock
+    private MongoTemplate mongo;
+
+    private ActivityFeedService feed;
+
+    private final Instant t0 = Instant.parse("2025-03-14T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongo.indexOps(ActivityLog.class)).thenReturn(mock(IndexOperations.class));
+        feed = new ActivityFeedService(repo, mongo, TOPIC, true, 5, 100, 60_000);
+    }
+
+    private ActivityLog log(String id, int minute) {
+        ActivityLog l = new ActivityLog(t0.plusSeconds(minute * 60L), "u1", "CREATED", "EXPENSE", "e" + id);
+        l.setId(id);
+        return l;
+    }
+
+    private void ownAllPartitions() {
+        feed.partitionsAssigned(List.of(new TopicPartition(TOPIC, 0)), 1);
+    }
+
+    @Test
+    void recent_seedsOnceFromMongoThenServesFromMemory() {
+        ownAllPartitions();
+        when(repo.findByUserIdOrderByTimestampDesc(eq("u1"), any(Limit.class)))
+                .thenReturn(List.of(log("b", 2), log("a", 1)));
+
+        feed.recent("u1", 3);
+        feed.append(log("c", 3));
+        List<ActivityLog> out = feed.recent("u1", 3);
+
+        assertThat(out).extracting(ActivityLog::getId).containsExactly("c", "b", "a");
+        verify(repo, times(1)).findByUserIdOrderByTimestampDesc("u1", Limit.of(5));
+    }
+
+    @Test
+    void append_keepsNewestInTimestampOrderAndDropsDuplicates() {
+        ownAllPartitions();
+        when(repo.findByUserIdOrderByTimestampDesc(eq("u1"), any(Limit.class))).thenReturn(List.of());
+        feed.recent("u1", 1);
+
+        IntStream.of(1, 2, 4, 5, 6).forEach(m -> feed.append(log("m" + m, m)));
+        feed.append(log("m3", 3));   // late, shifted into place
+        feed.append(log("m5", 5));   // redelivery
+        feed.append(log("m0", 0));   // older than everything kept
+
+        assertThat(feed.recent("u1", 5)).extracting(ActivityLog::getId)
+                .containsExactly("m6", "m5", "m4", "m3", "m2");
+    }
+
+    @Test
+    void recent_forUnownedPartitionOrLargeLimit_queriesMongo() {
+        when(repo.findByUserIdOrderByTimestampDesc(eq("u1"), any(Limit.class))).thenReturn(List.of());
+
+        feed.recent("u1", 3);          // no partitions assigned
+        ownAllPartitions();
+        feed.recent("u1", 20);         // beyond capacity
+
+        verify(repo).findByUserIdOrderByTimestampDesc("u1", Limit.of(3));
+        verify(repo).findByUserIdOrderByTimestampDesc("u1", Limit.of(20));
+    }
+
+    @Test
+    void partitionsRevoked_dropsBuffersSoNextReadReseeds() {
+        ownAllPartitions();
+        when(repo.findByUserIdOrderByTimestampDesc(eq("u1"), any(Limit.class))).thenReturn(List.of(log("a", 1)));
+        feed.recent("u1", 1);
+
+        feed.partitionsRevoked(List.of(new TopicPartition(TOPIC, 0)));
+        ownAllPartitions();
+        feed.recent("u1", 1);
+
+        verify(repo, times(2)).findByUserIdOrderByTimestampDesc("u1", Limit.of(5));
+    }
+
+    @Test
+    void append_forAUserOwnedElsewhere_keepsNothing() {
+        feed.partitionsAssigned(List.of(new TopicPartition(TOPIC, 0)), 2);
+        String elsewhere = IntStream.range(0, 100).mapToObj(i -> "user" + i)
+                .filter(u -> !feed.owns(u)).findFirst().orElseThrow();
+
+        ActivityLog other = log("b", 2);
+        other.setUserId(elsewhere);
+        feed.append(other);
+
+        // Once its partition moves here, the buffer starts from Mongo alone
+        feed.partitionsAssigned(List.of(new TopicPartition(TOPIC, 1)), 2);
+        when(repo.findByUserIdOrderByTimestampDesc(eq(elsewhere), any(Limit.class))).thenReturn(List.of());
+        assertThat(feed.recent(elsewhere, 3)).isEmpty();
+    }
+
+    @Test
+    void retrying_readsMongoUntilTheWindowPassesThenReseeds() {
+        AtomicReference<Instant> now = new AtomicReference<>(t0);
+        feed = new ActivityFeedService(repo, mongo, TOPIC, true, 5, 100, 60_000, new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        });
+        ownAllPartitions();
+        when(repo.findByUserIdOrderByTimestampDesc(eq("u1"), any(Limit.class)))
+                .thenReturn(List.of(log("a", 1)))
+                .thenReturn(List.of(log("a", 1)))
+                .thenReturn(List.of(log("r", 2), log("a", 1)));
+        feed.recent("u1", 3);
+
+        // The failed event is written from a retry topic on another node; this one never sees it
+        feed.retrying("u1");
+        feed.append(log("c", 3));
+        now.set(t0.plusMillis(59_999));
+        assertThat(feed.recent("u1", 3)).extracting(ActivityLog::getId).containsExactly("a");
+        now.set(t0.plusMillis(60_000));
+
+        assertThat(feed.recent("u1", 3)).extracting(ActivityLog::getId).containsExactly("c", "r", "a");
+        verify(repo).findByUserIdOrderByTimestampDesc("u1", Limit.of(3));
+        verify(repo, times(2)).findByUserIdOrderByTimestampDesc("u1", Limit.of(5));
+    }
+}
@@ -0,0 +1,142 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import com.budgetbuddy.activity_service.model.ActivityStatBucket;
+import com.budgetbuddy.activity_service.service.ActivityStatsService.Granularity;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityStatsServiceTest {
+
+    @Mock
+    private MongoTemplate mongo;
+
+    private ActivityStatsService service;
+
+    private final Instant at = Instant.parse("2025-03-14T15:09:26Z");
+
+    @BeforeEach
+    void setUp() {
+        service = new ActivityStatsService(mongo, 168);
+        lenient().when(mongo.indexOps(ActivityStatBucket.class)).thenReturn(mock(IndexOperations.class));
+        lenient().when(mongo.indexOps(ActivityStatsService.CLAIMS)).thenReturn(mock(IndexOperations.class));
+    }
+
+    @Test
+    void granularity_truncatesToUtcBucketStart() {
+        assertThat(Granularity.HOUR.bucketStart(at)).isEqualTo(Instant.parse("2025-03-14T15:00:00Z"));
+        assertThat(Granularity.DAY.bucketStart(at)).isEqualTo(Instant.parse("2025-03-14T00:00:00Z"));
+        assertThat(Granularity.parse(" day ")).isEqualTo(Granularity.DAY);
+    }
+
+    @Test
+    void record_incrementsHourAndDayBucketsInOneBulkWrite() {
+        BulkOperations ops = mock(BulkOperations.class);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatBucket.class)).thenReturn(ops);
+        ActivityLog log = new ActivityLog(at, "u1", "UPDATED", "EXPENSE", "exp1");
+
+        service.record(log);
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(ops, times(2)).upsert(queries.capture(), any(Update.class));
+        verify(ops).execute();
+        assertThat(queries.getAllValues())
+                .extracting(q -> q.getQueryObject().get("_id"))
+                .containsExactly(
+                        "HOUR|" + Instant.parse("2025-03-14T15:00:00Z").getEpochSecond() + "|u1|EXPENSE|UPDATED",
+                        "DAY|" + Instant.parse("2025-03-14T00:00:00Z").getEpochSecond() + "|u1|EXPENSE|UPDATED");
+    }
+
+    @Test
+    void recordAll_foldsLogsOfTheSameBucketIntoOneIncrement() {
+        BulkOperations ops = mock(BulkOperations.class);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatBucket.class)).thenReturn(ops);
+        List<ActivityLog> logs = List.of(
+                new ActivityLog(at, "u1", "CREATED", "BUDGET", "b1"),
+                new ActivityLog(at, "u1", "CREATED", "BUDGET", "b2"),
+                new ActivityLog(at, "u1", "CREATED", "BUDGET", "b3"));
+
+        service.recordAll(logs);
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(ops, times(2)).upsert(any(Query.class), updates.capture());
+        verify(ops).execute();
+        assertThat(updates.getAllValues())
+                .extracting(u -> u.getUpdateObject().get("$inc", Document.class).get("count"))
+                .containsExactly(3, 3);
+    }
+
+    @Test
+    void recordOnce_countsOnlyLogsWhoseIdWasNotClaimedBefore() {
+        BulkOperations claims = mock(BulkOperations.class);
+        BulkOperations buckets = mock(BulkOperations.class);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatsService.CLAIMS)).thenReturn(claims);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatBucket.class)).thenReturn(buckets);
+        ActivityLog seen = new ActivityLog(at, "u1", "CREATED", "BUDGET", "b1");
+        seen.setId("evt1-0");
+        ActivityLog fresh = new ActivityLog(at, "u1", "DELETED", "BUDGET", "b2");
+        fresh.setId("evt1-1");
+        // The first log was counted before, by this node or another
+        when(claims.execute()).thenThrow(new BulkOperationException("E11000", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of())));
+
+        service.recordOnce(List.of(seen, fresh));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(buckets, times(2)).upsert(queries.capture(), any(Update.class));
+        assertThat(queries.getAllValues()).extracting(q -> (String) q.getQueryObject().get("_id"))
+                .allMatch(id -> id.endsWith("|DELETED"));
+    }
+
+    @Test
+    void recordOnce_otherWriteErrorsAreNotMistakenForClaims() {
+        BulkOperations claims = mock(BulkOperations.class);
+        when(mongo.bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatsService.CLAIMS)).thenReturn(claims);
+        ActivityLog log = new ActivityLog(at, "u1", "CREATED", "BUDGET", "b1");
+        log.setId("evt1");
+        when(claims.execute()).thenThrow(new BulkOperationException("failed", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(121, "validation failed", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of())));
+
+        assertThatThrownBy(() -> service.recordOnce(List.of(log))).isInstanceOf(BulkOperationException.class);
+        verify(mongo, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, ActivityStatBucket.class);
+    }
+
+    @Test
+    void query_rejectsEmptyWindowAndUnknownGroupField() {
+        assertThatThrownBy(() -> service.query(Granularity.DAY, at, at, null, null, null, List.of(), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.query(Granularity.DAY, at, at.plusSeconds(60), null, null, null,
+                List.of("entityId"), 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("entityId");
+        verifyNoMoreInteractions(mongo);
+    }
+}
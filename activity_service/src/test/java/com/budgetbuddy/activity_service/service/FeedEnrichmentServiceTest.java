@@ -0,0 +1,92 @@
+package com.budgetbuddy.activity_service.service;
+
+import com.budgetbuddy.activity_service.client.EntityClient;
+import com.budgetbuddy.activity_service.model.ActivityFeedItem;
+import com.budgetbuddy.activity_service.model.ActivityLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedEnrichmentServiceTest {
+    private static final String TOKEN = "Bearer t1";
+
+    @Mock
+    private EntityClient client;
+
+    private FeedEnrichmentService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new FeedEnrichmentService(client, 100, 60_000);
+        lenient().when(client.supports(anyString())).thenAnswer(inv ->
+                Set.of("EXPENSE", "INCOME", "BUDGET").contains(inv.<String>getArgument(0)));
+    }
+
+    private ActivityLog log(String action, String type, String id) {
+        return new ActivityLog(Instant.now(), "u1", action, type, id);
+    }
+
+    @Test
+    void enrich_makesOneBatchCallPerTypeAndSummarizes() {
+        when(client.batchGet(eq("EXPENSE"), any(), eq(TOKEN))).thenReturn(List.of(
+                Map.of("id", "e1", "amount", 42.0, "description", "Groceries"),
+                Map.of("id", "e2", "amount", 5.5, "description", "Coffee")));
+        when(client.batchGet(eq("INCOME"), any(), eq(TOKEN))).thenReturn(List.of(
+                Map.of("id", "i1", "amount", 1000, "source", "Salary")));
+
+        List<ActivityFeedItem> items = service.enrich(List.of(
+                log("CREATED", "EXPENSE", "e1"),
+                log("UPDATED", "EXPENSE", "e2"),
+                log("CREATED", "EXPENSE", "e1"),
+                log("CREATED", "INCOME", "i1"),
+                log("DELETED", "BUDGET", "b1")), TOKEN);
+
+        assertThat(items).extracting(ActivityFeedItem::summary).containsExactly(
+                "Added $42.00 Groceries",
+                "Updated $5.50 Coffee",
+                "Added $42.00 Groceries",
+                "Added $1,000.00 income from Salary",
+                "Deleted budget");
+        verify(client).batchGet(eq("EXPENSE"), eq(Set.of("e1", "e2")), eq(TOKEN));
+        verify(client).batchGet(eq("INCOME"), eq(Set.of("i1")), eq(TOKEN));
+        verify(client, never()).batchGet(eq("BUDGET"), any(), any());
+    }
+
+    @Test
+    void enrich_servesRepeatsFromCacheUntilEvicted() {
+        when(client.batchGet(eq("EXPENSE"), any(), eq(TOKEN)))
+                .thenReturn(List.of(Map.of("id", "e1", "amount", 1.0, "description", "A")));
+
+        service.enrich(List.of(log("CREATED", "EXPENSE", "e1")), TOKEN);
+        service.enrich(List.of(log("CREATED", "EXPENSE", "e1")), TOKEN);
+        service.evict("EXPENSE", "e1");
+        service.enrich(List.of(log("CREATED", "EXPENSE", "e1")), TOKEN);
+
+        verify(client, times(2)).batchGet(eq("EXPENSE"), any(), eq(TOKEN));
+    }
+
+    @Test
+    void enrich_failedTypeOrMissingToken_fallsBackToPlainSummary() {
+        when(client.batchGet(eq("EXPENSE"), any(), eq(TOKEN))).thenThrow(new RuntimeException("down"));
+
+        List<ActivityFeedItem> failed = service.enrich(List.of(log("CREATED", "EXPENSE", "e1")), TOKEN);
+        List<ActivityFeedItem> anonymous = service.enrich(List.of(log("CREATED", "EXPENSE", "e1")), null);
+
+        assertThat(failed.get(0).summary()).isEqualTo("Added expense");
+        assertThat(failed.get(0).entity()).isNull();
+        assertThat(anonymous.get(0).summary()).isEqualTo("Added expense");
+        verify(client, times(1)).batchGet(any(), any(), any());
+    }
+}
@@ -20,17 +20,26 @@ public class BudgetClient {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private Upstreams upstreams;
+
     public List<Budget> getBudgets(String userId) {
-        String url = "http://localhost:8084/budgets";
+        return budgetService().call(baseUrl -> {
+            String url = baseUrl + "/budgets";
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + getAuthToken());
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + getAuthToken());
 
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<Budget[]> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, Budget[].class);
+            HttpEntity<String> entity = new HttpEntity<>(headers);
+            ResponseEntity<Budget[]> response = restTemplate.exchange(
+                    url, HttpMethod.GET, entity, Budget[].class);
+
+            return Arrays.asList(response.getBody());
+        });
+    }
 
-        return Arrays.asList(response.getBody());
+    private Upstream budgetService() {
+        return upstreams.get("budget-service", "http://localhost:8084");
     }
 
     private String getAuthToken() {
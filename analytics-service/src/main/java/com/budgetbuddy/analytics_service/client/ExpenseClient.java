@@ -2,36 +2,147 @@ package com.budgetbuddy.analytics_service.client;
 
 
 import com.budgetbuddy.analytics_service.model.Expense;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 @Service
 public class ExpenseClient {
+    private static final JsonFactory JSON = new JsonFactory();
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private Upstreams upstreams;
+
     public List<Expense> getExpenses(String userId) {
-        String url = "http://localhost:8082/expenses";
+        return expenseService().call(baseUrl -> {
+            String url = baseUrl + "/expenses";
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + getAuthToken());
+
+            HttpEntity<String> entity = new HttpEntity<>(headers);
+            ResponseEntity<Expense[]> response = restTemplate.exchange(
+                    url, HttpMethod.GET, entity, Expense[].class);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + getAuthToken());
+            return Arrays.asList(response.getBody());
+        });
+    }
+
+    /**
+     * Spend per category, folded up while the response is parsed: no Expense objects are
+     * built, so memory does not grow with the user's history. Only expenses in
+     * {@code monthYear} (UTC, as {@link com.budgetbuddy.analytics_service.service.AnalyticsService#summarize}
+     * filters) count; null or empty counts all of them.
+     */
+    public Map<String, Double> getSpentByCategory(String userId, String monthYear) {
+        return expenseService().call(baseUrl -> {
+            String url = baseUrl + "/expenses";
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().set("Authorization", "Bearer " + getAuthToken());
+                        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    },
+                    response -> spentByCategory(response.getBody(), monthYear));
+        });
+    }
 
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<Expense[]> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, Expense[].class);
+    static Map<String, Double> spentByCategory(InputStream body, String monthYear) throws IOException {
+        boolean allMonths = monthYear == null || monthYear.isEmpty();
+        Map<String, Double> spent = new HashMap<>();
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of expenses");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String category = null;
+                double amount = 0;
+                String month = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (field) {
+                        case "category" -> category = parser.getValueAsString();
+                        case "amount" -> amount = parser.getValueAsDouble();
+                        case "date" -> month = allMonths || value == JsonToken.VALUE_NULL ? null : utcMonth(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+                if (allMonths || monthYear.equals(month)) {
+                    spent.merge(category, amount, Double::sum);
+                }
+            }
+        }
+        return spent;
+    }
+
+    // Dates arrive as ISO-8601 text with an offset, or as epoch millis
+    private static String utcMonth(JsonParser parser) throws IOException {
+        Instant instant;
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            instant = Instant.ofEpochMilli(parser.getLongValue());
+        } else {
+            try {
+                instant = new StdDateFormat().parse(parser.getText()).toInstant();
+            } catch (ParseException e) {
+                throw new JsonParseException(parser, "Unreadable expense date " + parser.getText(), e);
+            }
+        }
+        return YearMonth.from(instant.atZone(ZoneOffset.UTC)).toString();
+    }
+
+    /**
+     * Only the records dated between {@code start} and {@code end}. The service parses the
+     * dates in its own time zone and excludes both ends, so the range is widened by two days
+     * each way; callers still filter by exact date.
+     */
+    public List<Expense> getExpenses(String userId, LocalDate start, LocalDate end) {
+        return expenseService().call(baseUrl -> {
+            String url = UriComponentsBuilder.fromUriString(baseUrl + "/expenses")
+                    .queryParam("startDate", start.minusDays(2))
+                    .queryParam("endDate", end.plusDays(2))
+                    .toUriString();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + getAuthToken());
+
+            HttpEntity<String> entity = new HttpEntity<>(headers);
+            ResponseEntity<Expense[]> response = restTemplate.exchange(
+                    url, HttpMethod.GET, entity, Expense[].class);
+
+            return Arrays.asList(response.getBody());
+        });
+    }
 
-        return Arrays.asList(response.getBody());
+    private Upstream expenseService() {
+        return upstreams.get("expense-service", "http://localhost:8082");
     }
 
     private String getAuthToken() {
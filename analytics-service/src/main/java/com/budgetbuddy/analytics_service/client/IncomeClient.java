@@ -1,34 +1,113 @@
 package com.budgetbuddy.analytics_service.client;
 
 import com.budgetbuddy.analytics_service.model.Income;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.List;
 
 @Service
 public class IncomeClient {
+    private static final JsonFactory JSON = new JsonFactory();
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private Upstreams upstreams;
+
+    /**
+     * Sums the amounts as the response is parsed, so no Income objects are built and memory
+     * does not grow with the number of records.
+     */
     public double getTotalIncome(String userId) {
-        String url = "http://localhost:8083/income";
+        Double total = incomeService().call(baseUrl -> restTemplate.execute(baseUrl + "/income", HttpMethod.GET,
+                request -> {
+                    request.getHeaders().set("Authorization", "Bearer " + getAuthToken());
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                },
+                response -> sumAmounts(response.getBody())));
+        return total == null ? 0 : total;
+    }
+
+    // [{"amount": 12.5, ...}, ...] -> the sum of the top-level amounts
+    static double sumAmounts(InputStream body) throws IOException {
+        double total = 0;
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Expected an array of income");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("amount".equals(field)) {
+                        total += parser.getValueAsDouble();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    public List<Income> getIncome(String userId) {
+        return incomeService().call(baseUrl -> {
+            String url = baseUrl + "/income";
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + getAuthToken());
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("Authorization", "Bearer " + getAuthToken());
+            HttpEntity<String> entity = new HttpEntity<>(headers);
+            ResponseEntity<Income[]> response = restTemplate.exchange(
+                    url, HttpMethod.GET, entity, Income[].class);
 
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-        ResponseEntity<Income[]> response = restTemplate.exchange(
-                url, HttpMethod.GET, entity, Income[].class);
+            return Arrays.asList(response.getBody());
+        });
+    }
+
+    /**
+     * Only the records dated between {@code start} and {@code end}. The service parses the
+     * dates in its own time zone and excludes both ends, so the range is widened by two days
+     * each way; callers still filter by exact date.
+     */
+    public List<Income> getIncome(String userId, LocalDate start, LocalDate end) {
+        return incomeService().call(baseUrl -> {
+            String url = UriComponentsBuilder.fromUriString(baseUrl + "/income")
+                    .queryParam("startDate", start.minusDays(2))
+                    .queryParam("endDate", end.plusDays(2))
+                    .toUriString();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Bearer " + getAuthToken());
+
+            HttpEntity<String> entity = new HttpEntity<>(headers);
+            ResponseEntity<Income[]> response = restTemplate.exchange(
+                    url, HttpMethod.GET, entity, Income[].class);
+
+            return Arrays.asList(response.getBody());
+        });
+    }
 
-        return Arrays.stream(response.getBody()).mapToDouble(Income::getAmount).sum();
+    private Upstream incomeService() {
+        return upstreams.get("income-service", "http://localhost:8083");
     }
 
     private String getAuthToken() {
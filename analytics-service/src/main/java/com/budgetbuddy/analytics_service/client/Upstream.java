@@ -0,0 +1,277 @@
+package com.budgetbuddy.analytics_service.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * The instances of one downstream service, and which of them a call goes to.
+ *
+ * <p>Each call goes to the instance with the fewest calls in progress from this instance
+ * (least outstanding requests), so a slow or overloaded instance is sent less as its calls
+ * pile up. An instance that fails {@code eject-after-failures} times in a row (no answer, or
+ * a 5xx) is left out for {@code eject-ms}, doubling each time it is ejected again; if every
+ * instance is ejected, calls go to all of them rather than none.
+ *
+ * <p>When a call has not answered after {@code hedge-after-ms}, the same call is sent to a
+ * second instance and whichever answers first is used; the other is cancelled. Only the
+ * GETs the clients make are called this way, so sending one twice is harmless. Hedges are
+ * capped at {@code hedge-budget-percent} of calls, so an instance that is slow for
+ * everyone does not double the load on the rest.
+ */
+public class Upstream {
+    private static final Logger LOG = LoggerFactory.getLogger(Upstream.class);
+
+    /** One instance of the service and what this instance knows about it. */
+    static final class Instance {
+        final String baseUrl;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        volatile long ejectedUntil;
+        volatile int ejections;
+
+        Instance(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        boolean available(long now) {
+            return ejectedUntil <= now;
+        }
+    }
+
+    private final String name;
+    private final UpstreamOptions options;
+    private final ExecutorService executor;
+    private final LongSupplier clock;
+    private final IntUnaryOperator random;      // bound -> a number in [0, bound), for tie-breaks
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final Counter hedgesSent;
+    private final Counter ejected;
+    private volatile List<Instance> instances = List.of();
+
+    Upstream(String name, List<String> baseUrls, UpstreamOptions options, ExecutorService executor,
+             MeterRegistry meterRegistry, LongSupplier clock) {
+        this(name, baseUrls, options, executor, meterRegistry, clock, bound -> ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    Upstream(String name, List<String> baseUrls, UpstreamOptions options, ExecutorService executor,
+             MeterRegistry meterRegistry, LongSupplier clock, IntUnaryOperator random) {
+        this.name = name;
+        this.options = options;
+        this.executor = executor;
+        this.clock = clock;
+        this.random = random;
+        this.hedgesSent = Counter.builder("budgetbuddy.upstream.hedges")
+                .description("Calls also sent to a second instance because the first was slow")
+                .tag("service", name)
+                .register(meterRegistry);
+        this.ejected = Counter.builder("budgetbuddy.upstream.ejections")
+                .description("Instances left out after consecutive failures")
+                .tag("service", name)
+                .register(meterRegistry);
+        Gauge.builder("budgetbuddy.upstream.available", this, u -> u.available().size())
+                .description("Instances of the service not currently ejected")
+                .tag("service", name)
+                .register(meterRegistry);
+        setInstances(baseUrls);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Replaces the instance list. Instances that stay keep their outstanding count and
+     * ejection, so a reload does not reset them.
+     */
+    public void setInstances(List<String> baseUrls) {
+        Map<String, Instance> current = instances.stream().collect(Collectors.toMap(i -> i.baseUrl, i -> i));
+        List<Instance> next = new ArrayList<>();
+        for (String url : baseUrls) {
+            String baseUrl = url.trim().replaceAll("/+$", "");
+            if (!baseUrl.isEmpty() && next.stream().noneMatch(i -> i.baseUrl.equals(baseUrl))) {
+                next.add(current.getOrDefault(baseUrl, new Instance(baseUrl)));
+            }
+        }
+        if (next.isEmpty()) {
+            throw new IllegalArgumentException("No instances for " + name);
+        }
+        if (!next.stream().map(i -> i.baseUrl).toList().equals(instances.stream().map(i -> i.baseUrl).toList())) {
+            LOG.info("Instances of {}: {}", name, next.stream().map(i -> i.baseUrl).toList());
+        }
+        instances = List.copyOf(next);
+    }
+
+    /** The base URLs of the instances not currently ejected, in listed order. */
+    public List<String> availableBaseUrls() {
+        return available().stream().map(i -> i.baseUrl).toList();
+    }
+
+    List<Instance> instances() {
+        return instances;
+    }
+
+    List<Instance> available() {
+        long now = clock.getAsLong();
+        return instances.stream().filter(i -> i.available(now)).toList();
+    }
+
+    /**
+     * Runs {@code call} against an instance's base URL, e.g. {@code http://host:8082}, and
+     * returns its result or throws its exception.
+     */
+    public <T> T call(Function<String, T> call) {
+        calls.incrementAndGet();
+        Instance first = choose(null);
+        if (options.getHedgeAfterMs() <= 0 || instances.size() < 2) {
+            return attempt(first, call, null);
+        }
+
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger sent = new AtomicInteger(1);
+        AtomicInteger failed = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>(2);
+        attempts.add(executor.submit(() -> race(first, call, winner, sent, failed)));
+        try {
+            try {
+                return winner.get(options.getHedgeAfterMs(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException slow) {
+                Instance second = hedgeAllowed() ? choose(first) : null;
+                if (second != null) {
+                    hedgesSent.increment();
+                    sent.incrementAndGet();
+                    attempts.add(executor.submit(() -> race(second, call, winner, sent, failed)));
+                }
+                return winner.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted calling " + name);
+        } finally {
+            attempts.forEach(a -> a.cancel(true));
+        }
+    }
+
+    /**
+     * Runs {@code call} against one particular instance, for callers that must reach that
+     * one, with its outcome counted towards the instance's ejection like any other call.
+     */
+    public <T> T callOn(String baseUrl, Function<String, T> call) {
+        Instance instance = instances.stream().filter(i -> i.baseUrl.equals(baseUrl)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(baseUrl + " is not an instance of " + name));
+        return attempt(instance, call, null);
+    }
+
+    // The first answer wins; the call only fails once every attempt sent so far has failed
+    private <T> void race(Instance instance, Function<String, T> call, CompletableFuture<T> winner,
+                          AtomicInteger sent, AtomicInteger failed) {
+        try {
+            winner.complete(attempt(instance, call, winner));
+        } catch (RuntimeException e) {
+            if (failed.incrementAndGet() >= sent.get()) {
+                winner.completeExceptionally(e);
+            }
+        }
+    }
+
+    private <T> T attempt(Instance instance, Function<String, T> call, CompletableFuture<T> winner) {
+        instance.outstanding.incrementAndGet();
+        try {
+            T result = call.apply(instance.baseUrl);
+            instance.consecutiveFailures.set(0);
+            instance.ejections = 0;
+            instance.ejectedUntil = 0;
+            return result;
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // An attempt cancelled because the other one answered first is not the instance's fault
+            if (winner == null || !winner.isDone()) {
+                failed(instance);
+            }
+            throw e;
+        } finally {
+            instance.outstanding.decrementAndGet();
+        }
+    }
+
+    private void failed(Instance instance) {
+        if (instance.consecutiveFailures.incrementAndGet() < options.getEjectAfterFailures()) {
+            return;
+        }
+        synchronized (instance) {
+            long now = clock.getAsLong();
+            if (!instance.available(now)) {
+                return;
+            }
+            instance.consecutiveFailures.set(0);
+            int times = Math.min(instance.ejections++, 6);
+            instance.ejectedUntil = now + (options.getEjectMs() << times);
+        }
+        ejected.increment();
+        LOG.warn("Ejected {} instance {} for {} ms", name, instance.baseUrl, instance.ejectedUntil - clock.getAsLong());
+    }
+
+    private boolean hedgeAllowed() {
+        if ((hedges.get() + 1) * 100 > options.getHedgeBudgetPercent() * calls.get()) {
+            return false;
+        }
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * The available instance, other than {@code exclude}, with the fewest calls in
+     * progress; ties go to a random one of them. Null if only {@code exclude} is available.
+     */
+    Instance choose(Instance exclude) {
+        List<Instance> all = instances;
+        long now = clock.getAsLong();
+        Instance best = null;
+        int ties = 0;
+        for (int pass = 0; pass < 2 && best == null; pass++) {
+            for (Instance i : all) {
+                // Second pass: everything is ejected, so try them anyway
+                if (i == exclude || (pass == 0 && !i.available(now))) {
+                    continue;
+                }
+                int load = i.outstanding.get();
+                if (best == null || load < best.outstanding.get()) {
+                    best = i;
+                    ties = 1;
+                } else if (load == best.outstanding.get() && random.applyAsInt(++ties) == 0) {
+                    best = i;
+                }
+            }
+            if (exclude != null) {
+                break;      // a hedge is only worth sending to an available instance
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,85 @@
+package com.budgetbuddy.analytics_service.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class UpstreamOptions {
+    private long hedgeAfterMs = 0;             // 0 = never hedge
+    private int hedgeBudgetPercent = 10;       // hedges as a share of calls, per service
+    private int ejectAfterFailures = 3;        // consecutive
+    private long ejectMs = 10_000;             // doubled for each ejection in a row, up to 64x
+    private long refreshMs = 2_000;            // how often instance files are checked for changes
+    private Map<String, Service> services = new HashMap<>();
+
+    /** Where the instances of one service are listed. */
+    public static class Service {
+        private List<String> instances = new ArrayList<>();
+        private String file;                   // one base URL per line; replaces instances when set
+
+        public List<String> getInstances() {
+            return instances;
+        }
+
+        public void setInstances(List<String> instances) {
+            this.instances = instances;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+
+    public long getHedgeAfterMs() {
+        return hedgeAfterMs;
+    }
+
+    public void setHedgeAfterMs(long hedgeAfterMs) {
+        this.hedgeAfterMs = hedgeAfterMs;
+    }
+
+    public int getHedgeBudgetPercent() {
+        return hedgeBudgetPercent;
+    }
+
+    public void setHedgeBudgetPercent(int hedgeBudgetPercent) {
+        this.hedgeBudgetPercent = hedgeBudgetPercent;
+    }
+
+    public int getEjectAfterFailures() {
+        return ejectAfterFailures;
+    }
+
+    public void setEjectAfterFailures(int ejectAfterFailures) {
+        this.ejectAfterFailures = ejectAfterFailures;
+    }
+
+    public long getEjectMs() {
+        return ejectMs;
+    }
+
+    public void setEjectMs(long ejectMs) {
+        this.ejectMs = ejectMs;
+    }
+
+    public long getRefreshMs() {
+        return refreshMs;
+    }
+
+    public void setRefreshMs(long refreshMs) {
+        this.refreshMs = refreshMs;
+    }
+
+    public Map<String, Service> getServices() {
+        return services;
+    }
+
+    public void setServices(Map<String, Service> services) {
+        this.services = services;
+    }
+}
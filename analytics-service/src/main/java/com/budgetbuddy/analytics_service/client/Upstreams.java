@@ -0,0 +1,110 @@
+package com.budgetbuddy.analytics_service.client;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link Upstream} of each downstream service, by name. A service's instances come from
+ * {@code budgetbuddy.upstreams.services.<name>.instances}, or from the file named by
+ * {@code .file}, which is re-read whenever it changes, so instances can be added and
+ * removed without a restart. A service with neither goes to the client's default address.
+ */
+public class Upstreams implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(Upstreams.class);
+
+    private final UpstreamOptions options;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Upstream> upstreams = new ConcurrentHashMap<>();
+    private final Map<String, FileTime> fileVersions = new ConcurrentHashMap<>();
+    // Hedged calls run here, carrying the caller's security context and trace
+    private final ExecutorService executor = new DelegatingSecurityContextExecutorService(
+            ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(),
+                    ContextSnapshotFactory.builder().build()));
+    private final ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "upstream-files");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public Upstreams(UpstreamOptions options, MeterRegistry meterRegistry) {
+        this.options = options;
+        this.meterRegistry = meterRegistry;
+        if (options.getServices().values().stream().anyMatch(s -> s.getFile() != null)) {
+            watcher.scheduleWithFixedDelay(this::reloadFiles, options.getRefreshMs(), options.getRefreshMs(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** The upstream for {@code service}, going to {@code defaultBaseUrl} unless configured otherwise. */
+    public Upstream get(String service, String defaultBaseUrl) {
+        return upstreams.computeIfAbsent(service, name -> {
+            UpstreamOptions.Service configured = options.getServices().get(name);
+            List<String> baseUrls = List.of(defaultBaseUrl);
+            if (configured != null && configured.getFile() != null) {
+                List<String> listed = read(name, Path.of(configured.getFile()));
+                baseUrls = listed == null || listed.isEmpty() ? baseUrls : listed;
+            } else if (configured != null && !configured.getInstances().isEmpty()) {
+                baseUrls = configured.getInstances();
+            }
+            return new Upstream(name, baseUrls, options, executor, meterRegistry, System::currentTimeMillis);
+        });
+    }
+
+    void reloadFiles() {
+        options.getServices().forEach((name, service) -> {
+            Upstream upstream = upstreams.get(name);
+            if (upstream == null || service.getFile() == null) {
+                return;
+            }
+            List<String> listed = read(name, Path.of(service.getFile()));
+            if (listed == null) {
+                return;
+            }
+            if (listed.isEmpty()) {
+                // More likely a half-written file than a service with no instances
+                LOG.warn("{} lists no instances of {}; keeping the current ones", service.getFile(), name);
+                return;
+            }
+            upstream.setInstances(listed);
+        });
+    }
+
+    // The non-blank, non-comment lines, or null if the file is unchanged since the last read or unreadable
+    private List<String> read(String name, Path file) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(fileVersions.put(name, modified))) {
+                return null;
+            }
+            return Files.readAllLines(file).stream()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException e) {
+            LOG.warn("Could not read the instances of {} from {}: {}", name, file, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        watcher.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,127 @@
+package com.budgetbuddy.analytics_service.config;
+
+import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import com.budgetbuddy.cache.CacheCodec;
+import com.budgetbuddy.cache.CacheObserver;
+import com.budgetbuddy.cache.CacheOptions;
+import com.budgetbuddy.cache.EmbeddedRespServer;
+import com.budgetbuddy.cache.RemoteTier;
+import com.budgetbuddy.cache.RespClient;
+import com.budgetbuddy.cache.TieredCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches /analytics/summary responses per user in a {@link TieredCache}: in this JVM, and
+ * with budgetbuddy.cache.remote.enabled also in a Redis-protocol store every instance
+ * shares. Entries of a user are dropped when their activity events arrive, see
+ * CacheInvalidationListener.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "budgetbuddy.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "budgetbuddy.cache")
+    public CacheOptions cacheOptions() {
+        return new CacheOptions();
+    }
+
+    /** An in-memory stand-in for Redis, for tests and local runs without one. */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "budgetbuddy.cache.remote", name = "embedded", havingValue = "true")
+    public EmbeddedRespServer embeddedRespServer(@Value("${budgetbuddy.cache.remote.port:6379}") int port) throws IOException {
+        return new EmbeddedRespServer(port);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "budgetbuddy.cache.remote", name = "enabled", havingValue = "true")
+    public RemoteTier remoteTier(ObjectProvider<EmbeddedRespServer> embedded,
+                                 @Value("${budgetbuddy.cache.remote.host:localhost}") String host,
+                                 @Value("${budgetbuddy.cache.remote.port:6379}") int port,
+                                 @Value("${budgetbuddy.cache.remote.timeout-ms:200}") int timeoutMs,
+                                 @Value("${budgetbuddy.cache.remote.max-idle:16}") int maxIdle) {
+        EmbeddedRespServer server = embedded.getIfAvailable();
+        return server != null
+                ? new RespClient("127.0.0.1", server.getPort(), timeoutMs, maxIdle)
+                : new RespClient(host, port, timeoutMs, maxIdle);
+    }
+
+    @Bean
+    public CacheObserver cacheObserver(MeterRegistry registry) {
+        return new CacheObserver() {
+            @Override
+            public void lookup(String cache, String result) {
+                registry.counter("budgetbuddy.cache.lookups", "cache", cache, "result", result).increment();
+            }
+
+            @Override
+            public void loaded(String cache, long nanos) {
+                Timer.builder("budgetbuddy.cache.loads")
+                        .description("Time to load a value the cache did not have")
+                        .tag("cache", cache)
+                        .register(registry)
+                        .record(nanos, TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void invalidated(String cache) {
+                registry.counter("budgetbuddy.cache.invalidations", "cache", cache).increment();
+            }
+
+            @Override
+            public void remoteFailed(String cache, RuntimeException e) {
+                registry.counter("budgetbuddy.cache.remote.failures", "cache", cache).increment();
+            }
+        };
+    }
+
+    @Bean
+    public TieredCache<AnalyticsResponse> summaryCache(CacheOptions options,
+                                                       ObjectProvider<RemoteTier> remoteTier,
+                                                       CacheObserver observer,
+                                                       ObjectMapper objectMapper,
+                                                       MeterRegistry registry) {
+        TieredCache<AnalyticsResponse> cache = new TieredCache<>("summary", options,
+                json(objectMapper, AnalyticsResponse.class), remoteTier.getIfAvailable(), observer);
+        Gauge.builder("budgetbuddy.cache.near.size", cache, TieredCache::nearSize)
+                .description("Entries held in this instance")
+                .tag("cache", cache.getName())
+                .register(registry);
+        return cache;
+    }
+
+    private static <V> CacheCodec<V> json(ObjectMapper objectMapper, Class<V> type) {
+        return new CacheCodec<>() {
+            @Override
+            public byte[] encode(V value) {
+                try {
+                    return objectMapper.writeValueAsBytes(value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public V decode(byte[] bytes) {
+                try {
+                    return objectMapper.readValue(bytes, type);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.budgetbuddy.analytics_service.config;
+
+import com.budgetbuddy.analytics_service.client.UpstreamOptions;
+import com.budgetbuddy.analytics_service.client.Upstreams;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Where the expense, income and budget clients send their calls: any number of instances
+ * per service, listed under budgetbuddy.upstreams.services, balanced by least outstanding
+ * requests with failing instances ejected and slow calls hedged.
+ */
+@Configuration
+public class UpstreamConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "budgetbuddy.upstreams")
+    public UpstreamOptions upstreamOptions() {
+        return new UpstreamOptions();
+    }
+
+    @Bean(destroyMethod = "close")
+    public Upstreams upstreams(UpstreamOptions options, MeterRegistry meterRegistry) {
+        return new Upstreams(options, meterRegistry);
+    }
+}
@@ -0,0 +1,181 @@
+package com.budgetbuddy.analytics_service.config;
+
+import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import com.budgetbuddy.analytics_service.model.Budget;
+import com.budgetbuddy.analytics_service.model.Expense;
+import com.budgetbuddy.analytics_service.model.Income;
+import com.budgetbuddy.analytics_service.routing.UserRouter;
+import com.budgetbuddy.analytics_service.security.JwtUtil;
+import com.budgetbuddy.analytics_service.service.AnalyticsService;
+import com.budgetbuddy.analytics_service.service.DirectAnalyticsEngine;
+import com.budgetbuddy.cache.TieredCache;
+import com.budgetbuddy.warmup.WarmUp;
+import com.budgetbuddy.warmup.WarmUpObserver;
+import com.budgetbuddy.warmup.WarmUpOptions;
+import com.budgetbuddy.warmup.WarmUpReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the hot paths before the service reports ready: Jackson on the models the clients
+ * read and the responses, JWT validation, the summary aggregation over synthetic data, the
+ * direct engine's Mongo pipeline, and GET /analytics/summary and /analytics/dashboard
+ * through this instance's own port. The dashboard goes through the clients to the other
+ * services, so it warms their connections too; if they are not up yet that step is
+ * abandoned. All of it is for a synthetic user with no data, marked as already routed so
+ * it is served here, and its cached summaries are dropped afterwards.
+ *
+ * <p>Runners finish before ApplicationReadyEvent, so /actuator/health/readiness reports
+ * OUT_OF_SERVICE until warm-up is done, and budgetbuddy.warmup.duration records how long
+ * that was.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "budgetbuddy.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpConfig {
+    static final String USER = "budgetbuddy-warmup";
+    private static final String[] CATEGORIES = {"Food", "Rent", "Travel", "Utilities"};
+
+    @Bean
+    @ConfigurationProperties(prefix = "budgetbuddy.warmup")
+    public WarmUpOptions warmUpOptions() {
+        return new WarmUpOptions();
+    }
+
+    @Bean
+    public ApplicationRunner warmUpRunner(ApplicationContext context,
+                                          WarmUpOptions options,
+                                          ObjectMapper objectMapper,
+                                          JwtUtil jwtUtil,
+                                          AnalyticsService analyticsService,
+                                          DirectAnalyticsEngine directEngine,
+                                          ObjectProvider<TieredCache<AnalyticsResponse>> summaryCache,
+                                          MeterRegistry registry,
+                                          @Value("${jwt.secret}") String secret) {
+        return args -> {
+            // Only a server about to take traffic needs it; mock-environment tests have none
+            if (!(context instanceof WebServerApplicationContext server) || server.getWebServer() == null) {
+                return;
+            }
+            String token = token(secret, options);
+            YearMonth month = YearMonth.now(ZoneOffset.UTC);
+            List<Expense> expenses = expenses(month);
+            List<Budget> budgets = budgets(month);
+            List<Income> income = income(month);
+            String base = "http://localhost:" + server.getWebServer().getPort() + "/analytics";
+            Map<String, String> headers = Map.of(
+                    "Authorization", "Bearer " + token,
+                    UserRouter.ROUTED_BY, "warmup");
+            HttpClient http = HttpClient.newHttpClient();
+
+            try {
+                new WarmUp(options, metrics(registry))
+                        .step("json", i -> {
+                            objectMapper.readValue(objectMapper.writeValueAsBytes(expenses), Expense[].class);
+                            objectMapper.readValue(objectMapper.writeValueAsBytes(budgets), Budget[].class);
+                            objectMapper.readValue(objectMapper.writeValueAsBytes(income), Income[].class);
+                        })
+                        .step("jwt", i -> jwtUtil.extractUserId(token))
+                        .step("aggregation", i -> objectMapper.writeValueAsBytes(
+                                analyticsService.summarize(expenses, budgets, 12_000, month.toString())))
+                        .step("repository", i -> directEngine.getUserAnalytics(USER, month.toString()))
+                        .step("http-summary", WarmUp.httpGet(http,
+                                URI.create(base + "/summary?engine=" + AnalyticsService.DIRECT_ENGINE + "&monthYear=" + month), headers))
+                        .step("http-dashboard", WarmUp.httpGet(http,
+                                URI.create(base + "/dashboard?monthYear=" + month), headers))
+                        .run();
+            } finally {
+                summaryCache.ifAvailable(cache -> cache.invalidate(USER));
+            }
+        };
+    }
+
+    static String token(String secret, WarmUpOptions options) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(USER)
+                .claim("id", USER)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusMillis(options.getMaxDurationMs() + 60_000)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    static List<Expense> expenses(YearMonth month) {
+        List<Expense> expenses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Expense e = new Expense();
+            e.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            e.setAmount(10.0 + i);
+            e.setDate(Date.from(month.atDay(1 + i % 28).atStartOfDay(ZoneOffset.UTC).toInstant()));
+            expenses.add(e);
+        }
+        return expenses;
+    }
+
+    static List<Budget> budgets(YearMonth month) {
+        List<Budget> budgets = new ArrayList<>();
+        for (String category : CATEGORIES) {
+            Budget b = new Budget();
+            b.setCategory(category);
+            b.setLimitAmount(100.0);
+            b.setMonthYear(month.toString());
+            budgets.add(b);
+        }
+        return budgets;
+    }
+
+    static List<Income> income(YearMonth month) {
+        Income i = new Income();
+        i.setAmount(12_000);
+        i.setDate(Date.from(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        return List.of(i);
+    }
+
+    static WarmUpObserver metrics(MeterRegistry registry) {
+        return new WarmUpObserver() {
+            @Override
+            public void stepFinished(WarmUpReport.Step step) {
+                Timer.builder("budgetbuddy.warmup.step.duration")
+                        .description("Time each startup warm-up step took")
+                        .tag("step", step.name())
+                        .tag("outcome", step.outcome().name().toLowerCase(Locale.ROOT))
+                        .register(registry)
+                        .record(step.elapsedNanos(), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void finished(WarmUpReport report) {
+                Timer.builder("budgetbuddy.warmup.duration")
+                        .description("Time from the start of warm-up until the service could report ready")
+                        .tag("outcome", report.completed() ? "completed" : "incomplete")
+                        .register(registry)
+                        .record(report.elapsedNanos(), TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -2,7 +2,12 @@ package com.budgetbuddy.analytics_service.controller;
 
 
 import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import com.budgetbuddy.analytics_service.model.DashboardResponse;
+import com.budgetbuddy.analytics_service.model.TrendResponse;
 import com.budgetbuddy.analytics_service.service.AnalyticsService;
+import com.budgetbuddy.analytics_service.service.DashboardService;
+import com.budgetbuddy.analytics_service.service.LiveSummaryService;
+import com.budgetbuddy.analytics_service.service.TrendService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,8 +15,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -23,6 +31,15 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private LiveSummaryService liveSummaryService;
+
+    @Autowired
+    private TrendService trendService;
+
 
     @Operation(
             summary     = "Get analytics summary",
@@ -41,9 +58,16 @@ public class AnalyticsController {
                     required    = false,
                     example     = "2025-07"
             )
-            @RequestParam(required = false) String monthYear) {
+            @RequestParam(required = false) String monthYear,
+            @Parameter(
+                    description = "Optional engine for this call: `http` (fetch from the services) or `direct` " +
+                            "(one aggregation on the shared database); defaults to budgetbuddy.analytics.engine",
+                    required    = false,
+                    example     = "direct"
+            )
+            @RequestParam(required = false) String engine) {
         String userId = SecurityContextHolder.getContext().getAuthentication().getName();
-        return analyticsService.getUserAnalytics(userId, monthYear);
+        return analyticsService.getUserAnalytics(userId, monthYear, engine);
     }
 
 
@@ -62,4 +86,90 @@ public class AnalyticsController {
         return analyticsService.getAvailableMonths(userId);
     }
 
+
+    @Operation(
+            summary     = "Get dashboard",
+            description = "Returns everything the dashboard shows in one call: the summary (as `/summary`), " +
+                    "available months, budget status for the selected or latest month, and the most recent " +
+                    "expenses and income. Each downstream service is called once.",
+            responses   = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = DashboardResponse.class)))
+            }
+    )
+    @GetMapping("/dashboard")
+    public DashboardResponse getDashboard(
+            @Parameter(
+                    description = "Optional month filter in format yyyy-MM",
+                    required    = false,
+                    example     = "2025-07"
+            )
+            @RequestParam(required = false) String monthYear) {
+        String userId = SecurityContextHolder.getContext().getAuthentication().getName();
+        return dashboardService.getDashboard(userId, monthYear);
+    }
+
+
+    @Operation(
+            summary     = "Get trends",
+            description = "Returns income, expenses and per-category spent/limit for every month or ISO week from " +
+                    "`from` to `to`, oldest first, computed from one date-bounded fetch. With `week`, each week " +
+                    "gets the share of its months' budgets for the days it covers.",
+            responses   = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = TrendResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad range or granularity", content = @Content)
+            }
+    )
+    @GetMapping("/trends")
+    public TrendResponse getTrends(
+            @Parameter(
+                    description = "First period, yyyy-MM or yyyy-MM-dd; defaults to 11 periods before `to`",
+                    required    = false,
+                    example     = "2024-08"
+            )
+            @RequestParam(required = false) String from,
+            @Parameter(
+                    description = "Last period, yyyy-MM or yyyy-MM-dd; defaults to the current one",
+                    required    = false,
+                    example     = "2025-07"
+            )
+            @RequestParam(required = false) String to,
+            @Parameter(
+                    description = "`month` or `week`",
+                    required    = false,
+                    example     = "month"
+            )
+            @RequestParam(defaultValue = "month") String granularity) {
+        String userId = SecurityContextHolder.getContext().getAuthentication().getName();
+        return trendService.getTrends(userId, from, to, granularity);
+    }
+
+
+    @Operation(
+            summary     = "Stream summary updates",
+            description = "Server-Sent Events for the authenticated user. The first `summary` event carries the " +
+                    "full summary (as `/summary`); each later `delta` event carries only the totals and budget " +
+                    "categories that changed. The server closes the stream when the token expires; reconnect " +
+                    "with a fresh one.",
+            responses   = {
+                    @ApiResponse(responseCode = "200", description = "Event stream",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+                    @ApiResponse(responseCode = "429", description = "Too many open streams for this user", content = @Content)
+            }
+    )
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary(
+            @Parameter(
+                    description = "Optional month filter in format yyyy-MM",
+                    required    = false,
+                    example     = "2025-07"
+            )
+            @RequestParam(required = false) String monthYear) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return liveSummaryService.subscribe(auth.getName(), auth.getCredentials().toString(), monthYear);
+    }
+
 }
@@ -0,0 +1,47 @@
+package com.budgetbuddy.analytics_service.filter;
+
+import com.budgetbuddy.analytics_service.routing.UserRouter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Hands authenticated analytics GETs to {@link UserRouter}, which forwards those of users
+ * owned by another instance. Runs after {@link JwtRequestFilter}, which names the user.
+ * Event streams stay where they connect, and forwarded requests are served here.
+ */
+public class UserRoutingFilter extends OncePerRequestFilter {
+
+    private final UserRouter router;
+
+    public UserRoutingFilter(UserRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !router.isEnabled()
+                || !"GET".equals(request.getMethod())
+                || !path.startsWith("/analytics/")
+                || path.equals("/analytics/stream")
+                || request.getHeader(UserRouter.ROUTED_BY) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && router.forwardIfElsewhere(auth.getName(), request, response)) {
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,131 @@
+package com.budgetbuddy.analytics_service.model;
+
+import java.time.Instant;
+
+/**
+ * Published to the budget alert topic when a category's spend for a month reaches a
+ * threshold of its limit. {@code alertId} is derived from the event that caused it, so a
+ * consumer can drop the copy a redelivery produces.
+ */
+public class BudgetAlert {
+    public static final String WARNING = "WARNING";
+    public static final String EXCEEDED = "EXCEEDED";
+
+    private String alertId;
+    private String userId;
+    private String category;
+    private String monthYear;
+    private String level;        // WARNING below 100% of the limit, EXCEEDED at or above it
+    private double threshold;    // fraction of the limit that was crossed, e.g. 0.8
+    private double limit;
+    private double spent;
+    private double percentUsed;
+    private String causedBy;     // eventId of the ActivityEvent that crossed it
+    private Instant timestamp;
+
+    public BudgetAlert() {
+    }
+
+    public BudgetAlert(String userId, String category, String monthYear, double threshold,
+                       double limit, double spent, String causedBy, Instant timestamp) {
+        this.alertId = causedBy + ":" + userId + ":" + category + ":" + monthYear + ":" + threshold;
+        this.userId = userId;
+        this.category = category;
+        this.monthYear = monthYear;
+        this.level = threshold >= 1.0 ? EXCEEDED : WARNING;
+        this.threshold = threshold;
+        this.limit = limit;
+        this.spent = spent;
+        this.percentUsed = limit > 0 ? spent / limit * 100 : 0;
+        this.causedBy = causedBy;
+        this.timestamp = timestamp;
+    }
+
+    public String getAlertId() {
+        return alertId;
+    }
+
+    public void setAlertId(String alertId) {
+        this.alertId = alertId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getMonthYear() {
+        return monthYear;
+    }
+
+    public void setMonthYear(String monthYear) {
+        this.monthYear = monthYear;
+    }
+
+    public String getLevel() {
+        return level;
+    }
+
+    public void setLevel(String level) {
+        this.level = level;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public void setLimit(double limit) {
+        this.limit = limit;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(double spent) {
+        this.spent = spent;
+    }
+
+    public double getPercentUsed() {
+        return percentUsed;
+    }
+
+    public void setPercentUsed(double percentUsed) {
+        this.percentUsed = percentUsed;
+    }
+
+    public String getCausedBy() {
+        return causedBy;
+    }
+
+    public void setCausedBy(String causedBy) {
+        this.causedBy = causedBy;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+}
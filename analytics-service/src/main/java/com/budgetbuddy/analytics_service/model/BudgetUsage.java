@@ -8,6 +8,9 @@ public class BudgetUsage {
     private double remaining;
     private double percentUsed;
 
+    public BudgetUsage() {
+    }
+
     public BudgetUsage(String category, double limit, double spent, double remaining, double percentUsed) {
         this.category = category;
         this.limit = limit;
@@ -0,0 +1,41 @@
+package com.budgetbuddy.analytics_service.model;
+
+/** Spend and budget of one category in one trend period. */
+public class CategoryTrend {
+    private String category;
+    private double spent;
+    private Double limit;   // null when the category has no budget in the period
+
+    public CategoryTrend() {
+    }
+
+    public CategoryTrend(String category, double spent, Double limit) {
+        this.category = category;
+        this.spent = spent;
+        this.limit = limit;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(double spent) {
+        this.spent = spent;
+    }
+
+    public Double getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Double limit) {
+        this.limit = limit;
+    }
+}
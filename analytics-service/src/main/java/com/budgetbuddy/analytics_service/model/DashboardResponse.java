@@ -0,0 +1,76 @@
+package com.budgetbuddy.analytics_service.model;
+
+import java.util.List;
+
+/**
+ * Everything the dashboard needs for first paint. {@code summary} is what
+ * {@code /analytics/summary} returns for the same {@code monthYear}; {@code budgetStatus}
+ * is the usage for {@code budgetMonth}, the requested month or else the latest one with budgets.
+ */
+public class DashboardResponse {
+    private String monthYear;
+    private AnalyticsResponse summary;
+    private List<String> availableMonths;
+    private String budgetMonth;
+    private List<BudgetUsage> budgetStatus;
+    private List<Expense> recentExpenses;
+    private List<Income> recentIncome;
+
+    // Getters and setters
+
+    public String getMonthYear() {
+        return monthYear;
+    }
+
+    public void setMonthYear(String monthYear) {
+        this.monthYear = monthYear;
+    }
+
+    public AnalyticsResponse getSummary() {
+        return summary;
+    }
+
+    public void setSummary(AnalyticsResponse summary) {
+        this.summary = summary;
+    }
+
+    public List<String> getAvailableMonths() {
+        return availableMonths;
+    }
+
+    public void setAvailableMonths(List<String> availableMonths) {
+        this.availableMonths = availableMonths;
+    }
+
+    public String getBudgetMonth() {
+        return budgetMonth;
+    }
+
+    public void setBudgetMonth(String budgetMonth) {
+        this.budgetMonth = budgetMonth;
+    }
+
+    public List<BudgetUsage> getBudgetStatus() {
+        return budgetStatus;
+    }
+
+    public void setBudgetStatus(List<BudgetUsage> budgetStatus) {
+        this.budgetStatus = budgetStatus;
+    }
+
+    public List<Expense> getRecentExpenses() {
+        return recentExpenses;
+    }
+
+    public void setRecentExpenses(List<Expense> recentExpenses) {
+        this.recentExpenses = recentExpenses;
+    }
+
+    public List<Income> getRecentIncome() {
+        return recentIncome;
+    }
+
+    public void setRecentIncome(List<Income> recentIncome) {
+        this.recentIncome = recentIncome;
+    }
+}
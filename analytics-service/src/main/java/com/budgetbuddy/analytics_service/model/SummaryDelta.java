@@ -0,0 +1,81 @@
+package com.budgetbuddy.analytics_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What changed between two summaries of the same month: totals that moved, budget
+ * categories whose usage changed or that are new, and categories that disappeared.
+ * Unchanged parts are left out of the JSON.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class SummaryDelta {
+    private Double totalIncome;
+    private Double totalExpenses;
+    private Double netSavings;
+    private List<BudgetUsage> budgetUsage = new ArrayList<>();
+    private List<String> removedCategories = new ArrayList<>();
+
+    public static SummaryDelta between(AnalyticsResponse before, AnalyticsResponse after) {
+        SummaryDelta delta = new SummaryDelta();
+        if (before.getTotalIncome() != after.getTotalIncome()) {
+            delta.totalIncome = after.getTotalIncome();
+        }
+        if (before.getTotalExpenses() != after.getTotalExpenses()) {
+            delta.totalExpenses = after.getTotalExpenses();
+        }
+        if (before.getNetSavings() != after.getNetSavings()) {
+            delta.netSavings = after.getNetSavings();
+        }
+
+        Map<String, BudgetUsage> previous = new HashMap<>();
+        for (BudgetUsage usage : before.getBudgetUsage()) {
+            previous.put(usage.getCategory(), usage);
+        }
+        for (BudgetUsage usage : after.getBudgetUsage()) {
+            BudgetUsage old = previous.remove(usage.getCategory());
+            if (old == null || !sameUsage(old, usage)) {
+                delta.budgetUsage.add(usage);
+            }
+        }
+        delta.removedCategories.addAll(previous.keySet());
+        return delta;
+    }
+
+    private static boolean sameUsage(BudgetUsage a, BudgetUsage b) {
+        return a.getLimit() == b.getLimit() && a.getSpent() == b.getSpent();
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return totalIncome == null && totalExpenses == null && netSavings == null
+                && budgetUsage.isEmpty() && removedCategories.isEmpty();
+    }
+
+    // Getters
+
+    public Double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public Double getTotalExpenses() {
+        return totalExpenses;
+    }
+
+    public Double getNetSavings() {
+        return netSavings;
+    }
+
+    public List<BudgetUsage> getBudgetUsage() {
+        return budgetUsage;
+    }
+
+    public List<String> getRemovedCategories() {
+        return removedCategories;
+    }
+}
@@ -0,0 +1,72 @@
+package com.budgetbuddy.analytics_service.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Totals of one month or ISO week of a trend, with the categories spent in or budgeted for. */
+public class TrendPeriod {
+    private String period;      // "2025-07" or "2025-W27"
+    private LocalDate start;
+    private LocalDate end;      // inclusive
+    private double totalIncome;
+    private double totalExpenses;
+    private double netSavings;
+    private List<CategoryTrend> categories = new ArrayList<>();
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    public double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public void setTotalIncome(double totalIncome) {
+        this.totalIncome = totalIncome;
+    }
+
+    public double getTotalExpenses() {
+        return totalExpenses;
+    }
+
+    public void setTotalExpenses(double totalExpenses) {
+        this.totalExpenses = totalExpenses;
+    }
+
+    public double getNetSavings() {
+        return netSavings;
+    }
+
+    public void setNetSavings(double netSavings) {
+        this.netSavings = netSavings;
+    }
+
+    public List<CategoryTrend> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategoryTrend> categories) {
+        this.categories = categories;
+    }
+}
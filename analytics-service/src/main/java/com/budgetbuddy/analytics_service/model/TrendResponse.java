@@ -0,0 +1,44 @@
+package com.budgetbuddy.analytics_service.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Consecutive periods from {@code from} to {@code to}, oldest first; periods without data are included. */
+public class TrendResponse {
+    private String from;
+    private String to;
+    private String granularity;
+    private List<TrendPeriod> periods = new ArrayList<>();
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public List<TrendPeriod> getPeriods() {
+        return periods;
+    }
+
+    public void setPeriods(List<TrendPeriod> periods) {
+        this.periods = periods;
+    }
+}
@@ -0,0 +1,76 @@
+package com.budgetbuddy.analytics_service.routing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consistent hashing of keys onto nodes. Each node is placed at {@code virtualNodes}
+ * points on a ring of 64-bit hashes and a key belongs to the node at the first point at or
+ * after the key's hash. With enough points every node gets close to an equal share of
+ * keys, and adding or removing a node moves only the keys of the arcs it gains or loses,
+ * about 1/n of them, instead of reshuffling everyone.
+ *
+ * <p>Hashes are MD5-based, so every instance given the same nodes computes the same ring.
+ * Immutable; build a new one when the nodes change.
+ */
+public final class HashRing {
+    private final long[] points;       // sorted
+    private final String[] owners;     // owners[i] is the node at points[i]
+    private final List<String> nodes;
+
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        this.nodes = List.copyOf(nodes);
+        List<long[]> placed = new ArrayList<>(this.nodes.size() * virtualNodes);
+        for (int n = 0; n < this.nodes.size(); n++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                placed.add(new long[]{hash(this.nodes.get(n) + "#" + v), n});
+            }
+        }
+        // Ties between nodes (vanishingly rare) go to the node listed first, on every instance alike
+        placed.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        points = new long[placed.size()];
+        owners = new String[placed.size()];
+        for (int i = 0; i < placed.size(); i++) {
+            points[i] = placed.get(i)[0];
+            owners[i] = this.nodes.get((int) placed.get(i)[1]);
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /** The node {@code key} belongs to, or null if the ring has no nodes. */
+    public String owner(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+        } else {
+            while (i > 0 && points[i - 1] == points[i]) {
+                i--;
+            }
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is required of every JVM", e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.budgetbuddy.analytics_service.routing;
+
+import com.budgetbuddy.analytics_service.client.Upstream;
+import com.budgetbuddy.analytics_service.client.Upstreams;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends each user's analytics requests to one analytics instance, so whatever that instance
+ * holds for the user (in-flight summaries, caches) is used rather than rebuilt on whichever
+ * instance the load balancer picked. Users are placed on instances by a {@link HashRing};
+ * a request that arrives at another instance is forwarded to the owner and its answer
+ * relayed back.
+ *
+ * <p>The instances are those of the {@code analytics-service} upstream, so they are listed
+ * (and can be file-watched) like any other service's, and every instance must list the same
+ * ones, itself included. Instances the upstream has ejected are left off the ring, so only
+ * their users move while they are out, and a forwarded request whose owner cannot be reached
+ * is served where it landed. A forwarded request is always served by the instance that
+ * receives it, so instances that briefly disagree about the ring cannot bounce it around.
+ */
+@Service
+public class UserRouter {
+    private static final Logger LOG = LoggerFactory.getLogger(UserRouter.class);
+
+    /** Set on forwarded requests, to the base URL of the instance that forwarded them. */
+    public static final String ROUTED_BY = "X-BudgetBuddy-Routed-By";
+
+    private record Snapshot(List<String> members, HashRing ring) {}
+
+    private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Upstream instances;
+    private final boolean enabled;
+    private final String self;
+    private final int virtualNodes;
+    private volatile Snapshot snapshot = new Snapshot(List.of(), null);
+
+    public UserRouter(RestTemplate restTemplate,
+                      Upstreams upstreams,
+                      MeterRegistry meterRegistry,
+                      @Value("${budgetbuddy.analytics.routing.enabled:false}") boolean enabled,
+                      @Value("${budgetbuddy.analytics.routing.self:http://localhost:${server.port:8085}}") String self,
+                      @Value("${budgetbuddy.analytics.routing.virtual-nodes:160}") int virtualNodes) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+        this.self = self.replaceAll("/+$", "");
+        this.instances = upstreams.get("analytics-service", this.self);
+        this.enabled = enabled;
+        this.virtualNodes = virtualNodes;
+        if (enabled && !instances.availableBaseUrls().contains(this.self)) {
+            LOG.warn("Routing is on but {} is not among the analytics instances; other instances will not send it users",
+                    this.self);
+        }
+        Gauge.builder("budgetbuddy.analytics.routing.members", this, r -> r.ring().nodes().size())
+                .description("Analytics instances users are currently spread over")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** The instance {@code userId} belongs to; this one's base URL when it is this one. */
+    public String ownerOf(String userId) {
+        return ring().owner(userId);
+    }
+
+    HashRing ring() {
+        List<String> members = new ArrayList<>(instances.availableBaseUrls());
+        // This instance is up, whatever the upstream last saw of it
+        if (!members.contains(self)) {
+            members.add(self);
+        }
+        Snapshot current = snapshot;
+        if (!members.equals(current.members())) {
+            current = new Snapshot(members, new HashRing(members, virtualNodes));
+            snapshot = current;
+        }
+        return current.ring();
+    }
+
+    /**
+     * Forwards the request to the owner of {@code userId} and writes its answer, unless this
+     * instance is the owner or the owner cannot be reached.
+     *
+     * @return true if the response has been written; false if the request should be served here
+     */
+    public boolean forwardIfElsewhere(String userId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String owner = ownerOf(userId);
+        if (owner.equals(self)) {
+            count("local");
+            return false;
+        }
+        String query = request.getQueryString();
+        URI uri = URI.create(owner + request.getRequestURI() + (query == null ? "" : "?" + query));
+        try {
+            instances.callOn(owner, baseUrl -> restTemplate.execute(uri, HttpMethod.valueOf(request.getMethod()),
+                    forwarded -> {
+                        copyHeader(request, forwarded.getHeaders(), HttpHeaders.AUTHORIZATION);
+                        copyHeader(request, forwarded.getHeaders(), HttpHeaders.ACCEPT);
+                        forwarded.getHeaders().set(ROUTED_BY, self);
+                    },
+                    answer -> {
+                        response.setStatus(answer.getStatusCode().value());
+                        if (answer.getHeaders().getContentType() != null) {
+                            response.setContentType(answer.getHeaders().getContentType().toString());
+                        }
+                        StreamUtils.copy(answer.getBody(), response.getOutputStream());
+                        return null;
+                    }));
+        } catch (HttpStatusCodeException e) {
+            // The owner's own answer, e.g. a 400 for a malformed month
+            response.setStatus(e.getStatusCode().value());
+            if (e.getResponseHeaders() != null && e.getResponseHeaders().getContentType() != null) {
+                response.setContentType(e.getResponseHeaders().getContentType().toString());
+            }
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        } catch (ResourceAccessException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            LOG.debug("Serving user {} here; owner {} unreachable: {}", userId, owner, e.getMessage());
+            count("fallback");
+            return false;
+        }
+        count("forwarded");
+        return true;
+    }
+
+    private static void copyHeader(HttpServletRequest from, HttpHeaders to, String name) {
+        String value = from.getHeader(name);
+        if (value != null) {
+            to.set(name, value);
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("budgetbuddy.analytics.routing.requests", "outcome", outcome).increment();
+    }
+}
@@ -2,6 +2,9 @@ package com.budgetbuddy.analytics_service.security;
 
 
 import com.budgetbuddy.analytics_service.filter.JwtRequestFilter;
+import com.budgetbuddy.analytics_service.filter.UserRoutingFilter;
+import com.budgetbuddy.analytics_service.routing.UserRouter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,17 +21,25 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private UserRouter userRouter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .cors(Customizer.withDefaults())
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // The async dispatch that closes an SSE stream has no bearer header to re-check
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
                         .requestMatchers("/analytics/**").authenticated()
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+                // Once the user is known, requests for users owned by another instance go there
+                .addFilterAfter(new UserRoutingFilter(userRouter), JwtRequestFilter.class);
 
         return http.build();
     }
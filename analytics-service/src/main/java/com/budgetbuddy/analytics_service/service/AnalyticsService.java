@@ -8,47 +8,163 @@ import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
 import com.budgetbuddy.analytics_service.model.Budget;
 import com.budgetbuddy.analytics_service.model.BudgetUsage;
 import com.budgetbuddy.analytics_service.model.Expense;
+import com.budgetbuddy.cache.TieredCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 public class AnalyticsService {
 
+    public static final String HTTP_ENGINE = "http";
+    public static final String DIRECT_ENGINE = "direct";
+
     @Autowired
     private ExpenseClient expenseClient;
     @Autowired private IncomeClient incomeClient;
     @Autowired private BudgetClient budgetClient;
+    @Autowired private DirectAnalyticsEngine directEngine;
+    @Autowired private MeterRegistry meterRegistry;
+
+    // Absent when budgetbuddy.cache.enabled=false
+    @Autowired(required = false)
+    private TieredCache<AnalyticsResponse> summaryCache;
+
+    // http: fetch from the owning services; direct: one aggregation on the shared database
+    @Value("${budgetbuddy.analytics.engine:http}")
+    private String engine = HTTP_ENGINE;
+
+    // Distinct summaries being computed at once; past this, requests compute on their own
+    @Value("${budgetbuddy.analytics.single-flight.max-keys:10000}")
+    private int maxInFlight = 10_000;
+
+    /** What makes two summary requests identical. */
+    record SummaryKey(String userId, String monthYear, String engine) {}
+
+    // A key is only present while its computation runs, so the map holds at most one
+    // entry per request in progress
+    private final Map<SummaryKey, CompletableFuture<AnalyticsResponse>> inFlight = new ConcurrentHashMap<>();
 
 
     public AnalyticsResponse getUserAnalytics(String userId, String monthYear) {
-        List<Expense> expenses = expenseClient.getExpenses(userId);
-        List<Budget> budgets = budgetClient.getBudgets(userId);
+        return getUserAnalytics(userId, monthYear, null);
+    }
 
+    /**
+     * Identical requests that arrive while one is being computed (a dashboard open in
+     * several tabs, a client retrying) wait for that computation and get its result instead
+     * of each fanning out to the services again. Only a result is shared: if the computation
+     * failed, say because its caller's token was rejected, each waiter computes on its own
+     * with its own credentials. Requests are identical
+     * when user, month and engine match, so a result is never shared across users.
+     * With the summary cache on, a result is then kept per user until one of their
+     * activity events arrives, and only misses reach this far.
+     *
+     * @param engineOverride {@code http} or {@code direct} to use that engine for this call
+     *                       instead of the configured one, so both can be timed side by side
+     */
+    public AnalyticsResponse getUserAnalytics(String userId, String monthYear, String engineOverride) {
+        String selected = engineOverride == null || engineOverride.isEmpty() ? engine : engineOverride;
+        if (!HTTP_ENGINE.equals(selected) && !DIRECT_ENGINE.equals(selected)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "engine must be http or direct");
+        }
+        if (summaryCache == null) {
+            return singleFlight(userId, monthYear, selected);
+        }
+        String month = monthYear == null || monthYear.isEmpty() ? "all" : monthYear;
+        return summaryCache.get(userId, month + ":" + selected, () -> singleFlight(userId, monthYear, selected));
+    }
+
+    private AnalyticsResponse singleFlight(String userId, String monthYear, String selected) {
+        if (inFlight.size() >= maxInFlight) {
+            return compute(userId, monthYear, selected);
+        }
+        SummaryKey key = new SummaryKey(userId, monthYear == null || monthYear.isEmpty() ? null : monthYear, selected);
+        CompletableFuture<AnalyticsResponse> mine = new CompletableFuture<>();
+        CompletableFuture<AnalyticsResponse> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            meterRegistry.counter("budgetbuddy.analytics.summary.coalesced", "engine", selected).increment();
+            try {
+                return DashboardService.join(running);
+            } catch (RuntimeException leaderFailed) {
+                return compute(userId, monthYear, selected);
+            }
+        }
+        try {
+            AnalyticsResponse response = compute(userId, monthYear, selected);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Later requests compute afresh, so they see writes made after this one started
+            inFlight.remove(key, mine);
+        }
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private AnalyticsResponse compute(String userId, String monthYear, String selected) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (DIRECT_ENGINE.equals(selected)) {
+                return directEngine.getUserAnalytics(userId, monthYear);
+            }
+            // Expenses and income are folded into totals as their responses are parsed
+            Map<String, Double> spentByCategory = expenseClient.getSpentByCategory(userId, monthYear);
+            List<Budget> budgets = budgetClient.getBudgets(userId);
+            double totalIncome = incomeClient.getTotalIncome(userId); // optional: filter income too
+            return response(spentByCategory, limitByCategory(budgets, monthYear), totalIncome);
+        } finally {
+            sample.stop(Timer.builder("budgetbuddy.analytics.summary")
+                    .description("Time to compute a summary, by engine")
+                    .tag("engine", selected)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /** The summary for already-fetched data, so callers holding the lists need not fetch again. */
+    public AnalyticsResponse summarize(List<Expense> expenses, List<Budget> budgets, double totalIncome, String monthYear) {
         // Filter by selected month if provided
         if (monthYear != null && !monthYear.isEmpty()) {
             expenses = expenses.stream()
                     .filter(e -> e.getDate().toInstant().toString().startsWith(monthYear))
                     .collect(Collectors.toList());
-
-            budgets = budgets.stream()
-                    .filter(b -> monthYear.equals(b.getMonthYear()))
-                    .collect(Collectors.toList());
         }
 
         // Group expenses by category
         Map<String, Double> spentByCategory = expenses.stream()
                 .collect(Collectors.groupingBy(Expense::getCategory, Collectors.summingDouble(Expense::getAmount)));
 
-        // Group budgets by category and sum limit amounts
-        Map<String, Double> limitByCategory = budgets.stream()
+        return response(spentByCategory, limitByCategory(budgets, monthYear), totalIncome);
+    }
+
+    // Group the month's budgets by category and sum limit amounts
+    private static Map<String, Double> limitByCategory(List<Budget> budgets, String monthYear) {
+        return budgets.stream()
+                .filter(b -> monthYear == null || monthYear.isEmpty() || monthYear.equals(b.getMonthYear()))
                 .collect(Collectors.groupingBy(Budget::getCategory, Collectors.summingDouble(Budget::getLimitAmount)));
+    }
 
+    /** The summary from per-category totals, however they were computed. */
+    static AnalyticsResponse response(Map<String, Double> spentByCategory, Map<String, Double> limitByCategory,
+                                      double totalIncome) {
         List<BudgetUsage> usageList = new ArrayList<>();
         for (String category : limitByCategory.keySet()) {
             double limit = limitByCategory.getOrDefault(category, 0.0);
@@ -59,8 +175,7 @@ public class AnalyticsService {
             usageList.add(new BudgetUsage(category, limit, spent, remaining, percentUsed));
         }
 
-        double totalExpenses = expenses.stream().mapToDouble(Expense::getAmount).sum();
-        double totalIncome = incomeClient.getTotalIncome(userId); // optional: filter income too
+        double totalExpenses = spentByCategory.values().stream().mapToDouble(Double::doubleValue).sum();
         double netSavings = totalIncome - totalExpenses;
 
         AnalyticsResponse response = new AnalyticsResponse();
@@ -74,7 +189,10 @@ public class AnalyticsService {
 
 
     public List<String> getAvailableMonths(String userId) {
-        List<Budget> budgets = budgetClient.getBudgets(userId);
+        return availableMonths(budgetClient.getBudgets(userId));
+    }
+
+    public List<String> availableMonths(List<Budget> budgets) {
         return budgets.stream()
                 .map(Budget::getMonthYear)
                 .filter(month -> month != null && !month.isEmpty())
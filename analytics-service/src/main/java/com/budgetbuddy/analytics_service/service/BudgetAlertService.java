@@ -0,0 +1,328 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.model.BudgetAlert;
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells users the moment a category's spend reaches 80% and 100% of its budget, without
+ * anyone calling {@code /analytics/summary}. Running spend and the limit are kept per
+ * (user, category, month) and each ActivityEvent is applied as a delta: an expense adds
+ * its amount, an update moves it from the old (category, month) to the new one, a delete
+ * takes it away. Budgets work the same way on a count and a summed limit, since a category
+ * may have several budgets in a month and the summary adds their limits up. Cost per event is a map lookup or two,
+ * whatever the size of the user's history. When an update lifts a tally over a threshold
+ * it had not reached, a {@link BudgetAlert} goes to the alert topic.
+ *
+ * <p>The tallies live in memory, sharded by partition. The consumer group only decides
+ * which instance owns which partitions (events are keyed by userId, so a user's tallies
+ * live in one place); offsets are never committed and an assigned partition is read from
+ * its live end. A user's tallies are seeded from the expense and budget collections on
+ * their first event here, through {@link DirectAnalyticsEngine}, so they do not depend on
+ * what the topic still retains. What was read already includes that first event, so it is
+ * taken back out before being applied as usual, and crossing a threshold still alerts
+ * after a restart or rebalance. Events stamped before the seed was read are in it and are
+ * skipped; the cut is as good as the clocks of the services that stamp events.
+ *
+ * <p>Amounts come from the {@link EntityState}s on the events (ActivityEvent v3). An event
+ * without them (written before then) reseeds the user instead, keeping the thresholds
+ * each tally had reached, so it can still alert. Months older than {@code retain-months}
+ * are not kept.
+ */
+@Service
+public class BudgetAlertService implements ConsumerSeekAware {
+    private static final Logger LOG = LoggerFactory.getLogger(BudgetAlertService.class);
+    private static final Set<String> CHANGES = Set.of("CREATED", "UPDATED", "DELETED");
+
+    record Key(String userId, String category, String monthYear) {}
+
+    /** Spend, budgets and their summed limit of one category in one month, and how many thresholds it has reached. */
+    static final class Tally {
+        double spent;
+        int budgets;
+        Double limit;      // null while budgets is 0
+        int reached;
+
+        boolean isEmpty() {
+            return limit == null && Math.abs(spent) < 0.005;
+        }
+    }
+
+    /** The tallies of one partition, and when each of its users was seeded. */
+    static final class Shard {
+        final Map<Key, Tally> tallies = new ConcurrentHashMap<>();
+        final Map<String, Instant> seeded = new ConcurrentHashMap<>();
+        YearMonth prunedFor;
+    }
+
+    private final KafkaTemplate<String, BudgetAlert> kafka;
+    private final DirectAnalyticsEngine directEngine;
+    private final String alertTopic;
+    private final double[] thresholds;
+    private final int retainMonths;
+    private final Counter alertsSent;
+    private final Counter seeds;
+    private final Map<Integer, Shard> shards = new ConcurrentHashMap<>();
+
+    public BudgetAlertService(KafkaTemplate<String, BudgetAlert> kafka,
+                              DirectAnalyticsEngine directEngine,
+                              MeterRegistry meterRegistry,
+                              @Value("${budgetbuddy.analytics.alerts.alert-topic:budget-alerts}") String alertTopic,
+                              @Value("${budgetbuddy.analytics.alerts.thresholds:0.8,1.0}") double[] thresholds,
+                              @Value("${budgetbuddy.analytics.alerts.retain-months:2}") int retainMonths) {
+        this.kafka = kafka;
+        this.directEngine = directEngine;
+        this.alertTopic = alertTopic;
+        this.thresholds = thresholds.clone();
+        Arrays.sort(this.thresholds);
+        this.retainMonths = retainMonths;
+        this.alertsSent = Counter.builder("budgetbuddy.analytics.alerts.sent")
+                .description("Budget threshold alerts published")
+                .register(meterRegistry);
+        this.seeds = Counter.builder("budgetbuddy.analytics.alerts.seeds")
+                .description("Users whose tallies were read from the expense and budget collections")
+                .register(meterRegistry);
+        Gauge.builder("budgetbuddy.analytics.alerts.tallies", shards,
+                        s -> s.values().stream().mapToInt(shard -> shard.tallies.size()).sum())
+                .description("(user, category, month) tallies held by this instance")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "${budgetbuddy.analytics.alerts.topic:user-activity-logs}",
+            groupId = "${budgetbuddy.analytics.alerts.group-id:analytics-budget-alerts}",
+            autoStartup = "${budgetbuddy.analytics.alerts.enabled:true}")
+    public void onActivity(ConsumerRecord<String, ActivityEvent> record) {
+        if (record.value() != null) {
+            apply(shard(record.partition()), record.value());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        assignments.keySet().forEach(tp -> shards.put(tp.partition(), new Shard()));
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        partitions.forEach(tp -> shards.remove(tp.partition()));
+    }
+
+    /** Applies one event to the partition's tallies, seeding its user first if needed. */
+    void apply(Shard shard, ActivityEvent event) {
+        if (event.getUserId() == null || event.getAction() == null || !CHANGES.contains(event.getAction())
+                || !("EXPENSE".equals(event.getEntityType()) || "BUDGET".equals(event.getEntityType()))) {
+            return;
+        }
+        YearMonth oldest = YearMonth.now().minusMonths(retainMonths - 1L);
+        if (!oldest.equals(shard.prunedFor)) {
+            // Once a month, off the per-event path in all but that one event
+            shard.tallies.keySet().removeIf(k -> isBefore(k.monthYear(), oldest));
+            shard.prunedFor = oldest;
+        }
+
+        Instant seededAt = shard.seeded.get(event.getUserId());
+        boolean carriesState = EventStates.carried(event);
+        if (seededAt == null || !carriesState) {
+            if (!seed(shard, event, oldest) || !carriesState) {
+                return;
+            }
+            // The seed already includes this event: take it back out quietly, then apply it as it happened
+            change(shard, inverse(event), oldest, false);
+        } else if (event.getTimestamp() != null && event.getTimestamp().isBefore(seededAt)) {
+            return;
+        }
+        change(shard, event, oldest, true);
+    }
+
+    /**
+     * Replaces the user's tallies with what the expense and budget collections hold for the
+     * retained months. Thresholds a tally had already reached are kept, so the reseed after
+     * an event without state alerts if that event crossed one; a first seed is quiet.
+     *
+     * @return false if the read failed; the user stays unseeded and the next event retries
+     */
+    private boolean seed(Shard shard, ActivityEvent event, YearMonth oldest) {
+        String userId = event.getUserId();
+        Instant readAt = Instant.now();
+        Map<Key, Tally> read = new HashMap<>();
+        try {
+            for (YearMonth month = oldest; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+                String monthYear = month.toString();
+                directEngine.getCategoryTotals(userId, monthYear).forEach((category, totals) -> {
+                    Tally tally = new Tally();
+                    tally.spent = totals.spent();
+                    tally.limit = totals.limit();
+                    tally.budgets = totals.budgets();
+                    read.put(new Key(userId, category, monthYear), tally);
+                });
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not seed budget tallies of user {}, skipping event {}: {}", userId, event.getEventId(), e.getMessage());
+            shard.seeded.remove(userId);
+            return false;
+        }
+        seeds.increment();
+
+        boolean reseed = shard.seeded.put(userId, readAt) != null;
+        if (reseed) {
+            shard.tallies.keySet().removeIf(k -> k.userId().equals(userId) && !read.containsKey(k));
+        }
+        read.forEach((key, tally) -> {
+            Tally before = shard.tallies.put(key, tally);
+            tally.reached = before == null ? 0 : before.reached;
+            evaluate(shard, key, tally, event, reseed && before != null);
+        });
+        return true;
+    }
+
+    /**
+     * Applies the event's states as deltas.
+     *
+     * @param live false while taking an event back out of a seed: no alerts are sent
+     */
+    private void change(Shard shard, ActivityEvent event, YearMonth oldest, boolean live) {
+        boolean expense = "EXPENSE".equals(event.getEntityType());
+        switch (event.getAction()) {
+            case "CREATED" -> EventStates.of(event).forEach(s -> add(shard, event, s, 1, expense, oldest, live));
+            case "DELETED" -> EventStates.of(event).forEach(s -> add(shard, event, s, -1, expense, oldest, live));
+            case "UPDATED" -> {
+                EntityState before = event.getPreviousState();
+                EntityState after = event.getState();
+                if (Objects.equals(before.getCategory(), after.getCategory())
+                        && Objects.equals(before.getMonthYear(), after.getMonthYear())) {
+                    // One step, so an edit never passes through "nothing spent" or "no budget" and re-alerts
+                    double delta = amount(after) - amount(before);
+                    adjust(shard, event, after, expense ? delta : 0, 0, expense ? 0 : delta, oldest, live);
+                } else {
+                    add(shard, event, before, -1, expense, oldest, live);
+                    add(shard, event, after, 1, expense, oldest, live);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    /** The event that undoes this one: a create and a delete swap, an update runs backwards. */
+    private static ActivityEvent inverse(ActivityEvent event) {
+        ActivityEvent inverse = new ActivityEvent(event.getUserId(), event.getAction(), event.getEntityType(),
+                event.getEntityId(), event.getTimestamp());
+        inverse.setEventId(event.getEventId());
+        inverse.setEntityStates(event.getEntityStates());
+        inverse.setState(event.getState());
+        switch (event.getAction()) {
+            case "CREATED" -> inverse.setAction("DELETED");
+            case "DELETED" -> inverse.setAction("CREATED");
+            case "UPDATED" -> {
+                inverse.setState(event.getPreviousState());
+                inverse.setPreviousState(event.getState());
+            }
+            default -> { }
+        }
+        return inverse;
+    }
+
+    Tally tally(String userId, String category, String monthYear) {
+        Key key = new Key(userId, category, monthYear);
+        return shards.values().stream().map(s -> s.tallies.get(key)).filter(t -> t != null).findFirst().orElse(null);
+    }
+
+    Shard shard(int partition) {
+        return shards.computeIfAbsent(partition, p -> new Shard());
+    }
+
+    // An expense counts its amount; a budget counts itself and its limit
+    private void add(Shard shard, ActivityEvent event, EntityState state, int sign, boolean expense,
+                     YearMonth oldest, boolean live) {
+        if (expense) {
+            if (state.getAmount() != null) {
+                adjust(shard, event, state, sign * state.getAmount(), 0, 0, oldest, live);
+            }
+        } else {
+            adjust(shard, event, state, 0, sign, sign * amount(state), oldest, live);
+        }
+    }
+
+    private void adjust(Shard shard, ActivityEvent event, EntityState state, double spent, int budgets, double limit,
+                        YearMonth oldest, boolean live) {
+        if (!tracked(state, oldest)) {
+            return;
+        }
+        Key key = new Key(event.getUserId(), state.getCategory(), state.getMonthYear());
+        Tally tally = shard.tallies.computeIfAbsent(key, k -> new Tally());
+        tally.spent += spent;
+        tally.budgets += budgets;
+        if (tally.budgets > 0) {
+            tally.limit = (tally.limit == null ? 0 : tally.limit) + limit;
+        } else {
+            // The category's last budget is gone
+            tally.budgets = 0;
+            tally.limit = null;
+        }
+        evaluate(shard, key, tally, event, live);
+    }
+
+    private static double amount(EntityState state) {
+        return state.getAmount() == null ? 0 : state.getAmount();
+    }
+
+    private void evaluate(Shard shard, Key key, Tally tally, ActivityEvent event, boolean live) {
+        int reached = 0;
+        if (tally.limit != null && tally.limit > 0) {
+            while (reached < thresholds.length && tally.spent >= thresholds[reached] * tally.limit) {
+                reached++;
+            }
+        }
+        // Only the highest newly reached threshold is worth telling; dropping back below one re-arms it
+        if (reached > tally.reached && live) {
+            send(new BudgetAlert(key.userId(), key.category(), key.monthYear(), thresholds[reached - 1],
+                    tally.limit, tally.spent, event.getEventId(), Instant.now()));
+        }
+        tally.reached = reached;
+        if (tally.isEmpty()) {
+            shard.tallies.remove(key);
+        }
+    }
+
+    private void send(BudgetAlert alert) {
+        kafka.send(alertTopic, alert.getUserId(), alert).whenComplete((result, e) -> {
+            if (e != null) {
+                LOG.warn("Could not publish budget alert {}: {}", alert.getAlertId(), e.getMessage());
+            }
+        });
+        alertsSent.increment();
+    }
+
+    private static boolean tracked(EntityState state, YearMonth oldest) {
+        return state != null && state.getCategory() != null && state.getMonthYear() != null
+                && !isBefore(state.getMonthYear(), oldest);
+    }
+
+    // "yyyy-MM" sorts as text in month order
+    private static boolean isBefore(String monthYear, YearMonth month) {
+        return monthYear.compareTo(month.toString()) < 0;
+    }
+}
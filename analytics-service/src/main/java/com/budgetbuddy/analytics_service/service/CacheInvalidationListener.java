@@ -0,0 +1,35 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.cache.TieredCache;
+import com.budgetbuddy.events.ActivityEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Drops a user's cached analytics whenever an expense, budget or income of theirs changes.
+ * The services already announce every change on user-activity-logs, so that topic is the
+ * invalidation broadcast: each instance reads all of it in a group of its own and clears
+ * the user's entries in its near tier (and bumps their generation in the shared tier).
+ */
+@Service
+@ConditionalOnProperty(prefix = "budgetbuddy.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener {
+
+    private final List<TieredCache<?>> caches;
+
+    public CacheInvalidationListener(List<TieredCache<?>> caches) {
+        this.caches = caches;
+    }
+
+    @KafkaListener(topics = "${budgetbuddy.cache.invalidation.topic:user-activity-logs}",
+            groupId = "analytics-cache-${random.uuid}",
+            autoStartup = "${budgetbuddy.cache.invalidation.enabled:true}")
+    public void onActivity(ActivityEvent event) {
+        if (event.getUserId() != null) {
+            caches.forEach(cache -> cache.invalidate(event.getUserId()));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.client.BudgetClient;
+import com.budgetbuddy.analytics_service.client.ExpenseClient;
+import com.budgetbuddy.analytics_service.client.IncomeClient;
+import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import com.budgetbuddy.analytics_service.model.Budget;
+import com.budgetbuddy.analytics_service.model.BudgetUsage;
+import com.budgetbuddy.analytics_service.model.DashboardResponse;
+import com.budgetbuddy.analytics_service.model.Expense;
+import com.budgetbuddy.analytics_service.model.Income;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Assembles the dashboard in one pass: expenses, budgets and income are each fetched once,
+ * concurrently, and every section is derived from those three lists. Separate calls to
+ * {@code /summary} and {@code /available-months} would fetch budgets twice and expenses
+ * once more for the recent list.
+ *
+ * <p>The clients read the caller's token from the security context, so the fetches run on
+ * an executor that carries it (and the current trace) over to the worker threads.
+ */
+@Service
+public class DashboardService {
+    private final ExpenseClient expenseClient;
+    private final BudgetClient budgetClient;
+    private final IncomeClient incomeClient;
+    private final AnalyticsService analyticsService;
+    private final int recentLimit;
+    private final ExecutorService executor = new DelegatingSecurityContextExecutorService(
+            ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(),
+                    ContextSnapshotFactory.builder().build()));
+
+    public DashboardService(ExpenseClient expenseClient,
+                            BudgetClient budgetClient,
+                            IncomeClient incomeClient,
+                            AnalyticsService analyticsService,
+                            @Value("${budgetbuddy.analytics.dashboard.recent-limit:5}") int recentLimit) {
+        this.expenseClient = expenseClient;
+        this.budgetClient = budgetClient;
+        this.incomeClient = incomeClient;
+        this.analyticsService = analyticsService;
+        this.recentLimit = recentLimit;
+    }
+
+    public DashboardResponse getDashboard(String userId, String monthYear) {
+        CompletableFuture<List<Expense>> expensesCall =
+                CompletableFuture.supplyAsync(() -> expenseClient.getExpenses(userId), executor);
+        CompletableFuture<List<Budget>> budgetsCall =
+                CompletableFuture.supplyAsync(() -> budgetClient.getBudgets(userId), executor);
+        CompletableFuture<List<Income>> incomeCall =
+                CompletableFuture.supplyAsync(() -> incomeClient.getIncome(userId), executor);
+
+        List<Expense> expenses = join(expensesCall);
+        List<Budget> budgets = join(budgetsCall);
+        List<Income> income = join(incomeCall);
+
+        double totalIncome = income.stream().mapToDouble(Income::getAmount).sum();
+        AnalyticsResponse summary = analyticsService.summarize(expenses, budgets, totalIncome, monthYear);
+        List<String> months = analyticsService.availableMonths(budgets);
+
+        // With a month selected the summary already holds its budget usage
+        boolean monthSelected = monthYear != null && !monthYear.isEmpty();
+        String budgetMonth = monthSelected ? monthYear : months.isEmpty() ? null : months.get(0);
+        List<BudgetUsage> budgetStatus = monthSelected ? summary.getBudgetUsage()
+                : budgetMonth == null ? List.of()
+                : analyticsService.summarize(expenses, budgets, totalIncome, budgetMonth).getBudgetUsage();
+
+        DashboardResponse response = new DashboardResponse();
+        response.setMonthYear(monthYear);
+        response.setSummary(summary);
+        response.setAvailableMonths(months);
+        response.setBudgetMonth(budgetMonth);
+        response.setBudgetStatus(budgetStatus.stream()
+                .sorted(Comparator.comparingDouble(BudgetUsage::getPercentUsed).reversed())
+                .toList());
+        response.setRecentExpenses(mostRecent(expenses, Expense::getDate));
+        response.setRecentIncome(mostRecent(income, Income::getDate));
+        return response;
+    }
+
+    private <T> List<T> mostRecent(List<T> items, Function<T, Date> date) {
+        return items.stream()
+                .filter(item -> date.apply(item) != null)
+                .sorted(Comparator.comparing(date, Comparator.reverseOrder()))
+                .limit(recentLimit)
+                .toList();
+    }
+
+    // Surface the client's own exception, as /summary would, rather than a CompletionException
+    static <T> T join(CompletableFuture<T> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the summary straight from the shared {@code budgetbuddy} database, with one
+ * aggregation instead of three HTTP calls that each ship a user's full history. The
+ * pipeline starts on {@code expenses}, pulls in {@code budget} and {@code income} with
+ * {@code $unionWith} (MongoDB 4.4+), and {@code $group}s everything down to one row per
+ * (kind, category), so only a handful of totals cross the wire.
+ *
+ * <p>Semantics match the HTTP engine: expenses are filtered to the month in UTC, budgets
+ * by {@code monthYear}, and income is the all-time total. This bypasses the owning
+ * services, so it relies on them keeping their collections and field names; every stage
+ * is scoped to the caller's userId.
+ */
+@Service
+public class DirectAnalyticsEngine {
+    static final String EXPENSES = "expenses";
+    static final String BUDGETS = "budget";
+    static final String INCOME = "income";
+
+    /**
+     * A category's spend in one month, how many budgets it has and the sum of their limits;
+     * limit is null without a budget.
+     */
+    public record CategoryTotals(double spent, Double limit, int budgets) {}
+
+    private final MongoTemplate mongoTemplate;
+
+    public DirectAnalyticsEngine(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public AnalyticsResponse getUserAnalytics(String userId, String monthYear) {
+        List<Document> rows = mongoTemplate.getCollection(EXPENSES)
+                .aggregate(pipeline(userId, monthYear))
+                .into(new ArrayList<>());
+        return toResponse(rows);
+    }
+
+    /** Spend and budget limit per category of one month, from the same aggregation as the summary. */
+    public Map<String, CategoryTotals> getCategoryTotals(String userId, String monthYear) {
+        List<Document> rows = mongoTemplate.getCollection(EXPENSES)
+                .aggregate(pipeline(userId, monthYear))
+                .into(new ArrayList<>());
+        return toCategoryTotals(rows);
+    }
+
+    static List<Document> pipeline(String userId, String monthYear) {
+        boolean monthSelected = monthYear != null && !monthYear.isEmpty();
+
+        Document expenseMatch = new Document("userId", userId);
+        Document budgetMatch = new Document("userId", userId);
+        if (monthSelected) {
+            YearMonth month = parse(monthYear);
+            // Like the HTTP engine, a month that is not yyyy-MM matches nothing
+            expenseMatch.append("date", month == null ? new Document("$in", List.of())
+                    : new Document("$gte", Date.from(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant()))
+                            .append("$lt", Date.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())));
+            budgetMatch.append("monthYear", monthYear);
+        }
+
+        return List.of(
+                new Document("$match", expenseMatch),
+                new Document("$project", new Document("_id", 0).append("kind", new Document("$literal", "expense"))
+                        .append("category", 1).append("amount", 1)),
+                new Document("$unionWith", new Document("coll", BUDGETS).append("pipeline", List.of(
+                        new Document("$match", budgetMatch),
+                        new Document("$project", new Document("_id", 0).append("kind", new Document("$literal", "budget"))
+                                .append("category", 1).append("amount", "$limitAmount"))))),
+                new Document("$unionWith", new Document("coll", INCOME).append("pipeline", List.of(
+                        new Document("$match", new Document("userId", userId)),
+                        new Document("$project", new Document("_id", 0).append("kind", new Document("$literal", "income"))
+                                .append("amount", 1))))),
+                new Document("$group", new Document("_id", new Document("kind", "$kind").append("category", "$category"))
+                        .append("total", new Document("$sum", "$amount"))
+                        .append("count", new Document("$sum", 1))));
+    }
+
+    private static YearMonth parse(String monthYear) {
+        try {
+            return YearMonth.parse(monthYear);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static AnalyticsResponse toResponse(List<Document> rows) {
+        Map<String, Double> spentByCategory = new HashMap<>();
+        Map<String, Double> limitByCategory = new HashMap<>();
+        double totalIncome = 0;
+        for (Document row : rows) {
+            Document id = row.get("_id", Document.class);
+            double total = ((Number) row.get("total")).doubleValue();
+            switch (id.getString("kind")) {
+                case "expense" -> spentByCategory.merge(id.getString("category"), total, Double::sum);
+                case "budget" -> limitByCategory.merge(id.getString("category"), total, Double::sum);
+                case "income" -> totalIncome += total;
+                default -> { }
+            }
+        }
+        return AnalyticsService.response(spentByCategory, limitByCategory, totalIncome);
+    }
+
+    static Map<String, CategoryTotals> toCategoryTotals(List<Document> rows) {
+        Map<String, Double> spentByCategory = new HashMap<>();
+        Map<String, CategoryTotals> budgetsByCategory = new HashMap<>();
+        for (Document row : rows) {
+            Document id = row.get("_id", Document.class);
+            String category = id.getString("category");
+            if (category == null) {
+                continue;
+            }
+            double total = ((Number) row.get("total")).doubleValue();
+            switch (id.getString("kind")) {
+                case "expense" -> spentByCategory.merge(category, total, Double::sum);
+                case "budget" -> budgetsByCategory.put(category,
+                        new CategoryTotals(0, total, ((Number) row.get("count")).intValue()));
+                default -> { }
+            }
+        }
+        Map<String, CategoryTotals> totals = new HashMap<>(budgetsByCategory);
+        spentByCategory.forEach((category, spent) -> {
+            CategoryTotals budgets = budgetsByCategory.get(category);
+            totals.put(category, budgets == null ? new CategoryTotals(spent, null, 0)
+                    : new CategoryTotals(spent, budgets.limit(), budgets.budgets()));
+        });
+        return totals;
+    }
+}
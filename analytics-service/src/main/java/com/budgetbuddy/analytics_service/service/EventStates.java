@@ -0,0 +1,48 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+
+import java.util.List;
+import java.util.Objects;
+
+/** What an ActivityEvent changed, read from the entity states it carries (ActivityEvent v3). */
+final class EventStates {
+
+    private EventStates() {
+    }
+
+    /** The states of a single or batch event; empty if it carries none. */
+    static List<EntityState> of(ActivityEvent event) {
+        if (event.getEntityStates() != null) {
+            return event.getEntityStates();
+        }
+        return event.getState() == null ? List.of() : List.of(event.getState());
+    }
+
+    /** The ids of a single or batch event's entities, in the order of {@link #of its states}. */
+    static List<String> ids(ActivityEvent event) {
+        if (event.getEntityIds() != null) {
+            return event.getEntityIds();
+        }
+        return event.getEntityId() == null ? List.of() : List.of(event.getEntityId());
+    }
+
+    /** True if each of the event's states comes with the id of its entity. */
+    static boolean identified(ActivityEvent event) {
+        List<String> ids = ids(event);
+        return ids.size() == of(event).size() && ids.stream().allMatch(Objects::nonNull);
+    }
+
+    /** True if the event says what changed: a state, and on updates the state before too. */
+    static boolean carried(ActivityEvent event) {
+        if (event.getAction() == null) {
+            return false;
+        }
+        return switch (event.getAction()) {
+            case "CREATED", "DELETED" -> event.getState() != null || event.getEntityStates() != null;
+            case "UPDATED" -> event.getState() != null && event.getPreviousState() != null;
+            default -> false;
+        };
+    }
+}
@@ -0,0 +1,383 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.client.BudgetClient;
+import com.budgetbuddy.analytics_service.client.ExpenseClient;
+import com.budgetbuddy.analytics_service.client.IncomeClient;
+import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import com.budgetbuddy.analytics_service.model.Budget;
+import com.budgetbuddy.analytics_service.model.Expense;
+import com.budgetbuddy.analytics_service.model.Income;
+import com.budgetbuddy.analytics_service.model.SummaryDelta;
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes summary changes to connected dashboards over Server-Sent Events, so they no longer
+ * poll {@code /analytics/summary}. Each stream first gets the full summary, then a
+ * {@link SummaryDelta} whenever an ActivityEvent for its user changes it.
+ *
+ * <p>A stream keeps the per-category totals its summary was computed from, and expense and
+ * budget events are applied to them as deltas from the states they carry (ActivityEvent
+ * v3): no upstream call per event. The full summary is recomputed, with the token the
+ * stream was opened with, only when a stream opens and for events that carry no state
+ * (income, and events written before v3). The totals remember the state each entity was
+ * counted with, so an event the recompute's read already held is not counted twice, however
+ * the producers' clocks run. Either way the new summary is diffed against what the stream
+ * last saw. Only users with an open stream cost anything: other events are dropped on a map
+ * lookup, and a burst for one user (a bulk import, a budget copy) is coalesced into one push
+ * after {@code debounce-ms}.
+ *
+ * <p>An open stream holds no thread: the servlet response is async and idle connections
+ * only cost Tomcat's NIO selector a socket, so the limit is {@code server.tomcat.max-connections}
+ * and file descriptors. A comment line every {@code heartbeat-ms} keeps proxies from closing
+ * idle streams and finds clients that went away.
+ */
+@Service
+public class LiveSummaryService {
+    private static final Logger LOG = LoggerFactory.getLogger(LiveSummaryService.class);
+
+    /** One open stream, the totals behind its summary and the summary it was last sent. */
+    static final class Subscription {
+        final String userId;
+        final String monthYear;
+        final SseEmitter emitter;
+        volatile Totals totals;
+        volatile AnalyticsResponse last;
+
+        Subscription(String userId, String monthYear, SseEmitter emitter) {
+            this.userId = userId;
+            this.monthYear = monthYear;
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * What a stream's summary is computed from: spend and budget limits per category, in its
+     * month or all-time, all-time income, and the state each expense and budget was counted
+     * with, by id.
+     */
+    static final class Totals {
+        final Map<String, Double> spent = new HashMap<>();
+        final Map<String, Double> limit = new HashMap<>();
+        final Map<String, Integer> budgets = new HashMap<>();
+        final Map<String, EntityState> counted = new HashMap<>();
+        double income;
+
+        static Totals of(List<Expense> expenses, List<Budget> budgets, double income, String monthYear) {
+            Totals totals = new Totals();
+            for (Expense e : expenses) {
+                totals.set("EXPENSE", e.getId(), new EntityState(e.getAmount(), e.getCategory(),
+                        e.getDate() == null ? null : e.getDate().toInstant().toString().substring(0, 7)), monthYear);
+            }
+            for (Budget b : budgets) {
+                totals.set("BUDGET", b.getId(), new EntityState(b.getLimitAmount(), b.getCategory(), b.getMonthYear()), monthYear);
+            }
+            totals.income = income;
+            return totals;
+        }
+
+        /**
+         * Applies an expense or budget event that {@link EventStates#carried carries its states}.
+         * Each entity ends at the event's state whatever was counted for it before, so an event
+         * the services had already written when the totals were read changes nothing.
+         */
+        void apply(ActivityEvent event, String monthYear) {
+            List<String> ids = EventStates.ids(event);
+            List<EntityState> states = EventStates.of(event);
+            boolean deleted = "DELETED".equals(event.getAction());
+            for (int i = 0; i < ids.size(); i++) {
+                set(event.getEntityType(), ids.get(i), deleted ? null : states.get(i), monthYear);
+            }
+        }
+
+        // Replaces what the entity added to the totals; a null state removes it
+        private void set(String entityType, String id, EntityState state, String monthYear) {
+            String key = entityType + ":" + id;
+            EntityState before = state == null ? counted.remove(key) : counted.put(key, state);
+            if (before != null) {
+                change(entityType, before, -1, monthYear);
+            }
+            if (state != null) {
+                change(entityType, state, 1, monthYear);
+            }
+        }
+
+        private void change(String entityType, EntityState state, int sign, String monthYear) {
+            if (state.getCategory() == null || state.getAmount() == null
+                    || !(monthYear == null || monthYear.equals(state.getMonthYear()))) {
+                return;
+            }
+            String category = state.getCategory();
+            if ("EXPENSE".equals(entityType)) {
+                spent.merge(category, sign * state.getAmount(), Double::sum);
+            } else if (budgets.merge(category, sign, Integer::sum) > 0) {
+                limit.merge(category, sign * state.getAmount(), Double::sum);
+            } else {
+                // A category's last budget is gone, and with it the category's usage
+                budgets.remove(category);
+                limit.remove(category);
+            }
+        }
+
+        AnalyticsResponse summary() {
+            return AnalyticsService.response(spent, limit, income);
+        }
+    }
+
+    /**
+     * A user's open streams, the events waiting to be applied to them, and the newest token
+     * to recompute their summary with.
+     */
+    static final class UserStreams {
+        final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+        final Queue<ActivityEvent> changes = new ConcurrentLinkedQueue<>();
+        // Set for an event without state: only a recompute can tell what it changed
+        final AtomicBoolean recompute = new AtomicBoolean();
+        final AtomicBoolean refreshPending = new AtomicBoolean();
+        // Refreshes of one user never overlap, so deltas reach a stream in order
+        final ReentrantLock refreshLock = new ReentrantLock();
+        volatile String token;
+    }
+
+    private final ExpenseClient expenseClient;
+    private final BudgetClient budgetClient;
+    private final IncomeClient incomeClient;
+    private final long debounceMs;
+    private final long timeoutMs;
+    private final int maxPerUser;
+    private final int maxConnections;
+
+    private final Map<String, UserStreams> users = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "live-summary-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ExecutorService refreshes = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LiveSummaryService(ExpenseClient expenseClient,
+                              BudgetClient budgetClient,
+                              IncomeClient incomeClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${budgetbuddy.analytics.live.debounce-ms:250}") long debounceMs,
+                              @Value("${budgetbuddy.analytics.live.heartbeat-ms:25000}") long heartbeatMs,
+                              @Value("${budgetbuddy.analytics.live.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${budgetbuddy.analytics.live.max-streams-per-user:5}") int maxPerUser,
+                              @Value("${budgetbuddy.analytics.live.max-streams:20000}") int maxConnections) {
+        this.expenseClient = expenseClient;
+        this.budgetClient = budgetClient;
+        this.incomeClient = incomeClient;
+        this.debounceMs = debounceMs;
+        this.timeoutMs = timeoutMs;
+        this.maxPerUser = maxPerUser;
+        this.maxConnections = maxConnections;
+        Gauge.builder("budgetbuddy.analytics.live.streams", connections, AtomicInteger::get)
+                .description("Open summary streams")
+                .register(meterRegistry);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String userId, String token, String monthYear) {
+        return subscribe(userId, token, monthYear, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(String userId, String token, String monthYear, SseEmitter emitter) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open streams");
+        }
+        Subscription subscription = new Subscription(userId, monthYear == null || monthYear.isEmpty() ? null : monthYear, emitter);
+        UserStreams streams;
+        try {
+            // Atomic with unsubscribe, which drops a user's entry once its last stream closes
+            streams = users.compute(userId, (id, existing) -> {
+                UserStreams s = existing != null ? existing : new UserStreams();
+                if (s.subscriptions.size() >= maxPerUser) {
+                    throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open streams for this user");
+                }
+                s.subscriptions.add(subscription);
+                s.token = token;
+                return s;
+            });
+        } catch (ResponseStatusException e) {
+            connections.decrementAndGet();
+            throw e;
+        }
+
+        Runnable remove = () -> unsubscribe(subscription);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // The first refresh sends the full summary the deltas build on
+        scheduleRefresh(userId, streams, 0);
+        return emitter;
+    }
+
+    @KafkaListener(topics = "${budgetbuddy.analytics.live.topic:user-activity-logs}",
+            autoStartup = "${budgetbuddy.analytics.live.enabled:true}")
+    public void onActivity(ActivityEvent event) {
+        UserStreams streams = event.getUserId() == null ? null : users.get(event.getUserId());
+        if (streams != null) {
+            boolean delta = ("EXPENSE".equals(event.getEntityType()) || "BUDGET".equals(event.getEntityType()))
+                    && EventStates.carried(event) && EventStates.identified(event);
+            if (delta) {
+                streams.changes.add(event);
+            } else {
+                streams.recompute.set(true);
+            }
+            scheduleRefresh(event.getUserId(), streams, debounceMs);
+        }
+    }
+
+    int openStreams() {
+        return connections.get();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        users.computeIfPresent(subscription.userId, (id, s) -> {
+            if (s.subscriptions.remove(subscription)) {
+                connections.decrementAndGet();
+            }
+            return s.subscriptions.isEmpty() ? null : s;
+        });
+    }
+
+    // Client gone or stream already completed
+    private void drop(Subscription s, Exception e) {
+        unsubscribe(s);
+        s.emitter.completeWithError(e);
+    }
+
+    // Events that arrive while a refresh is pending ride along with it; one arriving during a
+    // refresh schedules the next, so the last change is never missed
+    private void scheduleRefresh(String userId, UserStreams streams, long delayMs) {
+        if (streams.refreshPending.compareAndSet(false, true)) {
+            scheduler.schedule(() -> refreshes.execute(() -> {
+                streams.refreshLock.lock();
+                try {
+                    streams.refreshPending.set(false);
+                    refresh(userId, streams);
+                } finally {
+                    streams.refreshLock.unlock();
+                }
+            }), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh(String userId, UserStreams streams) {
+        if (streams.subscriptions.isEmpty()) {
+            return;
+        }
+        List<ActivityEvent> changes = new ArrayList<>();
+        for (ActivityEvent event; (event = streams.changes.poll()) != null; ) {
+            changes.add(event);
+        }
+        if (!streams.recompute.getAndSet(false) && streams.subscriptions.stream().allMatch(s -> s.totals != null)) {
+            for (Subscription s : streams.subscriptions) {
+                changes.forEach(event -> s.totals.apply(event, s.monthYear));
+                push(s, s.totals.summary());
+            }
+            return;
+        }
+        recompute(userId, streams);
+    }
+
+    // The drained changes are dropped: the services already held them when they were read.
+    // Events still queued may be in the read too; applying them sets what is already counted.
+    private void recompute(String userId, UserStreams streams) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, streams.token, List.of()));
+        try {
+            List<Expense> expenses = expenseClient.getExpenses(userId);
+            List<Budget> budgets = budgetClient.getBudgets(userId);
+            double totalIncome = incomeClient.getIncome(userId).stream().mapToDouble(Income::getAmount).sum();
+            for (Subscription s : streams.subscriptions) {
+                s.totals = Totals.of(expenses, budgets, totalIncome, s.monthYear);
+                push(s, s.totals.summary());
+            }
+        } catch (HttpClientErrorException.Unauthorized e) {
+            // The token expired; clients reconnect with a fresh one
+            LOG.debug("Closing summary streams of {}: token rejected", userId);
+            streams.subscriptions.forEach(s -> {
+                unsubscribe(s);
+                s.emitter.complete();
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not refresh live summary for {}: {}", userId, e.getMessage());
+            // What the dropped changes did is only known to the services now
+            streams.recompute.set(true);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private void push(Subscription s, AnalyticsResponse summary) {
+        AnalyticsResponse last = s.last;
+        try {
+            if (last == null) {
+                s.emitter.send(SseEmitter.event().name("summary").data(summary));
+            } else {
+                SummaryDelta delta = SummaryDelta.between(last, summary);
+                if (delta.isEmpty()) {
+                    return;
+                }
+                s.emitter.send(SseEmitter.event().name("delta").data(delta));
+            }
+            s.last = summary;
+        } catch (IOException | IllegalStateException e) {
+            drop(s, e);
+        }
+    }
+
+    private void heartbeat() {
+        for (UserStreams streams : users.values()) {
+            for (Subscription s : streams.subscriptions) {
+                try {
+                    s.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    drop(s, e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        refreshes.shutdownNow();
+        users.values().forEach(streams -> streams.subscriptions.forEach(s -> s.emitter.complete()));
+    }
+}
@@ -0,0 +1,260 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.client.BudgetClient;
+import com.budgetbuddy.analytics_service.client.ExpenseClient;
+import com.budgetbuddy.analytics_service.client.IncomeClient;
+import com.budgetbuddy.analytics_service.model.Budget;
+import com.budgetbuddy.analytics_service.model.CategoryTrend;
+import com.budgetbuddy.analytics_service.model.Expense;
+import com.budgetbuddy.analytics_service.model.Income;
+import com.budgetbuddy.analytics_service.model.TrendPeriod;
+import com.budgetbuddy.analytics_service.model.TrendResponse;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Spending, budget and income per month or ISO week over a range, for charts that would
+ * otherwise call {@code /summary} once per month and download the full history each time.
+ * Expenses and income are fetched once, bounded to the range, and budgets once; then every
+ * record is added to its period in a single pass, its period found by arithmetic on the
+ * date rather than by filtering the list once per period.
+ *
+ * <p>Dates are bucketed in UTC, as {@code /summary} does. Budgets are monthly, so with
+ * weekly periods each week gets the share of a month's limit for the days it has in that
+ * month.
+ */
+@Service
+public class TrendService {
+    public enum Granularity { MONTH, WEEK }
+
+    private final ExpenseClient expenseClient;
+    private final BudgetClient budgetClient;
+    private final IncomeClient incomeClient;
+    private final int maxPeriods;
+    private final ExecutorService executor = new DelegatingSecurityContextExecutorService(
+            ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(),
+                    ContextSnapshotFactory.builder().build()));
+
+    /** Running totals of one category in one period. */
+    private static final class Cell {
+        double spent;
+        double limit;
+        boolean budgeted;
+    }
+
+    /** Running totals of one period. */
+    private static final class Bucket {
+        double income;
+        double expenses;
+        final Map<String, Cell> categories = new TreeMap<>();
+
+        Cell category(String name) {
+            return categories.computeIfAbsent(name, c -> new Cell());
+        }
+    }
+
+    public TrendService(ExpenseClient expenseClient,
+                        BudgetClient budgetClient,
+                        IncomeClient incomeClient,
+                        @Value("${budgetbuddy.analytics.trends.max-periods:104}") int maxPeriods) {
+        this.expenseClient = expenseClient;
+        this.budgetClient = budgetClient;
+        this.incomeClient = incomeClient;
+        this.maxPeriods = maxPeriods;
+    }
+
+    /**
+     * @param from        first period, as {@code yyyy-MM} or a date within it; defaults to 11 periods before {@code to}
+     * @param to          last period, as {@code yyyy-MM} or a date within it; defaults to the current one
+     * @param granularity {@code month} (default) or {@code week}
+     */
+    public TrendResponse getTrends(String userId, String from, String to, String granularity) {
+        Granularity g = granularity(granularity);
+        LocalDate last = to == null || to.isEmpty() ? LocalDate.now(ZoneOffset.UTC) : date(to, true);
+        LocalDate first = from == null || from.isEmpty()
+                ? (g == Granularity.MONTH ? last.minusMonths(11) : last.minusWeeks(11))
+                : date(from, false);
+        LocalDate start = periodStart(first, g);
+        LocalDate end = periodEnd(last, g);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (index(end, start, g) >= maxPeriods) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxPeriods + " periods per request");
+        }
+
+        CompletableFuture<List<Expense>> expensesCall =
+                CompletableFuture.supplyAsync(() -> expenseClient.getExpenses(userId, start, end), executor);
+        CompletableFuture<List<Budget>> budgetsCall =
+                CompletableFuture.supplyAsync(() -> budgetClient.getBudgets(userId), executor);
+        CompletableFuture<List<Income>> incomeCall =
+                CompletableFuture.supplyAsync(() -> incomeClient.getIncome(userId, start, end), executor);
+
+        TrendResponse response = compute(DashboardService.join(expensesCall), DashboardService.join(budgetsCall),
+                DashboardService.join(incomeCall), start, end, g);
+        response.setFrom(label(start, g));
+        response.setTo(label(end, g));
+        return response;
+    }
+
+    /** The periods from the one containing {@code start} to the one containing {@code end}. */
+    TrendResponse compute(List<Expense> expenses, List<Budget> budgets, List<Income> income,
+                          LocalDate start, LocalDate end, Granularity g) {
+        start = periodStart(start, g);
+        end = periodEnd(end, g);
+        Bucket[] buckets = new Bucket[index(end, start, g) + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new Bucket();
+        }
+
+        for (Expense e : expenses) {
+            Bucket b = bucket(buckets, e.getDate(), start, end, g);
+            if (b != null && e.getCategory() != null) {
+                b.expenses += e.getAmount();
+                b.category(e.getCategory()).spent += e.getAmount();
+            }
+        }
+        for (Income i : income) {
+            Bucket b = bucket(buckets, i.getDate(), start, end, g);
+            if (b != null) {
+                b.income += i.getAmount();
+            }
+        }
+        for (Budget budget : budgets) {
+            addLimit(buckets, budget, start, end, g);
+        }
+
+        TrendResponse response = new TrendResponse();
+        response.setGranularity(g.name().toLowerCase(Locale.ROOT));
+        List<TrendPeriod> periods = new ArrayList<>(buckets.length);
+        LocalDate periodStart = start;
+        for (Bucket b : buckets) {
+            TrendPeriod p = new TrendPeriod();
+            p.setPeriod(label(periodStart, g));
+            p.setStart(periodStart);
+            p.setEnd(periodEnd(periodStart, g));
+            p.setTotalIncome(b.income);
+            p.setTotalExpenses(b.expenses);
+            p.setNetSavings(b.income - b.expenses);
+            b.categories.forEach((category, c) ->
+                    p.getCategories().add(new CategoryTrend(category, c.spent, c.budgeted ? c.limit : null)));
+            periods.add(p);
+            periodStart = g == Granularity.MONTH ? periodStart.plusMonths(1) : periodStart.plusWeeks(1);
+        }
+        response.setPeriods(periods);
+        return response;
+    }
+
+    private static Bucket bucket(Bucket[] buckets, Date date, LocalDate start, LocalDate end, Granularity g) {
+        if (date == null) {
+            return null;
+        }
+        LocalDate day = date.toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        return day.isBefore(start) || day.isAfter(end) ? null : buckets[index(day, start, g)];
+    }
+
+    private static void addLimit(Bucket[] buckets, Budget budget, LocalDate start, LocalDate end, Granularity g) {
+        if (budget.getCategory() == null || budget.getMonthYear() == null) {
+            return;
+        }
+        YearMonth month;
+        try {
+            month = YearMonth.parse(budget.getMonthYear());
+        } catch (DateTimeParseException e) {
+            return;
+        }
+        LocalDate monthStart = month.atDay(1).isBefore(start) ? start : month.atDay(1);
+        LocalDate monthEnd = month.atEndOfMonth().isAfter(end) ? end : month.atEndOfMonth();
+        if (monthStart.isAfter(monthEnd)) {
+            return;
+        }
+        if (g == Granularity.MONTH) {
+            Cell c = buckets[index(monthStart, start, g)].category(budget.getCategory());
+            c.limit += budget.getLimitAmount();
+            c.budgeted = true;
+            return;
+        }
+        // At most six weeks touch a month
+        for (int i = index(monthStart, start, g); i <= index(monthEnd, start, g); i++) {
+            LocalDate weekStart = start.plusWeeks(i);
+            LocalDate from = weekStart.isBefore(monthStart) ? monthStart : weekStart;
+            LocalDate to = weekStart.plusDays(6).isAfter(monthEnd) ? monthEnd : weekStart.plusDays(6);
+            Cell c = buckets[i].category(budget.getCategory());
+            c.limit += budget.getLimitAmount() * (ChronoUnit.DAYS.between(from, to) + 1) / month.lengthOfMonth();
+            c.budgeted = true;
+        }
+    }
+
+    private static int index(LocalDate day, LocalDate start, Granularity g) {
+        return g == Granularity.MONTH
+                ? (int) ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(day))
+                : (int) (ChronoUnit.DAYS.between(start, day) / 7);
+    }
+
+    private static LocalDate periodStart(LocalDate day, Granularity g) {
+        return g == Granularity.MONTH ? day.withDayOfMonth(1) : day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static LocalDate periodEnd(LocalDate day, Granularity g) {
+        return g == Granularity.MONTH ? YearMonth.from(day).atEndOfMonth() : day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+    }
+
+    private static String label(LocalDate periodStart, Granularity g) {
+        return g == Granularity.MONTH ? YearMonth.from(periodStart).toString()
+                : String.format("%d-W%02d", periodStart.get(IsoFields.WEEK_BASED_YEAR),
+                        periodStart.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+
+    private static Granularity granularity(String value) {
+        if (value == null || value.isEmpty()) {
+            return Granularity.MONTH;
+        }
+        try {
+            return Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "granularity must be month or week");
+        }
+    }
+
+    // yyyy-MM stands for its first or last day, depending on the end of the range it bounds
+    private static LocalDate date(String value, boolean endOfRange) {
+        try {
+            if (value.length() == 7) {
+                YearMonth month = YearMonth.parse(value);
+                return endOfRange ? month.atEndOfMonth() : month.atDay(1);
+            }
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected yyyy-MM or yyyy-MM-dd but got " + value);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
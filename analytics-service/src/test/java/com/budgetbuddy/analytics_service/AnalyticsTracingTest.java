@@ -0,0 +1,120 @@
+package com.budgetbuddy.analytics_service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class AnalyticsTracingTest {
+
+    @TestConfiguration
+    static class InMemoryExport {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private InMemorySpanExporter spans;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @BeforeEach
+    void resetSpans() {
+        spans.reset();
+    }
+
+    @Test
+    void summary_isOneTraceAcrossFilterControllerAndClients() throws Exception {
+        MockRestServiceServer downstream = MockRestServiceServer.bindTo(restTemplate).build();
+        for (String url : List.of("http://localhost:8082/expenses", "http://localhost:8084/budgets", "http://localhost:8083/income")) {
+            downstream.expect(requestTo(url))
+                    .andExpect(request -> assertThat(request.getHeaders().getFirst("traceparent")).isNotBlank())
+                    .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        }
+        String token = Jwts.builder()
+                .claim("id", "u1")
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        mvc.perform(get("/analytics/summary").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        downstream.verify();
+        List<SpanData> finished = awaitSpans(5);
+        Set<String> traceIds = finished.stream().map(SpanData::getTraceId).collect(Collectors.toSet());
+        assertThat(traceIds).hasSize(1);
+        assertThat(finished).extracting(SpanData::getName)
+                .contains("budgetbuddy.jwt.validation", "http get /analytics/summary")
+                .filteredOn(name -> name.startsWith("http get") && !name.contains("analytics"))
+                .hasSize(3);
+    }
+
+    @Test
+    void dashboard_concurrentFetchesStayInTheRequestTrace() throws Exception {
+        MockRestServiceServer downstream = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        for (String url : List.of("http://localhost:8082/expenses", "http://localhost:8084/budgets", "http://localhost:8083/income")) {
+            downstream.expect(requestTo(url))
+                    .andExpect(request -> assertThat(request.getHeaders().getFirst("traceparent")).isNotBlank())
+                    .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        }
+        String token = Jwts.builder()
+                .claim("id", "u1")
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        mvc.perform(get("/analytics/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        downstream.verify();
+        List<SpanData> finished = awaitSpans(5);
+        assertThat(finished).extracting(SpanData::getTraceId).containsOnly(finished.get(0).getTraceId());
+        assertThat(finished).extracting(SpanData::getName)
+                .contains("http get /analytics/dashboard")
+                .filteredOn(name -> name.startsWith("http get") && !name.contains("analytics"))
+                .hasSize(3);
+    }
+
+    // Spans are exported by a batch processor on its own thread
+    private List<SpanData> awaitSpans(int count) throws InterruptedException {
+        for (int i = 0; i < 50 && spans.getFinishedSpanItems().size() < count; i++) {
+            Thread.sleep(100);
+        }
+        return spans.getFinishedSpanItems();
+    }
+}
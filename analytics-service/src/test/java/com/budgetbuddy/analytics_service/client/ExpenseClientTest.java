@@ -0,0 +1,53 @@
+package com.budgetbuddy.analytics_service.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ExpenseClientTest {
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final String EXPENSES = """
+            [
+              {"id": "e1", "userId": "u1", "amount": 50.0, "category": "Food",
+               "date": "2025-07-01T00:00:00.000+00:00", "tags": ["a", {"nested": [1, 2]}]},
+              {"id": "e2", "amount": 20, "category": "Travel", "date": "2025-07-31T23:30:00.000-02:00"},
+              {"category": "Food", "date": 1751500800000, "amount": 5.5},
+              {"id": "e4", "amount": 999.0, "category": "Food", "date": "2025-06-30T23:59:59.000+00:00"},
+              {"id": "e5", "amount": 7.0, "category": "Food", "date": null}
+            ]
+            """;
+
+    @Test
+    void spentByCategory_sumsTheMonthInUtc() throws Exception {
+        Map<String, Double> spent = ExpenseClient.spentByCategory(json(EXPENSES), "2025-07");
+
+        // e2 is 2025-08-01T01:30Z, so it falls in August
+        assertThat(spent).containsOnly(entry("Food", 55.5));
+    }
+
+    @Test
+    void spentByCategory_withoutMonthSumsEverything() throws Exception {
+        Map<String, Double> spent = ExpenseClient.spentByCategory(json(EXPENSES), null);
+
+        assertThat(spent).containsOnly(entry("Food", 1061.5), entry("Travel", 20.0));
+        assertThat(ExpenseClient.spentByCategory(json("[]"), "2025-07")).isEmpty();
+    }
+
+    @Test
+    void rejectsAnythingButAnArray() {
+        assertThatThrownBy(() -> ExpenseClient.spentByCategory(json("{\"error\": \"nope\"}"), null))
+                .isInstanceOf(JsonParseException.class);
+        assertThatThrownBy(() -> ExpenseClient.spentByCategory(json("[{\"date\": \"yesterday\"}]"), "2025-07"))
+                .isInstanceOf(JsonParseException.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.budgetbuddy.analytics_service.client;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IncomeClientTest {
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sumAmounts_addsTopLevelAmountsOnly() throws Exception {
+        String income = """
+                [
+                  {"id": "i1", "source": "Salary", "amount": 2000.0, "date": "2025-07-01T00:00:00.000+00:00"},
+                  {"meta": {"amount": 1e9, "history": [{"amount": 5}]}, "amount": 150},
+                  {"id": "i3", "source": "Gift"}
+                ]
+                """;
+
+        assertThat(IncomeClient.sumAmounts(json(income))).isEqualTo(2150.0);
+        assertThat(IncomeClient.sumAmounts(json("[]"))).isZero();
+    }
+
+    @Test
+    void rejectsAnythingButAnArray() {
+        assertThatThrownBy(() -> IncomeClient.sumAmounts(json("{\"amount\": 1}")))
+                .isInstanceOf(JsonParseException.class);
+    }
+}
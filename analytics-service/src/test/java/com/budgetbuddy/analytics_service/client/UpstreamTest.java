@@ -0,0 +1,197 @@
+package com.budgetbuddy.analytics_service.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UpstreamTest {
+
+    private static final List<String> TWO = List.of("http://a:8082", "http://b:8082/");
+    // Ties go to the first instance listed, so which instance a call picks is predictable
+    private static final IntUnaryOperator FIRST = bound -> bound - 1;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Upstream upstream(List<String> urls, UpstreamOptions options) {
+        return new Upstream("expense-service", urls, options, executor, meterRegistry, now::get, FIRST);
+    }
+
+    private static String baseUrl(Upstream upstream) {
+        return upstream.call(base -> base);
+    }
+
+    @Test
+    void sendsEachCallToTheInstanceWithFewestInProgress() throws Exception {
+        Upstream upstream = upstream(TWO, new UpstreamOptions());
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> upstream.call(base -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return base;
+        }), executor);
+        while (upstream.instances().stream().mapToInt(i -> i.outstanding.get()).sum() == 0) {
+            Thread.sleep(5);
+        }
+        String busy = upstream.instances().stream().filter(i -> i.outstanding.get() == 1).findFirst().orElseThrow().baseUrl;
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(baseUrl(upstream)).isNotEqualTo(busy);
+        }
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo(busy);
+        assertThat(upstream.instances()).extracting(i -> i.baseUrl).containsExactly("http://a:8082", "http://b:8082");
+    }
+
+    @Test
+    void ejectsAnInstanceAfterConsecutiveFailuresAndLetsItBackLater() {
+        UpstreamOptions options = new UpstreamOptions();
+        options.setEjectAfterFailures(2);
+        options.setEjectMs(1_000);
+        Upstream upstream = upstream(TWO, options);
+
+        // Ties go to a, so it gets both failing calls in a row
+        for (int i = 0; i < 2; i++) {
+            try {
+                upstream.call(base -> {
+                    if (base.contains("//a")) {
+                        throw new ResourceAccessException("Connection refused");
+                    }
+                    return base;
+                });
+            } catch (ResourceAccessException expected) {
+            }
+        }
+
+        assertThat(upstream.available()).extracting(i -> i.baseUrl).containsExactly("http://b:8082");
+        assertThat(meterRegistry.get("budgetbuddy.upstream.ejections").counter().count()).isEqualTo(1);
+        for (int i = 0; i < 5; i++) {
+            assertThat(baseUrl(upstream)).isEqualTo("http://b:8082");
+        }
+
+        now.addAndGet(1_000);
+        assertThat(upstream.available()).hasSize(2);
+    }
+
+    @Test
+    void callsGoSomewhereEvenWhenEveryInstanceIsEjected() {
+        UpstreamOptions options = new UpstreamOptions();
+        options.setEjectAfterFailures(1);
+        Upstream upstream = upstream(TWO, options);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> upstream.call(base -> {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            })).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        assertThat(upstream.available()).isEmpty();
+        assertThat(baseUrl(upstream)).isIn("http://a:8082", "http://b:8082");
+        assertThat(upstream.available()).hasSize(1);
+    }
+
+    @Test
+    void hedgesASlowCallToAnotherInstanceAndCancelsTheLoser() throws Exception {
+        UpstreamOptions options = new UpstreamOptions();
+        options.setHedgeAfterMs(20);
+        options.setHedgeBudgetPercent(100);
+        Upstream upstream = upstream(TWO, options);
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+
+        String answer = upstream.call(base -> {
+            if (base.contains("//a")) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    loserInterrupted.countDown();
+                    throw new ResourceAccessException("Interrupted");
+                }
+            }
+            return base;
+        });
+
+        // Whichever instance was tried first, b answers; a slow a is cancelled, not ejected
+        assertThat(answer).isEqualTo("http://b:8082");
+        if (meterRegistry.get("budgetbuddy.upstream.hedges").counter().count() == 1) {
+            assertThat(loserInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(upstream.instances()).allSatisfy(i -> assertThat(i.consecutiveFailures.get()).isZero());
+    }
+
+    @Test
+    void hedgesStayWithinTheBudget() {
+        UpstreamOptions options = new UpstreamOptions();
+        options.setHedgeAfterMs(1);
+        options.setHedgeBudgetPercent(10);
+        Upstream upstream = upstream(TWO, options);
+
+        // Every call outlasts hedge-after-ms, so the budget alone decides: calls 10, 20 and 30
+        for (int i = 0; i < 30; i++) {
+            upstream.call(base -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return base;
+            });
+        }
+
+        assertThat(meterRegistry.get("budgetbuddy.upstream.hedges").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void reloadsTheInstanceFileWhenItChanges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("expense-service.txt");
+        Files.writeString(file, "# expense-service\nhttp://a:8082\n\nhttp://b:8082\n");
+        UpstreamOptions.Service service = new UpstreamOptions.Service();
+        service.setFile(file.toString());
+        UpstreamOptions options = new UpstreamOptions();
+        options.getServices().put("expense-service", service);
+
+        try (Upstreams upstreams = new Upstreams(options, meterRegistry)) {
+            Upstream upstream = upstreams.get("expense-service", "http://localhost:8082");
+            assertThat(upstream.instances()).extracting(i -> i.baseUrl).containsExactly("http://a:8082", "http://b:8082");
+            Upstream.Instance kept = upstream.instances().get(1);
+
+            Files.writeString(file, "http://b:8082\nhttp://c:8082\n");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            upstreams.reloadFiles();
+            assertThat(upstream.instances()).extracting(i -> i.baseUrl).containsExactly("http://b:8082", "http://c:8082");
+            assertThat(upstream.instances().get(0)).isSameAs(kept);
+
+            // An emptied file keeps the last instances
+            Files.writeString(file, "");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 20_000));
+            upstreams.reloadFiles();
+            assertThat(upstream.instances()).hasSize(2);
+
+            // Unconfigured services go to the client's default
+            assertThat(baseUrl(upstreams.get("budget-service", "http://localhost:8084")))
+                    .isEqualTo("http://localhost:8084");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.budgetbuddy.analytics_service.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HashRingTest {
+
+    private static final List<String> THREE = List.of("http://a:8085", "http://b:8085", "http://c:8085");
+
+    @Test
+    void spreadsUsersEvenlyAndAgreesAcrossInstances() {
+        HashRing ring = new HashRing(THREE, 160);
+        HashRing sameNodesOtherOrder = new HashRing(List.of("http://c:8085", "http://a:8085", "http://b:8085"), 160);
+
+        Map<String, Integer> users = new HashMap<>();
+        for (int i = 0; i < 30_000; i++) {
+            String owner = ring.owner("user" + i);
+            assertThat(sameNodesOtherOrder.owner("user" + i)).isEqualTo(owner);
+            users.merge(owner, 1, Integer::sum);
+        }
+
+        assertThat(users).containsOnlyKeys(THREE);
+        assertThat(users.values()).allSatisfy(n -> assertThat(n).isBetween(8_500, 11_500));
+    }
+
+    @Test
+    void joiningOrLeavingMovesOnlyTheUsersOfThatInstance() {
+        HashRing three = new HashRing(THREE, 160);
+        HashRing four = new HashRing(List.of("http://a:8085", "http://b:8085", "http://c:8085", "http://d:8085"), 160);
+
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            String before = three.owner("user" + i);
+            String after = four.owner("user" + i);
+            if (!before.equals(after)) {
+                // Every user that moves, moves to the new instance
+                assertThat(after).isEqualTo("http://d:8085");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(4_000, 6_000);
+    }
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertThat(new HashRing(List.of(), 10).owner("user1")).isNull();
+        assertThat(new HashRing(List.of("http://a:8085"), 1).owner("user1")).isEqualTo("http://a:8085");
+        assertThatThrownBy(() -> new HashRing(THREE, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.budgetbuddy.analytics_service.routing;
+
+import com.budgetbuddy.analytics_service.client.UpstreamOptions;
+import com.budgetbuddy.analytics_service.client.Upstreams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+class UserRouterTest {
+
+    private static final String SELF = "http://localhost:8085";
+    private static final String OTHER = "http://localhost:8086";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private MockRestServiceServer other;
+    private Upstreams upstreams;
+    private UserRouter router;
+
+    @BeforeEach
+    void setUp() {
+        UpstreamOptions.Service analytics = new UpstreamOptions.Service();
+        analytics.setInstances(List.of(SELF, OTHER));
+        UpstreamOptions options = new UpstreamOptions();
+        options.setEjectAfterFailures(1);
+        options.getServices().put("analytics-service", analytics);
+        upstreams = new Upstreams(options, meterRegistry);
+        router = new UserRouter(restTemplate, upstreams, meterRegistry, true, SELF + "/", 160);
+        other = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        upstreams.close();
+    }
+
+    private String userOwnedBy(String owner) {
+        for (int i = 0; ; i++) {
+            if (router.ownerOf("user" + i).equals(owner)) {
+                return "user" + i;
+            }
+        }
+    }
+
+    private static MockHttpServletRequest summaryRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/analytics/summary");
+        request.setQueryString("monthYear=2025-07");
+        request.addHeader("Authorization", "Bearer token-1");
+        return request;
+    }
+
+    @Test
+    void servesItsOwnUsersHere() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(router.forwardIfElsewhere(userOwnedBy(SELF), summaryRequest(), response)).isFalse();
+
+        other.verify();
+        assertThat(meterRegistry.get("budgetbuddy.analytics.routing.requests").tag("outcome", "local").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void forwardsOtherUsersToTheirOwnerAndRelaysTheAnswer() throws Exception {
+        other.expect(requestTo(OTHER + "/analytics/summary?monthYear=2025-07"))
+                .andExpect(header("Authorization", "Bearer token-1"))
+                .andExpect(header(UserRouter.ROUTED_BY, SELF))
+                .andRespond(withSuccess("{\"totalExpenses\":70.0}", MediaType.APPLICATION_JSON));
+        other.expect(requestTo(OTHER + "/analytics/summary?monthYear=2025-07"))
+                .andRespond(withBadRequest().body("bad month").contentType(MediaType.TEXT_PLAIN));
+        String user = userOwnedBy(OTHER);
+
+        MockHttpServletResponse ok = new MockHttpServletResponse();
+        assertThat(router.forwardIfElsewhere(user, summaryRequest(), ok)).isTrue();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertThat(router.forwardIfElsewhere(user, summaryRequest(), rejected)).isTrue();
+
+        other.verify();
+        assertThat(ok.getContentAsString()).isEqualTo("{\"totalExpenses\":70.0}");
+        assertThat(ok.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(rejected.getContentAsString()).isEqualTo("bad month");
+    }
+
+    @Test
+    void servesHereWhenTheOwnerIsDownAndMovesOnlyItsUsers() throws Exception {
+        other.expect(requestTo(OTHER + "/analytics/summary?monthYear=2025-07"))
+                .andRespond(request -> {
+                    throw new ResourceAccessException("Connection refused");
+                });
+        String user = userOwnedBy(OTHER);
+        String mine = userOwnedBy(SELF);
+
+        assertThat(router.forwardIfElsewhere(user, summaryRequest(), new MockHttpServletResponse())).isFalse();
+
+        // Ejected, the owner is off the ring until it is back
+        assertThat(router.ownerOf(user)).isEqualTo(SELF);
+        assertThat(router.ownerOf(mine)).isEqualTo(SELF);
+        assertThat(router.ring().nodes()).containsExactly(SELF);
+        assertThat(meterRegistry.get("budgetbuddy.analytics.routing.requests").tag("outcome", "fallback").counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -4,13 +4,23 @@ import com.budgetbuddy.analytics_service.client.BudgetClient;
 import com.budgetbuddy.analytics_service.client.ExpenseClient;
 import com.budgetbuddy.analytics_service.client.IncomeClient;
 import com.budgetbuddy.analytics_service.model.*;
+import com.budgetbuddy.cache.CacheCodec;
+import com.budgetbuddy.cache.CacheObserver;
+import com.budgetbuddy.cache.CacheOptions;
+import com.budgetbuddy.cache.TieredCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +37,12 @@ class AnalyticsServiceTest {
     @Mock
     IncomeClient incomeClient;
 
+    @Mock
+    DirectAnalyticsEngine directEngine;
+
+    @Spy
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     AnalyticsService analyticsService;
 
@@ -67,7 +83,7 @@ class AnalyticsServiceTest {
     @Test
     void getUserAnalytics_noFilter_sumsAll() {
         // Arrange: expenseClient returns both, budgetClient returns both
-        when(expenseClient.getExpenses(USER)).thenReturn(List.of(e1, e2));
+        when(expenseClient.getSpentByCategory(USER, null)).thenReturn(Map.of("Food", 50.0, "Travel", 20.0));
         when(budgetClient.getBudgets(USER)).thenReturn(List.of(b1, b2));
         when(incomeClient.getTotalIncome(USER)).thenReturn(200.0);
 
@@ -114,15 +130,22 @@ class AnalyticsServiceTest {
         bOther.setLimitAmount(500);
         bOther.setMonthYear("2025-06");
 
-        when(expenseClient.getExpenses(USER)).thenReturn(List.of(e1, e2, eOther));
+        // The expense client filters expenses to the month as it parses them
+        when(expenseClient.getSpentByCategory(USER, "2025-07")).thenReturn(Map.of("Food", 50.0, "Travel", 20.0));
         when(budgetClient.getBudgets(USER)).thenReturn(List.of(b1, b2, bOther));
         when(incomeClient.getTotalIncome(USER)).thenReturn(200.0);
 
         AnalyticsResponse resp = analyticsService.getUserAnalytics(USER, "2025-07");
 
-        // eOther and bOther should be filtered out
+        // bOther should be filtered out
         assertThat(resp.getTotalExpenses()).isEqualTo(70.0);
-        assertThat(resp.getBudgetUsage()).allMatch(u -> u.getCategory().equals("Food") || u.getCategory().equals("Travel"));
+        assertThat(resp.getBudgetUsage()).filteredOn(u -> u.getCategory().equals("Food"))
+                .singleElement().satisfies(u -> assertThat(u.getLimit()).isEqualTo(100.0));
+
+        // Callers holding the lists get the same filtering
+        AnalyticsResponse fromLists = analyticsService.summarize(List.of(e1, e2, eOther), List.of(b1, b2, bOther), 200.0, "2025-07");
+        assertThat(fromLists.getTotalExpenses()).isEqualTo(70.0);
+        assertThat(fromLists.getBudgetUsage()).hasSize(2);
     }
 
     @Test
@@ -140,6 +163,117 @@ class AnalyticsServiceTest {
         assertThat(months).containsExactly("2025-07", "2025-06", "2024-12");
     }
 
+    @Test
+    void getUserAnalytics_engineOverride_usesDirectEngineAndTimesEach() {
+        AnalyticsResponse direct = new AnalyticsResponse();
+        when(directEngine.getUserAnalytics(USER, "2025-07")).thenReturn(direct);
+        when(expenseClient.getSpentByCategory(USER, "2025-07")).thenReturn(Map.of("Food", 50.0));
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(b1));
+
+        assertThat(analyticsService.getUserAnalytics(USER, "2025-07", "direct")).isSameAs(direct);
+        analyticsService.getUserAnalytics(USER, "2025-07", null);
+
+        assertThat(meterRegistry.get("budgetbuddy.analytics.summary").tag("engine", "direct").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("budgetbuddy.analytics.summary").tag("engine", "http").timer().count()).isEqualTo(1);
+        verify(directEngine, times(1)).getUserAnalytics(any(), any());
+        assertThatThrownBy(() -> analyticsService.getUserAnalytics(USER, null, "sql"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
 
-    
+    @Test
+    void getUserAnalytics_concurrentIdenticalRequestsShareOneComputation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseClient.getSpentByCategory(USER, "2025-07")).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("Food", 50.0, "Travel", 20.0);
+        });
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(b1, b2));
+        when(incomeClient.getTotalIncome(USER)).thenReturn(200.0);
+
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<AnalyticsResponse>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> analyticsService.getUserAnalytics(USER, "2025-07")));
+            }
+            // Every caller is either computing or waiting on the one computing
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.find("budgetbuddy.analytics.summary.coalesced").counter() == null
+                    || meterRegistry.get("budgetbuddy.analytics.summary.coalesced").counter().count() < callers - 1) {
+                assertThat(System.nanoTime()).isLessThan(deadline);
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            AnalyticsResponse first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AnalyticsResponse> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(expenseClient, times(1)).getSpentByCategory(USER, "2025-07");
+        assertThat(analyticsService.inFlight()).isZero();
+
+        // Once it has finished, the next request computes again
+        analyticsService.getUserAnalytics(USER, "2025-07");
+        verify(expenseClient, times(2)).getSpentByCategory(USER, "2025-07");
+    }
+
+    @Test
+    void getUserAnalytics_leadersFailureIsNotSharedAndOtherKeysAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(expenseClient.getSpentByCategory(USER, null)).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            // The leader's token expired; the waiter's is fine
+            throw HttpClientErrorException.create(HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null);
+        });
+        when(expenseClient.getSpentByCategory(USER, "")).thenReturn(Map.of("Food", 30.0));
+        when(expenseClient.getSpentByCategory("user2", null)).thenReturn(Map.of());
+        lenient().when(budgetClient.getBudgets(any())).thenReturn(List.of());
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<AnalyticsResponse> leader = pool.submit(() -> analyticsService.getUserAnalytics(USER, null));
+            while (analyticsService.inFlight() == 0) {
+                Thread.sleep(5);
+            }
+            Future<AnalyticsResponse> waiter = pool.submit(() -> analyticsService.getUserAnalytics(USER, ""));
+            while (meterRegistry.find("budgetbuddy.analytics.summary.coalesced").counter() == null) {
+                Thread.sleep(5);
+            }
+            // A different user is computed on its own while USER's is stuck
+            assertThat(analyticsService.getUserAnalytics("user2", null).getTotalExpenses()).isZero();
+            release.countDown();
+
+            assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(HttpClientErrorException.Unauthorized.class);
+            assertThat(waiter.get(5, TimeUnit.SECONDS).getTotalExpenses()).isEqualTo(30.0);
+        } finally {
+            pool.shutdownNow();
+        }
+        // The waiter shared the leader's key ("" is no month, like null) but computed on its own
+        verify(expenseClient, times(1)).getSpentByCategory(USER, null);
+        verify(expenseClient, times(1)).getSpentByCategory(USER, "");
+    }
+
+    @Test
+    void getUserAnalytics_cachesPerUserUntilInvalidated() {
+        TieredCache<AnalyticsResponse> cache = new TieredCache<>("summary", new CacheOptions(),
+                mock(CacheCodec.class), null, CacheObserver.NONE);
+        ReflectionTestUtils.setField(analyticsService, "summaryCache", cache);
+        when(expenseClient.getSpentByCategory(any(), eq("2025-07"))).thenReturn(Map.of("Food", 50.0));
+        when(budgetClient.getBudgets(any())).thenReturn(List.of(b1));
+
+        AnalyticsResponse first = analyticsService.getUserAnalytics(USER, "2025-07");
+        assertThat(analyticsService.getUserAnalytics(USER, "2025-07")).isSameAs(first);
+        analyticsService.getUserAnalytics("user2", "2025-07");
+        verify(expenseClient, times(1)).getSpentByCategory(USER, "2025-07");
+
+        cache.invalidate(USER);
+        assertThat(analyticsService.getUserAnalytics(USER, "2025-07")).isNotSameAs(first);
+        verify(expenseClient, times(2)).getSpentByCategory(USER, "2025-07");
+        verify(expenseClient, times(1)).getSpentByCategory("user2", "2025-07");
+    }
 }
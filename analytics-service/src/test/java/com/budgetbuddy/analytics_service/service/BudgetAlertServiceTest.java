@@ -0,0 +1,241 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.model.BudgetAlert;
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetAlertServiceTest {
+
+    @Mock
+    KafkaTemplate<String, BudgetAlert> kafka;
+    @Mock
+    DirectAnalyticsEngine directEngine;
+
+    BudgetAlertService alerts;
+    BudgetAlertService.Shard shard;
+
+    private final String USER = "user1";
+    private final String MONTH = YearMonth.now().toString();
+    private int seq;
+    /** What the expense and budget collections hold for USER this month. */
+    private Map<String, DirectAnalyticsEngine.CategoryTotals> held = Map.of();
+    private boolean mongoDown;
+
+    @BeforeEach
+    void setUp() {
+        alerts = new BudgetAlertService(kafka, directEngine, new SimpleMeterRegistry(), "budget-alerts", new double[]{1.0, 0.8}, 2);
+        shard = alerts.shard(0);
+        lenient().when(directEngine.getCategoryTotals(eq(USER), anyString())).thenAnswer(inv -> {
+            if (mongoDown) {
+                throw new IllegalStateException("mongo down");
+            }
+            return MONTH.equals(inv.getArgument(1)) ? held : Map.of();
+        });
+    }
+
+    private static Map<String, DirectAnalyticsEngine.CategoryTotals> food(double spent, Double limit) {
+        return Map.of("Food", new DirectAnalyticsEngine.CategoryTotals(spent, limit, limit == null ? 0 : 1));
+    }
+
+    private ActivityEvent event(String action, String type, EntityState state) {
+        ActivityEvent evt = new ActivityEvent(USER, action, type, "id" + seq, Instant.now());
+        evt.setEventId("evt" + seq++);
+        evt.setState(state);
+        return evt;
+    }
+
+    private void expense(String action, double amount, String category) {
+        alerts.apply(shard, event(action, "EXPENSE", new EntityState(amount, category, MONTH)));
+    }
+
+    private List<BudgetAlert> sent() {
+        ArgumentCaptor<BudgetAlert> cap = ArgumentCaptor.forClass(BudgetAlert.class);
+        verify(kafka, atLeast(0)).send(eq("budget-alerts"), eq(USER), cap.capture());
+        return cap.getAllValues();
+    }
+
+    private void stubSend() {
+        when(kafka.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+    }
+
+    @Test
+    void alertsOnceWhenEachThresholdIsCrossed() {
+        stubSend();
+        alerts.apply(shard, event("CREATED", "BUDGET", new EntityState(100.0, "Food", MONTH)));
+
+        expense("CREATED", 50, "Food");
+        expense("CREATED", 35, "Food");     // 85%
+        expense("CREATED", 5, "Food");      // 90%, already warned
+        expense("CREATED", 20, "Food");     // 110%
+        expense("CREATED", 30, "Other");    // no budget
+
+        List<BudgetAlert> sent = sent();
+        assertThat(sent).extracting(BudgetAlert::getLevel).containsExactly(BudgetAlert.WARNING, BudgetAlert.EXCEEDED);
+        assertThat(sent.get(0).getThreshold()).isEqualTo(0.8);
+        assertThat(sent.get(1).getSpent()).isEqualTo(110.0);
+        assertThat(sent.get(1).getPercentUsed()).isCloseTo(110.0, within(1e-9));
+        assertThat(sent.get(1).getCausedBy()).isEqualTo("evt4");
+    }
+
+    @Test
+    void updatesMoveSpendAndDroppingBelowReArms() {
+        stubSend();
+        alerts.apply(shard, event("CREATED", "BUDGET", new EntityState(100.0, "Food", MONTH)));
+        expense("CREATED", 90, "Food");
+
+        // The expense is recategorised: Food drops to 0, then climbs back over 80%
+        ActivityEvent moved = event("UPDATED", "EXPENSE", new EntityState(90.0, "Travel", MONTH));
+        moved.setPreviousState(new EntityState(90.0, "Food", MONTH));
+        alerts.apply(shard, moved);
+        assertThat(alerts.tally(USER, "Food", MONTH).spent).isZero();
+        assertThat(alerts.tally(USER, "Travel", MONTH).spent).isEqualTo(90.0);
+
+        expense("CREATED", 85, "Food");
+
+        assertThat(sent()).extracting(BudgetAlert::getLevel).containsExactly(BudgetAlert.WARNING, BudgetAlert.WARNING);
+    }
+
+    @Test
+    void loweringTheLimitCanCrossAThreshold() {
+        stubSend();
+        alerts.apply(shard, event("CREATED", "BUDGET", new EntityState(200.0, "Food", MONTH)));
+        expense("CREATED", 120, "Food");
+        ActivityEvent lowered = event("UPDATED", "BUDGET", new EntityState(100.0, "Food", MONTH));
+        lowered.setPreviousState(new EntityState(200.0, "Food", MONTH));
+
+        alerts.apply(shard, lowered);
+
+        assertThat(sent()).extracting(BudgetAlert::getLevel).containsExactly(BudgetAlert.EXCEEDED);
+    }
+
+    @Test
+    void severalBudgetsInOneCategoryAddUpLikeTheSummary() {
+        stubSend();
+        alerts.apply(shard, event("CREATED", "BUDGET", new EntityState(60.0, "Food", MONTH)));
+        alerts.apply(shard, event("CREATED", "BUDGET", new EntityState(40.0, "Food", MONTH)));
+        expense("CREATED", 85, "Food");          // 85% of 100
+
+        alerts.apply(shard, event("DELETED", "BUDGET", new EntityState(40.0, "Food", MONTH)));
+        assertThat(alerts.tally(USER, "Food", MONTH).limit).isEqualTo(60.0);
+
+        ActivityEvent raised = event("UPDATED", "BUDGET", new EntityState(90.0, "Food", MONTH));
+        raised.setPreviousState(new EntityState(60.0, "Food", MONTH));
+        alerts.apply(shard, raised);             // 85 of 90: back under 100%, still over 80%
+
+        assertThat(alerts.tally(USER, "Food", MONTH).limit).isEqualTo(90.0);
+        assertThat(alerts.tally(USER, "Food", MONTH).budgets).isEqualTo(1);
+        assertThat(sent()).extracting(BudgetAlert::getLevel).containsExactly(BudgetAlert.WARNING, BudgetAlert.EXCEEDED);
+    }
+
+    @Test
+    void deletingOneOfTwoSeededBudgetsKeepsTheOther() {
+        held = Map.of("Food", new DirectAnalyticsEngine.CategoryTotals(50, 100.0, 2));
+        expense("CREATED", 10, "Food");
+
+        alerts.apply(shard, event("DELETED", "BUDGET", new EntityState(30.0, "Food", MONTH)));
+
+        assertThat(alerts.tally(USER, "Food", MONTH).limit).isEqualTo(70.0);
+        assertThat(alerts.tally(USER, "Food", MONTH).budgets).isEqualTo(1);
+    }
+
+    @Test
+    void batchBudgetEventsSetEveryLimit() {
+        ActivityEvent batch = ActivityEvent.batch(USER, "CREATED", "BUDGET", List.of("b1", "b2"),
+                List.of(new EntityState(100.0, "Food", MONTH), new EntityState(50.0, "Fun", MONTH)),
+                10, Instant.now()).get(0);
+
+        alerts.apply(shard, batch);
+
+        assertThat(alerts.tally(USER, "Food", MONTH).limit).isEqualTo(100.0);
+        assertThat(alerts.tally(USER, "Fun", MONTH).limit).isEqualTo(50.0);
+    }
+
+    @Test
+    void restartMidMonthSeedsFromTheCollectionsAndStillAlerts() {
+        stubSend();
+        // Before the restart: a 100 budget and 70 spent. The collections already hold the 15 that follows
+        held = food(85, 100.0);
+
+        expense("CREATED", 15, "Food");
+
+        List<BudgetAlert> sent = sent();
+        assertThat(sent).extracting(BudgetAlert::getLevel).containsExactly(BudgetAlert.WARNING);
+        assertThat(sent.get(0).getSpent()).isEqualTo(85.0);
+        assertThat(alerts.tally(USER, "Food", MONTH).spent).isEqualTo(85.0);
+        // Seeded once; later events are deltas
+        expense("CREATED", 1, "Food");
+        verify(directEngine, times(1)).getCategoryTotals(USER, MONTH);
+    }
+
+    @Test
+    void seedingDoesNotRepeatAlertsForThresholdsReachedBefore() {
+        held = food(95, 100.0);
+
+        expense("CREATED", 5, "Food");
+        // Stamped before the seed was read, so already counted in it
+        ActivityEvent late = event("CREATED", "EXPENSE", new EntityState(10.0, "Food", MONTH));
+        late.setTimestamp(Instant.now().minusSeconds(60));
+        alerts.apply(shard, late);
+
+        assertThat(alerts.tally(USER, "Food", MONTH).spent).isEqualTo(95.0);
+        verifyNoInteractions(kafka);
+    }
+
+    @Test
+    void eventWithoutStateReseedsAndAlertsOnTheThresholdItCrossed() {
+        stubSend();
+        held = food(50, 100.0);
+        ActivityEvent budget = event("UPDATED", "BUDGET", new EntityState(100.0, "Food", MONTH));
+        budget.setPreviousState(new EntityState(100.0, "Food", MONTH));
+        alerts.apply(shard, budget);
+
+        // Written before events carried state: only the collections can say what it did
+        held = food(90, 100.0);
+        alerts.apply(shard, event("CREATED", "EXPENSE", null));
+
+        assertThat(alerts.tally(USER, "Food", MONTH).spent).isEqualTo(90.0);
+        assertThat(sent()).extracting(BudgetAlert::getLevel).containsExactly(BudgetAlert.WARNING);
+    }
+
+    @Test
+    void failedSeedSkipsTheEventAndRetriesOnTheNext() {
+        mongoDown = true;
+        expense("CREATED", 10, "Food");
+        assertThat(shard.tallies).isEmpty();
+
+        mongoDown = false;
+        held = food(30, 100.0);
+        expense("CREATED", 20, "Food");
+        assertThat(alerts.tally(USER, "Food", MONTH).spent).isEqualTo(30.0);
+    }
+
+    @Test
+    void ignoresOldMonths() {
+        String old = YearMonth.now().minusMonths(2).toString();
+        alerts.apply(shard, event("CREATED", "EXPENSE", new EntityState(10.0, "Food", old)));
+        expense("CREATED", 10, "Food");
+        expense("DELETED", 10, "Food");
+
+        assertThat(shard.tallies).isEmpty();
+        verifyNoInteractions(kafka);
+    }
+}
@@ -0,0 +1,156 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.client.BudgetClient;
+import com.budgetbuddy.analytics_service.client.ExpenseClient;
+import com.budgetbuddy.analytics_service.client.IncomeClient;
+import com.budgetbuddy.analytics_service.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+
+    @Mock
+    ExpenseClient expenseClient;
+
+    @Mock
+    BudgetClient budgetClient;
+
+    @Mock
+    IncomeClient incomeClient;
+
+    DashboardService dashboardService;
+
+    private final String USER = "user1";
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(expenseClient, budgetClient, incomeClient, new AnalyticsService(), 2);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(USER, "token-1", List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        dashboardService.shutdown();
+    }
+
+    private static Expense expense(String id, String category, double amount, String date) {
+        Expense e = new Expense();
+        e.setId(id);
+        e.setCategory(category);
+        e.setAmount(amount);
+        e.setDate(Date.from(Instant.parse(date + "T00:00:00Z")));
+        return e;
+    }
+
+    private static Budget budget(String category, double limit, String monthYear) {
+        Budget b = new Budget();
+        b.setCategory(category);
+        b.setLimitAmount(limit);
+        b.setMonthYear(monthYear);
+        return b;
+    }
+
+    private static Income income(double amount, String date) {
+        Income i = new Income();
+        i.setAmount(amount);
+        i.setDate(Date.from(Instant.parse(date + "T00:00:00Z")));
+        return i;
+    }
+
+    @Test
+    void getDashboard_fetchesEachServiceOnce_andDerivesEverySection() {
+        when(expenseClient.getExpenses(USER)).thenReturn(List.of(
+                expense("e1", "Food", 50, "2025-06-03"),
+                expense("e2", "Food", 90, "2025-07-02"),
+                expense("e3", "Travel", 10, "2025-07-09")));
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(
+                budget("Food", 100, "2025-07"), budget("Travel", 100, "2025-07"), budget("Food", 80, "2025-06")));
+        when(incomeClient.getIncome(USER)).thenReturn(List.of(income(300, "2025-06-01"), income(200, "2025-07-01")));
+
+        DashboardResponse dashboard = dashboardService.getDashboard(USER, null);
+
+        // Summary is unfiltered, exactly as /summary without a month
+        assertThat(dashboard.getSummary().getTotalExpenses()).isEqualTo(150.0);
+        assertThat(dashboard.getSummary().getTotalIncome()).isEqualTo(500.0);
+        assertThat(dashboard.getAvailableMonths()).containsExactly("2025-07", "2025-06");
+
+        // Budget status defaults to the latest month, most used first
+        assertThat(dashboard.getBudgetMonth()).isEqualTo("2025-07");
+        assertThat(dashboard.getBudgetStatus()).extracting(BudgetUsage::getCategory).containsExactly("Food", "Travel");
+        assertThat(dashboard.getBudgetStatus().get(0).getSpent()).isEqualTo(90.0);
+
+        assertThat(dashboard.getRecentExpenses()).extracting(Expense::getId).containsExactly("e3", "e2");
+        assertThat(dashboard.getRecentIncome()).extracting(Income::getAmount).containsExactly(200.0, 300.0);
+
+        verify(expenseClient, times(1)).getExpenses(USER);
+        verify(budgetClient, times(1)).getBudgets(USER);
+        verify(incomeClient, times(1)).getIncome(USER);
+        verifyNoMoreInteractions(expenseClient, budgetClient, incomeClient);
+    }
+
+    @Test
+    void getDashboard_withMonth_usesItForSummaryAndBudgetStatus() {
+        when(expenseClient.getExpenses(USER)).thenReturn(List.of(
+                expense("e1", "Food", 50, "2025-06-03"), expense("e2", "Food", 90, "2025-07-02")));
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(budget("Food", 100, "2025-07"), budget("Food", 80, "2025-06")));
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+
+        DashboardResponse dashboard = dashboardService.getDashboard(USER, "2025-06");
+
+        assertThat(dashboard.getSummary().getTotalExpenses()).isEqualTo(50.0);
+        assertThat(dashboard.getBudgetMonth()).isEqualTo("2025-06");
+        assertThat(dashboard.getBudgetStatus()).singleElement()
+                .satisfies(u -> assertThat(u.getLimit()).isEqualTo(80.0));
+    }
+
+    @Test
+    void getDashboard_fetchesConcurrently_withTheCallersSecurityContext() {
+        List<String> tokens = Collections.synchronizedList(new ArrayList<>());
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        when(expenseClient.getExpenses(USER)).thenAnswer(inv -> {
+            tokens.add(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            threads.add(Thread.currentThread());
+            return List.of();
+        });
+        when(budgetClient.getBudgets(USER)).thenAnswer(inv -> {
+            tokens.add(SecurityContextHolder.getContext().getAuthentication().getCredentials().toString());
+            threads.add(Thread.currentThread());
+            return List.of();
+        });
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+
+        DashboardResponse dashboard = dashboardService.getDashboard(USER, null);
+
+        assertThat(tokens).containsExactlyInAnyOrder("token-1", "token-1");
+        assertThat(threads).doesNotContain(Thread.currentThread());
+        assertThat(dashboard.getBudgetMonth()).isNull();
+        assertThat(dashboard.getBudgetStatus()).isEmpty();
+    }
+
+    @Test
+    void getDashboard_downstreamFailure_surfacesTheClientException() {
+        when(expenseClient.getExpenses(USER)).thenThrow(new ResourceAccessException("expense-service down"));
+        lenient().when(budgetClient.getBudgets(USER)).thenReturn(List.of());
+        lenient().when(incomeClient.getIncome(USER)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> dashboardService.getDashboard(USER, null))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasMessage("expense-service down");
+    }
+}
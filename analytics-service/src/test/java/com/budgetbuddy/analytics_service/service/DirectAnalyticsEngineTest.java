@@ -0,0 +1,87 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.model.AnalyticsResponse;
+import com.budgetbuddy.analytics_service.model.BudgetUsage;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DirectAnalyticsEngineTest {
+
+    private static Document row(String kind, String category, double total) {
+        Document id = new Document("kind", kind);
+        if (category != null) {
+            id.append("category", category);
+        }
+        return new Document("_id", id).append("total", total).append("count", 1);
+    }
+
+    @Test
+    void pipeline_scopesEveryCollectionToTheUserAndMonth() {
+        List<Document> pipeline = DirectAnalyticsEngine.pipeline("user1", "2025-07");
+
+        Document expenseMatch = pipeline.get(0).get("$match", Document.class);
+        assertThat(expenseMatch.getString("userId")).isEqualTo("user1");
+        Document date = expenseMatch.get("date", Document.class);
+        assertThat(date.get("$gte")).isEqualTo(Date.from(Instant.parse("2025-07-01T00:00:00Z")));
+        assertThat(date.get("$lt")).isEqualTo(Date.from(Instant.parse("2025-08-01T00:00:00Z")));
+
+        Document budgets = pipeline.get(2).get("$unionWith", Document.class);
+        assertThat(budgets.getString("coll")).isEqualTo("budget");
+        Document budgetMatch = budgets.getList("pipeline", Document.class).get(0).get("$match", Document.class);
+        assertThat(budgetMatch).containsEntry("userId", "user1").containsEntry("monthYear", "2025-07");
+
+        Document income = pipeline.get(3).get("$unionWith", Document.class);
+        assertThat(income.getString("coll")).isEqualTo("income");
+        assertThat(income.getList("pipeline", Document.class).get(0).get("$match", Document.class))
+                .containsOnlyKeys("userId");
+        assertThat(pipeline.get(4)).containsKey("$group");
+    }
+
+    @Test
+    void pipeline_withoutMonthOrWithABadOne() {
+        assertThat(DirectAnalyticsEngine.pipeline("user1", null).get(0).get("$match", Document.class))
+                .containsOnlyKeys("userId");
+        assertThat(DirectAnalyticsEngine.pipeline("user1", "July").get(0).get("$match", Document.class)
+                .get("date", Document.class)).containsEntry("$in", List.of());
+    }
+
+    @Test
+    void toResponse_matchesTheHttpEngine() {
+        AnalyticsResponse resp = DirectAnalyticsEngine.toResponse(List.of(
+                row("expense", "Food", 50),
+                row("expense", "Travel", 20),
+                row("expense", "Gifts", 5),
+                row("budget", "Food", 100),
+                row("budget", "Travel", 30),
+                row("income", null, 200)));
+
+        assertThat(resp.getTotalExpenses()).isEqualTo(75.0);
+        assertThat(resp.getTotalIncome()).isEqualTo(200.0);
+        assertThat(resp.getNetSavings()).isEqualTo(125.0);
+        assertThat(resp.getBudgetUsage()).extracting(BudgetUsage::getCategory).containsExactlyInAnyOrder("Food", "Travel");
+        BudgetUsage travel = resp.getBudgetUsage().stream().filter(u -> u.getCategory().equals("Travel")).findFirst().orElseThrow();
+        assertThat(travel.getRemaining()).isEqualTo(10.0);
+        assertThat(travel.getPercentUsed()).isEqualTo((20.0 / 30.0) * 100.0);
+    }
+
+    @Test
+    void toCategoryTotals_keepsUnbudgetedSpendAndUnspentBudgets() {
+        var totals = DirectAnalyticsEngine.toCategoryTotals(List.of(
+                row("expense", "Food", 50),
+                row("expense", "Gifts", 5),
+                row("budget", "Food", 100).append("count", 2),
+                row("budget", "Travel", 30),
+                row("income", null, 200)));
+
+        assertThat(totals).containsOnlyKeys("Food", "Gifts", "Travel");
+        assertThat(totals.get("Food")).isEqualTo(new DirectAnalyticsEngine.CategoryTotals(50, 100.0, 2));
+        assertThat(totals.get("Gifts")).isEqualTo(new DirectAnalyticsEngine.CategoryTotals(5, null, 0));
+        assertThat(totals.get("Travel")).isEqualTo(new DirectAnalyticsEngine.CategoryTotals(0, 30.0, 1));
+    }
+}
@@ -0,0 +1,267 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.client.BudgetClient;
+import com.budgetbuddy.analytics_service.client.ExpenseClient;
+import com.budgetbuddy.analytics_service.client.IncomeClient;
+import com.budgetbuddy.analytics_service.model.*;
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LiveSummaryServiceTest {
+
+    @Mock
+    ExpenseClient expenseClient;
+
+    @Mock
+    BudgetClient budgetClient;
+
+    @Mock
+    IncomeClient incomeClient;
+
+    LiveSummaryService live;
+
+    private final String USER = "user1";
+
+    /** Records what would have been written to the response. */
+    static class CapturingEmitter extends SseEmitter {
+        final List<Object> sent = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(d -> d.getData())
+                    .filter(d -> d instanceof AnalyticsResponse || d instanceof SummaryDelta)
+                    .forEach(sent::add);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        live = new LiveSummaryService(expenseClient, budgetClient, incomeClient,
+                new SimpleMeterRegistry(), 50, 60_000, 60_000, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        live.shutdown();
+    }
+
+    private static Expense expense(String category, double amount) {
+        return expense(UUID.randomUUID().toString(), category, amount);
+    }
+
+    private static Expense expense(String id, String category, double amount) {
+        Expense e = new Expense();
+        e.setId(id);
+        e.setCategory(category);
+        e.setAmount(amount);
+        e.setDate(Date.from(Instant.parse("2025-07-03T00:00:00Z")));
+        return e;
+    }
+
+    private static Budget budget(String id, String category, double limit) {
+        Budget b = new Budget();
+        b.setId(id);
+        b.setCategory(category);
+        b.setLimitAmount(limit);
+        b.setMonthYear("2025-07");
+        return b;
+    }
+
+    private static ActivityEvent event(String userId) {
+        return new ActivityEvent(userId, "CREATED", "EXPENSE", "e1", Instant.now());
+    }
+
+    private static void await(CapturingEmitter emitter, int events) throws InterruptedException {
+        for (int i = 0; i < 100 && emitter.sent.size() < events; i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void subscribe_sendsFullSummary_thenOnlyWhatChanged() throws Exception {
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(budget("b1", "Food", 100), budget("b2", "Travel", 50)));
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+        when(expenseClient.getExpenses(USER))
+                .thenReturn(List.of(expense("Food", 40)))
+                .thenReturn(List.of(expense("Food", 40), expense("Food", 20)));
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        live.subscribe(USER, "token-1", null, emitter);
+        await(emitter, 1);
+        live.onActivity(event(USER));
+        await(emitter, 2);
+
+        assertThat(emitter.sent).hasSize(2);
+        assertThat(emitter.sent.get(0)).isInstanceOfSatisfying(AnalyticsResponse.class,
+                s -> assertThat(s.getTotalExpenses()).isEqualTo(40.0));
+        assertThat(emitter.sent.get(1)).isInstanceOfSatisfying(SummaryDelta.class, d -> {
+            assertThat(d.getTotalExpenses()).isEqualTo(60.0);
+            assertThat(d.getNetSavings()).isEqualTo(-60.0);
+            assertThat(d.getTotalIncome()).isNull();
+            assertThat(d.getBudgetUsage()).extracting(BudgetUsage::getCategory).containsExactly("Food");
+        });
+    }
+
+    @Test
+    void burstOfEvents_isCoalescedIntoOneRecompute_andOtherUsersCostNothing() throws Exception {
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of());
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+        when(expenseClient.getExpenses(USER))
+                .thenReturn(List.of(expense("Food", 40)))
+                .thenReturn(List.of(expense("Food", 40), expense("Food", 1)));
+        CapturingEmitter emitter = new CapturingEmitter();
+        live.subscribe(USER, "token-1", null, emitter);
+        await(emitter, 1);
+
+        for (int i = 0; i < 20; i++) {
+            live.onActivity(event(USER));
+            live.onActivity(event("someone-else"));
+        }
+        await(emitter, 2);
+        Thread.sleep(150);
+
+        verify(expenseClient, times(2)).getExpenses(USER);
+        verify(expenseClient, never()).getExpenses("someone-else");
+        assertThat(emitter.sent).hasSize(2);
+    }
+
+    private ActivityEvent event(String action, String type, String id, EntityState state) {
+        ActivityEvent evt = new ActivityEvent(USER, action, type, id, Instant.now());
+        evt.setState(state);
+        return evt;
+    }
+
+    @Test
+    void eventsWithState_areAppliedToTheLastSummary_withoutCallingTheServices() throws Exception {
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(budget("b1", "Food", 100)));
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+        when(expenseClient.getExpenses(USER)).thenReturn(List.of(expense("Food", 40), expense("e2", "Gifts", 10)));
+        CapturingEmitter emitter = new CapturingEmitter();
+        live.subscribe(USER, "token-1", "2025-07", emitter);
+        await(emitter, 1);
+
+        live.onActivity(event("CREATED", "EXPENSE", "e3", new EntityState(20.0, "Food", "2025-07")));
+        live.onActivity(event("CREATED", "EXPENSE", "e4", new EntityState(99.0, "Food", "2025-06")));  // another month
+        ActivityEvent moved = event("UPDATED", "EXPENSE", "e2", new EntityState(10.0, "Travel", "2025-07"));
+        moved.setPreviousState(new EntityState(10.0, "Gifts", "2025-07"));
+        live.onActivity(moved);
+        // A first budget for a category that already has spend
+        live.onActivity(event("CREATED", "BUDGET", "b2", new EntityState(50.0, "Travel", "2025-07")));
+        await(emitter, 2);
+
+        assertThat(emitter.sent).hasSize(2);
+        assertThat(emitter.sent.get(1)).isInstanceOfSatisfying(SummaryDelta.class, d -> {
+            assertThat(d.getTotalExpenses()).isEqualTo(70.0);
+            assertThat(d.getBudgetUsage()).extracting(BudgetUsage::getCategory, BudgetUsage::getSpent, BudgetUsage::getLimit)
+                    .containsExactlyInAnyOrder(tuple("Food", 60.0, 100.0), tuple("Travel", 10.0, 50.0));
+        });
+
+        live.onActivity(event("DELETED", "BUDGET", "b1", new EntityState(100.0, "Food", "2025-07")));
+        await(emitter, 3);
+
+        assertThat(emitter.sent.get(2)).isInstanceOfSatisfying(SummaryDelta.class,
+                d -> assertThat(d.getRemovedCategories()).containsExactly("Food"));
+        verify(expenseClient, times(1)).getExpenses(USER);
+    }
+
+    @Test
+    void eventsTheRecomputeAlreadyRead_areNotCountedTwice_whateverTheirTimestamp() throws Exception {
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of());
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+        when(expenseClient.getExpenses(USER)).thenReturn(List.of(expense("e1", "Food", 40), expense("e2", "Food", 15)));
+        CapturingEmitter emitter = new CapturingEmitter();
+        live.subscribe(USER, "token-1", null, emitter);
+        await(emitter, 1);
+
+        // Delivered after the read although the services already held them; the producer's clock runs ahead
+        ActivityEvent inFlight = event("CREATED", "EXPENSE", "e1", new EntityState(40.0, "Food", "2025-07"));
+        inFlight.setTimestamp(Instant.now().plusSeconds(60));
+        live.onActivity(inFlight);
+        ActivityEvent updated = event("UPDATED", "EXPENSE", "e2", new EntityState(15.0, "Food", "2025-07"));
+        updated.setPreviousState(new EntityState(10.0, "Food", "2025-07"));
+        live.onActivity(updated);
+        live.onActivity(event("CREATED", "EXPENSE", "e3", new EntityState(5.0, "Food", "2025-07")));
+        await(emitter, 2);
+
+        assertThat(emitter.sent.get(1)).isInstanceOfSatisfying(SummaryDelta.class,
+                d -> assertThat(d.getTotalExpenses()).isEqualTo(60.0));
+    }
+
+    @Test
+    void refresh_usesTheStreamsToken_onAnotherThread() throws Exception {
+        List<Object> credentials = new CopyOnWriteArrayList<>();
+        when(expenseClient.getExpenses(USER)).thenAnswer(inv -> {
+            credentials.add(SecurityContextHolder.getContext().getAuthentication().getCredentials());
+            return List.of();
+        });
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of());
+        when(incomeClient.getIncome(USER)).thenReturn(List.of());
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        live.subscribe(USER, "token-1", "2025-07", emitter);
+        await(emitter, 1);
+
+        assertThat(credentials).containsExactly("token-1");
+    }
+
+    @Test
+    void rejectedToken_closesTheUsersStreams() throws Exception {
+        when(expenseClient.getExpenses(USER)).thenThrow(HttpClientErrorException.create(
+                HttpStatus.UNAUTHORIZED, "Unauthorized", null, null, null));
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        live.subscribe(USER, "expired", null, emitter);
+        for (int i = 0; i < 100 && !emitter.completed; i++) {
+            Thread.sleep(20);
+        }
+
+        assertThat(emitter.completed).isTrue();
+        assertThat(live.openStreams()).isZero();
+    }
+
+    @Test
+    void subscribe_enforcesPerUserAndTotalLimits() {
+        lenient().when(expenseClient.getExpenses(anyString())).thenReturn(List.of());
+        lenient().when(budgetClient.getBudgets(anyString())).thenReturn(List.of());
+        lenient().when(incomeClient.getIncome(anyString())).thenReturn(List.of());
+
+        live.subscribe(USER, "t", null, new CapturingEmitter());
+        live.subscribe(USER, "t", null, new CapturingEmitter());
+        assertThatThrownBy(() -> live.subscribe(USER, "t", null, new CapturingEmitter()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        live.subscribe("user2", "t", null, new CapturingEmitter());
+        assertThatThrownBy(() -> live.subscribe("user3", "t", null, new CapturingEmitter()))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(live.openStreams()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,142 @@
+package com.budgetbuddy.analytics_service.service;
+
+import com.budgetbuddy.analytics_service.client.BudgetClient;
+import com.budgetbuddy.analytics_service.client.ExpenseClient;
+import com.budgetbuddy.analytics_service.client.IncomeClient;
+import com.budgetbuddy.analytics_service.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendServiceTest {
+
+    @Mock
+    ExpenseClient expenseClient;
+
+    @Mock
+    BudgetClient budgetClient;
+
+    @Mock
+    IncomeClient incomeClient;
+
+    TrendService trends;
+
+    private final String USER = "user1";
+
+    @BeforeEach
+    void setUp() {
+        trends = new TrendService(expenseClient, budgetClient, incomeClient, 24);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(USER, "token-1", List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        trends.shutdown();
+    }
+
+    private static Expense expense(String category, double amount, String date) {
+        Expense e = new Expense();
+        e.setCategory(category);
+        e.setAmount(amount);
+        e.setDate(Date.from(Instant.parse(date + "T00:00:00Z")));
+        return e;
+    }
+
+    private static Income income(double amount, String date) {
+        Income i = new Income();
+        i.setAmount(amount);
+        i.setDate(Date.from(Instant.parse(date + "T00:00:00Z")));
+        return i;
+    }
+
+    private static Budget budget(String category, double limit, String monthYear) {
+        Budget b = new Budget();
+        b.setCategory(category);
+        b.setLimitAmount(limit);
+        b.setMonthYear(monthYear);
+        return b;
+    }
+
+    @Test
+    void monthly_fetchesOnceBoundedToTheRangeAndFillsEveryPeriod() {
+        LocalDate start = LocalDate.parse("2025-01-01"), end = LocalDate.parse("2025-03-31");
+        when(expenseClient.getExpenses(USER, start, end)).thenReturn(List.of(
+                expense("Food", 40, "2025-01-05"),
+                expense("Food", 10, "2025-01-31"),
+                expense("Rent", 900, "2025-03-01"),
+                expense("Food", 99, "2024-12-31")));      // padding from the widened fetch
+        when(budgetClient.getBudgets(USER)).thenReturn(List.of(
+                budget("Food", 100, "2025-01"),
+                budget("Food", 120, "2025-03"),
+                budget("Food", 500, "2024-06")));
+        when(incomeClient.getIncome(USER, start, end)).thenReturn(List.of(income(2000, "2025-03-15")));
+
+        TrendResponse out = trends.getTrends(USER, "2025-01", "2025-03", "month");
+
+        assertThat(out.getFrom()).isEqualTo("2025-01");
+        assertThat(out.getTo()).isEqualTo("2025-03");
+        assertThat(out.getPeriods()).extracting(TrendPeriod::getPeriod).containsExactly("2025-01", "2025-02", "2025-03");
+        TrendPeriod jan = out.getPeriods().get(0);
+        assertThat(jan.getTotalExpenses()).isEqualTo(50.0);
+        assertThat(jan.getCategories()).singleElement()
+                .satisfies(c -> assertThat(c.getLimit()).isEqualTo(100.0))
+                .satisfies(c -> assertThat(c.getSpent()).isEqualTo(50.0));
+        assertThat(out.getPeriods().get(1).getCategories()).isEmpty();
+        TrendPeriod mar = out.getPeriods().get(2);
+        assertThat(mar.getNetSavings()).isEqualTo(1100.0);
+        assertThat(mar.getCategories()).extracting(CategoryTrend::getCategory).containsExactly("Food", "Rent");
+        assertThat(mar.getCategories().get(0).getSpent()).isZero();
+        assertThat(mar.getCategories().get(1).getLimit()).isNull();
+        verify(expenseClient, times(1)).getExpenses(USER, start, end);
+        verifyNoMoreInteractions(expenseClient);
+    }
+
+    @Test
+    void weekly_usesIsoWeeksAndSplitsMonthlyLimitsByDay() {
+        // 2025-03-31 is a Monday; its week has one day in March and six in April
+        List<Budget> budgets = List.of(budget("Food", 310, "2025-03"), budget("Food", 300, "2025-04"));
+
+        TrendResponse out = trends.compute(List.of(expense("Food", 20, "2025-04-02")), budgets, List.of(),
+                LocalDate.parse("2025-03-26"), LocalDate.parse("2025-04-02"), TrendService.Granularity.WEEK);
+
+        assertThat(out.getPeriods()).extracting(TrendPeriod::getPeriod).containsExactly("2025-W13", "2025-W14");
+        TrendPeriod w13 = out.getPeriods().get(0);
+        assertThat(w13.getStart()).isEqualTo(LocalDate.parse("2025-03-24"));
+        assertThat(w13.getCategories().get(0).getLimit()).isCloseTo(70.0, within(1e-9));
+        TrendPeriod w14 = out.getPeriods().get(1);
+        assertThat(w14.getEnd()).isEqualTo(LocalDate.parse("2025-04-06"));
+        assertThat(w14.getCategories().get(0).getLimit()).isCloseTo(10.0 + 60.0, within(1e-9));
+        assertThat(w14.getCategories().get(0).getSpent()).isEqualTo(20.0);
+    }
+
+    @Test
+    void rejectsBadInput() {
+        assertThatThrownBy(() -> trends.getTrends(USER, "2025-05", "2025-01", "month"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> trends.getTrends(USER, "2020-01", "2025-01", "month"))
+                .hasMessageContaining("At most 24 periods");
+        assertThatThrownBy(() -> trends.getTrends(USER, null, null, "day"))
+                .hasMessageContaining("month or week");
+        assertThatThrownBy(() -> trends.getTrends(USER, "Jan", null, "month"))
+                .hasMessageContaining("yyyy-MM");
+        verifyNoInteractions(expenseClient, budgetClient, incomeClient);
+    }
+}
@@ -1,6 +1,8 @@
 package com.budgetbuddy.auth_service.filter;
 
 import com.budgetbuddy.auth_service.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,9 +19,11 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthFilter(JwtUtil jwtUtil) {
+    public JwtAuthFilter(JwtUtil jwtUtil, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -36,7 +40,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String token = authHeader.substring(7);
 
-        if (jwtUtil.validateToken(token)) {
+        if (isTokenValid(token)) {
             String email = jwtUtil.extractEmail(token);
             UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(email, null, null);
@@ -45,4 +49,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Signature check and claims parse; a slow or failing key lookup shows up here, per outcome
+    private boolean isTokenValid(String jwt) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            boolean valid = jwtUtil.validateToken(jwt);
+            outcome = valid ? "valid" : "invalid";
+            return valid;
+        } finally {
+            sample.stop(meterRegistry.timer("budgetbuddy.jwt.validation", "outcome", outcome));
+        }
+    }
 }
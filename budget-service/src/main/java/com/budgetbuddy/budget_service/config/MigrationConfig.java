@@ -0,0 +1,37 @@
+package com.budgetbuddy.budget_service.config;
+
+import com.budgetbuddy.migrations.Migration;
+import com.budgetbuddy.migrations.MigrationOptions;
+import com.budgetbuddy.migrations.MigrationRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Runs every {@link Migration} bean at startup when budgetbuddy.migrations.enabled=true.
+ * Completed migrations are skipped; interrupted ones resume from their checkpoint.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "budgetbuddy.migrations", name = "enabled", havingValue = "true")
+public class MigrationConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "budgetbuddy.migrations")
+    public MigrationOptions migrationOptions() {
+        return new MigrationOptions();
+    }
+
+    @Bean
+    public ApplicationRunner migrationRunner(MongoTemplate mongoTemplate,
+                                             MigrationOptions options,
+                                             ObjectProvider<Migration> migrations) {
+        return args -> {
+            MigrationRunner runner = new MigrationRunner(mongoTemplate.getDb(), options);
+            migrations.orderedStream().forEach(runner::run);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.budgetbuddy.budget_service.config;
+
+import com.budgetbuddy.slowqueries.SlowQueryFinding;
+import com.budgetbuddy.slowqueries.SlowQueryLog;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/** GET /actuator/slowqueries lists slow shapes, worst first; DELETE starts over, e.g. after adding an index. */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    private final SlowQueryLog log;
+
+    public SlowQueryEndpoint(SlowQueryLog log) {
+        this.log = log;
+    }
+
+    @ReadOperation
+    public List<SlowQueryFinding> findings() {
+        return log.findings();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        log.clear();
+    }
+}
@@ -0,0 +1,136 @@
+package com.budgetbuddy.budget_service.config;
+
+import com.budgetbuddy.budget_service.model.Budget;
+import com.budgetbuddy.budget_service.repository.BudgetRepository;
+import com.budgetbuddy.budget_service.security.JwtUtil;
+import com.budgetbuddy.warmup.WarmUp;
+import com.budgetbuddy.warmup.WarmUpObserver;
+import com.budgetbuddy.warmup.WarmUpOptions;
+import com.budgetbuddy.warmup.WarmUpReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the hot paths before the service reports ready: Jackson on budgets, JWT
+ * validation, the repository queries, and GET /budgets through this instance's own port,
+ * which runs the filter chain, controller and query together. All of it is for a synthetic
+ * user with no data, so nothing is written. Runners finish before ApplicationReadyEvent,
+ * so /actuator/health/readiness reports OUT_OF_SERVICE until warm-up is done, and
+ * budgetbuddy.warmup.duration records how long that was.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "budgetbuddy.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpConfig {
+    static final String USER = "budgetbuddy-warmup";
+
+    @Bean
+    @ConfigurationProperties(prefix = "budgetbuddy.warmup")
+    public WarmUpOptions warmUpOptions() {
+        return new WarmUpOptions();
+    }
+
+    @Bean
+    public ApplicationRunner warmUpRunner(ApplicationContext context,
+                                          WarmUpOptions options,
+                                          ObjectMapper objectMapper,
+                                          JwtUtil jwtUtil,
+                                          BudgetRepository budgetRepository,
+                                          MeterRegistry registry,
+                                          @Value("${jwt.secret}") String secret) {
+        return args -> {
+            // Only a server about to take traffic needs it; mock-environment tests have none
+            if (!(context instanceof WebServerApplicationContext server) || server.getWebServer() == null) {
+                return;
+            }
+            String token = token(secret, options);
+            YearMonth month = YearMonth.now(ZoneOffset.UTC);
+            List<Budget> budgets = budgets(month);
+            URI filtered = URI.create("http://localhost:" + server.getWebServer().getPort()
+                    + "/budgets?monthYear=" + month);
+
+            new WarmUp(options, metrics(registry))
+                    .step("json", i -> objectMapper.readValue(objectMapper.writeValueAsBytes(budgets), Budget[].class))
+                    .step("jwt", i -> jwtUtil.extractUserId(token))
+                    .step("repository", i -> {
+                        budgetRepository.findByUserIdAndMonthYear(USER, month.toString());
+                        budgetRepository.findByUserId(USER);
+                    })
+                    .step("http", WarmUp.httpGet(HttpClient.newHttpClient(), filtered,
+                            Map.of("Authorization", "Bearer " + token)))
+                    .run();
+        };
+    }
+
+    static String token(String secret, WarmUpOptions options) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setSubject(USER)
+                .claim("id", USER)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plusMillis(options.getMaxDurationMs() + 60_000)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    static List<Budget> budgets(YearMonth month) {
+        String[] categories = {"Food", "Rent", "Travel", "Utilities"};
+        List<Budget> budgets = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Budget b = new Budget();
+            b.setId("warmup-" + i);
+            b.setUserId(USER);
+            b.setCategory(categories[i % categories.length] + " " + i);
+            b.setLimitAmount(100.0 + i);
+            b.setMonthYear(month.toString());
+            budgets.add(b);
+        }
+        return budgets;
+    }
+
+    static WarmUpObserver metrics(MeterRegistry registry) {
+        return new WarmUpObserver() {
+            @Override
+            public void stepFinished(WarmUpReport.Step step) {
+                Timer.builder("budgetbuddy.warmup.step.duration")
+                        .description("Time each startup warm-up step took")
+                        .tag("step", step.name())
+                        .tag("outcome", step.outcome().name().toLowerCase(Locale.ROOT))
+                        .register(registry)
+                        .record(step.elapsedNanos(), TimeUnit.NANOSECONDS);
+            }
+
+            @Override
+            public void finished(WarmUpReport report) {
+                Timer.builder("budgetbuddy.warmup.duration")
+                        .description("Time from the start of warm-up until the service could report ready")
+                        .tag("outcome", report.completed() ? "completed" : "incomplete")
+                        .register(registry)
+                        .record(report.elapsedNanos(), TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +22,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/budgets")
 public class BudgetController {
+    private static final int MAX_BATCH_IDS = 500;
 
     @Autowired
     private BudgetService budgetService;
@@ -91,6 +93,27 @@ public class BudgetController {
     }
 
 
+    @Operation(
+            summary     = "Get several budgets by ID",
+            description = "Resolve up to 500 ids in one call; ids that are unknown or belong to another user are left out",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = Budget.class, type = "array"))),
+                    @ApiResponse(responseCode = "400", description = "Too many ids")
+            }
+    )
+    @PostMapping("/batch-get")
+    public List<Budget> batchGet(
+            @Parameter(description = "Ids to resolve", required = true)
+            @RequestBody List<String> ids
+    ) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return budgetService.getBudgetsByIds(getCurrentUserId(), ids);
+    }
+
     @Operation(
             summary     = "Get a budget by category and month",
             description = "Retrieve the single budget entry matching category + monthYear",
@@ -2,6 +2,8 @@ package com.budgetbuddy.budget_service.filter;
 
 
 import com.budgetbuddy.budget_service.security.JwtUtil;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +23,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -31,7 +36,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String jwt = authHeader.substring(7);
             try {
-                if (jwtUtil.isTokenValid(jwt)) {
+                if (isTokenValid(jwt)) {
                     String userId = jwtUtil.extractUserId(jwt);
 
                     UsernamePasswordAuthenticationToken authentication =
@@ -50,4 +55,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         chain.doFilter(request, response);
     }
+
+    // Signature check and claims parse, as a span and a budgetbuddy.jwt.validation timer tagged by outcome
+    private boolean isTokenValid(String jwt) {
+        Observation observation = Observation.start("budgetbuddy.jwt.validation", observationRegistry);
+        String outcome = "error";
+        try (Observation.Scope scope = observation.openScope()) {
+            boolean valid = jwtUtil.isTokenValid(jwt);
+            outcome = valid ? "valid" : "invalid";
+            return valid;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
+        }
+    }
 }
\ No newline at end of file
@@ -2,17 +2,50 @@ package com.budgetbuddy.budget_service.kafka;
 
 import org.springframework.stereotype.Service;
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import com.budgetbuddy.events.EventIds;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.time.Instant;
+import java.util.List;
+
 @Service
 public class ActivityProducer {
     private final KafkaTemplate<String, ActivityEvent> kafka;
-    public ActivityProducer(KafkaTemplate<String, ActivityEvent> k) {
+    private final String topic;
+    private final String partitionKey;
+    private final int batchMaxSize;
+
+    public ActivityProducer(KafkaTemplate<String, ActivityEvent> k,
+                            @Value("${budgetbuddy.activity.topic:user-activity-logs}") String topic,
+                            @Value("${budgetbuddy.activity.partition-key:userId}") String partitionKey,
+                            @Value("${budgetbuddy.activity.batch-max-size:100}") int batchMaxSize) {
         this.kafka = k;
+        this.topic = topic;
+        this.partitionKey = partitionKey;
+        this.batchMaxSize = batchMaxSize;
     }
 
     public void send(ActivityEvent evt) {
-        kafka.send("user-activity-logs", evt.getEntityId(), evt);
+        // Consumers dedupe redeliveries on this id
+        if (evt.getEventId() == null) {
+            evt.setEventId(EventIds.next());
+        }
+        kafka.send(topic, keyFor(evt), evt);
         System.out.println("✅ Sent event to Kafka: " + evt);
     }
+
+    // One event per batch-max-size ids keeps each record well under the broker's size limit
+    public void sendBatch(String userId, String action, String entityType, List<String> entityIds, List<EntityState> states) {
+        for (ActivityEvent evt : ActivityEvent.batch(userId, action, entityType, entityIds, states, batchMaxSize, Instant.now())) {
+            send(evt);
+        }
+    }
+
+    // Keying by userId sends all of a user's events to one partition, so they are consumed in order.
+    // Batch events have no single entity and fall back to userId.
+    private String keyFor(ActivityEvent evt) {
+        return "entityId".equals(partitionKey) && evt.getEntityId() != null ? evt.getEntityId() : evt.getUserId();
+    }
 }
@@ -3,6 +3,7 @@ package com.budgetbuddy.budget_service.repository;
 import com.budgetbuddy.budget_service.model.Budget;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,4 +11,5 @@ public interface BudgetRepository extends MongoRepository<Budget, String> {
     List<Budget> findByUserId(String userId);
     Optional<Budget> findByUserIdAndCategoryAndMonthYear(String userId, String category, String monthYear);
     List<Budget> findByUserIdAndMonthYear(String userId, String monthYear);
+    List<Budget> findByUserIdAndIdIn(String userId, Collection<String> ids);
 }
\ No newline at end of file
@@ -29,6 +29,8 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-ui.html"
                         ).permitAll()
+                        // health checks and the Prometheus scrape
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
                         // 2) then your service APIs
                         .requestMatchers("/budgets/**").authenticated()
                         // 3) any other should be authenticated (or .permitAll() as desired)
@@ -4,6 +4,7 @@ import com.budgetbuddy.budget_service.kafka.ActivityProducer;
 import com.budgetbuddy.budget_service.model.Budget;
 import com.budgetbuddy.budget_service.repository.BudgetRepository;
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -11,7 +12,6 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class BudgetService {
@@ -29,28 +29,12 @@ public class BudgetService {
     public List<Budget> addBudgets(List<Budget> budgets) {
         List<Budget> savedList = budgetRepository.saveAll(budgets);
 
-        // send one batch event
+        // send one batch event carrying every new id
         String userId = SecurityContextHolder
                 .getContext()
                 .getAuthentication()
                 .getName();
-
-        // You can encode details however you like, e.g. number + IDs:
-        String details = String.format(
-                "%d budgets created. IDs: %s",
-                savedList.size(),
-                savedList.stream()
-                        .map(Budget::getId)
-                        .collect(Collectors.joining(",")));
-
-        ActivityEvent evt = new ActivityEvent(
-                userId,
-                "CREATED_BATCH",
-                "BUDGET",       // entity type
-                details,
-                Instant.now()
-        );
-        producer.send(evt);
+        publishCreated(userId, savedList);
 
         return savedList;
     }
@@ -63,7 +47,14 @@ public class BudgetService {
         return budgetRepository.findByUserIdAndCategoryAndMonthYear(userId, category, monthYear);
     }
 
+    // One $in query; ids that do not exist or belong to another user are simply absent
+    public List<Budget> getBudgetsByIds(String userId, List<String> ids) {
+        return budgetRepository.findByUserIdAndIdIn(userId, ids);
+    }
+
     public Budget updateBudget(String id, Budget updatedBudget) {
+        // Read first so the event can say what the limit was, for budget alerts
+        EntityState previous = budgetRepository.findById(id).map(BudgetService::state).orElse(null);
         updatedBudget.setId(id);
         Budget saved = budgetRepository.save(updatedBudget);
         String userId = SecurityContextHolder
@@ -78,6 +69,8 @@ public class BudgetService {
                 saved.getId(),
                 Instant.now()
         );
+        evt.setState(state(saved));
+        evt.setPreviousState(previous);
         producer.send(evt);
         return saved;
     }
@@ -105,6 +98,19 @@ public class BudgetService {
             return copy;
         }).toList();
 
-        return budgetRepository.saveAll(copied);
+        List<Budget> saved = budgetRepository.saveAll(copied);
+        publishCreated(userId, saved);
+        return saved;
+    }
+
+    private void publishCreated(String userId, List<Budget> saved) {
+        if (!saved.isEmpty()) {
+            producer.sendBatch(userId, "CREATED", "BUDGET", saved.stream().map(Budget::getId).toList(),
+                    saved.stream().map(BudgetService::state).toList());
+        }
+    }
+
+    private static EntityState state(Budget budget) {
+        return new EntityState(budget.getLimitAmount(), budget.getCategory(), budget.getMonthYear());
     }
 }
\ No newline at end of file
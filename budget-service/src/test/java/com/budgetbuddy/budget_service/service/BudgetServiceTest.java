@@ -4,6 +4,7 @@ import com.budgetbuddy.budget_service.model.Budget;
 import com.budgetbuddy.budget_service.repository.BudgetRepository;
 import com.budgetbuddy.budget_service.kafka.ActivityProducer;
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +15,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -70,18 +69,12 @@ class BudgetServiceTest {
         // Verify repository call
         verify(repo).saveAll(input);
 
-        // Capture and verify event
-        ArgumentCaptor<ActivityEvent> cap = ArgumentCaptor.forClass(ActivityEvent.class);
-        verify(producer).send(cap.capture());
-        ActivityEvent evt = cap.getValue();
-
-        assertThat(evt.getUserId()).isEqualTo(USER);
-        assertThat(evt.getAction()).isEqualTo("CREATED_BATCH");
-        assertThat(evt.getEntityType()).isEqualTo("BUDGET");
-        assertThat(evt.getEntityId())
-                .contains("3 budgets created")
-                .contains("x1,x2,x3");
-        assertThat(evt.getTimestamp()).isCloseTo(Instant.now(), within(1L, ChronoUnit.SECONDS));
+        // Verify one batch event with the saved ids
+        verify(producer).sendBatch(USER, "CREATED", "BUDGET", List.of("x1", "x2", "x3"), List.of(
+                new EntityState(10.0, "A", "2025-07"),
+                new EntityState(20.0, "B", "2025-07"),
+                new EntityState(30.0, "C", "2025-07")));
+        verify(producer, never()).send(any());
     }
 
     //-------------- getBudgetsByUser --------------
@@ -124,6 +117,13 @@ class BudgetServiceTest {
         saved.setLimitAmount(100);
         saved.setMonthYear("2025-08");
 
+        Budget before = new Budget();
+        before.setId(id);
+        before.setCategory("X");
+        before.setLimitAmount(60);
+        before.setMonthYear("2025-08");
+
+        when(repo.findById(id)).thenReturn(Optional.of(before));
         when(repo.save(in)).thenReturn(saved);
 
         Budget out = svc.updateBudget(id, in);
@@ -137,6 +137,8 @@ class BudgetServiceTest {
         assertThat(evt.getAction()).isEqualTo("UPDATED");
         assertThat(evt.getEntityType()).isEqualTo("BUDGET");
         assertThat(evt.getEntityId()).isEqualTo(id);
+        assertThat(evt.getState()).isEqualTo(new EntityState(100.0, "X", "2025-08"));
+        assertThat(evt.getPreviousState()).isEqualTo(new EntityState(60.0, "X", "2025-08"));
     }
 
     //-------------- getBudgetsByUserAndMonth --------------
@@ -181,6 +183,7 @@ class BudgetServiceTest {
         when(repo.saveAll(capList.capture())).thenReturn(List.of());
 
         List<Budget> out = svc.copyBudgets(USER, from, to);
+        verify(producer, never()).sendBatch(any(), any(), any(), any(), any());
 
         // Check that the list passed to saveAll has monthYear = to
         List<Budget> toSave = capList.getValue();
@@ -188,4 +191,30 @@ class BudgetServiceTest {
         assertThat(toSave.get(0).getMonthYear()).isEqualTo(to);
         assertThat(toSave.get(0).getCategory()).isEqualTo("A");
     }
+
+    @Test
+    void copyBudgets_publishesBatchEventForCopies() {
+        String from = "2025-06", to = "2025-07";
+        Budget src = new Budget();
+        src.setCategory("A");
+        when(repo.findByUserIdAndMonthYear(USER, to)).thenReturn(List.of());
+        when(repo.findByUserIdAndMonthYear(USER, from)).thenReturn(List.of(src));
+        Budget copy = new Budget();
+        copy.setId("c1");
+        copy.setCategory("A");
+        copy.setMonthYear(to);
+        when(repo.saveAll(anyList())).thenReturn(List.of(copy));
+
+        svc.copyBudgets(USER, from, to);
+
+        verify(producer).sendBatch(USER, "CREATED", "BUDGET", List.of("c1"), List.of(new EntityState(0.0, "A", to)));
+    }
+
+    @Test
+    void getBudgetsByIds_usesOneInQueryScopedToUser() {
+        List<Budget> found = List.of(new Budget());
+        when(repo.findByUserIdAndIdIn(USER, List.of("a1", "missing"))).thenReturn(found);
+
+        assertThat(svc.getBudgetsByIds(USER, List.of("a1", "missing"))).isSameAs(found);
+    }
 }
@@ -1,7 +1,6 @@
 import { useEffect, useState } from 'react';
 import analyticsApi from '../services/analyticsService';
-import expenseApi from '../services/expenseService';
-import incomeApi from '../services/incomeService';
+import { subscribeToSummary, applySummaryDelta } from '../services/analyticsStream';
 import { LineChart, Line, XAxis, YAxis, Tooltip, CartesianGrid, ResponsiveContainer } from 'recharts';
 
 export default function Dashboard() {
@@ -10,32 +9,26 @@ export default function Dashboard() {
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
-    fetchAnalytics();
-    fetchRecentTransactions();
+    fetchDashboard();
   }, []);
 
-  const fetchAnalytics = async () => {
-    try {
-      const response = await analyticsApi.get('/analytics/summary');
-      setAnalytics(response.data);
-    } catch (error) {
-      console.error('Error fetching analytics:', error);
-    } finally {
-      setLoading(false);
-    }
-  };
+  // Totals update in place as expenses, income and budgets change, without polling
+  useEffect(() => subscribeToSummary({
+    onSummary: (summary) => setAnalytics(summary),
+    onDelta: (delta) => setAnalytics(current => applySummaryDelta(current, delta)),
+  }), []);
 
-  const fetchRecentTransactions = async () => {
+  // One request for first paint: summary and recent transactions come back together
+  const fetchDashboard = async () => {
     try {
-      const [expensesRes, incomesRes] = await Promise.all([
-        expenseApi.get('/expenses'),
-        incomeApi.get('/income')
-      ]);
-      const expenses = expensesRes.data.map(txn => ({
+      const response = await analyticsApi.get('/analytics/dashboard');
+      const { summary, recentExpenses, recentIncome } = response.data;
+      setAnalytics(summary);
+      const expenses = recentExpenses.map(txn => ({
         ...txn,
         type: 'Expense'
       }));
-      const incomes = incomesRes.data.map(txn => ({
+      const incomes = recentIncome.map(txn => ({
         ...txn,
         type: 'Income'
       }));
@@ -44,7 +37,9 @@ export default function Dashboard() {
         .slice(0, 5);
       setRecentTransactions(combined);
     } catch (error) {
-      console.error('Error fetching transactions:', error);
+      console.error('Error fetching dashboard:', error);
+    } finally {
+      setLoading(false);
     }
   };
 
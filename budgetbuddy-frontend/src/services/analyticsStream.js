@@ -0,0 +1,76 @@
+import analyticsApi from './analyticsService';
+
+// Live summary updates from /analytics/stream. Read with fetch rather than EventSource,
+// which cannot send the Authorization header. Returns a function that closes the stream.
+export function subscribeToSummary({ onSummary, onDelta }) {
+  const controller = new AbortController();
+  let retryTimer;
+
+  const dispatch = (block) => {
+    let event = 'message';
+    const data = [];
+    for (const line of block.split('\n')) {
+      if (line.startsWith('event:')) event = line.slice(6).trim();
+      else if (line.startsWith('data:')) data.push(line.slice(5));
+    }
+    if (!data.length) return; // keep-alive comment
+    const payload = JSON.parse(data.join('\n'));
+    if (event === 'summary') onSummary(payload);
+    if (event === 'delta') onDelta(payload);
+  };
+
+  const connect = async () => {
+    try {
+      const response = await fetch(`${analyticsApi.defaults.baseURL}/analytics/stream`, {
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+        signal: controller.signal,
+      });
+      if (response.status === 401 || response.status === 403) return;
+      if (!response.ok) throw new Error(`Stream failed: ${response.status}`);
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      for (;;) {
+        const { value, done } = await reader.read();
+        if (done) break;
+        buffer += value.replace(/\r/g, '');
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          dispatch(buffer.slice(0, end));
+          buffer = buffer.slice(end + 2);
+        }
+      }
+    } catch (error) {
+      if (controller.signal.aborted) return;
+      console.error('Summary stream interrupted:', error);
+    }
+    // The server closes streams periodically and on token expiry; pick up where we left off
+    if (!controller.signal.aborted) retryTimer = setTimeout(connect, 3000);
+  };
+
+  connect();
+  return () => {
+    controller.abort();
+    clearTimeout(retryTimer);
+  };
+}
+
+// Applies a delta event to the summary it was computed against
+export function applySummaryDelta(summary, delta) {
+  if (!summary) return summary;
+  const removed = new Set(delta.removedCategories || []);
+  const changed = new Map((delta.budgetUsage || []).map(u => [u.category, u]));
+  const budgetUsage = (summary.budgetUsage || [])
+    .filter(u => !removed.has(u.category))
+    .map(u => changed.get(u.category) || u);
+  for (const [category, usage] of changed) {
+    if (!budgetUsage.some(u => u.category === category)) budgetUsage.push(usage);
+  }
+  return {
+    ...summary,
+    totalIncome: delta.totalIncome ?? summary.totalIncome,
+    totalExpenses: delta.totalExpenses ?? summary.totalExpenses,
+    netSavings: delta.netSavings ?? summary.netSavings,
+    budgetUsage,
+  };
+}
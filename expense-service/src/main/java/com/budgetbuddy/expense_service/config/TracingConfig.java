@@ -0,0 +1,65 @@
+package com.budgetbuddy.expense_service.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Adds Mongo command spans to the HTTP server, JWT filter and Kafka send spans that Boot's
+ * observations already produce. A request from analytics carries a traceparent header, so its
+ * span here joins the analytics trace; the activity events sent to Kafka carry it onwards.
+ */
+@Configuration
+public class TracingConfig {
+
+    // JUL only holds loggers weakly; this keeps the file handler attached
+    private Logger otlpLogger;
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservation(ObservationRegistry registry) {
+        // The context provider links each command span to the request that issued it
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(registry))
+                .addCommandListener(new MongoObservationCommandListener(registry));
+    }
+
+    /**
+     * Appends finished spans as OTLP JSON, one {@code ResourceSpans} object per line, e.g.
+     * {@code budgetbuddy.tracing.file=traces/expense-service.jsonl}. Wrapped in
+     * {@code {"resourceSpans": [...]}} the lines can be posted to any OTLP/HTTP collector.
+     */
+    @Bean
+    @ConditionalOnProperty("budgetbuddy.tracing.file")
+    public SpanExporter otlpFileSpanExporter(@Value("${budgetbuddy.tracing.file}") String file) throws IOException {
+        Path path = Path.of(file).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        FileHandler handler = new FileHandler(path.toString(), true);
+        handler.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord record) {
+                return record.getMessage() + System.lineSeparator();
+            }
+        });
+        otlpLogger = Logger.getLogger(OtlpJsonLoggingSpanExporter.class.getName());
+        otlpLogger.setLevel(Level.INFO);
+        otlpLogger.setUseParentHandlers(false);
+        otlpLogger.addHandler(handler);
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -25,6 +26,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/expenses")
 public class ExpenseController {
+    private static final int MAX_BATCH_IDS = 500;
 
     @Autowired
     private ExpenseService expenseService;
@@ -49,6 +51,27 @@ public class ExpenseController {
         return expenseService.addExpense(expense);
     }
 
+    @Operation(
+            summary = "Get several expenses by ID",
+            description = "Resolve up to 500 ids in one call; ids that are unknown or belong to another user are left out",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = Expense.class, type = "array"))),
+                    @ApiResponse(responseCode = "400", description = "Too many ids")
+            }
+    )
+    @PostMapping("/batch-get")
+    public List<Expense> batchGet(
+            @Parameter(description = "Ids to resolve", required = true)
+            @RequestBody List<String> ids
+    ) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return expenseService.getExpensesByIds(getUserIdFromContext(), ids);
+    }
+
     @Operation(
             summary = "Get an expense by ID",
             description = "Retrieve a single expense belonging to the authenticated user",
@@ -3,6 +3,7 @@ package com.budgetbuddy.expense_service.repository;
 import com.budgetbuddy.expense_service.model.Expense;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -15,5 +16,5 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
     List<Expense> findByUserIdAndCategoryAndDateBetween(String userId, String category, Date start, Date end);
     List<Expense> findByUserIdAndCategoryAndDateAfter(String userId, String category, Date start);
     List<Expense> findByUserIdAndCategoryAndDateBefore(String userId, String category, Date end);
-
+    List<Expense> findByUserIdAndIdIn(String userId, Collection<String> ids);
 }
@@ -33,6 +33,9 @@ public class SecurityConfig {
                                 "/swagger-ui.html"
                         ).permitAll()
 
+                        // Health checks and the Prometheus scrape; keep the port off the public ingress
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
+
                         // 2) Permit login/register
                         .requestMatchers("/auth/login", "/auth/register").permitAll()
 
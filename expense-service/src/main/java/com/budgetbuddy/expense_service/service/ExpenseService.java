@@ -1,6 +1,7 @@
 package com.budgetbuddy.expense_service.service;
 
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
 import com.budgetbuddy.expense_service.kafka.ActivityProducer;
 import com.budgetbuddy.expense_service.model.Expense;
 import com.budgetbuddy.expense_service.repository.ExpenseRepository;
@@ -9,6 +10,8 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +41,7 @@ public class ExpenseService {
                 saved.getId(),               // which resource
                 Instant.now()                // when
         );
+        evt.setState(state(saved));
         producer.send(evt);
         return saved;
     }
@@ -46,11 +50,17 @@ public class ExpenseService {
         return expenseRepository.findById(id);
     }
 
+    // One $in query; ids that do not exist or belong to another user are simply absent
+    public List<Expense> getExpensesByIds(String userId, List<String> ids) {
+        return expenseRepository.findByUserIdAndIdIn(userId, ids);
+    }
+
     public Expense updateExpense(String id, Expense expenseDetails){
         Optional<Expense> optionalExpense = expenseRepository.findById(id);
 
         if(optionalExpense.isPresent()){
             Expense expense = optionalExpense.get();
+            EntityState previous = state(expense);
             expense.setDescription(expenseDetails.getDescription());
             expense.setAmount(expenseDetails.getAmount());
             expense.setCategory(expenseDetails.getCategory());
@@ -67,6 +77,8 @@ public class ExpenseService {
                     updated.getId(),               // which resource
                     Instant.now()                // when
             );
+            evt.setState(state(updated));
+            evt.setPreviousState(previous);
             producer.send(evt);
             return updated;
         }
@@ -108,10 +120,18 @@ public class ExpenseService {
                     id,               // which resource
                     Instant.now()                // when
             );
+            evt.setState(state(expense.get()));
             producer.send(evt);
             return true;
         }
 
         return false;
     }
+
+    // What budget alerts keep totals of; the month is taken in UTC, as analytics does
+    private static EntityState state(Expense expense) {
+        String monthYear = expense.getDate() == null ? null
+                : YearMonth.from(expense.getDate().toInstant().atZone(ZoneOffset.UTC)).toString();
+        return new EntityState(expense.getAmount(), expense.getCategory(), monthYear);
+    }
 }
@@ -5,6 +5,7 @@ import com.budgetbuddy.expense_service.model.Expense;
 import com.budgetbuddy.expense_service.repository.ExpenseRepository;
 import com.budgetbuddy.expense_service.kafka.ActivityProducer;
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -89,13 +90,13 @@ public class ExpenseServiceTest {
         original.setDescription("Old");
         original.setAmount(10.0);
         original.setCategory("Misc");
-        original.setDate(new Date());
+        original.setDate(Date.from(Instant.parse("2025-03-31T12:00:00Z")));
 
         Expense details = new Expense();
         details.setDescription("New");
         details.setAmount(20.0);
         details.setCategory("Office");
-        details.setDate(new Date());
+        details.setDate(Date.from(Instant.parse("2025-04-01T08:00:00Z")));
 
         when(repo.findById(id)).thenReturn(Optional.of(original));
         when(repo.save(any(Expense.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -112,6 +113,9 @@ public class ExpenseServiceTest {
         ArgumentCaptor<ActivityEvent> cap = ArgumentCaptor.forClass(ActivityEvent.class);
         verify(producer).send(cap.capture());
         assertThat(cap.getValue().getAction()).isEqualTo("UPDATED");
+        // the amount moved between categories and months; budget alerts need both sides
+        assertThat(cap.getValue().getState()).isEqualTo(new EntityState(20.0, "Office", "2025-04"));
+        assertThat(cap.getValue().getPreviousState()).isEqualTo(new EntityState(10.0, "Misc", "2025-03"));
     }
 
     @Test
@@ -165,7 +169,7 @@ public class ExpenseServiceTest {
     @Test
     void deleteExpense_whenExists_deletesAndPublishes() {
         String id = "d1";
-        Expense e = new Expense(); e.setId(id);
+        Expense e = new Expense(); e.setId(id); e.setAmount(7.0); e.setCategory("Food");
         when(repo.findById(id)).thenReturn(Optional.of(e));
 
         boolean result = svc.deleteExpense(id);
@@ -175,6 +179,7 @@ public class ExpenseServiceTest {
         ArgumentCaptor<ActivityEvent> cap = ArgumentCaptor.forClass(ActivityEvent.class);
         verify(producer).send(cap.capture());
         assertThat(cap.getValue().getAction()).isEqualTo("DELETED");
+        assertThat(cap.getValue().getState()).isEqualTo(new EntityState(7.0, "Food", null));
     }
 
     @Test
@@ -185,5 +190,11 @@ public class ExpenseServiceTest {
         verify(producer, never()).send(any());
     }
 
+    @Test
+    void getExpensesByIds_usesOneInQueryScopedToUser() {
+        List<Expense> found = List.of(new Expense());
+        when(repo.findByUserIdAndIdIn(USER, List.of("a1", "missing"))).thenReturn(found);
 
+        assertThat(svc.getExpensesByIds(USER, List.of("a1", "missing"))).isSameAs(found);
+    }
 }
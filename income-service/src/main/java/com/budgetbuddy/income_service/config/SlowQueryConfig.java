@@ -0,0 +1,62 @@
+package com.budgetbuddy.income_service.config;
+
+import com.budgetbuddy.slowqueries.Explainer;
+import com.budgetbuddy.slowqueries.SlowQueryLog;
+import com.budgetbuddy.slowqueries.SlowQueryObserver;
+import com.budgetbuddy.slowqueries.SlowQueryOptions;
+import com.mongodb.client.MongoClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Objects;
+
+/**
+ * Explains Mongo commands slower than budgetbuddy.mongo.slow-queries.threshold-ms. Findings
+ * are served at /actuator/slowqueries; budgetbuddy.mongo.collscan.shapes counts the query
+ * shapes whose plan scans a whole collection, i.e. the indexes still missing.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "budgetbuddy.mongo.slow-queries", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "budgetbuddy.mongo.slow-queries")
+    public SlowQueryOptions slowQueryOptions() {
+        return new SlowQueryOptions();
+    }
+
+    @Bean(destroyMethod = "close")
+    public SlowQueryLog slowQueryLog(SlowQueryOptions options,
+                                     ObjectProvider<MongoClient> mongoClient,
+                                     MeterRegistry registry) {
+        SlowQueryLog log = new SlowQueryLog(options, Explainer.using(mongoClient::getObject), new SlowQueryObserver() {
+            @Override
+            public void slowCommand(String database, String collection, String command, long millis, String plan) {
+                registry.counter("budgetbuddy.mongo.slow.commands",
+                        "collection", Objects.requireNonNullElse(collection, "none"),
+                        "command", command,
+                        "plan", plan).increment();
+            }
+        });
+        Gauge.builder("budgetbuddy.mongo.collscan.shapes", log, SlowQueryLog::collectionScanShapes)
+                .description("Slow query shapes whose last explained plan was a collection scan")
+                .register(registry);
+        return log;
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowQueryListener(SlowQueryLog log) {
+        return settings -> settings.addCommandListener(log);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog log) {
+        return new SlowQueryEndpoint(log);
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -24,6 +25,7 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/income")
 public class IncomeController {
+    private static final int MAX_BATCH_IDS = 500;
 
     @Autowired
     private IncomeService incomeService;
@@ -83,6 +85,27 @@ public class IncomeController {
         return incomeService.getAllIncome(userId);
     }
 
+    @Operation(
+            summary = "Get several income records by ID",
+            description = "Resolve up to 500 ids in one call; ids that are unknown or belong to another user are left out",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "OK",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = Income.class, type = "array"))),
+                    @ApiResponse(responseCode = "400", description = "Too many ids")
+            }
+    )
+    @PostMapping("/batch-get")
+    public List<Income> batchGet(
+            @Parameter(description = "Ids to resolve", required = true)
+            @RequestBody List<String> ids
+    ) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return incomeService.getIncomeByIds(getCurrentUserId(), ids);
+    }
+
     @Operation(
             summary = "Get a single income record by ID",
             responses = {
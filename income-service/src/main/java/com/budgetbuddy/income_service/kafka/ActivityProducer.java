@@ -2,17 +2,35 @@ package com.budgetbuddy.income_service.kafka;
 
 import org.springframework.stereotype.Service;
 import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EventIds;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 
 @Service
 public class ActivityProducer {
     private final KafkaTemplate<String, ActivityEvent> kafka;
-    public ActivityProducer(KafkaTemplate<String, ActivityEvent> k) {
+    private final String topic;
+    private final String partitionKey;
+
+    public ActivityProducer(KafkaTemplate<String, ActivityEvent> k,
+                            @Value("${budgetbuddy.activity.topic:user-activity-logs}") String topic,
+                            @Value("${budgetbuddy.activity.partition-key:userId}") String partitionKey) {
         this.kafka = k;
+        this.topic = topic;
+        this.partitionKey = partitionKey;
     }
 
     public void send(ActivityEvent evt) {
-        kafka.send("user-activity-logs", evt.getEntityId(), evt);
+        // Consumers dedupe redeliveries on this id
+        if (evt.getEventId() == null) {
+            evt.setEventId(EventIds.next());
+        }
+        kafka.send(topic, keyFor(evt), evt);
         System.out.println("✅ Sent event to Kafka: " + evt);
     }
+
+    // Keying by userId sends all of a user's events to one partition, so they are consumed in order
+    private String keyFor(ActivityEvent evt) {
+        return "entityId".equals(partitionKey) ? evt.getEntityId() : evt.getUserId();
+    }
 }
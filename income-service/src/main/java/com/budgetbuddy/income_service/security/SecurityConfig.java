@@ -29,6 +29,7 @@ public class SecurityConfig {
                                 "/swagger-ui/**",
                                 "/swagger-ui.html"
                         ).permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll() // scraped from inside the cluster
                         .requestMatchers("/auth/**").permitAll() // optional public paths
                         .requestMatchers("/income/**").authenticated()
                         .anyRequest().authenticated()
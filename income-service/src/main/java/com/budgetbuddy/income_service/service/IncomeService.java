@@ -53,6 +53,11 @@ public class IncomeService {
         return incomeRepository.findById(id);
     }
 
+    // One $in query; ids that do not exist or belong to another user are simply absent
+    public List<Income> getIncomeByIds(String userId, List<String> ids) {
+        return incomeRepository.findByUserIdAndIdIn(userId, ids);
+    }
+
     public Income updateIncome(String id, Income updatedIncome) {
         updatedIncome.setId(id);
 
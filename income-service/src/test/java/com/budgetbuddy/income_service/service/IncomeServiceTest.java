@@ -138,5 +138,11 @@ class IncomeServiceTest {
         assertThat(cap.getValue().getEntityId()).isEqualTo("del1");
     }
 
+    @Test
+    void getIncomeByIds_usesOneInQueryScopedToUser() {
+        List<Income> found = List.of(new Income());
+        when(repo.findByUserIdAndIdIn(USER, List.of("a1", "missing"))).thenReturn(found);
 
+        assertThat(svc.getIncomeByIds(USER, List.of("a1", "missing"))).isSameAs(found);
+    }
 }
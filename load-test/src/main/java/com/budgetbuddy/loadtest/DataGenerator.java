@@ -0,0 +1,172 @@
+package com.budgetbuddy.loadtest;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic synthetic data for the seeded users. Everything is a pure function of the
+ * seed and the user index, so the traffic driver can regenerate ids and months without
+ * reading the database back, and two runs with the same options are comparable.
+ *
+ * <p>Users differ in how much they spend, how many expenses they log and what they earn;
+ * expenses follow a skewed category mix with log-uniform amounts, each month has a salary
+ * plus a few side incomes, and budgets cover the categories a user spends most on.
+ */
+public class DataGenerator {
+    static final String USER_PREFIX = "lt-user-";
+    private static final byte[] ID_MARKER = {'L', 'T', 0, 0};
+
+    enum Kind { EXPENSE, INCOME, BUDGET, PROFILE }
+
+    record Category(String name, double weight, double min, double max, String... merchants) {}
+
+    static final List<Category> CATEGORIES = List.of(
+            new Category("Groceries", 24, 12, 180, "Whole Foods", "Trader Joe's", "Costco", "Safeway"),
+            new Category("Dining", 18, 8, 95, "Chipotle", "Starbucks", "Local bistro", "Pizza place"),
+            new Category("Transport", 14, 3, 70, "Uber", "Metro card", "Gas station", "Parking"),
+            new Category("Shopping", 12, 10, 400, "Amazon", "Target", "Best Buy", "IKEA"),
+            new Category("Entertainment", 9, 10, 120, "Cinema", "Concert tickets", "Bowling", "Steam"),
+            new Category("Subscriptions", 7, 5, 25, "Netflix", "Spotify", "iCloud", "Gym membership"),
+            new Category("Utilities", 6, 40, 220, "Electricity", "Water", "Internet", "Phone bill"),
+            new Category("Health", 5, 15, 300, "Pharmacy", "Dentist", "Clinic copay"),
+            new Category("Travel", 3, 80, 1500, "Airline", "Hotel", "Car rental"),
+            new Category("Education", 2, 20, 600, "Online course", "Books", "Workshop"));
+    private static final double TOTAL_WEIGHT = CATEGORIES.stream().mapToDouble(Category::weight).sum();
+    private static final String[] SIDE_INCOME = {"Freelance", "Interest", "Refund", "Dividends", "Gift"};
+
+    /** Per-user traits drawn once, so every collection agrees on them. */
+    record Profile(int expensesPerMonth, double salary, double spendScale) {}
+
+    private final LoadTestOptions options;
+    private final List<YearMonth> months;
+
+    public DataGenerator(LoadTestOptions options) {
+        this.options = options;
+        List<YearMonth> out = new ArrayList<>(options.months);
+        for (int i = options.months - 1; i >= 0; i--) {
+            out.add(options.lastMonth.minusMonths(i));
+        }
+        this.months = List.copyOf(out);
+    }
+
+    public List<YearMonth> months() {
+        return months;
+    }
+
+    public static String userId(int user) {
+        return String.format("%s%05d", USER_PREFIX, user);
+    }
+
+    public Profile profile(int user) {
+        SplittableRandom r = random(user, Kind.PROFILE);
+        // 0.4x to 1.6x the configured volume: a few heavy users, a few barely-active ones
+        double activity = 0.4 + 1.2 * r.nextDouble();
+        return new Profile(
+                Math.max(1, (int) Math.round(options.expensesPerMonth * activity)),
+                round(2_500 + r.nextDouble() * 6_500),
+                0.6 + 0.8 * r.nextDouble());
+    }
+
+    public int expenseCount(int user) {
+        return profile(user).expensesPerMonth() * months.size();
+    }
+
+    /** Expense ids are a function of (user, sequence), which is what lets the driver target them. */
+    public static ObjectId expenseId(int user, int seq) {
+        return new ObjectId(ByteBuffer.allocate(12).put(ID_MARKER).putInt(user).putInt(seq).array());
+    }
+
+    public void expenses(int user, Consumer<Document> sink) {
+        Profile p = profile(user);
+        SplittableRandom r = random(user, Kind.EXPENSE);
+        int seq = 0;
+        for (YearMonth month : months) {
+            for (int i = 0; i < p.expensesPerMonth(); i++) {
+                Category c = pick(r);
+                String merchant = c.merchants()[r.nextInt(c.merchants().length)];
+                sink.accept(new Document("_id", expenseId(user, seq++))
+                        .append("description", merchant)
+                        .append("amount", amount(r, c.min() * p.spendScale(), c.max() * p.spendScale()))
+                        .append("date", dateIn(r, month))
+                        .append("category", c.name())
+                        .append("userId", userId(user)));
+            }
+        }
+    }
+
+    public void incomes(int user, Consumer<Document> sink) {
+        Profile p = profile(user);
+        SplittableRandom r = random(user, Kind.INCOME);
+        for (YearMonth month : months) {
+            sink.accept(income(user, "Salary", p.salary(),
+                    Date.from(month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC))));
+            for (int i = 1; i < options.incomesPerMonth; i++) {
+                String source = SIDE_INCOME[r.nextInt(SIDE_INCOME.length)];
+                sink.accept(income(user, source, amount(r, 10, p.salary() * 0.3), dateIn(r, month)));
+            }
+        }
+    }
+
+    public void budgets(int user, Consumer<Document> sink) {
+        Profile p = profile(user);
+        SplittableRandom r = random(user, Kind.BUDGET);
+        // Budget the six heaviest categories, sized around the expected monthly spend
+        for (YearMonth month : months) {
+            for (Category c : CATEGORIES.subList(0, 6)) {
+                double expected = p.expensesPerMonth() * (c.weight() / TOTAL_WEIGHT)
+                        * Math.sqrt(c.min() * c.max()) * p.spendScale();
+                double limit = Math.max(10, Math.round(expected * (0.8 + 0.4 * r.nextDouble()) / 10) * 10);
+                sink.accept(new Document("userId", userId(user))
+                        .append("category", c.name())
+                        .append("limitAmount", limit)
+                        .append("monthYear", month.toString()));
+            }
+        }
+    }
+
+    private static Document income(int user, String source, double amount, Date date) {
+        return new Document("userId", userId(user))
+                .append("source", source)
+                .append("amount", amount)
+                .append("date", date);
+    }
+
+    static Category pick(SplittableRandom r) {
+        double x = r.nextDouble() * TOTAL_WEIGHT;
+        for (Category c : CATEGORIES) {
+            x -= c.weight();
+            if (x < 0) {
+                return c;
+            }
+        }
+        return CATEGORIES.get(CATEGORIES.size() - 1);
+    }
+
+    /** Log-uniform, so small purchases are common and large ones rare. */
+    private static double amount(SplittableRandom r, double min, double max) {
+        return round(Math.exp(Math.log(min) + r.nextDouble() * (Math.log(max) - Math.log(min))));
+    }
+
+    private static Date dateIn(SplittableRandom r, YearMonth month) {
+        LocalTime time = LocalTime.ofSecondOfDay(r.nextInt(7 * 3600, 23 * 3600));
+        return Date.from(month.atDay(1 + r.nextInt(month.lengthOfMonth())).atTime(time).toInstant(ZoneOffset.UTC));
+    }
+
+    private static double round(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+
+    private SplittableRandom random(int user, Kind kind) {
+        return new SplittableRandom(options.seed * 1_000_003L + user * 31L + kind.ordinal());
+    }
+}
@@ -0,0 +1,25 @@
+package com.budgetbuddy.loadtest;
+
+import org.springframework.kafka.test.EmbeddedKafkaZKBroker;
+
+/**
+ * A single-node broker on the port the services expect ({@code localhost:9092} by default),
+ * for machines without a Kafka install. It is the ZooKeeper flavour because the embedded
+ * KRaft broker always picks a random port. The activity topic is created up front
+ * so producers do not race the activity service's own topic creation.
+ */
+final class EmbeddedKafka implements AutoCloseable {
+    private final EmbeddedKafkaZKBroker broker;
+
+    EmbeddedKafka(int port) {
+        broker = new EmbeddedKafkaZKBroker(1, false, 3, "user-activity-logs");
+        broker.kafkaPorts(port);
+        broker.afterPropertiesSet();
+        System.out.println("Embedded Kafka listening on " + broker.getBrokersAsString());
+    }
+
+    @Override
+    public void close() {
+        broker.destroy();
+    }
+}
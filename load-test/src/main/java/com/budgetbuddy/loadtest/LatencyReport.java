@@ -0,0 +1,134 @@
+package com.budgetbuddy.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint outcome of a run: a latency histogram (microsecond resolution, 3 significant
+ * digits) and error counts by cause. Latency covers every request that got an answer,
+ * failed ones included, and is measured from when the request was due rather than when it
+ * was sent, so a stalled server shows up as latency instead of as a quietly lower rate.
+ *
+ * <p>Requests the driver could not even start because {@code maxInFlight} were already
+ * outstanding are counted as "dropped": a non-zero count means the target rate was not
+ * actually offered and the percentiles flatter the system.
+ */
+public class LatencyReport {
+    static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    static final class Endpoint {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, LongAdder> causes = new ConcurrentSkipListMap<>();
+
+        long count() {
+            return latencyMicros.getTotalCount();
+        }
+
+        void fail(String cause) {
+            errors.increment();
+            causes.computeIfAbsent(cause, c -> new LongAdder()).increment();
+        }
+    }
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyNanos, int status) {
+        Endpoint e = endpoint(endpoint);
+        e.latencyMicros.recordValue(Math.max(0, latencyNanos / 1_000));
+        if (status >= 400) {
+            e.fail(Integer.toString(status));
+        }
+    }
+
+    /** No response at all: connect refused, timeout, reset. */
+    public void failed(String endpoint, long latencyNanos, Throwable cause) {
+        Endpoint e = endpoint(endpoint);
+        e.latencyMicros.recordValue(Math.max(0, latencyNanos / 1_000));
+        e.fail(cause.getClass().getSimpleName());
+    }
+
+    public void dropped(String endpoint) {
+        endpoint(endpoint).dropped.increment();
+    }
+
+    Endpoint endpoint(String name) {
+        return endpoints.computeIfAbsent(name, n -> new Endpoint());
+    }
+
+    /** Rows by endpoint name, plus an "ALL" row merging them, in print order. */
+    Map<String, Endpoint> rows() {
+        Map<String, Endpoint> rows = new TreeMap<>(endpoints);
+        Endpoint all = new Endpoint();
+        for (Endpoint e : endpoints.values()) {
+            all.latencyMicros.add(e.latencyMicros);
+            all.errors.add(e.errors.sum());
+            all.dropped.add(e.dropped.sum());
+        }
+        rows.put("ALL", all);
+        return rows;
+    }
+
+    public void print(PrintStream out, Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        String header = String.format(Locale.ROOT, "%-34s %9s %9s %7s %8s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "req/s", "err%", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        out.println(header);
+        out.println("-".repeat(header.length()));
+        for (Map.Entry<String, Endpoint> row : rows().entrySet()) {
+            Endpoint e = row.getValue();
+            long n = e.count();
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-34s %9d %9.1f %7.2f %8d",
+                    row.getKey(), n, n / seconds, n == 0 ? 0 : 100.0 * e.errors.sum() / n, e.dropped.sum()));
+            for (double p : PERCENTILES) {
+                line.append(String.format(Locale.ROOT, " %9.1f", millis(e, p)));
+            }
+            line.append(String.format(Locale.ROOT, " %9.1f", e.latencyMicros.getMaxValue() / 1000.0));
+            out.println(line);
+        }
+        for (Map.Entry<String, Endpoint> row : new TreeMap<>(endpoints).entrySet()) {
+            if (!row.getValue().causes.isEmpty()) {
+                List<String> causes = new ArrayList<>();
+                row.getValue().causes.forEach((cause, count) -> causes.add(cause + " x" + count.sum()));
+                out.println("  errors " + row.getKey() + ": " + String.join(", ", causes));
+            }
+        }
+    }
+
+    /** One CSV row per endpoint, for comparing runs in a spreadsheet. */
+    public void write(Path file, Duration measured) throws IOException {
+        double seconds = measured.toNanos() / 1e9;
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,rps,errors,dropped,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        for (Map.Entry<String, Endpoint> row : rows().entrySet()) {
+            Endpoint e = row.getValue();
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "\"%s\",%d,%.2f,%d,%d",
+                    row.getKey(), e.count(), e.count() / seconds, e.errors.sum(), e.dropped.sum()));
+            for (double p : PERCENTILES) {
+                line.append(String.format(Locale.ROOT, ",%.3f", millis(e, p)));
+            }
+            line.append(String.format(Locale.ROOT, ",%.3f", e.latencyMicros.getMaxValue() / 1000.0));
+            lines.add(line.toString());
+        }
+        Files.write(file, lines);
+    }
+
+    static double millis(Endpoint e, double percentile) {
+        return e.latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
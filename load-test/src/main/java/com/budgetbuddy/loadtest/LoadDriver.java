@@ -0,0 +1,96 @@
+package com.budgetbuddy.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop traffic: request {@code i} is due at {@code start + i / rate} whether or not
+ * earlier ones have returned, and each runs on its own virtual thread. A closed loop of N
+ * workers would slow down with the server and hide exactly the queueing a load test is
+ * meant to find.
+ *
+ * <p>The warm-up period is sent at the same rate but recorded apart and dropped, so JIT,
+ * connection pools and caches settle before the numbers that matter are taken.
+ */
+public class LoadDriver {
+    private final LoadTestOptions options;
+    private final TrafficMix mix;
+    private final Tokens tokens;
+
+    public LoadDriver(LoadTestOptions options, TrafficMix mix, Tokens tokens) {
+        this.options = options;
+        this.mix = mix;
+        this.tokens = tokens;
+    }
+
+    public LatencyReport run() throws InterruptedException {
+        LatencyReport warmup = new LatencyReport();
+        LatencyReport measured = new LatencyReport();
+        SplittableRandom random = new SplittableRandom(options.seed);
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        double intervalNanos = 1e9 / options.rate;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try {
+            long start = System.nanoTime();
+            long measureFrom = start + options.warmup.toNanos();
+            long end = measureFrom + options.duration.toNanos();
+            System.out.printf("Driving %.0f req/s for %ds (+%ds warm-up) across %d users%n",
+                    options.rate, options.duration.toSeconds(), options.warmup.toSeconds(), options.users);
+
+            for (long i = 0; ; i++) {
+                long due = start + (long) (i * intervalNanos);
+                if (due >= end) {
+                    break;
+                }
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                LatencyReport report = due < measureFrom ? warmup : measured;
+                TrafficMix.Operation op = mix.next(random);
+                int user = random.nextInt(options.users);
+                HttpRequest request = op.request().apply(new TrafficMix.Target(user, tokens.forUser(user), random.split()));
+                if (!inFlight.tryAcquire()) {
+                    report.dropped(op.label());
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        report.record(op.label(), System.nanoTime() - due, response.statusCode());
+                    } catch (IOException e) {
+                        report.failed(op.label(), System.nanoTime() - due, e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            // Let stragglers finish so their (long) latencies are counted, bounded by the timeout
+            executor.shutdown();
+            if (!executor.awaitTermination(options.timeout.toMillis() + 5_000, TimeUnit.MILLISECONDS)) {
+                System.err.println("Some requests were still outstanding after the timeout");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return measured;
+    }
+}
@@ -0,0 +1,61 @@
+package com.budgetbuddy.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Entry point. The services themselves run as usual (with Mongo and
+ * Kafka pointed at the same local instances); this only seeds data and generates traffic.
+ * <pre>
+ *   seed   --users=200 --months=24 --expenses-per-month=150
+ *   run    --rate=300 --duration=120 --warmup=20 --report=run.csv
+ *   all    seed then run, with the same options
+ *   kafka  keep an embedded broker up until interrupted, for starting services against
+ *   clean  remove everything seed wrote
+ * </pre>
+ * {@code --embedded-kafka=true} starts the broker for the duration of any command.
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: LoadTest seed|run|all|kafka|clean [--name=value ...]");
+            System.exit(2);
+        }
+        String command = args[0];
+        LoadTestOptions options = LoadTestOptions.parse(Arrays.copyOfRange(args, 1, args.length));
+        DataGenerator generator = new DataGenerator(options);
+
+        EmbeddedKafka kafka = options.embeddedKafka || command.equals("kafka")
+                ? new EmbeddedKafka(options.kafkaPort) : null;
+        try {
+            switch (command) {
+                case "seed" -> new Seeder(options, generator).seed();
+                case "run" -> run(options, generator);
+                case "all" -> {
+                    new Seeder(options, generator).seed();
+                    run(options, generator);
+                }
+                case "kafka" -> Thread.currentThread().join();
+                case "clean" -> new Seeder(options, generator).clean();
+                default -> throw new IllegalArgumentException("Unknown command " + command);
+            }
+        } finally {
+            if (kafka != null) {
+                kafka.close();
+            }
+        }
+    }
+
+    private static void run(LoadTestOptions options, DataGenerator generator) throws Exception {
+        TrafficMix mix = new TrafficMix(options, generator);
+        LatencyReport report = new LoadDriver(options, mix, new Tokens(options)).run();
+        System.out.println();
+        report.print(System.out, options.duration);
+        if (options.report != null) {
+            report.write(options.report, options.duration);
+            System.out.println("Wrote " + options.report);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.budgetbuddy.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Knobs for a load-test run, parsed from {@code --name=value} arguments. Defaults describe
+ * a modest local run; the scale knobs multiply out to {@code users * expensesPerMonth * months}
+ * expenses, so {@code --users=200 --expenses-per-month=150 --months=24} seeds 720k.
+ */
+public class LoadTestOptions {
+    // Seeding
+    String mongoUri = "mongodb://localhost:27017";
+    String database = "budgetbuddy";
+    int users = 50;
+    int months = 12;
+    YearMonth lastMonth = YearMonth.now();
+    int expensesPerMonth = 120;
+    int incomesPerMonth = 3;
+    long seed = 42;
+
+    // Traffic
+    String expenseUrl = "http://localhost:8082";
+    String incomeUrl = "http://localhost:8083";
+    String budgetUrl = "http://localhost:8084";
+    String analyticsUrl = "http://localhost:8085";
+    String jwtSecret = "bff0d26381c48c6d90a98ef3de43feb6a4f0b1baf9e2d7fd711b543affd78f74";
+    double rate = 100;
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(10);
+    Duration timeout = Duration.ofSeconds(10);
+    int maxInFlight = 2_000;
+    String mix = TrafficMix.DEFAULT;
+
+    // Infrastructure
+    boolean embeddedKafka = false;
+    int kafkaPort = 9092;
+    Path report;
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions o = new LoadTestOptions();
+        for (Map.Entry<String, String> e : values.entrySet()) {
+            String v = e.getValue();
+            switch (e.getKey()) {
+                case "mongo-uri" -> o.mongoUri = v;
+                case "database" -> o.database = v;
+                case "users" -> o.users = positive(e.getKey(), Integer.parseInt(v));
+                case "months" -> o.months = positive(e.getKey(), Integer.parseInt(v));
+                case "last-month" -> o.lastMonth = YearMonth.parse(v);
+                case "expenses-per-month" -> o.expensesPerMonth = Integer.parseInt(v);
+                case "incomes-per-month" -> o.incomesPerMonth = Integer.parseInt(v);
+                case "seed" -> o.seed = Long.parseLong(v);
+                case "expense-url" -> o.expenseUrl = v;
+                case "income-url" -> o.incomeUrl = v;
+                case "budget-url" -> o.budgetUrl = v;
+                case "analytics-url" -> o.analyticsUrl = v;
+                case "jwt-secret" -> o.jwtSecret = v;
+                case "rate" -> o.rate = Double.parseDouble(v);
+                case "duration" -> o.duration = seconds(v);
+                case "warmup" -> o.warmup = seconds(v);
+                case "timeout" -> o.timeout = seconds(v);
+                case "max-in-flight" -> o.maxInFlight = positive(e.getKey(), Integer.parseInt(v));
+                case "mix" -> o.mix = v;
+                case "embedded-kafka" -> o.embeddedKafka = Boolean.parseBoolean(v);
+                case "kafka-port" -> o.kafkaPort = Integer.parseInt(v);
+                case "report" -> o.report = Path.of(v);
+                default -> throw new IllegalArgumentException("Unknown option --" + e.getKey());
+            }
+        }
+        if (o.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        return o;
+    }
+
+    /** Accepts plain seconds ("90") or an ISO-8601 duration ("PT5M"). */
+    private static Duration seconds(String v) {
+        return v.startsWith("P") || v.startsWith("p") ? Duration.parse(v) : Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("--" + name + " must be positive");
+        }
+        return value;
+    }
+}
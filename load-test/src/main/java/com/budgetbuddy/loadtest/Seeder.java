@@ -0,0 +1,113 @@
+package com.budgetbuddy.loadtest;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the generated users straight into the services' collections. Going through the
+ * REST APIs would take hours at realistic volumes and publish an activity event per row;
+ * a bulk insert takes seconds and leaves the services' own write path for the traffic run.
+ *
+ * <p>Seeding is idempotent: every document carries a {@code lt-user-} userId and those are
+ * removed first, so real data in the same database is never touched.
+ */
+public class Seeder {
+    static final String EXPENSES = "expenses";
+    static final String INCOME = "income";
+    static final String BUDGET = "budget";
+    private static final int BATCH = 1_000;
+    private static final Bson SEEDED = Filters.regex("userId", Pattern.compile("^" + DataGenerator.USER_PREFIX));
+
+    private final LoadTestOptions options;
+    private final DataGenerator generator;
+
+    public Seeder(LoadTestOptions options, DataGenerator generator) {
+        this.options = options;
+        this.generator = generator;
+    }
+
+    public void seed() throws Exception {
+        try (MongoClient client = MongoClients.create(options.mongoUri)) {
+            MongoDatabase db = client.getDatabase(options.database);
+            clean(db);
+
+            long started = System.nanoTime();
+            AtomicLong expenses = new AtomicLong();
+            AtomicLong incomes = new AtomicLong();
+            AtomicLong budgets = new AtomicLong();
+            // Users are independent, so a few of them insert at once; more just queues in mongod
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(4, options.users));
+            try {
+                List<Future<?>> pending = new ArrayList<>();
+                for (int u = 0; u < options.users; u++) {
+                    int user = u;
+                    pending.add(pool.submit(() -> {
+                        expenses.addAndGet(insert(db.getCollection(EXPENSES), sink -> generator.expenses(user, sink)));
+                        incomes.addAndGet(insert(db.getCollection(INCOME), sink -> generator.incomes(user, sink)));
+                        budgets.addAndGet(insert(db.getCollection(BUDGET), sink -> generator.budgets(user, sink)));
+                        return null;
+                    }));
+                }
+                for (Future<?> f : pending) {
+                    f.get();
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            System.out.printf("Seeded %d users over %d months into %s: %,d expenses, %,d income, %,d budgets in %.1fs%n",
+                    options.users, generator.months().size(), options.database,
+                    expenses.get(), incomes.get(), budgets.get(), (System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    public void clean() {
+        try (MongoClient client = MongoClients.create(options.mongoUri)) {
+            clean(client.getDatabase(options.database));
+        }
+    }
+
+    private static void clean(MongoDatabase db) {
+        for (String name : List.of(EXPENSES, INCOME, BUDGET)) {
+            long removed = db.getCollection(name).deleteMany(SEEDED).getDeletedCount();
+            if (removed > 0) {
+                System.out.printf("Removed %,d seeded documents from %s%n", removed, name);
+            }
+        }
+    }
+
+    private static long insert(MongoCollection<Document> collection, Consumer<Consumer<Document>> source) {
+        List<Document> batch = new ArrayList<>(BATCH);
+        AtomicLong count = new AtomicLong();
+        source.accept(doc -> {
+            batch.add(doc);
+            if (batch.size() == BATCH) {
+                flush(collection, batch, count);
+            }
+        });
+        flush(collection, batch, count);
+        return count.get();
+    }
+
+    private static void flush(MongoCollection<Document> collection, List<Document> batch, AtomicLong count) {
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch, new InsertManyOptions().ordered(false));
+            count.addAndGet(batch.size());
+            batch.clear();
+        }
+    }
+}
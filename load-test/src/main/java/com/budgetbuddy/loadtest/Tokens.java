@@ -0,0 +1,42 @@
+package com.budgetbuddy.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Bearer tokens for the seeded users, signed the way auth-service signs them. The resource
+ * services only check the signature and read the {@code id} claim, so minting locally avoids
+ * registering thousands of users and keeps logins out of the measured traffic.
+ */
+public class Tokens {
+    private final String[] tokens;
+
+    public Tokens(LoadTestOptions options) {
+        Key key = Keys.hmacShaKeyFor(options.jwtSecret.getBytes(StandardCharsets.UTF_8));
+        Instant now = Instant.now();
+        // Valid for the whole run however long it is, with the same margin auth-service gives
+        Date expires = Date.from(now.plus(options.warmup).plus(options.duration).plus(Duration.ofHours(24)));
+        tokens = new String[options.users];
+        for (int u = 0; u < options.users; u++) {
+            String userId = DataGenerator.userId(u);
+            tokens[u] = Jwts.builder()
+                    .setSubject(userId + "@loadtest.local")
+                    .claim("id", userId)
+                    .setIssuedAt(Date.from(now))
+                    .setExpiration(expires)
+                    .signWith(key, SignatureAlgorithm.HS256)
+                    .compact();
+        }
+    }
+
+    public String forUser(int user) {
+        return tokens[user];
+    }
+}
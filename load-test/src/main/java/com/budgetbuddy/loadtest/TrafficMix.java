@@ -0,0 +1,189 @@
+package com.budgetbuddy.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * The weighted set of requests a run draws from, given as {@code name=weight,...}. Each
+ * operation targets a random seeded user and data that user owns (seeded expense ids,
+ * seeded months), so reads hit real documents and writes land next to them.
+ *
+ * <p>The default leans on reads and analytics, which is what the app's screens do;
+ * pass {@code --mix} to shift the balance, e.g. {@code --mix=analytics.summary=1} to
+ * isolate one endpoint.
+ */
+public class TrafficMix {
+    static final String DEFAULT = "expense.list=15,expense.filter=10,expense.get=10,expense.batch-get=5,"
+            + "expense.create=8,expense.update=4,income.list=8,income.create=2,budget.list=10,"
+            + "analytics.summary=20,analytics.months=8";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** What an operation needs to build a request: who it is for and a random source. */
+    record Target(int user, String token, SplittableRandom random) {}
+
+    /** One kind of request; {@code label} is the row it is reported under. */
+    record Operation(String name, String label, double weight, Function<Target, HttpRequest> request) {}
+
+    private final LoadTestOptions options;
+    private final DataGenerator generator;
+    private final List<Operation> operations = new ArrayList<>();
+    private final double[] cumulative;
+
+    public TrafficMix(LoadTestOptions options, DataGenerator generator) {
+        this.options = options;
+        this.generator = generator;
+        Map<String, Operation> catalogue = catalogue();
+        for (String part : options.mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected name=weight in --mix but got " + part);
+            }
+            Operation op = catalogue.get(kv[0].trim());
+            if (op == null) {
+                throw new IllegalArgumentException("Unknown operation " + kv[0] + "; known: " + catalogue.keySet());
+            }
+            double weight = Double.parseDouble(kv[1].trim());
+            if (weight > 0) {
+                operations.add(new Operation(op.name(), op.label(), weight, op.request()));
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("--mix selects no operations");
+        }
+        cumulative = new double[operations.size()];
+        double sum = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            sum += operations.get(i).weight();
+            cumulative[i] = sum;
+        }
+    }
+
+    public List<Operation> operations() {
+        return List.copyOf(operations);
+    }
+
+    public Operation next(SplittableRandom random) {
+        double x = random.nextDouble() * cumulative[cumulative.length - 1];
+        for (int i = 0; i < cumulative.length; i++) {
+            if (x < cumulative[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private Map<String, Operation> catalogue() {
+        Map<String, Operation> ops = new LinkedHashMap<>();
+        add(ops, "expense.list", "GET /expenses",
+                t -> get(options.expenseUrl + "/expenses", t));
+        add(ops, "expense.filter", "GET /expenses?category",
+                t -> {
+                    YearMonth month = month(t);
+                    String category = DataGenerator.pick(t.random()).name();
+                    return get(options.expenseUrl + "/expenses?category=" + encode(category)
+                            + "&startDate=" + month.atDay(1) + "&endDate=" + month.atEndOfMonth(), t);
+                });
+        add(ops, "expense.get", "GET /expenses/{id}",
+                t -> get(options.expenseUrl + "/expenses/" + seededExpense(t), t));
+        add(ops, "expense.batch-get", "POST /expenses/batch-get",
+                t -> {
+                    List<String> ids = new ArrayList<>();
+                    for (int i = 0; i < 20; i++) {
+                        ids.add(seededExpense(t));
+                    }
+                    return send("POST", options.expenseUrl + "/expenses/batch-get", t, ids);
+                });
+        add(ops, "expense.create", "POST /expenses",
+                t -> send("POST", options.expenseUrl + "/expenses", t, expenseBody(t)));
+        add(ops, "expense.update", "PUT /expenses/{id}",
+                t -> send("PUT", options.expenseUrl + "/expenses/" + seededExpense(t), t, expenseBody(t)));
+        add(ops, "income.list", "GET /income",
+                t -> get(options.incomeUrl + "/income", t));
+        add(ops, "income.create", "POST /income",
+                t -> send("POST", options.incomeUrl + "/income", t, Map.of(
+                        "source", "Freelance",
+                        "amount", money(t, 50, 900),
+                        "date", month(t).atDay(1 + t.random().nextInt(28)).toString())));
+        add(ops, "budget.list", "GET /budgets?monthYear",
+                t -> get(options.budgetUrl + "/budgets?monthYear=" + month(t), t));
+        add(ops, "analytics.summary", "GET /analytics/summary",
+                t -> get(options.analyticsUrl + "/analytics/summary?monthYear=" + month(t), t));
+        // The same summary from the single-aggregation engine; run both to compare them
+        add(ops, "analytics.summary-direct", "GET /analytics/summary?engine=direct",
+                t -> get(options.analyticsUrl + "/analytics/summary?engine=direct&monthYear=" + month(t), t));
+        add(ops, "analytics.months", "GET /analytics/available-months",
+                t -> get(options.analyticsUrl + "/analytics/available-months", t));
+        add(ops, "analytics.dashboard", "GET /analytics/dashboard",
+                t -> get(options.analyticsUrl + "/analytics/dashboard", t));
+        add(ops, "analytics.trends", "GET /analytics/trends",
+                t -> get(options.analyticsUrl + "/analytics/trends?granularity="
+                        + (t.random().nextInt(4) == 0 ? "week" : "month"), t));
+        return ops;
+    }
+
+    private static void add(Map<String, Operation> ops, String name, String label, Function<Target, HttpRequest> request) {
+        ops.put(name, new Operation(name, label, 0, request));
+    }
+
+    private Map<String, Object> expenseBody(Target t) {
+        DataGenerator.Category c = DataGenerator.pick(t.random());
+        return Map.of(
+                "description", c.merchants()[t.random().nextInt(c.merchants().length)],
+                "amount", money(t, c.min(), c.max()),
+                "date", month(t).atDay(1 + t.random().nextInt(28)).toString(),
+                "category", c.name());
+    }
+
+    private String seededExpense(Target t) {
+        return DataGenerator.expenseId(t.user(), t.random().nextInt(generator.expenseCount(t.user()))).toHexString();
+    }
+
+    // Recent months are asked for far more often than old ones, as on the dashboard
+    private YearMonth month(Target t) {
+        List<YearMonth> months = generator.months();
+        double skewed = Math.pow(t.random().nextDouble(), 3);
+        return months.get(months.size() - 1 - (int) (skewed * months.size()));
+    }
+
+    private static double money(Target t, double min, double max) {
+        return Math.round((min + t.random().nextDouble() * (max - min)) * 100) / 100.0;
+    }
+
+    private HttpRequest get(String url, Target t) {
+        return base(url, t).GET().build();
+    }
+
+    private HttpRequest send(String method, String url, Target t, Object body) {
+        try {
+            return base(url, t)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder base(String url, Target t) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(options.timeout)
+                .header("Authorization", "Bearer " + t.token());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
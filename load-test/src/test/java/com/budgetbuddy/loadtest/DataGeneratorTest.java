@@ -0,0 +1,66 @@
+package com.budgetbuddy.loadtest;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataGeneratorTest {
+
+    private static LoadTestOptions options(long seed) {
+        return LoadTestOptions.parse(new String[]{
+                "--users=3", "--months=4", "--last-month=2025-06", "--expenses-per-month=20", "--seed=" + seed});
+    }
+
+    private static List<Document> expenses(DataGenerator g, int user) {
+        List<Document> out = new ArrayList<>();
+        g.expenses(user, out::add);
+        return out;
+    }
+
+    @Test
+    void sameSeed_generatesSameData() {
+        assertEquals(expenses(new DataGenerator(options(7)), 1), expenses(new DataGenerator(options(7)), 1));
+        assertNotEquals(expenses(new DataGenerator(options(7)), 1), expenses(new DataGenerator(options(8)), 1));
+    }
+
+    @Test
+    void expenses_useThePredictableIdsAndStayInsideTheSeededMonths() {
+        DataGenerator g = new DataGenerator(options(42));
+        assertEquals(List.of(YearMonth.of(2025, 3), YearMonth.of(2025, 4), YearMonth.of(2025, 5), YearMonth.of(2025, 6)),
+                g.months());
+
+        List<Document> docs = expenses(g, 2);
+        assertEquals(g.expenseCount(2), docs.size());
+        Set<Object> ids = new HashSet<>();
+        for (int seq = 0; seq < docs.size(); seq++) {
+            Document d = docs.get(seq);
+            assertEquals(DataGenerator.expenseId(2, seq), d.get("_id"));
+            assertEquals("lt-user-00002", d.getString("userId"));
+            assertTrue(d.getDouble("amount") > 0);
+            assertTrue(ids.add(d.get("_id")));
+        }
+        assertNotEquals(DataGenerator.expenseId(1, 0), DataGenerator.expenseId(2, 0));
+    }
+
+    @Test
+    void incomesAndBudgets_coverEveryMonth() {
+        DataGenerator g = new DataGenerator(options(42));
+        List<Document> incomes = new ArrayList<>();
+        g.incomes(0, incomes::add);
+        List<Document> budgets = new ArrayList<>();
+        g.budgets(0, budgets::add);
+
+        assertEquals(4 * 3, incomes.size());
+        assertEquals(4, incomes.stream().filter(d -> d.getString("source").equals("Salary")).count());
+        assertEquals(4 * 6, budgets.size());
+        assertEquals(Set.of("2025-03", "2025-04", "2025-05", "2025-06"),
+                budgets.stream().map(d -> d.getString("monthYear")).collect(java.util.stream.Collectors.toSet()));
+    }
+}
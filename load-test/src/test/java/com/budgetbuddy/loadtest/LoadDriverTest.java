@@ -0,0 +1,70 @@
+package com.budgetbuddy.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadDriverTest {
+    private HttpServer server;
+    private final AtomicInteger served = new AtomicInteger();
+    private String url;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            served.incrementAndGet();
+            boolean slow = exchange.getRequestURI().getPath().startsWith("/analytics");
+            try {
+                Thread.sleep(slow ? 50 : 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = exchange.getRequestURI().getPath().equals("/income") ? 503 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void offersTheTargetRate_andReportsOnlyTheMeasuredPeriod() throws Exception {
+        LoadTestOptions o = LoadTestOptions.parse(new String[]{
+                "--users=5", "--months=2", "--expenses-per-month=10", "--rate=100", "--duration=1", "--warmup=1",
+                "--expense-url=" + url, "--income-url=" + url, "--analytics-url=" + url,
+                "--mix=expense.get=1,income.list=1,analytics.summary=1"});
+        DataGenerator g = new DataGenerator(o);
+
+        LatencyReport report = new LoadDriver(o, new TrafficMix(o, g), new Tokens(o)).run();
+
+        var rows = report.rows();
+        assertEquals(100, rows.get("ALL").count(), 2);
+        assertEquals(200, served.get(), 2);
+        assertEquals(rows.get("GET /income").count(), rows.get("GET /income").errors.sum());
+        assertEquals(0, rows.get("GET /expenses/{id}").errors.sum());
+        assertTrue(LatencyReport.millis(rows.get("GET /analytics/summary"), 50) >= 50);
+        assertTrue(LatencyReport.millis(rows.get("GET /expenses/{id}"), 50)
+                < LatencyReport.millis(rows.get("GET /analytics/summary"), 50));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.print(new PrintStream(out, true, StandardCharsets.UTF_8), Duration.ofSeconds(1));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("errors GET /income: 503 x"));
+    }
+}
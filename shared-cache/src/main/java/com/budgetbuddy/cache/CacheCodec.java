@@ -0,0 +1,8 @@
+package com.budgetbuddy.cache;
+
+/** Turns values into bytes for the remote tier and back. */
+public interface CacheCodec<V> {
+    byte[] encode(V value);
+
+    V decode(byte[] bytes);
+}
@@ -0,0 +1,22 @@
+package com.budgetbuddy.cache;
+
+/** Hook for metrics; called on the caller's thread, so implementations must be cheap. */
+public interface CacheObserver {
+    CacheObserver NONE = new CacheObserver() {};
+
+    /** A lookup in cache {@code cache}: answered by the "near" tier, the "remote" tier, or a "miss" that was loaded. */
+    default void lookup(String cache, String result) {
+    }
+
+    /** A miss took {@code nanos} to load. */
+    default void loaded(String cache, long nanos) {
+    }
+
+    /** A group's entries were dropped. */
+    default void invalidated(String cache) {
+    }
+
+    /** The remote tier failed and was skipped for this call. */
+    default void remoteFailed(String cache, RuntimeException e) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.budgetbuddy.cache;
+
+public class CacheOptions {
+    private int nearMaxEntries = 10_000;
+    private long nearTtlMs = 60_000;           // bounds staleness if an invalidation is missed
+    private long remoteTtlMs = 600_000;
+    private String keyPrefix = "bb";           // remote keys are <prefix>:<cache>:<group>:...
+
+    public int getNearMaxEntries() {
+        return nearMaxEntries;
+    }
+
+    public void setNearMaxEntries(int nearMaxEntries) {
+        this.nearMaxEntries = nearMaxEntries;
+    }
+
+    public long getNearTtlMs() {
+        return nearTtlMs;
+    }
+
+    public void setNearTtlMs(long nearTtlMs) {
+        this.nearTtlMs = nearTtlMs;
+    }
+
+    public long getRemoteTtlMs() {
+        return remoteTtlMs;
+    }
+
+    public void setRemoteTtlMs(long remoteTtlMs) {
+        this.remoteTtlMs = remoteTtlMs;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+}
@@ -0,0 +1,189 @@
+package com.budgetbuddy.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * An in-memory stand-in for Redis, for tests and local runs without one. It speaks enough
+ * of the protocol for {@link RespClient}: PING, GET, SET (with PX or EX), INCR, DEL and
+ * FLUSHALL. Expired keys are dropped when next touched. Listens on the loopback address
+ * only; not for production.
+ */
+public class EmbeddedRespServer implements AutoCloseable {
+    private static final System.Logger LOG = System.getLogger(EmbeddedRespServer.class.getName());
+
+    private record Stored(byte[] value, long expiresAt) {}
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Stored> data = new ConcurrentHashMap<>();
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    private final LongSupplier clock;
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "embedded-resp");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Starts listening on {@code port}, or on a free one if 0; see {@link #getPort()}. */
+    public EmbeddedRespServer(int port) throws IOException {
+        this(port, System::currentTimeMillis);
+    }
+
+    EmbeddedRespServer(int port, LongSupplier clock) throws IOException {
+        this.clock = clock;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        connections.execute(this::accept);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                open.add(socket);
+                try {
+                    connections.execute(() -> serve(socket));
+                } catch (RejectedExecutionException closing) {
+                    // close() shut the pool down between accept and here
+                    open.remove(socket);
+                    socket.close();
+                    return;
+                }
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOG.log(System.Logger.Level.WARNING, "Embedded RESP server stopped accepting: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            while (true) {
+                Object request = Resp.read(in);
+                if (!(request instanceof List<?> args) || args.isEmpty()) {
+                    Resp.writeError(out, "expected a command array");
+                } else {
+                    try {
+                        execute(args, out);
+                    } catch (IndexOutOfBoundsException | ClassCastException | NumberFormatException e) {
+                        Resp.writeError(out, "wrong arguments for '" + text(args.get(0)) + "'");
+                    }
+                }
+                out.flush();
+            }
+        } catch (EOFException | SocketException closed) {
+            // The client went away
+        } catch (IOException e) {
+            LOG.log(System.Logger.Level.DEBUG, "Embedded RESP connection failed: " + e.getMessage());
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private void execute(List<?> args, OutputStream out) throws IOException {
+        String command = text(args.get(0)).toUpperCase(Locale.ROOT);
+        switch (command) {
+            case "PING" -> Resp.writeSimple(out, "PONG");
+            case "GET" -> {
+                Stored stored = live(text(args.get(1)));
+                Resp.writeBulk(out, stored == null ? null : stored.value());
+            }
+            case "SET" -> {
+                long expiresAt = Long.MAX_VALUE;
+                if (args.size() >= 5) {
+                    long amount = Long.parseLong(text(args.get(4)));
+                    String unit = text(args.get(3)).toUpperCase(Locale.ROOT);
+                    expiresAt = clock.getAsLong() + ("EX".equals(unit) ? amount * 1000 : amount);
+                }
+                data.put(text(args.get(1)), new Stored((byte[]) args.get(2), expiresAt));
+                Resp.writeSimple(out, "OK");
+            }
+            case "INCR" -> {
+                String key = text(args.get(1));
+                try {
+                    Stored next = data.compute(key, (k, current) -> {
+                        boolean live = current != null && current.expiresAt() > clock.getAsLong();
+                        long value = live ? Long.parseLong(new String(current.value(), StandardCharsets.US_ASCII)) + 1 : 1;
+                        return new Stored(Long.toString(value).getBytes(StandardCharsets.US_ASCII),
+                                live ? current.expiresAt() : Long.MAX_VALUE);
+                    });
+                    Resp.writeInteger(out, Long.parseLong(new String(next.value(), StandardCharsets.US_ASCII)));
+                } catch (NumberFormatException e) {
+                    Resp.writeError(out, "value is not an integer or out of range");
+                }
+            }
+            case "DEL" -> {
+                long removed = 0;
+                for (Object key : args.subList(1, args.size())) {
+                    removed += live(text(key)) != null && data.remove(text(key)) != null ? 1 : 0;
+                }
+                Resp.writeInteger(out, removed);
+            }
+            case "FLUSHALL" -> {
+                data.clear();
+                Resp.writeSimple(out, "OK");
+            }
+            default -> Resp.writeError(out, "unknown command '" + command + "'");
+        }
+    }
+
+    private Stored live(String key) {
+        Stored stored = data.get(key);
+        if (stored != null && stored.expiresAt() <= clock.getAsLong()) {
+            data.remove(key, stored);
+            return null;
+        }
+        return stored;
+    }
+
+    private static String text(Object arg) {
+        return new String((byte[]) arg, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+        }
+        // Reads on open connections are not interruptible; closing their sockets ends them
+        for (Socket socket : open) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+        connections.shutdownNow();
+    }
+}
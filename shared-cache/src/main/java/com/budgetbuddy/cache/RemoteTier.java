@@ -0,0 +1,21 @@
+package com.budgetbuddy.cache;
+
+/**
+ * A cache shared by every instance, e.g. Redis. Implementations throw
+ * {@link RemoteTierException} when the store cannot be reached; {@link TieredCache} then
+ * carries on without it.
+ */
+public interface RemoteTier extends AutoCloseable {
+
+    /** The value, or null if absent or expired. */
+    byte[] get(String key);
+
+    void set(String key, byte[] value, long ttlMs);
+
+    /** Adds one to the number at {@code key}, absent counting as 0, and returns the result. */
+    long incr(String key);
+
+    @Override
+    default void close() {
+    }
+}
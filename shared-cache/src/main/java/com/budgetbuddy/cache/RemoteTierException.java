@@ -0,0 +1,11 @@
+package com.budgetbuddy.cache;
+
+public class RemoteTierException extends RuntimeException {
+    public RemoteTierException(String message) {
+        super(message);
+    }
+
+    public RemoteTierException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
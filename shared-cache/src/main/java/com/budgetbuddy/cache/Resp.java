@@ -0,0 +1,112 @@
+package com.budgetbuddy.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** The parts of the Redis serialization protocol (RESP2) the client and the stand-in server speak. */
+final class Resp {
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    /** An error reply, e.g. {@code -ERR unknown command}. */
+    record Error(String message) {}
+
+    private Resp() {
+    }
+
+    /** A command, as an array of bulk strings. */
+    static void writeCommand(OutputStream out, byte[]... args) throws IOException {
+        out.write(('*' + Integer.toString(args.length)).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        for (byte[] arg : args) {
+            writeBulk(out, arg);
+        }
+    }
+
+    static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        out.write(('$' + Integer.toString(value.length)).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((':' + Long.toString(value) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static void writeError(OutputStream out, String message) throws IOException {
+        out.write(("-ERR " + message + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * The next reply: a String for a simple string, a Long for an integer, byte[] or null
+     * for a bulk string, a List for an array, or an {@link Error}.
+     */
+    static Object read(InputStream in) throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            throw new EOFException("Connection closed");
+        }
+        String line = readLine(in);
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                return new Error(line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                byte[] value = in.readNBytes(length);
+                if (value.length < length || in.read() != '\r' || in.read() != '\n') {
+                    throw new EOFException("Truncated bulk string");
+                }
+                return value;
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) {
+                    return null;
+                }
+                List<Object> items = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    items.add(read(in));
+                }
+                return items;
+            }
+            default:
+                throw new IOException("Not a RESP reply: " + (char) type);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) {
+                throw new EOFException("Connection closed");
+            }
+            line.write(b);
+        }
+        if (in.read() != '\n') {
+            throw new IOException("Expected CRLF");
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
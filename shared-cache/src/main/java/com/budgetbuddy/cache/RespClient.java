@@ -0,0 +1,112 @@
+package com.budgetbuddy.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A {@link RemoteTier} on any server that speaks the Redis protocol (Redis, Valkey,
+ * KeyDB, or {@link EmbeddedRespServer}). Only GET, SET with PX and INCR are used.
+ * Connections are opened on demand and up to {@code maxIdle} are kept for reuse; one that
+ * fails is closed rather than returned.
+ */
+public class RespClient implements RemoteTier {
+
+    private static final class Connection implements AutoCloseable {
+        final Socket socket;
+        final InputStream in;
+        final OutputStream out;
+
+        Connection(String host, int port, int timeoutMs) throws IOException {
+            socket = new Socket();
+            socket.connect(new InetSocketAddress(host, port), timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+            socket.setTcpNoDelay(true);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final int timeoutMs;
+    private final BlockingQueue<Connection> idle;
+    private volatile boolean closed;
+
+    public RespClient(String host, int port, int timeoutMs, int maxIdle) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMs = timeoutMs;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return (byte[]) call(bytes("GET"), bytes(key));
+    }
+
+    @Override
+    public void set(String key, byte[] value, long ttlMs) {
+        call(bytes("SET"), bytes(key), value, bytes("PX"), bytes(Long.toString(Math.max(1, ttlMs))));
+    }
+
+    @Override
+    public long incr(String key) {
+        return (Long) call(bytes("INCR"), bytes(key));
+    }
+
+    private Object call(byte[]... command) {
+        if (closed) {
+            throw new RemoteTierException("Client closed");
+        }
+        Connection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection(host, port, timeoutMs);
+            }
+            Resp.writeCommand(connection.out, command);
+            connection.out.flush();
+            Object reply = Resp.read(connection.in);
+            if (!idle.offer(connection)) {
+                connection.close();
+            }
+            if (reply instanceof Resp.Error error) {
+                throw new RemoteTierException(host + ":" + port + " replied " + error.message());
+            }
+            return reply;
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+            }
+            throw new RemoteTierException("Could not reach " + host + ":" + port + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+}
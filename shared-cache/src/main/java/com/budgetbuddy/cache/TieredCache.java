@@ -0,0 +1,184 @@
+package com.budgetbuddy.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A cache of values grouped by owner (typically a userId), with a near tier in this JVM in
+ * front of an optional {@link RemoteTier} shared by every instance. A lookup tries the near
+ * tier, then the remote tier, then loads the value and stores it in both, so one instance's
+ * load saves the others theirs and a restarted instance starts warm.
+ *
+ * <p>Invalidation is by group: {@link #invalidate} drops the group's near entries and
+ * advances the group's generation in the remote tier. Remote entries are stored under the
+ * generation current when their load started, so entries from before an invalidation are
+ * never read again (they expire with {@code remoteTtlMs}), and neither is a value whose
+ * load raced with one. Each instance must be told of the change to drop its own near
+ * entries, e.g. by consuming the events that describe it; {@code nearTtlMs} bounds how long
+ * a missed one goes unnoticed. That holds for the remote tier too: an instance re-reads a
+ * group's generation once its copy is {@code nearTtlMs} old, drops the group's near entries
+ * if it has moved, and keeps nothing it read at the old generation for longer than that.
+ *
+ * <p>If the remote tier fails, the call carries on with the near tier and the loader.
+ * Null values are not cached.
+ */
+public class TieredCache<V> {
+    private static final System.Logger LOG = System.getLogger(TieredCache.class.getName());
+
+    /** A group's state in this instance; replaced, never cleared, when the group is invalidated. */
+    private static final class Group {
+        volatile long generation = -1;     // the remote generation, once read
+        volatile long generationReadAt;    // re-read after nearTtlMs, in case an invalidation was missed
+    }
+
+    private record Key(String group, String key) {}
+
+    private record Entry(Object value, Group group, long expiresAt) {}
+
+    private final String name;
+    private final CacheOptions options;
+    private final CacheCodec<V> codec;
+    private final RemoteTier remote;
+    private final CacheObserver observer;
+    private final LongSupplier clock;
+    private final Map<String, Group> groups;
+    private final Map<Key, Entry> near;
+
+    public TieredCache(String name, CacheOptions options, CacheCodec<V> codec, RemoteTier remote, CacheObserver observer) {
+        this(name, options, codec, remote, observer, System::currentTimeMillis);
+    }
+
+    TieredCache(String name, CacheOptions options, CacheCodec<V> codec, RemoteTier remote, CacheObserver observer,
+                LongSupplier clock) {
+        this.name = name;
+        this.options = options;
+        this.codec = codec;
+        this.remote = remote;
+        this.observer = observer;
+        this.clock = clock;
+        this.groups = lru(options.getNearMaxEntries());
+        this.near = lru(options.getNearMaxEntries());
+    }
+
+    private static <K, T> Map<K, T> lru(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, T> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** The cached value of {@code key} in {@code group}, loading it on a miss. */
+    @SuppressWarnings("unchecked")
+    public V get(String group, String key, Supplier<V> loader) {
+        Group state = groups.computeIfAbsent(group, g -> new Group());
+        Key nearKey = new Key(group, key);
+        Entry entry = near.get(nearKey);
+        if (entry != null && entry.group() == state && entry.expiresAt() > clock.getAsLong()) {
+            observer.lookup(name, "near");
+            return (V) entry.value();
+        }
+
+        long generation = -1;
+        if (remote != null) {
+            try {
+                state = current(group, state);
+                generation = state.generation;
+                byte[] bytes = remote.get(remoteKey(group, generation, key));
+                if (bytes != null) {
+                    V value = codec.decode(bytes);
+                    // Only as long as the generation it was read at is trusted
+                    long expiresAt = Math.min(clock.getAsLong(), state.generationReadAt) + options.getNearTtlMs();
+                    near.put(nearKey, new Entry(value, state, expiresAt));
+                    observer.lookup(name, "remote");
+                    return value;
+                }
+            } catch (RemoteTierException e) {
+                remoteFailed(e);
+                generation = -1;
+            }
+        }
+
+        observer.lookup(name, "miss");
+        long start = System.nanoTime();
+        V value = loader.get();
+        observer.loaded(name, System.nanoTime() - start);
+        if (value == null) {
+            return null;
+        }
+        // Into the group as it was when the load started: if it was invalidated since, nobody reads this
+        near.put(nearKey, new Entry(value, state, clock.getAsLong() + options.getNearTtlMs()));
+        if (generation >= 0) {
+            try {
+                remote.set(remoteKey(group, generation, key), codec.encode(value), options.getRemoteTtlMs());
+            } catch (RemoteTierException e) {
+                remoteFailed(e);
+            }
+        }
+        return value;
+    }
+
+    /** Drops every entry of {@code group}, here and in the remote tier. */
+    public void invalidate(String group) {
+        groups.remove(group);
+        observer.invalidated(name);
+        if (remote != null) {
+            try {
+                remote.incr(generationKey(group));
+            } catch (RemoteTierException e) {
+                remoteFailed(e);
+            }
+        }
+    }
+
+    /** Entries held in the near tier, including ones invalidated but not yet evicted. */
+    public int nearSize() {
+        return near.size();
+    }
+
+    /**
+     * {@code state}, with its generation read from the remote tier if it has none or it is
+     * {@code nearTtlMs} old. If the generation moved without this instance being told, the
+     * group is replaced so its near entries are no longer served.
+     */
+    private Group current(String group, Group state) {
+        long now = clock.getAsLong();
+        if (state.generation >= 0 && now - state.generationReadAt < options.getNearTtlMs()) {
+            return state;
+        }
+        byte[] stored = remote.get(generationKey(group));
+        long generation = stored == null ? 0 : Long.parseLong(new String(stored, StandardCharsets.US_ASCII));
+        if (state.generation >= 0 && generation != state.generation) {
+            Group fresh = new Group();
+            fresh.generation = generation;
+            fresh.generationReadAt = now;
+            groups.replace(group, state, fresh);
+            return fresh;
+        }
+        state.generationReadAt = now;
+        state.generation = generation;
+        return state;
+    }
+
+    private String generationKey(String group) {
+        return options.getKeyPrefix() + ":" + name + ":" + group + ":gen";
+    }
+
+    private String remoteKey(String group, long generation, String key) {
+        return options.getKeyPrefix() + ":" + name + ":" + group + ":" + generation + ":" + key;
+    }
+
+    private void remoteFailed(RemoteTierException e) {
+        observer.remoteFailed(name, e);
+        LOG.log(System.Logger.Level.DEBUG, "Remote tier skipped for cache " + name + ": " + e.getMessage());
+    }
+}
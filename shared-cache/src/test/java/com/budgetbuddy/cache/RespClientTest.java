@@ -0,0 +1,50 @@
+package com.budgetbuddy.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RespClientTest {
+
+    @Test
+    void getSetAndIncrRoundTripBinaryValues() throws IOException {
+        AtomicLong now = new AtomicLong(1_000);
+        try (EmbeddedRespServer server = new EmbeddedRespServer(0, now::get);
+             RespClient client = new RespClient("127.0.0.1", server.getPort(), 1_000, 2)) {
+            byte[] value = {0, '\r', '\n', (byte) 0xff, '$', '-', '1'};
+            client.set("k", value, 500);
+
+            assertArrayEquals(value, client.get("k"));
+            assertNull(client.get("missing"));
+            assertEquals(1, client.incr("counter"));
+            assertEquals(2, client.incr("counter"));
+            assertEquals("2", new String(client.get("counter"), StandardCharsets.US_ASCII));
+
+            now.addAndGet(500);
+            assertNull(client.get("k"));
+            assertEquals(1, server.size());
+        }
+    }
+
+    @Test
+    void errorRepliesAndUnreachableServersAreRemoteTierExceptions() throws IOException {
+        int port;
+        try (EmbeddedRespServer server = new EmbeddedRespServer(0);
+             RespClient client = new RespClient("127.0.0.1", server.getPort(), 1_000, 1)) {
+            port = server.getPort();
+            client.set("text", "abc".getBytes(StandardCharsets.UTF_8), 60_000);
+            RemoteTierException notANumber = assertThrows(RemoteTierException.class, () -> client.incr("text"));
+            assertTrue(notANumber.getMessage().contains("not an integer"));
+            // The connection is still usable after an error reply
+            assertEquals("abc", new String(client.get("text"), StandardCharsets.UTF_8));
+        }
+
+        try (RespClient client = new RespClient("127.0.0.1", port, 200, 1)) {
+            assertThrows(RemoteTierException.class, () -> client.get("text"));
+        }
+    }
+}
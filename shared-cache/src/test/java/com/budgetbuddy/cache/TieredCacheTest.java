@@ -0,0 +1,149 @@
+package com.budgetbuddy.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCacheTest {
+    private static final CacheCodec<String> UTF8 = new CacheCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final List<String> lookups = new ArrayList<>();
+    private final CacheObserver observer = new CacheObserver() {
+        @Override
+        public void lookup(String cache, String result) {
+            lookups.add(result);
+        }
+    };
+    private EmbeddedRespServer server;
+    private RespClient remote;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new EmbeddedRespServer(0);
+        remote = new RespClient("127.0.0.1", server.getPort(), 1_000, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        remote.close();
+        server.close();
+    }
+
+    private TieredCache<String> cache(RemoteTier remote) {
+        return new TieredCache<>("summary", new CacheOptions(), UTF8, remote, observer, now::get);
+    }
+
+    @Test
+    void nearThenRemoteThenLoader() {
+        TieredCache<String> first = cache(remote);
+        TieredCache<String> second = cache(remote);   // another instance
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", first.get("user1", "2025-07", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", first.get("user1", "2025-07", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", second.get("user1", "2025-07", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", second.get("user1", "2025-07", () -> "v" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(List.of("miss", "near", "remote", "near"), lookups);
+    }
+
+    @Test
+    void invalidationReachesEveryTierAndLateLoadsAreDiscarded() {
+        TieredCache<String> first = cache(remote);
+        TieredCache<String> second = cache(remote);
+        first.get("user1", "2025-07", () -> "old");
+        second.get("user1", "2025-07", () -> "unused");
+        first.get("user2", "2025-07", () -> "other user");
+
+        // A load that started before the invalidation finishes after it
+        String raced = first.get("user1", "2025-08", () -> {
+            first.invalidate("user1");
+            second.invalidate("user1");
+            return "stale";
+        });
+        assertEquals("stale", raced);
+
+        assertEquals("new", second.get("user1", "2025-07", () -> "new"));
+        assertEquals("new", first.get("user1", "2025-07", () -> "unused"));
+        assertEquals("fresh", first.get("user1", "2025-08", () -> "fresh"));
+        assertEquals("other user", second.get("user2", "2025-07", () -> "unused"));
+    }
+
+    @Test
+    void aMissedInvalidationIsNoticedWithinTheNearTtl() {
+        TieredCache<String> first = cache(remote);
+        TieredCache<String> second = cache(remote);
+        assertEquals("old", first.get("user1", "2025-07", () -> "old"));
+        assertEquals("old", second.get("user1", "2025-07", () -> "unused"));
+        assertEquals("old too", second.get("user1", "2025-08", () -> "old too"));
+
+        // second never hears of this one
+        first.invalidate("user1");
+        assertEquals("new", first.get("user1", "2025-07", () -> "new"));
+        assertEquals("old", second.get("user1", "2025-07", () -> "unused"));
+
+        now.addAndGet(new CacheOptions().getNearTtlMs());
+        assertEquals("new", second.get("user1", "2025-07", () -> "unused"));
+        assertEquals("newer", second.get("user1", "2025-08", () -> "newer"));
+    }
+
+    @Test
+    void nearEntriesExpireAndAreBounded() {
+        CacheOptions options = new CacheOptions();
+        options.setNearMaxEntries(2);
+        options.setNearTtlMs(100);
+        TieredCache<String> cache = new TieredCache<>("summary", options, UTF8, null, observer, now::get);
+        cache.get("user1", "a", () -> "a");
+        cache.get("user1", "b", () -> "b");
+        cache.get("user1", "c", () -> "c");
+        assertEquals(2, cache.nearSize());
+
+        now.addAndGet(100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("user1", "c", () -> "c" + loads.incrementAndGet());
+        assertEquals(1, loads.get());
+        assertNull(cache.get("user1", "none", () -> null));
+        assertEquals(2, cache.nearSize());
+    }
+
+    @Test
+    void carriesOnWithoutTheRemoteTierWhenItFails() {
+        List<RuntimeException> failures = new ArrayList<>();
+        CacheObserver counting = new CacheObserver() {
+            @Override
+            public void remoteFailed(String cache, RuntimeException e) {
+                failures.add(e);
+            }
+        };
+        server.close();
+        TieredCache<String> cache = new TieredCache<>("summary", new CacheOptions(), UTF8, remote, counting, now::get);
+
+        assertEquals("v", cache.get("user1", "2025-07", () -> "v"));
+        assertEquals("v", cache.get("user1", "2025-07", () -> "unused"));
+        cache.invalidate("user1");
+
+        assertEquals(2, failures.size());
+        assertTrue(failures.stream().allMatch(e -> e instanceof RemoteTierException));
+    }
+}
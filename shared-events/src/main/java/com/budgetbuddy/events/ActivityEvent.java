@@ -1,13 +1,20 @@
 package com.budgetbuddy.events;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 public class ActivityEvent {
+    private String eventId;       // unique, time-ordered; see EventIds
     private String userId;
     private String action;
     private String entityType;    // ← new
     private String entityId;
+    private List<String> entityIds;  // set instead of entityId on batch events; see batch()
     private Instant timestamp;
+    private EntityState state;          // the entity after the change; what was removed on DELETED
+    private EntityState previousState;  // UPDATED only: the entity before the change
+    private List<EntityState> entityStates;  // batch events: state of each of entityIds, same order
 
     // No-arg constructor for Jackson
     public ActivityEvent() {}
@@ -26,7 +33,50 @@ public class ActivityEvent {
         this.timestamp  = timestamp;
     }
 
+    /**
+     * One event per bulk operation instead of one per entity: the ids are split into chunks
+     * of at most {@code maxIdsPerEvent}, so no single message grows with the batch size.
+     * Consumers fan each event out to one activity per id.
+     */
+    public static List<ActivityEvent> batch(String userId, String action, String entityType,
+                                            List<String> entityIds, int maxIdsPerEvent, Instant timestamp) {
+        if (maxIdsPerEvent < 1) {
+            throw new IllegalArgumentException("maxIdsPerEvent must be positive");
+        }
+        List<ActivityEvent> events = new ArrayList<>();
+        for (int from = 0; from < entityIds.size(); from += maxIdsPerEvent) {
+            ActivityEvent evt = new ActivityEvent(userId, action, entityType, null, timestamp);
+            evt.setEntityIds(List.copyOf(entityIds.subList(from, Math.min(entityIds.size(), from + maxIdsPerEvent))));
+            events.add(evt);
+        }
+        return events;
+    }
+
+    /**
+     * Like {@link #batch(String, String, String, List, int, Instant)}, with each chunk also
+     * carrying the state of its entities in {@code entityStates}.
+     */
+    public static List<ActivityEvent> batch(String userId, String action, String entityType,
+                                            List<String> entityIds, List<EntityState> states,
+                                            int maxIdsPerEvent, Instant timestamp) {
+        if (states.size() != entityIds.size()) {
+            throw new IllegalArgumentException("Expected one state per id");
+        }
+        List<ActivityEvent> events = batch(userId, action, entityType, entityIds, maxIdsPerEvent, timestamp);
+        for (int i = 0; i < events.size(); i++) {
+            int from = i * maxIdsPerEvent;
+            events.get(i).setEntityStates(List.copyOf(states.subList(from, from + events.get(i).getEntityIds().size())));
+        }
+        return events;
+    }
+
+    /** True for batch events, which carry entityIds instead of a single entityId. */
+    public boolean hasEntityIds()     { return entityIds != null; }
+
     // Getters & setters
+    public String getEventId()        { return eventId; }
+    public void setEventId(String id) { this.eventId = id; }
+
     public String getUserId()         { return userId; }
     public void setUserId(String u)   { this.userId = u; }
 
@@ -39,6 +89,18 @@ public class ActivityEvent {
     public String getEntityId()       { return entityId; }
     public void setEntityId(String e) { this.entityId = e; }
 
+    public List<String> getEntityIds()          { return entityIds; }
+    public void setEntityIds(List<String> ids)  { this.entityIds = ids; }
+
     public Instant getTimestamp()     { return timestamp; }
     public void setTimestamp(Instant t) { this.timestamp = t; }
+
+    public EntityState getState()             { return state; }
+    public void setState(EntityState s)       { this.state = s; }
+
+    public EntityState getPreviousState()         { return previousState; }
+    public void setPreviousState(EntityState s)   { this.previousState = s; }
+
+    public List<EntityState> getEntityStates()          { return entityStates; }
+    public void setEntityStates(List<EntityState> s)    { this.entityStates = s; }
 }
@@ -0,0 +1,49 @@
+package com.budgetbuddy.events;
+
+import java.util.Objects;
+
+/**
+ * The figures of an expense or budget that derived views keep running totals of: the
+ * amount (an expense's amount, a budget's limit), its category and the "yyyy-MM" month it
+ * counts towards. Carrying them on the event lets a consumer apply the change without
+ * reading the entity back.
+ */
+public class EntityState {
+    private Double amount;
+    private String category;
+    private String monthYear;
+
+    // No-arg constructor for Jackson
+    public EntityState() {}
+
+    public EntityState(Double amount, String category, String monthYear) {
+        this.amount    = amount;
+        this.category  = category;
+        this.monthYear = monthYear;
+    }
+
+    public Double getAmount()            { return amount; }
+    public void setAmount(Double a)      { this.amount = a; }
+
+    public String getCategory()          { return category; }
+    public void setCategory(String c)    { this.category = c; }
+
+    public String getMonthYear()         { return monthYear; }
+    public void setMonthYear(String m)   { this.monthYear = m; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EntityState s && Objects.equals(amount, s.amount)
+                && Objects.equals(category, s.category) && Objects.equals(monthYear, s.monthYear);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(amount, category, monthYear);
+    }
+
+    @Override
+    public String toString() {
+        return "EntityState{" + category + " " + monthYear + " " + amount + "}";
+    }
+}
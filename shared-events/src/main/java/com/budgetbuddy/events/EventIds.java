@@ -0,0 +1,53 @@
+package com.budgetbuddy.events;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates time-ordered, globally unique event ids in MongoDB ObjectId layout
+ * (4-byte epoch seconds, 5-byte per-process random, 3-byte counter) as 24 hex chars.
+ * Consumers can store them directly as {@code _id}; ids sort by creation second.
+ */
+public final class EventIds {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final long PROCESS_UNIQUE = RANDOM.nextLong() & 0xFF_FFFF_FFFFL;
+    private static final AtomicInteger COUNTER = new AtomicInteger(RANDOM.nextInt());
+
+    private EventIds() {}
+
+    public static String next() {
+        char[] out = new char[24];
+        write(out, 0, System.currentTimeMillis() / 1000, 8);
+        write(out, 8, PROCESS_UNIQUE, 10);
+        write(out, 18, COUNTER.getAndIncrement() & 0xFF_FFFF, 6);
+        return new String(out);
+    }
+
+    /**
+     * Deterministic id for the {@code index}-th activity fanned out from a batch event, so a
+     * redelivered batch maps to the same ids. Keeps the parent's timestamp prefix and fills
+     * the remaining 16 hex digits from a hash of (parentId, index).
+     */
+    public static String child(String parentId, int index) {
+        long h = 0xcbf29ce484222325L; // FNV-1a 64
+        for (int i = 0; i < parentId.length(); i++) {
+            h = (h ^ parentId.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ index) * 0x100000001b3L;
+        h ^= h >>> 33; // MurmurHash3 finalizer, spreads the last byte over all bits
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        char[] out = new char[24];
+        parentId.getChars(0, 8, out, 0);
+        write(out, 8, h, 16);
+        return new String(out);
+    }
+
+    private static void write(char[] out, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+}
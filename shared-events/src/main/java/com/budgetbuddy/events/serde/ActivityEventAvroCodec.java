@@ -0,0 +1,185 @@
+package com.budgetbuddy.events.serde;
+
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro binary form of {@link ActivityEvent}. A payload is a zero magic byte, the 4-byte
+ * schema version it was written with, then the Avro body:
+ * <pre>  0x00 | version (int32, big endian) | avro binary</pre>
+ * JSON never starts with 0x00, which is how {@link ActivityEventDeserializer} tells the
+ * formats apart. Readers resolve the writer's version against their own, so data written
+ * by a newer or older producer decodes as long as the registry's evolution rules held.
+ */
+public class ActivityEventAvroCodec {
+    public static final String SUBJECT = "ActivityEvent";
+    public static final byte MAGIC = 0x0;
+    private static final int HEADER_SIZE = 5;
+
+    private final FileSchemaRegistry registry;
+    private final int writerVersion;
+    private final Schema writerSchema;
+    private final Schema readerSchema;
+    private final GenericDatumWriter<GenericRecord> writer;
+    private final Map<Integer, GenericDatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+
+    public ActivityEventAvroCodec(FileSchemaRegistry registry) {
+        this(registry, registry.localLatestVersion());
+    }
+
+    /**
+     * @param writerVersion version to write; pin it to an older one while consumers that
+     *                      only know that version are still running
+     */
+    public ActivityEventAvroCodec(FileSchemaRegistry registry, int writerVersion) {
+        if (writerVersion > registry.localLatestVersion()) {
+            throw new IllegalArgumentException(SUBJECT + " v" + writerVersion + " is newer than this build ("
+                    + registry.localLatestVersion() + ")");
+        }
+        this.registry = registry;
+        this.writerVersion = writerVersion;
+        this.writerSchema = registry.schema(writerVersion);
+        if (writerSchema == null) {
+            throw new IllegalArgumentException("Unknown " + SUBJECT + " schema version " + writerVersion);
+        }
+        this.readerSchema = registry.schema(registry.localLatestVersion());
+        this.writer = new GenericDatumWriter<>(writerSchema);
+    }
+
+    public byte[] encode(ActivityEvent event) {
+        GenericRecord record = new GenericData.Record(writerSchema);
+        put(record, "eventId", event.getEventId());
+        put(record, "userId", event.getUserId());
+        put(record, "action", event.getAction());
+        put(record, "entityType", event.getEntityType());
+        put(record, "entityId", event.getEntityId());
+        put(record, "timestamp", event.getTimestamp() == null ? null
+                : ChronoUnit.MICROS.between(Instant.EPOCH, event.getTimestamp()));
+        if (event.hasEntityIds()) {
+            // Silently dropping the ids would turn a batch into an event about nothing
+            if (writerSchema.getField("entityIds") == null) {
+                throw new IllegalStateException(SUBJECT + " v" + writerVersion + " cannot carry a batch event");
+            }
+            record.put("entityIds", event.getEntityIds());
+        }
+        // Older writer schemas have no states; the event still says what changed, just not by how much
+        Schema.Field stateField = writerSchema.getField("state");
+        if (stateField != null) {
+            Schema stateSchema = nonNull(stateField.schema());
+            record.put("state", state(stateSchema, event.getState()));
+            record.put("previousState", state(stateSchema, event.getPreviousState()));
+            if (event.getEntityStates() != null) {
+                record.put("entityStates", event.getEntityStates().stream().map(s -> state(stateSchema, s)).toList());
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        out.write(MAGIC);
+        out.writeBytes(ByteBuffer.allocate(4).putInt(writerVersion).array());
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(record, encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public ActivityEvent decode(byte[] payload) {
+        if (payload.length < HEADER_SIZE || payload[0] != MAGIC) {
+            throw new IllegalArgumentException("Not an Avro " + SUBJECT + " payload");
+        }
+        int version = ByteBuffer.wrap(payload, 1, 4).getInt();
+        GenericDatumReader<GenericRecord> reader = readers.computeIfAbsent(version, v -> {
+            Schema written = registry.schema(v);
+            if (written == null) {
+                throw new IllegalArgumentException("Unknown " + SUBJECT + " schema version " + v);
+            }
+            return new GenericDatumReader<>(written, readerSchema);
+        });
+
+        GenericRecord record;
+        try {
+            BinaryDecoder decoder = DecoderFactory.get()
+                    .binaryDecoder(payload, HEADER_SIZE, payload.length - HEADER_SIZE, null);
+            record = reader.read(null, decoder);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ActivityEvent event = new ActivityEvent(
+                string(record, "userId"),
+                string(record, "action"),
+                string(record, "entityType"),
+                string(record, "entityId"),
+                record.get("timestamp") == null ? null
+                        : Instant.EPOCH.plus((Long) record.get("timestamp"), ChronoUnit.MICROS));
+        event.setEventId(string(record, "eventId"));
+        if (record.hasField("entityIds") && record.get("entityIds") instanceof List<?> ids) {
+            event.setEntityIds(ids.stream().map(Object::toString).toList());
+        }
+        if (record.hasField("state")) {
+            event.setState(state(record.get("state")));
+            event.setPreviousState(state(record.get("previousState")));
+            if (record.get("entityStates") instanceof List<?> states) {
+                event.setEntityStates(states.stream().map(ActivityEventAvroCodec::state).toList());
+            }
+        }
+        return event;
+    }
+
+    // Fields missing from a pinned older writer schema are simply not written
+    private static void put(GenericRecord record, String field, Object value) {
+        if (record.getSchema().getField(field) != null) {
+            record.put(field, value);
+        }
+    }
+
+    private static GenericRecord state(Schema schema, EntityState state) {
+        if (state == null) {
+            return null;
+        }
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("amount", state.getAmount());
+        record.put("category", state.getCategory());
+        record.put("monthYear", state.getMonthYear());
+        return record;
+    }
+
+    private static EntityState state(Object value) {
+        if (!(value instanceof GenericRecord record)) {
+            return null;
+        }
+        return new EntityState((Double) record.get("amount"), string(record, "category"), string(record, "monthYear"));
+    }
+
+    // The record inside a ["null", record] union
+    private static Schema nonNull(Schema union) {
+        return union.getTypes().stream().filter(t -> t.getType() != Schema.Type.NULL).findFirst().orElseThrow();
+    }
+
+    private static String string(GenericRecord record, String field) {
+        Object value = record.hasField(field) ? record.get(field) : null;
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.budgetbuddy.events.serde;
+
+import com.budgetbuddy.events.ActivityEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads ActivityEvents in either wire format: payloads starting with the Avro magic byte
+ * go through {@link ActivityEventAvroCodec}, everything else through Spring's
+ * JsonDeserializer, configured from the same properties (trusted packages, type headers).
+ * Deploying this to all consumers of a topic is what allows its producers to switch format.
+ */
+public class ActivityEventDeserializer implements Deserializer<ActivityEvent> {
+    private final JsonDeserializer<ActivityEvent> json = new JsonDeserializer<>();
+    private ActivityEventAvroCodec avro;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        avro = EventSerdeConfig.codec(configs);
+    }
+
+    @Override
+    public ActivityEvent deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public ActivityEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length > 0 && data[0] == ActivityEventAvroCodec.MAGIC) {
+            try {
+                return avro.decode(data);
+            } catch (RuntimeException e) {
+                throw new SerializationException("Cannot decode Avro ActivityEvent from " + topic, e);
+            }
+        }
+        return headers == null ? json.deserialize(topic, data) : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
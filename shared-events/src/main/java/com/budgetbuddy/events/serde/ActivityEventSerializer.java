@@ -0,0 +1,54 @@
+package com.budgetbuddy.events.serde;
+
+import com.budgetbuddy.events.ActivityEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes ActivityEvents as Avro to the topics listed in {@link EventSerdeConfig#AVRO_TOPICS}
+ * and as JSON (Spring's JsonSerializer, type headers included) everywhere else, so the
+ * format is switched per topic by configuration.
+ *
+ * <p>Switching a topic to Avro is safe once every consumer group on it reads with
+ * {@link ActivityEventDeserializer}, which accepts both formats; consumers still on plain
+ * JsonDeserializer would send Avro records to their DLT. Switching back needs no coordination.
+ */
+public class ActivityEventSerializer implements Serializer<ActivityEvent> {
+    private final JsonSerializer<ActivityEvent> json = new JsonSerializer<>();
+    private Set<String> avroTopics = Set.of();
+    private ActivityEventAvroCodec avro;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        avroTopics = EventSerdeConfig.avroTopics(configs);
+        if (!avroTopics.isEmpty()) {
+            avro = EventSerdeConfig.codec(configs);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, ActivityEvent data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, ActivityEvent data) {
+        if (data == null) {
+            return null;
+        }
+        if (avroTopics.contains(topic)) {
+            return avro.encode(data);
+        }
+        return headers == null ? json.serialize(topic, data) : json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
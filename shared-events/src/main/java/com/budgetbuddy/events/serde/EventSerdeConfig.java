@@ -0,0 +1,48 @@
+package com.budgetbuddy.events.serde;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** Kafka client properties understood by {@link ActivityEventSerializer} and {@link ActivityEventDeserializer}. */
+public final class EventSerdeConfig {
+    /** Comma-separated topics whose ActivityEvents are written as Avro; all others stay JSON. */
+    public static final String AVRO_TOPICS = "budgetbuddy.events.avro-topics";
+    /** Optional directory shared between services holding {@code <subject>/vN.avsc} files. */
+    public static final String SCHEMA_DIR = "budgetbuddy.events.schema-dir";
+    /** Optional schema version to write; defaults to the newest one on the classpath. */
+    public static final String WRITER_VERSION = "budgetbuddy.events.writer-version";
+
+    private EventSerdeConfig() {}
+
+    static Set<String> avroTopics(Map<String, ?> configs) {
+        Object value = configs.get(AVRO_TOPICS);
+        if (value instanceof Collection<?> c) {
+            return c.stream().map(Object::toString).map(String::trim).filter(s -> !s.isEmpty())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        if (value == null) {
+            return Set.of();
+        }
+        return Arrays.stream(value.toString().split(","))
+                .map(String::trim).filter(s -> !s.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    static FileSchemaRegistry registry(Map<String, ?> configs) {
+        Object dir = configs.get(SCHEMA_DIR);
+        return new FileSchemaRegistry(ActivityEventAvroCodec.SUBJECT,
+                dir == null || dir.toString().isBlank() ? null : Path.of(dir.toString()));
+    }
+
+    static ActivityEventAvroCodec codec(Map<String, ?> configs) {
+        FileSchemaRegistry registry = registry(configs);
+        Object version = configs.get(WRITER_VERSION);
+        return version == null || version.toString().isBlank()
+                ? new ActivityEventAvroCodec(registry)
+                : new ActivityEventAvroCodec(registry, Integer.parseInt(version.toString().trim()));
+    }
+}
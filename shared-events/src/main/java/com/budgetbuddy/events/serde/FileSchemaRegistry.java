@@ -0,0 +1,131 @@
+package com.budgetbuddy.events.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local stand-in for a schema registry: versions of one subject are files named
+ * {@code v1.avsc, v2.avsc, ...}, read from {@code schemas/<subject>/} on the classpath and,
+ * optionally, from {@code <schemaDir>/<subject>/} on disk. The version number is what goes
+ * on the wire.
+ *
+ * <p>Evolution rules, enforced whenever versions are loaded:
+ * <ul>
+ *   <li>a version, once published, never changes;</li>
+ *   <li>each version must be fully compatible with every earlier one, i.e. old readers
+ *       can read new data and new readers can read old data. In practice: only add or
+ *       remove fields that have a default, never change a field's type except by Avro
+ *       promotion, and rename only via aliases.</li>
+ * </ul>
+ * The classpath holds the versions this build was compiled against. A shared directory
+ * lets a consumer that has not been redeployed yet pick up a producer's newer version.
+ */
+public class FileSchemaRegistry {
+    private final String subject;
+    private final Path schemaDir;
+    private final int localLatest;
+    private volatile Map<Integer, Schema> versions;
+
+    public FileSchemaRegistry(String subject, Path schemaDir) {
+        this.subject = subject;
+        this.schemaDir = schemaDir;
+        TreeMap<Integer, Schema> local = loadClasspath();
+        if (local.isEmpty()) {
+            throw new IllegalStateException("No schemas/" + subject + "/v1.avsc on the classpath");
+        }
+        this.localLatest = local.lastKey();
+        this.versions = withDirectory(local);
+    }
+
+    /** The newest version this build ships, i.e. the one matching the Java class. */
+    public int localLatestVersion() {
+        return localLatest;
+    }
+
+    /**
+     * The schema for a version, re-reading the schema directory once if the version is
+     * unknown. Returns null if it still is not there.
+     */
+    public Schema schema(int version) {
+        Schema schema = versions.get(version);
+        if (schema == null && schemaDir != null) {
+            synchronized (this) {
+                versions = withDirectory(loadClasspath());
+                schema = versions.get(version);
+            }
+        }
+        return schema;
+    }
+
+    private TreeMap<Integer, Schema> loadClasspath() {
+        TreeMap<Integer, Schema> out = new TreeMap<>();
+        ClassLoader cl = FileSchemaRegistry.class.getClassLoader();
+        for (int v = 1; ; v++) {
+            try (InputStream in = cl.getResourceAsStream("schemas/" + subject + "/v" + v + ".avsc")) {
+                if (in == null) {
+                    break;
+                }
+                out.put(v, new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        validate(out);
+        return out;
+    }
+
+    private Map<Integer, Schema> withDirectory(Map<Integer, Schema> local) {
+        Map<Integer, Schema> out = new TreeMap<>(local);
+        if (schemaDir != null) {
+            for (int v = 1; ; v++) {
+                Path file = schemaDir.resolve(subject).resolve("v" + v + ".avsc");
+                if (!Files.isRegularFile(file)) {
+                    break;
+                }
+                Schema schema;
+                try {
+                    schema = new Schema.Parser().parse(file.toFile());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                Schema shipped = local.get(v);
+                if (shipped != null && !shipped.equals(schema)) {
+                    throw new IllegalStateException(subject + " v" + v + " in " + schemaDir
+                            + " differs from the published version");
+                }
+                out.put(v, schema);
+            }
+        }
+        validate(out);
+        return out;
+    }
+
+    private void validate(Map<Integer, Schema> all) {
+        for (Map.Entry<Integer, Schema> newer : all.entrySet()) {
+            for (Map.Entry<Integer, Schema> older : all.entrySet()) {
+                if (older.getKey() >= newer.getKey()) {
+                    break;
+                }
+                check(newer.getValue(), older.getValue(), "v" + newer.getKey() + " cannot read v" + older.getKey());
+                check(older.getValue(), newer.getValue(), "v" + older.getKey() + " cannot read v" + newer.getKey());
+            }
+        }
+    }
+
+    private void check(Schema reader, Schema writer, String problem) {
+        SchemaCompatibility.SchemaPairCompatibility result =
+                SchemaCompatibility.checkReaderWriterCompatibility(reader, writer);
+        if (result.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+            throw new IllegalStateException("Incompatible " + subject + " schema: " + problem + " ("
+                    + result.getResult().getIncompatibilities() + ")");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.budgetbuddy.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityEventTest {
+
+    @Test
+    void batch_splitsIdsIntoBoundedChunks() {
+        List<String> ids = IntStream.range(0, 7).mapToObj(i -> "b" + i).toList();
+        Instant now = Instant.now();
+
+        List<ActivityEvent> events = ActivityEvent.batch("u1", "CREATED", "BUDGET", ids, 3, now);
+
+        assertEquals(3, events.size());
+        assertEquals(List.of("b0", "b1", "b2"), events.get(0).getEntityIds());
+        assertEquals(List.of("b6"), events.get(2).getEntityIds());
+        for (ActivityEvent evt : events) {
+            assertTrue(evt.hasEntityIds());
+            assertNull(evt.getEntityId());
+            assertEquals("u1", evt.getUserId());
+            assertEquals(now, evt.getTimestamp());
+        }
+        assertTrue(ActivityEvent.batch("u1", "CREATED", "BUDGET", List.of(), 3, now).isEmpty());
+    }
+
+    @Test
+    void batch_givesEachChunkTheStatesOfItsIds() {
+        List<String> ids = IntStream.range(0, 5).mapToObj(i -> "b" + i).toList();
+        List<EntityState> states = IntStream.range(0, 5)
+                .mapToObj(i -> new EntityState(100.0 * i, "c" + i, "2025-04")).toList();
+
+        List<ActivityEvent> events = ActivityEvent.batch("u1", "CREATED", "BUDGET", ids, states, 2, Instant.now());
+
+        assertEquals(3, events.size());
+        assertEquals(states.subList(2, 4), events.get(1).getEntityStates());
+        assertEquals(List.of(states.get(4)), events.get(2).getEntityStates());
+        assertThrows(IllegalArgumentException.class,
+                () -> ActivityEvent.batch("u1", "CREATED", "BUDGET", ids, states.subList(0, 2), 2, Instant.now()));
+    }
+
+    @Test
+    void childIds_areDeterministicDistinctAndObjectIdShaped() {
+        String parent = EventIds.next();
+        Set<String> children = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String child = EventIds.child(parent, i);
+            assertTrue(child.matches("[0-9a-f]{24}"), child);
+            assertEquals(parent.substring(0, 8), child.substring(0, 8));
+            children.add(child);
+        }
+        assertEquals(1000, children.size());
+        assertEquals(EventIds.child(parent, 5), EventIds.child(parent, 5));
+    }
+}
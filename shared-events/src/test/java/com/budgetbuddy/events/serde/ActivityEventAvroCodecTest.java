@@ -0,0 +1,210 @@
+package com.budgetbuddy.events.serde;
+
+import com.budgetbuddy.events.ActivityEvent;
+import com.budgetbuddy.events.EntityState;
+import com.budgetbuddy.events.EventIds;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActivityEventAvroCodecTest {
+
+    // A hypothetical next version on top of the latest published one
+    private static final String V4_ADDS_CURRENCY = published("v3").replace(
+            "{\"name\": \"entityStates\",",
+            "{\"name\": \"currency\", \"type\": [\"null\", \"string\"], \"default\": null},\n    {\"name\": \"entityStates\",");
+
+    private static final String V4_REQUIRES_CURRENCY = V4_ADDS_CURRENCY
+            .replace("{\"name\": \"currency\", \"type\": [\"null\", \"string\"], \"default\": null}",
+                     "{\"name\": \"currency\", \"type\": \"string\"}");
+
+    private static ActivityEvent sample() {
+        ActivityEvent evt = new ActivityEvent("u1", "CREATED", "EXPENSE", "exp1",
+                Instant.parse("2025-03-14T15:09:26.535897Z"));
+        evt.setEventId(EventIds.next());
+        return evt;
+    }
+
+    @Test
+    void roundTripsAllFields() {
+        ActivityEventAvroCodec codec = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+        ActivityEvent in = sample();
+
+        byte[] bytes = codec.encode(in);
+        ActivityEvent out = codec.decode(bytes);
+
+        assertEquals(ActivityEventAvroCodec.MAGIC, bytes[0]);
+        assertEquals(in.getEventId(), out.getEventId());
+        assertEquals("u1", out.getUserId());
+        assertEquals("CREATED", out.getAction());
+        assertEquals("EXPENSE", out.getEntityType());
+        assertEquals("exp1", out.getEntityId());
+        assertEquals(in.getTimestamp(), out.getTimestamp());
+    }
+
+    @Test
+    void roundTripsBatchEvents() {
+        ActivityEventAvroCodec codec = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+        ActivityEvent in = ActivityEvent.batch("u1", "CREATED", "BUDGET", List.of("b1", "b2"), 10, Instant.now()).get(0);
+
+        ActivityEvent out = codec.decode(codec.encode(in));
+
+        assertEquals(List.of("b1", "b2"), out.getEntityIds());
+        assertNull(out.getEntityId());
+    }
+
+    @Test
+    void roundTripsEntityStates() {
+        ActivityEventAvroCodec codec = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+        ActivityEvent in = sample();
+        in.setAction("UPDATED");
+        in.setState(new EntityState(42.5, "Food", "2025-03"));
+        in.setPreviousState(new EntityState(40.0, null, "2025-03"));
+        ActivityEvent batch = ActivityEvent.batch("u1", "CREATED", "BUDGET", List.of("b1", "b2"),
+                List.of(new EntityState(300.0, "Food", "2025-04"), new EntityState(80.0, "Fun", "2025-04")),
+                10, Instant.now()).get(0);
+
+        ActivityEvent out = codec.decode(codec.encode(in));
+        ActivityEvent outBatch = codec.decode(codec.encode(batch));
+
+        assertEquals(in.getState(), out.getState());
+        assertEquals(in.getPreviousState(), out.getPreviousState());
+        assertNull(out.getEntityStates());
+        assertEquals(batch.getEntityStates(), outBatch.getEntityStates());
+        assertNull(outBatch.getState());
+    }
+
+    @Test
+    void pinnedV2WriterDropsStates() {
+        ActivityEventAvroCodec v2 = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null), 2);
+        ActivityEventAvroCodec latest = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+        ActivityEvent in = sample();
+        in.setState(new EntityState(42.5, "Food", "2025-03"));
+
+        ActivityEvent out = latest.decode(v2.encode(in));
+
+        assertEquals("exp1", out.getEntityId());
+        assertNull(out.getState());
+    }
+
+    @Test
+    void pinnedV1WriterRefusesBatchEventsButStillWritesSingleOnes() {
+        ActivityEventAvroCodec v1 = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null), 1);
+        ActivityEventAvroCodec latest = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+        ActivityEvent batch = ActivityEvent.batch("u1", "CREATED", "BUDGET", List.of("b1"), 10, Instant.now()).get(0);
+
+        assertThrows(IllegalStateException.class, () -> v1.encode(batch));
+        assertEquals("exp1", latest.decode(v1.encode(sample())).getEntityId());
+    }
+
+    @Test
+    void roundTripsNulls() {
+        ActivityEventAvroCodec codec = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+
+        ActivityEvent out = codec.decode(codec.encode(new ActivityEvent()));
+
+        assertNull(out.getEventId());
+        assertNull(out.getUserId());
+        assertNull(out.getTimestamp());
+    }
+
+    @Test
+    void readsDataFromANewerCompatibleProducer(@TempDir Path dir) throws Exception {
+        publishedVersionsIn(dir);
+        Files.writeString(dir.resolve("ActivityEvent/v4.avsc"), V4_ADDS_CURRENCY);
+        ActivityEventAvroCodec codec = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", dir));
+
+        Schema v4 = new Schema.Parser().parse(V4_ADDS_CURRENCY);
+        GenericRecord record = new GenericData.Record(v4);
+        record.put("userId", "u1");
+        record.put("entityId", "exp1");
+        record.put("currency", "EUR");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0);
+        out.write(ByteBuffer.allocate(4).putInt(4).array());
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(v4).write(record, encoder);
+
+        ActivityEvent decoded = codec.decode(out.toByteArray());
+
+        assertEquals("u1", decoded.getUserId());
+        assertEquals("exp1", decoded.getEntityId());
+    }
+
+    @Test
+    void rejectsIncompatibleNewVersion(@TempDir Path dir) throws Exception {
+        publishedVersionsIn(dir);
+        Files.writeString(dir.resolve("ActivityEvent/v4.avsc"), V4_REQUIRES_CURRENCY);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new FileSchemaRegistry("ActivityEvent", dir));
+        assertTrue(e.getMessage().contains("v4 cannot read v1"), e.getMessage());
+    }
+
+    private void publishedVersionsIn(Path dir) throws Exception {
+        Files.createDirectories(dir.resolve("ActivityEvent"));
+        for (String v : List.of("v1", "v2", "v3")) {
+            Files.writeString(dir.resolve("ActivityEvent/" + v + ".avsc"), published(v));
+        }
+    }
+
+    private static String published(String version) {
+        try (InputStream in = ActivityEventAvroCodecTest.class.getResourceAsStream("/schemas/ActivityEvent/" + version + ".avsc")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void unknownVersionFails() {
+        ActivityEventAvroCodec codec = new ActivityEventAvroCodec(new FileSchemaRegistry("ActivityEvent", null));
+        byte[] bytes = codec.encode(sample());
+        bytes[4] = 9;
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes));
+    }
+
+    @Test
+    void serializerChoosesFormatPerTopicAndDeserializerReadsBoth() {
+        Map<String, Object> config = Map.of(
+                EventSerdeConfig.AVRO_TOPICS, "binary-topic",
+                "spring.json.trusted.packages", "com.budgetbuddy.events");
+        try (ActivityEventSerializer serializer = new ActivityEventSerializer();
+             ActivityEventDeserializer deserializer = new ActivityEventDeserializer()) {
+            serializer.configure(config, false);
+            deserializer.configure(config, false);
+            ActivityEvent in = sample();
+            RecordHeaders jsonHeaders = new RecordHeaders();
+
+            byte[] avro = serializer.serialize("binary-topic", new RecordHeaders(), in);
+            byte[] json = serializer.serialize("json-topic", jsonHeaders, in);
+
+            assertEquals(ActivityEventAvroCodec.MAGIC, avro[0]);
+            assertEquals('{', json[0]);
+            assertTrue(avro.length * 2 < json.length, avro.length + " vs " + json.length);
+            assertEquals(in.getEventId(), deserializer.deserialize("binary-topic", avro).getEventId());
+            assertEquals(in.getEventId(), deserializer.deserialize("json-topic", jsonHeaders, json).getEventId());
+        }
+    }
+}
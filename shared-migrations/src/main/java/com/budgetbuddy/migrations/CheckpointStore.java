@@ -0,0 +1,20 @@
+package com.budgetbuddy.migrations;
+
+import org.bson.Document;
+
+/** One document per migration id holding status, resume watermark and committed counts. */
+interface CheckpointStore {
+    String RUNNING   = "RUNNING";
+    String COMPLETED = "COMPLETED";
+    String FAILED    = "FAILED";
+
+    /** The checkpoint of {@code migrationId}, or {@code null} if it has never run. */
+    Document load(String migrationId);
+
+    void save(String migrationId, Object watermark, MigrationProgress progress);
+
+    static long count(Document checkpoint, String field) {
+        Object value = checkpoint == null ? null : checkpoint.get(field);
+        return value instanceof Number n ? n.longValue() : 0L;
+    }
+}
@@ -0,0 +1,48 @@
+package com.budgetbuddy.migrations;
+
+import java.util.TreeMap;
+
+/**
+ * Chunks finish out of order; the watermark only moves past a chunk once every
+ * chunk before it has finished, so resuming after it never skips work.
+ */
+final class ChunkTracker {
+
+    private record Done(Object upperBound, long scanned, long modified) {}
+
+    private final TreeMap<Long, Done> finished = new TreeMap<>();
+    private long nextSeq;
+    private Object watermark;
+    private long scanned;
+    private long modified;
+    private long chunks;
+
+    ChunkTracker(Object watermark, long scanned, long modified) {
+        this.watermark = watermark;
+        this.scanned   = scanned;
+        this.modified  = modified;
+    }
+
+    /** Records a finished chunk and returns true if the watermark advanced. */
+    synchronized boolean complete(long seq, Object upperBound, long chunkScanned, long chunkModified) {
+        finished.put(seq, new Done(upperBound, chunkScanned, chunkModified));
+        boolean advanced = false;
+        while (!finished.isEmpty() && finished.firstKey() == nextSeq) {
+            Done done = finished.remove(nextSeq++);
+            watermark = done.upperBound();
+            scanned  += done.scanned();
+            modified += done.modified();
+            chunks++;
+            advanced = true;
+        }
+        return advanced;
+    }
+
+    synchronized Object watermark() {
+        return watermark;
+    }
+
+    synchronized MigrationProgress snapshot(String migrationId, String status, long elapsedMillis) {
+        return new MigrationProgress(migrationId, status, scanned, modified, chunks, elapsedMillis);
+    }
+}
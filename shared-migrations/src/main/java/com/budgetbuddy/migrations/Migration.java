@@ -0,0 +1,47 @@
+package com.budgetbuddy.migrations;
+
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+/**
+ * One backfill over a single collection, e.g. adding a field or normalising a value.
+ *
+ * <p>Implementations must be idempotent: after a crash the runner resumes from the last
+ * fully completed chunk, so documents from chunks that were in flight are visited again.
+ */
+public interface Migration {
+
+    /** Stable, unique id; used as the checkpoint key. */
+    String id();
+
+    /** Collection whose documents are scanned. */
+    String collection();
+
+    /** Collection the writes are applied to. Defaults to the scanned collection. */
+    default String targetCollection() {
+        return collection();
+    }
+
+    /** Extra filter applied inside every _id range, e.g. only documents missing a field. */
+    default Bson filter() {
+        return new Document();
+    }
+
+    /** Fields handed to {@link #migrate(Document)}; {@code null} loads whole documents. */
+    default Bson projection() {
+        return null;
+    }
+
+    /** Returns the write for this document, or {@code null} to leave it untouched. */
+    WriteModel<Document> migrate(Document document);
+
+    /**
+     * Called once before resuming an interrupted run. Migrations whose writes are not
+     * naturally idempotent (e.g. plain inserts) can undo partial work past the watermark;
+     * {@code watermark} is {@code null} if no chunk had been committed yet.
+     */
+    default void beforeResume(MongoDatabase database, Object watermark) {
+    }
+}
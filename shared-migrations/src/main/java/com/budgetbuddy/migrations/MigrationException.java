@@ -0,0 +1,7 @@
+package com.budgetbuddy.migrations;
+
+public class MigrationException extends RuntimeException {
+    public MigrationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
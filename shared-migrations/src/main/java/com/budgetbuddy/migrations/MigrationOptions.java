@@ -0,0 +1,49 @@
+package com.budgetbuddy.migrations;
+
+public class MigrationOptions {
+    private int chunkSize = 1000;
+    private int parallelism = 4;
+    private int maxOpsPerSecond = 0;          // 0 = unthrottled
+    private long progressIntervalMs = 5000;
+    private String checkpointCollection = "migration_checkpoints";
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getMaxOpsPerSecond() {
+        return maxOpsPerSecond;
+    }
+
+    public void setMaxOpsPerSecond(int maxOpsPerSecond) {
+        this.maxOpsPerSecond = maxOpsPerSecond;
+    }
+
+    public long getProgressIntervalMs() {
+        return progressIntervalMs;
+    }
+
+    public void setProgressIntervalMs(long progressIntervalMs) {
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    public String getCheckpointCollection() {
+        return checkpointCollection;
+    }
+
+    public void setCheckpointCollection(String checkpointCollection) {
+        this.checkpointCollection = checkpointCollection;
+    }
+}
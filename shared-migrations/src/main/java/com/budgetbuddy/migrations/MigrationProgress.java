@@ -0,0 +1,17 @@
+package com.budgetbuddy.migrations;
+
+/**
+ * Point-in-time view of a migration. Counts only include chunks at or below the
+ * checkpoint watermark, so they stay exact across resumes.
+ */
+public record MigrationProgress(String migrationId,
+                                String status,
+                                long scanned,
+                                long modified,
+                                long chunksCompleted,
+                                long elapsedMillis) {
+
+    public double docsPerSecond() {
+        return elapsedMillis == 0 ? 0.0 : scanned * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,209 @@
+package com.budgetbuddy.migrations;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a {@link Migration} over its collection in _id-range chunks.
+ *
+ * <p>The main thread walks the _id index (a covered, ids-only scan) to cut chunk
+ * boundaries and hands each range to a worker, which loads the documents, asks the
+ * migration for writes and applies them with one unordered bulkWrite. Progress is
+ * checkpointed to Mongo after every contiguous run of finished chunks, so a restarted
+ * runner continues after the last committed _id instead of starting over.
+ */
+public class MigrationRunner {
+    private static final System.Logger LOG = System.getLogger(MigrationRunner.class.getName());
+
+    private final MongoDatabase database;
+    private final MigrationOptions options;
+    private final CheckpointStore checkpoints;
+    private final ProgressListener listener;
+
+    public MigrationRunner(MongoDatabase database, MigrationOptions options) {
+        this(database, options, MigrationRunner::logProgress);
+    }
+
+    public MigrationRunner(MongoDatabase database, MigrationOptions options, ProgressListener listener) {
+        this(database, options, listener, new MongoCheckpointStore(database, options.getCheckpointCollection()));
+    }
+
+    MigrationRunner(MongoDatabase database, MigrationOptions options, ProgressListener listener,
+                    CheckpointStore checkpoints) {
+        this.database    = database;
+        this.options     = options;
+        this.checkpoints = checkpoints;
+        this.listener    = listener;
+    }
+
+    public MigrationProgress run(Migration migration) {
+        String id = migration.id();
+        Document checkpoint = checkpoints.load(id);
+        if (checkpoint != null && CheckpointStore.COMPLETED.equals(checkpoint.getString("status"))) {
+            LOG.log(System.Logger.Level.INFO, "Migration {0} already completed, skipping", id);
+            return new MigrationProgress(id, CheckpointStore.COMPLETED,
+                    CheckpointStore.count(checkpoint, "scanned"),
+                    CheckpointStore.count(checkpoint, "modified"), 0, 0);
+        }
+
+        Object resumeAfter = checkpoint == null ? null : checkpoint.get("watermark");
+        if (checkpoint != null) {
+            LOG.log(System.Logger.Level.INFO, "Resuming migration {0} after _id {1}", id, resumeAfter);
+            migration.beforeResume(database, resumeAfter);
+        }
+
+        MongoCollection<Document> source = database.getCollection(migration.collection());
+        MongoCollection<Document> target = database.getCollection(migration.targetCollection());
+        ChunkTracker tracker = new ChunkTracker(resumeAfter,
+                CheckpointStore.count(checkpoint, "scanned"),
+                CheckpointStore.count(checkpoint, "modified"));
+        OpsThrottle throttle = new OpsThrottle(options.getMaxOpsPerSecond());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long started = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.getParallelism());
+        // Bounds how far the splitter runs ahead of the workers
+        Semaphore inFlight = new Semaphore(options.getParallelism() * 2);
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(
+                () -> listener.onProgress(tracker.snapshot(id, CheckpointStore.RUNNING, elapsedMillis(started))),
+                options.getProgressIntervalMs(), options.getProgressIntervalMs(), TimeUnit.MILLISECONDS);
+
+        checkpoints.save(id, resumeAfter, tracker.snapshot(id, CheckpointStore.RUNNING, 0));
+        try {
+            Bson remaining = resumeAfter == null ? new Document() : Filters.gt("_id", resumeAfter);
+            try (MongoCursor<Document> ids = source.find(remaining)
+                    .projection(Projections.include("_id"))
+                    .sort(Sorts.ascending("_id"))
+                    .batchSize(options.getChunkSize())
+                    .iterator()) {
+                long seq = 0;
+                int inChunk = 0;
+                Object lower = resumeAfter;
+                Object last = null;
+                while (ids.hasNext() && failure.get() == null) {
+                    last = ids.next().get("_id");
+                    if (++inChunk == options.getChunkSize()) {
+                        submit(workers, inFlight, seq++, lower, last, migration, source, target, throttle, tracker, failure, started);
+                        lower = last;
+                        inChunk = 0;
+                    }
+                }
+                if (inChunk > 0 && failure.get() == null) {
+                    submit(workers, inFlight, seq, lower, last, migration, source, target, throttle, tracker, failure, started);
+                }
+            }
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            workers.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        synchronized (tracker) {
+            if (failure.get() != null) {
+                MigrationProgress failed = tracker.snapshot(id, CheckpointStore.FAILED, elapsedMillis(started));
+                checkpoints.save(id, tracker.watermark(), failed);
+                listener.onProgress(failed);
+                throw new MigrationException("Migration " + id + " failed; a rerun resumes after _id "
+                        + tracker.watermark(), failure.get());
+            }
+            MigrationProgress done = tracker.snapshot(id, CheckpointStore.COMPLETED, elapsedMillis(started));
+            checkpoints.save(id, tracker.watermark(), done);
+            listener.onProgress(done);
+            return done;
+        }
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, long seq, Object lower, Object upper,
+                        Migration migration, MongoCollection<Document> source, MongoCollection<Document> target,
+                        OpsThrottle throttle, ChunkTracker tracker, AtomicReference<Throwable> failure,
+                        long started) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                long[] counts = processChunk(migration, source, target, lower, upper, throttle);
+                synchronized (tracker) {
+                    if (tracker.complete(seq, upper, counts[0], counts[1])) {
+                        checkpoints.save(migration.id(), tracker.watermark(),
+                                tracker.snapshot(migration.id(), CheckpointStore.RUNNING, elapsedMillis(started)));
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /** Returns {scanned, modified} for the range (lower, upper]. */
+    private long[] processChunk(Migration migration, MongoCollection<Document> source,
+                                MongoCollection<Document> target, Object lower, Object upper,
+                                OpsThrottle throttle) throws InterruptedException {
+        List<Bson> range = new ArrayList<>();
+        if (lower != null) {
+            range.add(Filters.gt("_id", lower));
+        }
+        range.add(Filters.lte("_id", upper));
+        range.add(migration.filter());
+
+        FindIterable<Document> docs = source.find(Filters.and(range)).batchSize(options.getChunkSize());
+        if (migration.projection() != null) {
+            docs.projection(migration.projection());
+        }
+
+        long scanned = 0;
+        List<WriteModel<Document>> writes = new ArrayList<>();
+        for (Document doc : docs) {
+            scanned++;
+            WriteModel<Document> write = migration.migrate(doc);
+            if (write != null) {
+                writes.add(write);
+            }
+        }
+        if (writes.isEmpty()) {
+            return new long[]{scanned, 0};
+        }
+
+        throttle.acquire(writes.size());
+        BulkWriteResult result = target.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        long modified = result.getModifiedCount() + result.getInsertedCount()
+                + result.getDeletedCount() + result.getUpserts().size();
+        return new long[]{scanned, modified};
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private static void logProgress(MigrationProgress p) {
+        LOG.log(System.Logger.Level.INFO,
+                "Migration {0} [{1}]: scanned={2} modified={3} chunks={4} rate={5,number,#.#} docs/s",
+                p.migrationId(), p.status(), p.scanned(), p.modified(), p.chunksCompleted(), p.docsPerSecond());
+    }
+}
@@ -0,0 +1,36 @@
+package com.budgetbuddy.migrations;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import org.bson.Document;
+
+import java.util.Date;
+
+/** Checkpoints kept in a collection of the migrated database, keyed by migration id. */
+final class MongoCheckpointStore implements CheckpointStore {
+
+    private final MongoCollection<Document> collection;
+
+    MongoCheckpointStore(MongoDatabase database, String collectionName) {
+        this.collection = database.getCollection(collectionName);
+    }
+
+    @Override
+    public Document load(String migrationId) {
+        return collection.find(Filters.eq("_id", migrationId)).first();
+    }
+
+    @Override
+    public void save(String migrationId, Object watermark, MigrationProgress progress) {
+        Document fields = new Document("status", progress.status())
+                .append("watermark", watermark)
+                .append("scanned", progress.scanned())
+                .append("modified", progress.modified())
+                .append("updatedAt", new Date());
+        collection.updateOne(Filters.eq("_id", migrationId),
+                new Document("$set", fields),
+                new UpdateOptions().upsert(true));
+    }
+}
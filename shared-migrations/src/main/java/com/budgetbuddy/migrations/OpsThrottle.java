@@ -0,0 +1,31 @@
+package com.budgetbuddy.migrations;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces write operations evenly so all workers together stay under a target rate.
+ * Callers reserve a slot for a whole batch and then sleep until it starts.
+ */
+final class OpsThrottle {
+    private final long nanosPerOp;
+    private long nextFreeNanos = System.nanoTime();
+
+    OpsThrottle(int maxOpsPerSecond) {
+        this.nanosPerOp = maxOpsPerSecond <= 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / maxOpsPerSecond;
+    }
+
+    void acquire(int ops) throws InterruptedException {
+        if (nanosPerOp == 0 || ops <= 0) {
+            return;
+        }
+        long startAt;
+        synchronized (this) {
+            startAt = Math.max(System.nanoTime(), nextFreeNanos);
+            nextFreeNanos = startAt + nanosPerOp * ops;
+        }
+        long wait = startAt - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.budgetbuddy.migrations;
+
+@FunctionalInterface
+public interface ProgressListener {
+    void onProgress(MigrationProgress progress);
+}
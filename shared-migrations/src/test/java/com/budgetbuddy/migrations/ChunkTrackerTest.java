@@ -0,0 +1,39 @@
+package com.budgetbuddy.migrations;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkTrackerTest {
+
+    @Test
+    void watermarkOnlyAdvancesOverContiguousChunks() {
+        ChunkTracker tracker = new ChunkTracker(null, 0, 0);
+
+        // chunk 1 finishes first; chunk 0 is still running
+        assertFalse(tracker.complete(1, "id-200", 100, 10));
+        assertNull(tracker.watermark());
+
+        // chunk 0 finishes, both are now committed
+        assertTrue(tracker.complete(0, "id-100", 100, 5));
+        assertEquals("id-200", tracker.watermark());
+
+        MigrationProgress p = tracker.snapshot("m1", "RUNNING", 1000);
+        assertEquals(200, p.scanned());
+        assertEquals(15, p.modified());
+        assertEquals(2, p.chunksCompleted());
+    }
+
+    @Test
+    void resumedTrackerKeepsPriorCounts() {
+        ChunkTracker tracker = new ChunkTracker("id-500", 500, 40);
+
+        tracker.complete(0, "id-600", 100, 1);
+
+        MigrationProgress p = tracker.snapshot("m1", "RUNNING", 0);
+        assertEquals("id-600", tracker.watermark());
+        assertEquals(600, p.scanned());
+        assertEquals(41, p.modified());
+        assertEquals(0.0, p.docsPerSecond());
+    }
+}
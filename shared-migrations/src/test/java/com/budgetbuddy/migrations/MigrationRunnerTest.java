@@ -0,0 +1,231 @@
+package com.budgetbuddy.migrations;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTest {
+
+    /** Collections of documents keyed by an int _id, behind the few driver calls the runner makes. */
+    private final Map<String, NavigableMap<Integer, Document>> collections = new ConcurrentHashMap<>();
+    private final MongoDatabase database = proxy(MongoDatabase.class, (method, args) -> switch (method) {
+        case "getCollection" -> collection(collections.computeIfAbsent((String) args[0], c -> new ConcurrentSkipListMap<>()));
+        default -> throw new UnsupportedOperationException(method);
+    });
+
+    /** Checkpoints as the Mongo store would keep them. */
+    private final Map<String, Document> checkpoints = new ConcurrentHashMap<>();
+    private final CheckpointStore store = new CheckpointStore() {
+        @Override
+        public Document load(String migrationId) {
+            return checkpoints.get(migrationId);
+        }
+
+        @Override
+        public void save(String migrationId, Object watermark, MigrationProgress progress) {
+            checkpoints.put(migrationId, new Document("status", progress.status())
+                    .append("watermark", watermark)
+                    .append("scanned", progress.scanned())
+                    .append("modified", progress.modified()));
+        }
+    };
+
+    /** Copies source into target with plain inserts, undoing partial work past the watermark on resume. */
+    private static final class Copy implements Migration {
+        final List<Integer> visited = Collections.synchronizedList(new ArrayList<>());
+        final List<Object> resumedAfter = new ArrayList<>();
+        volatile int failAt = -1;
+
+        @Override
+        public String id() {
+            return "copy";
+        }
+
+        @Override
+        public String collection() {
+            return "source";
+        }
+
+        @Override
+        public String targetCollection() {
+            return "target";
+        }
+
+        @Override
+        public WriteModel<Document> migrate(Document document) {
+            int id = document.getInteger("_id");
+            if (id == failAt) {
+                throw new IllegalStateException("boom at " + id);
+            }
+            visited.add(id);
+            return new InsertOneModel<>(new Document("_id", id));
+        }
+
+        @Override
+        public void beforeResume(MongoDatabase database, Object watermark) {
+            resumedAfter.add(watermark);
+            database.getCollection("target").deleteMany(watermark == null ? new Document() : Filters.gt("_id", watermark));
+        }
+    }
+
+    private MigrationRunner runner() {
+        MigrationOptions options = new MigrationOptions();
+        options.setChunkSize(10);
+        options.setParallelism(3);
+        options.setProgressIntervalMs(60_000);
+        return new MigrationRunner(database, options, p -> { }, store);
+    }
+
+    @Test
+    void resumesAfterTheWatermarkWithoutSkippingOrRedoingCommittedChunks() {
+        NavigableMap<Integer, Document> source = collections.computeIfAbsent("source", c -> new ConcurrentSkipListMap<>());
+        IntStream.rangeClosed(1, 100).forEach(id -> source.put(id, new Document("_id", id)));
+        Copy copy = new Copy();
+        copy.failAt = 45;
+
+        assertThrows(MigrationException.class, () -> runner().run(copy));
+
+        Document failed = checkpoints.get("copy");
+        assertEquals(CheckpointStore.FAILED, failed.getString("status"));
+        Integer watermark = (Integer) failed.get("watermark");
+        int committed = watermark == null ? 0 : watermark;
+        // Only whole chunks before the failing one can be committed
+        assertTrue(committed < 45 && committed % 10 == 0, "watermark " + watermark);
+        assertEquals(committed, failed.getLong("scanned"));
+        List<Integer> firstRun = List.copyOf(copy.visited);
+        assertTrue(firstRun.containsAll(IntStream.rangeClosed(1, committed).boxed().toList()));
+
+        copy.visited.clear();
+        copy.failAt = -1;
+        MigrationProgress done = runner().run(copy);
+
+        assertEquals(Collections.singletonList(watermark), copy.resumedAfter);
+        // Exactly the ids past the watermark are visited again, each once
+        assertEquals(IntStream.rangeClosed(committed + 1, 100).boxed().toList(),
+                copy.visited.stream().sorted().toList());
+        assertEquals(CheckpointStore.COMPLETED, done.status());
+        assertEquals(100, done.scanned());
+        assertEquals(100, checkpoints.get("copy").get("watermark"));
+        assertEquals(IntStream.rangeClosed(1, 100).boxed().toList(), List.copyOf(collections.get("target").keySet()));
+
+        copy.visited.clear();
+        assertEquals(CheckpointStore.COMPLETED, runner().run(copy).status());
+        assertTrue(copy.visited.isEmpty());
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> switch (method.getName()) {
+            case "toString" -> type.getSimpleName();
+            case "hashCode" -> System.identityHashCode(self);
+            case "equals" -> self == args[0];
+            default -> handler.handle(method.getName(), args);
+        });
+    }
+
+    private static MongoCollection<Document> collection(NavigableMap<Integer, Document> docs) {
+        return proxy(MongoCollection.class, (method, args) -> switch (method) {
+            case "find" -> find(docs.values().stream().filter(d -> matches(render((Bson) args[0]), d.getInteger("_id"))).toList());
+            case "bulkWrite" -> {
+                int inserted = 0;
+                for (Object write : (List<?>) args[0]) {
+                    Document doc = ((InsertOneModel<Document>) write).getDocument();
+                    if (docs.putIfAbsent(doc.getInteger("_id"), doc) != null) {
+                        throw new IllegalStateException("duplicate key " + doc.get("_id"));
+                    }
+                    inserted++;
+                }
+                yield BulkWriteResult.acknowledged(inserted, 0, 0, 0, List.of(), List.of());
+            }
+            case "deleteMany" -> {
+                BsonDocument filter = render((Bson) args[0]);
+                int before = docs.size();
+                docs.keySet().removeIf(id -> matches(filter, id));
+                yield DeleteResult.acknowledged(before - docs.size());
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static FindIterable<Document> find(List<Document> docs) {
+        AtomicReference<FindIterable<Document>> self = new AtomicReference<>();
+        self.set(proxy(FindIterable.class, (method, args) -> switch (method) {
+            case "projection", "sort", "batchSize" -> self.get();
+            case "iterator", "cursor" -> cursor(docs.iterator());
+            default -> throw new UnsupportedOperationException(method);
+        }));
+        return self.get();
+    }
+
+    private static MongoCursor<Document> cursor(Iterator<Document> docs) {
+        return proxy(MongoCursor.class, (method, args) -> switch (method) {
+            case "hasNext" -> docs.hasNext();
+            case "next" -> docs.next();
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static BsonDocument render(Bson filter) {
+        return filter.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+    }
+
+    // Just the operators the runner's range filters use
+    private static boolean matches(BsonDocument filter, int id) {
+        for (Map.Entry<String, BsonValue> field : filter.entrySet()) {
+            if (field.getKey().equals("$and")) {
+                for (BsonValue part : field.getValue().asArray()) {
+                    if (!matches(part.asDocument(), id)) {
+                        return false;
+                    }
+                }
+            } else if (field.getKey().equals("_id")) {
+                for (Map.Entry<String, BsonValue> op : field.getValue().asDocument().entrySet()) {
+                    long bound = op.getValue().asNumber().longValue();
+                    boolean ok = switch (op.getKey()) {
+                        case "$gt" -> id > bound;
+                        case "$lte" -> id <= bound;
+                        default -> throw new UnsupportedOperationException(op.getKey());
+                    };
+                    if (!ok) {
+                        return false;
+                    }
+                }
+            } else {
+                throw new UnsupportedOperationException(filter.toJson());
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.budgetbuddy.migrations;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpsThrottleTest {
+
+    @Test
+    void throttleSpacesBatchesToTargetRate() throws InterruptedException {
+        OpsThrottle throttle = new OpsThrottle(1000);   // 1 op per ms
+
+        long start = System.nanoTime();
+        throttle.acquire(50);
+        throttle.acquire(50);                           // must wait for the first 50 ops' slot
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs >= 45, "expected ~50ms of throttling, got " + elapsedMs);
+    }
+
+    @Test
+    void unthrottledNeverWaits() throws InterruptedException {
+        OpsThrottle throttle = new OpsThrottle(0);
+
+        long start = System.nanoTime();
+        throttle.acquire(1_000_000);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 20);
+    }
+}
@@ -0,0 +1,20 @@
+package com.budgetbuddy.slowqueries;
+
+import com.mongodb.client.MongoClient;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+
+import java.util.function.Supplier;
+
+@FunctionalInterface
+public interface Explainer {
+    /** Runs {@code {explain: command, verbosity: "queryPlanner"}}; the query itself is not executed. */
+    BsonDocument explain(String database, BsonDocument command);
+
+    /** The client is looked up lazily, as the listener has to exist before the client does. */
+    static Explainer using(Supplier<MongoClient> client) {
+        return (database, command) -> client.get().getDatabase(database).runCommand(
+                new BsonDocument("explain", command).append("verbosity", new BsonString("queryPlanner")),
+                BsonDocument.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.budgetbuddy.slowqueries;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The stages and indexes of the winning plan in an explain result. Works for find and
+ * aggregate output alike, and for both the classic and the slot-based engine, by walking
+ * the whole document and skipping the plans the optimizer rejected.
+ */
+record PlanSummary(List<String> stages, List<String> indexes) {
+
+    static PlanSummary of(BsonDocument explain) {
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        walk(explain, stages, indexes);
+        return new PlanSummary(List.copyOf(stages), List.copyOf(indexes));
+    }
+
+    boolean collectionScan() {
+        return stages.contains("COLLSCAN");
+    }
+
+    private static void walk(BsonValue value, List<String> stages, List<String> indexes) {
+        if (value.isArray()) {
+            value.asArray().forEach(v -> walk(v, stages, indexes));
+            return;
+        }
+        if (!value.isDocument()) {
+            return;
+        }
+        BsonDocument doc = value.asDocument();
+        if (doc.isString("stage")) {
+            stages.add(doc.getString("stage").getValue());
+        }
+        if (doc.isString("indexName") && !indexes.contains(doc.getString("indexName").getValue())) {
+            indexes.add(doc.getString("indexName").getValue());
+        }
+        for (Map.Entry<String, BsonValue> e : doc.entrySet()) {
+            // executionStats repeats the winning plan; rejected plans are not what will run
+            if (!e.getKey().equals("rejectedPlans") && !e.getKey().equals("executionStats")) {
+                walk(e.getValue(), stages, indexes);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.budgetbuddy.slowqueries;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reduces a command to its shape: field names and operators stay, literals become "?".
+ * Two queries that differ only in their values share a shape, and so a plan; user data
+ * never ends up in a finding.
+ */
+final class QueryShape {
+    static final Set<String> EXPLAINABLE = Set.of(
+            "find", "aggregate", "count", "distinct", "update", "delete", "findAndModify");
+
+    private static final BsonString LITERAL = new BsonString("?");
+    private static final Set<String> SESSION_FIELDS = Set.of(
+            "lsid", "txnNumber", "autocommit", "startTransaction", "writeConcern", "readConcern",
+            "apiVersion", "apiStrict", "apiDeprecationErrors");
+
+    // Parts of a command that say what it does, as opposed to how the driver sends it
+    private static final Map<String, Set<String>> REDACTED = Map.of(
+            "find", Set.of("filter"),
+            "aggregate", Set.of("pipeline"),
+            "count", Set.of("query"),
+            "distinct", Set.of("query"),
+            "findAndModify", Set.of("query"));
+    private static final Map<String, Set<String>> VERBATIM = Map.of(
+            "find", Set.of("sort", "projection", "hint"),
+            "distinct", Set.of("key"),
+            "findAndModify", Set.of("sort"));
+
+    private QueryShape() {
+    }
+
+    static String collection(String command, BsonDocument body) {
+        BsonValue target = body.get(command);
+        return target != null && target.isString() ? target.asString().getValue() : null;
+    }
+
+    static String of(String command, BsonDocument body) {
+        BsonDocument shape = new BsonDocument();
+        for (String field : REDACTED.getOrDefault(command, Set.of())) {
+            if (body.containsKey(field)) {
+                shape.put(field, redact(body.get(field), false));
+            }
+        }
+        for (String field : VERBATIM.getOrDefault(command, Set.of())) {
+            if (body.containsKey(field)) {
+                shape.put(field, body.get(field));
+            }
+        }
+        // Writes carry their filters per statement; the first one stands for the batch
+        String statements = "update".equals(command) ? "updates" : "delete".equals(command) ? "deletes" : null;
+        if (statements != null && body.isArray(statements) && !body.getArray(statements).isEmpty()
+                && body.getArray(statements).get(0).isDocument()) {
+            shape.put("q", redact(body.getArray(statements).get(0).asDocument().get("q", new BsonDocument()), false));
+        }
+        return command + " " + collection(command, body) + " " + shape.toJson();
+    }
+
+    // $sort and $project stages keep their values: directions and inclusions are part of the
+    // shape. So do field paths such as "$amount" in $group.
+    private static BsonValue redact(BsonValue value, boolean verbatim) {
+        if (verbatim || value.isString() && value.asString().getValue().startsWith("$")) {
+            return value;
+        }
+        if (value.isDocument()) {
+            BsonDocument out = new BsonDocument();
+            for (Map.Entry<String, BsonValue> e : value.asDocument().entrySet()) {
+                boolean keep = e.getKey().equals("$sort") || e.getKey().equals("$project");
+                out.put(e.getKey(), redact(e.getValue(), keep));
+            }
+            return out;
+        }
+        if (value.isArray()) {
+            BsonArray in = value.asArray();
+            // {$in: [a, b, c]} and {$in: [a]} are the same query
+            if (in.stream().noneMatch(v -> v.isDocument() || v.isArray())) {
+                return new BsonArray(List.of(LITERAL));
+            }
+            BsonArray out = new BsonArray();
+            in.forEach(v -> out.add(redact(v, false)));
+            return out;
+        }
+        return LITERAL;
+    }
+
+    /**
+     * The command as it can be handed to explain: driver and session fields removed, and
+     * writes cut down to their first statement, which is all explain accepts.
+     */
+    static BsonDocument forExplain(String command, BsonDocument body) {
+        BsonDocument out = new BsonDocument();
+        for (Map.Entry<String, BsonValue> e : body.entrySet()) {
+            String key = e.getKey();
+            if (key.startsWith("$") || SESSION_FIELDS.contains(key)) {
+                continue;
+            }
+            if ((key.equals("updates") || key.equals("deletes")) && e.getValue().isArray()
+                    && e.getValue().asArray().size() > 1) {
+                out.put(key, new BsonArray(List.of(e.getValue().asArray().get(0))));
+            } else {
+                out.put(key, e.getValue());
+            }
+        }
+        return out;
+    }
+}
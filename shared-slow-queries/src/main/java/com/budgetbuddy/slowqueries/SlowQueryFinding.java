@@ -0,0 +1,37 @@
+package com.budgetbuddy.slowqueries;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Everything known about one query shape that has been slow at least once.
+ *
+ * @param shape      the command with every literal replaced by "?", e.g.
+ *                   {@code find expenses {"userId": "?", "category": "?"}}
+ * @param stages     plan stages of the last explain, outermost first; empty until explained
+ * @param explainError why the last explain failed, if it did
+ */
+public record SlowQueryFinding(
+        String database,
+        String collection,
+        String command,
+        String shape,
+        long count,
+        long totalMs,
+        long maxMs,
+        long lastMs,
+        Instant firstSeen,
+        Instant lastSeen,
+        boolean collectionScan,
+        List<String> stages,
+        List<String> indexes,
+        Instant explainedAt,
+        String explainError
+) {
+    public String plan() {
+        if (explainedAt == null || explainError != null) {
+            return "UNKNOWN";
+        }
+        return collectionScan ? "COLLSCAN" : "INDEXED";
+    }
+}
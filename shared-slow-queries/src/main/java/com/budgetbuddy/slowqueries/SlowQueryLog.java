@@ -0,0 +1,233 @@
+package com.budgetbuddy.slowqueries;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command listener that keeps, per query shape, how often and how slowly it ran once it
+ * crossed the threshold, and explains each slow shape to see whether its plan scans the
+ * whole collection.
+ *
+ * <p>Reads, counts, aggregations and filtered writes are candidates; their command document
+ * is copied when they start because the driver reuses its buffer once the callback returns.
+ * Explains run one at a time on a background thread, never on the driver's, and a shape is
+ * explained again only after {@code reExplainAfterMs}, so a hot slow query costs one extra
+ * explain per interval.
+ */
+public class SlowQueryLog implements CommandListener, AutoCloseable {
+    private static final System.Logger LOG = System.getLogger(SlowQueryLog.class.getName());
+    private static final Set<String> SYSTEM_DATABASES = Set.of("admin", "config", "local");
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private record Started(String database, String command, BsonDocument body) {}
+
+    private static final class Shape {
+        final String database;
+        final String collection;
+        final String command;
+        final String shape;
+        final Instant firstSeen;
+        long count;
+        long totalMs;
+        long maxMs;
+        long lastMs;
+        Instant lastSeen;
+        PlanSummary plan;
+        Instant explainedAt;
+        String explainError;
+        boolean explainPending;
+
+        Shape(String database, String collection, String command, String shape, Instant now) {
+            this.database = database;
+            this.collection = collection;
+            this.command = command;
+            this.shape = shape;
+            this.firstSeen = now;
+        }
+
+        SlowQueryFinding snapshot() {
+            return new SlowQueryFinding(database, collection, command, shape, count, totalMs, maxMs, lastMs,
+                    firstSeen, lastSeen, plan != null && plan.collectionScan(),
+                    plan == null ? List.of() : plan.stages(), plan == null ? List.of() : plan.indexes(),
+                    explainedAt, explainError);
+        }
+    }
+
+    private final SlowQueryOptions options;
+    private final Explainer explainer;
+    private final SlowQueryObserver observer;
+    private final Clock clock;
+    private final ExecutorService explains;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Shape> shapes;
+
+    public SlowQueryLog(SlowQueryOptions options, Explainer explainer, SlowQueryObserver observer) {
+        this(options, explainer, observer, Clock.systemUTC(), new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, options.getExplainQueueSize())), r -> {
+                    Thread t = new Thread(r, "slow-query-explain");
+                    t.setDaemon(true);
+                    return t;
+                }));
+    }
+
+    SlowQueryLog(SlowQueryOptions options, Explainer explainer, SlowQueryObserver observer,
+                 Clock clock, ExecutorService explains) {
+        this.options = options;
+        this.explainer = explainer;
+        this.observer = observer;
+        this.clock = clock;
+        this.explains = explains;
+        // Least recently slow shapes make room for new ones
+        this.shapes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Shape> eldest) {
+                return size() > options.getMaxShapes();
+            }
+        };
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (QueryShape.EXPLAINABLE.contains(event.getCommandName())
+                && !SYSTEM_DATABASES.contains(event.getDatabaseName())) {
+            BsonDocument copy = CODEC.decode(new BsonDocumentReader(event.getCommand()), DecoderContext.builder().build());
+            inFlight.put(event.getRequestId(), new Started(event.getDatabaseName(), event.getCommandName(), copy));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getElapsedTime(TimeUnit.MILLISECONDS));
+    }
+
+    // A command that times out is as interesting as one that finishes slowly
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getElapsedTime(TimeUnit.MILLISECONDS));
+    }
+
+    private void completed(int requestId, long millis) {
+        Started started = inFlight.remove(requestId);
+        if (started == null || millis < options.getThresholdMs()) {
+            return;
+        }
+        String collection = QueryShape.collection(started.command(), started.body());
+        String shape = QueryShape.of(started.command(), started.body());
+        Instant now = clock.instant();
+        String plan;
+        boolean explain;
+        synchronized (this) {
+            Shape entry = shapes.computeIfAbsent(shape,
+                    s -> new Shape(started.database(), collection, started.command(), s, now));
+            entry.count++;
+            entry.totalMs += millis;
+            entry.maxMs = Math.max(entry.maxMs, millis);
+            entry.lastMs = millis;
+            entry.lastSeen = now;
+            plan = entry.snapshot().plan();
+            explain = options.isExplain() && !entry.explainPending && (entry.explainedAt == null
+                    || entry.explainedAt.plusMillis(options.getReExplainAfterMs()).isBefore(now));
+            if (explain) {
+                entry.explainPending = true;
+            }
+        }
+        observer.slowCommand(started.database(), collection, started.command(), millis, plan);
+        if (explain) {
+            submitExplain(shape, started);
+        }
+    }
+
+    private void submitExplain(String shape, Started started) {
+        try {
+            explains.execute(() -> explain(shape, started));
+        } catch (RejectedExecutionException e) {
+            // Queue full or shutting down: the next slow occurrence tries again
+            synchronized (this) {
+                Shape entry = shapes.get(shape);
+                if (entry != null) {
+                    entry.explainPending = false;
+                }
+            }
+        }
+    }
+
+    private void explain(String shape, Started started) {
+        PlanSummary plan = null;
+        String error = null;
+        try {
+            plan = PlanSummary.of(explainer.explain(started.database(),
+                    QueryShape.forExplain(started.command(), started.body())));
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            LOG.log(System.Logger.Level.DEBUG, "Explain failed for " + shape, e);
+        }
+        SlowQueryFinding finding;
+        synchronized (this) {
+            Shape entry = shapes.get(shape);
+            if (entry == null) {
+                return;
+            }
+            entry.explainPending = false;
+            entry.explainedAt = clock.instant();
+            entry.explainError = error;
+            if (plan != null) {
+                entry.plan = plan;
+            }
+            finding = entry.snapshot();
+        }
+        if (finding.collectionScan()) {
+            LOG.log(System.Logger.Level.WARNING, "Collection scan on {0}.{1} ({2} ms): {3}",
+                    finding.database(), finding.collection(), finding.maxMs(), finding.shape());
+        }
+        observer.explained(finding);
+    }
+
+    /** Slow shapes, most total time first. */
+    public synchronized List<SlowQueryFinding> findings() {
+        List<SlowQueryFinding> out = new ArrayList<>(shapes.size());
+        // Iterating an access-ordered map with get() would reorder it; values() does not
+        shapes.values().forEach(e -> out.add(e.snapshot()));
+        out.sort(Comparator.comparingLong(SlowQueryFinding::totalMs).reversed());
+        return out;
+    }
+
+    public synchronized int collectionScanShapes() {
+        int n = 0;
+        for (Shape e : shapes.values()) {
+            if (e.plan != null && e.plan.collectionScan()) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    public synchronized void clear() {
+        shapes.clear();
+    }
+
+    @Override
+    public void close() {
+        explains.shutdownNow();
+    }
+}
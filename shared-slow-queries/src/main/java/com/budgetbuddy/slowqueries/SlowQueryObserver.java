@@ -0,0 +1,18 @@
+package com.budgetbuddy.slowqueries;
+
+/** Hook for metrics; called on the driver's thread, so implementations must be cheap. */
+public interface SlowQueryObserver {
+    SlowQueryObserver NONE = new SlowQueryObserver() {};
+
+    /**
+     * A command took at least the threshold.
+     *
+     * @param plan the last explained plan of its shape: "COLLSCAN", "INDEXED" or "UNKNOWN"
+     *             until it has been explained
+     */
+    default void slowCommand(String database, String collection, String command, long millis, String plan) {
+    }
+
+    default void explained(SlowQueryFinding finding) {
+    }
+}
@@ -0,0 +1,49 @@
+package com.budgetbuddy.slowqueries;
+
+public class SlowQueryOptions {
+    private long thresholdMs = 100;
+    private boolean explain = true;
+    private long reExplainAfterMs = 600_000;   // plans change as data and indexes do
+    private int maxShapes = 500;
+    private int explainQueueSize = 100;        // slow commands beyond this wait for the next occurrence
+
+    public long getThresholdMs() {
+        return thresholdMs;
+    }
+
+    public void setThresholdMs(long thresholdMs) {
+        this.thresholdMs = thresholdMs;
+    }
+
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+
+    public long getReExplainAfterMs() {
+        return reExplainAfterMs;
+    }
+
+    public void setReExplainAfterMs(long reExplainAfterMs) {
+        this.reExplainAfterMs = reExplainAfterMs;
+    }
+
+    public int getMaxShapes() {
+        return maxShapes;
+    }
+
+    public void setMaxShapes(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public int getExplainQueueSize() {
+        return explainQueueSize;
+    }
+
+    public void setExplainQueueSize(int explainQueueSize) {
+        this.explainQueueSize = explainQueueSize;
+    }
+}
@@ -0,0 +1,36 @@
+package com.budgetbuddy.slowqueries;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanSummaryTest {
+
+    @Test
+    void findsCollectionScanInWinningPlanOnly() {
+        BsonDocument explain = BsonDocument.parse("{queryPlanner: {winningPlan: {stage: 'SORT', inputStage: {stage: 'COLLSCAN'}},"
+                + " rejectedPlans: [{stage: 'FETCH', inputStage: {stage: 'IXSCAN', indexName: 'userId_1'}}]}}");
+
+        PlanSummary plan = PlanSummary.of(explain);
+
+        assertEquals(List.of("SORT", "COLLSCAN"), plan.stages());
+        assertTrue(plan.indexes().isEmpty());
+        assertTrue(plan.collectionScan());
+    }
+
+    @Test
+    void readsAggregateAndSlotBasedOutput() {
+        BsonDocument explain = BsonDocument.parse("{stages: [{$cursor: {queryPlanner: {winningPlan: {queryPlan: "
+                + "{stage: 'FETCH', inputStage: {stage: 'IXSCAN', indexName: 'userId_1_timestamp_-1'}},"
+                + " slotBasedPlan: {stages: '[1] scan'}}}}}, {$group: {}}]}");
+
+        PlanSummary plan = PlanSummary.of(explain);
+
+        assertEquals(List.of("FETCH", "IXSCAN"), plan.stages());
+        assertEquals(List.of("userId_1_timestamp_-1"), plan.indexes());
+        assertFalse(plan.collectionScan());
+    }
+}
@@ -0,0 +1,47 @@
+package com.budgetbuddy.slowqueries;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryShapeTest {
+
+    @Test
+    void literalsAreRedactedButFieldsAndSortStay() {
+        BsonDocument a = BsonDocument.parse("{find: 'expenses', filter: {userId: 'u1', category: {$in: ['Food', 'Rent']},"
+                + " date: {$gte: {$date: '2025-01-01T00:00:00Z'}}}, sort: {date: -1}, limit: 20, $db: 'budgetbuddy'}");
+        BsonDocument b = BsonDocument.parse("{find: 'expenses', filter: {userId: 'u2', category: {$in: ['Travel']},"
+                + " date: {$gte: {$date: '2024-06-01T00:00:00Z'}}}, sort: {date: -1}, limit: 5, $db: 'budgetbuddy'}");
+
+        String shape = QueryShape.of("find", a);
+
+        assertEquals(shape, QueryShape.of("find", b));
+        assertEquals("expenses", QueryShape.collection("find", a));
+        assertTrue(shape.startsWith("find expenses "), shape);
+        assertTrue(shape.contains("\"date\": -1"), shape);
+        assertFalse(shape.contains("u1") || shape.contains("Food"), shape);
+    }
+
+    @Test
+    void pipelinesKeepStageNamesAndFieldPaths() {
+        BsonDocument cmd = BsonDocument.parse("{aggregate: 'activity_logs', pipeline: [{$match: {entityType: 'EXPENSE'}},"
+                + " {$group: {_id: '$userId', n: {$sum: 1}}}, {$sort: {n: -1}}], cursor: {}}");
+
+        String shape = QueryShape.of("aggregate", cmd);
+
+        assertTrue(shape.contains("$match") && shape.contains("\"$userId\"") && shape.contains("\"n\": -1"), shape);
+        assertFalse(shape.contains("EXPENSE"), shape);
+    }
+
+    @Test
+    void explainCommandDropsSessionFieldsAndExtraStatements() {
+        BsonDocument cmd = BsonDocument.parse("{delete: 'budgets', deletes: [{q: {userId: 'a'}, limit: 0}, {q: {userId: 'b'}, limit: 0}],"
+                + " ordered: true, lsid: {id: 1}, txnNumber: 3, $db: 'budgetbuddy', $clusterTime: {}}");
+
+        BsonDocument explain = QueryShape.forExplain("delete", cmd);
+
+        assertEquals(BsonDocument.parse("{delete: 'budgets', deletes: [{q: {userId: 'a'}, limit: 0}], ordered: true}"), explain);
+        assertEquals("delete budgets {\"q\": {\"userId\": \"?\"}}", QueryShape.of("delete", cmd));
+    }
+}
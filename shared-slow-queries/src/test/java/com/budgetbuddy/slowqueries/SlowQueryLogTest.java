@@ -0,0 +1,100 @@
+package com.budgetbuddy.slowqueries;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+    private static final String COLLSCAN = "{queryPlanner: {winningPlan: {stage: 'COLLSCAN'}}}";
+
+    private int requestId;
+
+    /** Runs explains on the calling thread so the test can look at the result right away. */
+    private static final class DirectExecutor extends AbstractExecutorService {
+        @Override public void execute(Runnable command) { command.run(); }
+        @Override public void shutdown() {}
+        @Override public List<Runnable> shutdownNow() { return List.of(); }
+        @Override public boolean isShutdown() { return false; }
+        @Override public boolean isTerminated() { return false; }
+        @Override public boolean awaitTermination(long timeout, TimeUnit unit) { return true; }
+    }
+
+    private void run(SlowQueryLog log, String command, String body, long millis) {
+        int id = ++requestId;
+        BsonDocument cmd = BsonDocument.parse(body);
+        log.commandStarted(new CommandStartedEvent(null, 1, id, CONNECTION, "budgetbuddy", command, cmd));
+        log.commandSucceeded(new CommandSucceededEvent(null, 1, id, CONNECTION, "budgetbuddy", command,
+                new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+
+    @Test
+    void slowShapeIsAggregatedAndExplainedOnce() {
+        List<BsonDocument> explained = new ArrayList<>();
+        List<String> plans = new ArrayList<>();
+        SlowQueryObserver observer = new SlowQueryObserver() {
+            @Override
+            public void slowCommand(String database, String collection, String command, long millis, String plan) {
+                plans.add(plan);
+            }
+        };
+        SlowQueryLog log = new SlowQueryLog(new SlowQueryOptions(), (db, cmd) -> {
+            explained.add(cmd);
+            return BsonDocument.parse(COLLSCAN);
+        }, observer, Clock.systemUTC(), new DirectExecutor());
+
+        run(log, "find", "{find: 'activity_logs', filter: {entityType: 'EXPENSE'}, lsid: {id: 1}}", 250);
+        run(log, "find", "{find: 'activity_logs', filter: {entityType: 'BUDGET'}}", 150);
+        run(log, "find", "{find: 'activity_logs', filter: {entityType: 'INCOME'}}", 5);
+
+        assertEquals(1, explained.size());
+        assertFalse(explained.get(0).containsKey("lsid"));
+        assertEquals(List.of("UNKNOWN", "COLLSCAN"), plans);
+
+        SlowQueryFinding finding = log.findings().get(0);
+        assertEquals(2, finding.count());
+        assertEquals(400, finding.totalMs());
+        assertEquals(250, finding.maxMs());
+        assertEquals("activity_logs", finding.collection());
+        assertTrue(finding.collectionScan());
+        assertEquals(1, log.collectionScanShapes());
+    }
+
+    @Test
+    void writesWithoutFilterAndFastCommandsAreIgnored() {
+        SlowQueryLog log = new SlowQueryLog(new SlowQueryOptions(), (db, cmd) -> fail("no explain expected"),
+                SlowQueryObserver.NONE, Clock.systemUTC(), new DirectExecutor());
+
+        run(log, "insert", "{insert: 'expenses', documents: [{amount: 1}]}", 500);
+        run(log, "find", "{find: 'expenses', filter: {}}", 10);
+
+        assertTrue(log.findings().isEmpty());
+    }
+
+    @Test
+    void failedExplainIsRecordedAndLeavesPlanUnknown() {
+        SlowQueryLog log = new SlowQueryLog(new SlowQueryOptions(), (db, cmd) -> {
+            throw new IllegalStateException("not authorized");
+        }, SlowQueryObserver.NONE, Clock.systemUTC(), new DirectExecutor());
+
+        run(log, "count", "{count: 'budgets', query: {userId: 'u1'}}", 300);
+
+        SlowQueryFinding finding = log.findings().get(0);
+        assertEquals("not authorized", finding.explainError());
+        assertEquals("UNKNOWN", finding.plan());
+    }
+}
@@ -0,0 +1,180 @@
+package com.budgetbuddy.warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Calls a service's hot paths before it takes traffic, so the first real requests do not
+ * pay for what is otherwise done on first use: the JIT compiling the request path, Jackson
+ * introspecting the models, connection pools opening, and the like.
+ *
+ * <p>Steps run one after another, in the order they were added; each is called
+ * {@code iterations} times by {@code concurrency} threads. A step that fails
+ * {@code abandon-after-failures} times in a row is given up, since a dependency that is
+ * down will not warm anything, and the whole warm-up stops at {@code max-duration-ms}.
+ * Neither fails startup: a cold service is slower, not broken.
+ */
+public class WarmUp {
+    private static final System.Logger LOG = System.getLogger(WarmUp.class.getName());
+    private static final Duration HTTP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WarmUpOptions options;
+    private final WarmUpObserver observer;
+    private final Map<String, WarmUpStep> steps = new LinkedHashMap<>();
+
+    public WarmUp(WarmUpOptions options) {
+        this(options, WarmUpObserver.NONE);
+    }
+
+    public WarmUp(WarmUpOptions options, WarmUpObserver observer) {
+        this.options = options;
+        this.observer = observer;
+    }
+
+    public WarmUp step(String name, WarmUpStep step) {
+        if (steps.putIfAbsent(name, step) != null) {
+            throw new IllegalArgumentException("Duplicate warm-up step " + name);
+        }
+        return this;
+    }
+
+    /**
+     * A step that GETs {@code uri} and fails on a 4xx or 5xx. The body is read and
+     * discarded, so the server still serializes it.
+     */
+    public static WarmUpStep httpGet(HttpClient client, URI uri, Map<String, String> headers) {
+        return iteration -> {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(HTTP_TIMEOUT).GET();
+            headers.forEach(request::header);
+            int status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 400) {
+                throw new IOException("GET " + uri + " answered " + status);
+            }
+        };
+    }
+
+    /** Runs every step; returns once they have all stopped or {@code max-duration-ms} has passed. */
+    public WarmUpReport run() {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(options.getMaxDurationMs());
+        int threads = Math.max(1, options.getConcurrency());
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "warmup-" + threadNo.incrementAndGet());
+            t.setDaemon(true);      // a call stuck past the deadline must not hold up shutdown
+            return t;
+        });
+
+        List<WarmUpReport.Step> results = new ArrayList<>();
+        try {
+            steps.forEach((name, step) -> {
+                WarmUpReport.Step result = System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()
+                        ? new WarmUpReport.Step(name, WarmUpReport.Outcome.TIMED_OUT, 0, 0, 0, 0, 0)
+                        : runStep(name, step, workers, threads, deadline);
+                log(result);
+                observer.stepFinished(result);
+                results.add(result);
+            });
+        } finally {
+            workers.shutdownNow();
+        }
+
+        WarmUpReport report = new WarmUpReport(List.copyOf(results), System.nanoTime() - started);
+        LOG.log(report.completed() ? System.Logger.Level.INFO : System.Logger.Level.WARNING,
+                "Warm-up {0} in {1} ms", report.completed() ? "completed" : "incomplete",
+                TimeUnit.NANOSECONDS.toMillis(report.elapsedNanos()));
+        observer.finished(report);
+        return report;
+    }
+
+    private WarmUpReport.Step runStep(String name, WarmUpStep step, ExecutorService workers, int threads, long deadline) {
+        long started = System.nanoTime();
+        int iterations = options.getIterations();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger failuresInARow = new AtomicInteger();
+        AtomicLong firstCall = new AtomicLong();
+        AtomicLong lastCall = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        AtomicReference<Exception> lastFailure = new AtomicReference<>();
+
+        int workerCount = Math.max(1, Math.min(threads, iterations));
+        CountDownLatch done = new CountDownLatch(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            workers.execute(() -> {
+                try {
+                    int i;
+                    while (!stop.get() && (i = next.getAndIncrement()) < iterations) {
+                        long callStarted = System.nanoTime();
+                        try {
+                            step.call(i);
+                            failuresInARow.set(0);
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                            lastFailure.set(e);
+                            if (failuresInARow.incrementAndGet() >= options.getAbandonAfterFailures()) {
+                                abandoned.set(true);
+                                stop.set(true);
+                            }
+                        }
+                        long took = System.nanoTime() - callStarted;
+                        calls.incrementAndGet();
+                        if (i == 0) {
+                            firstCall.set(took);
+                        }
+                        lastCall.set(took);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        boolean finished;
+        try {
+            finished = done.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = false;
+        }
+        stop.set(true);
+
+        WarmUpReport.Outcome outcome = abandoned.get() ? WarmUpReport.Outcome.ABANDONED
+                : finished ? WarmUpReport.Outcome.COMPLETED : WarmUpReport.Outcome.TIMED_OUT;
+        if (outcome == WarmUpReport.Outcome.ABANDONED) {
+            LOG.log(System.Logger.Level.WARNING, "Warm-up step " + name + " abandoned after "
+                    + options.getAbandonAfterFailures() + " failures in a row", lastFailure.get());
+        }
+        return new WarmUpReport.Step(name, outcome, calls.get(), failures.get(),
+                System.nanoTime() - started, firstCall.get(), lastCall.get());
+    }
+
+    private static void log(WarmUpReport.Step step) {
+        LOG.log(System.Logger.Level.INFO, "Warm-up step {0} {1}: {2} calls, {3} failed, first {4} ms, last {5} ms, {6} ms in all",
+                step.name(), step.outcome().name().toLowerCase(Locale.ROOT), step.calls(), step.failures(),
+                millis(step.firstCallNanos()), millis(step.lastCallNanos()), millis(step.elapsedNanos()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,14 @@
+package com.budgetbuddy.warmup;
+
+/** Hook for metrics; called on the thread running the warm-up. */
+public interface WarmUpObserver {
+    WarmUpObserver NONE = new WarmUpObserver() {};
+
+    /** A step has stopped, whether it completed, was abandoned or ran out of time. */
+    default void stepFinished(WarmUpReport.Step step) {
+    }
+
+    /** Every step has stopped; the service is about to report ready. */
+    default void finished(WarmUpReport report) {
+    }
+}
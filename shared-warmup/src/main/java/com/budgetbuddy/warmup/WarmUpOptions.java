@@ -0,0 +1,40 @@
+package com.budgetbuddy.warmup;
+
+public class WarmUpOptions {
+    private int iterations = 200;              // calls per step; enough for the JIT to compile the hot methods
+    private int concurrency = 4;               // calls in flight per step, so pools open more than one connection
+    private long maxDurationMs = 60_000;       // past this the service reports ready anyway
+    private int abandonAfterFailures = 3;      // consecutive failures before a step is given up
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public long getMaxDurationMs() {
+        return maxDurationMs;
+    }
+
+    public void setMaxDurationMs(long maxDurationMs) {
+        this.maxDurationMs = maxDurationMs;
+    }
+
+    public int getAbandonAfterFailures() {
+        return abandonAfterFailures;
+    }
+
+    public void setAbandonAfterFailures(int abandonAfterFailures) {
+        this.abandonAfterFailures = abandonAfterFailures;
+    }
+}
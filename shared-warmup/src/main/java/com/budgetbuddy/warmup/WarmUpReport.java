@@ -0,0 +1,28 @@
+package com.budgetbuddy.warmup;
+
+import java.util.List;
+
+/** What a warm-up did, step by step. */
+public record WarmUpReport(List<Step> steps, long elapsedNanos) {
+
+    public enum Outcome {
+        COMPLETED,
+        /** Stopped after {@code abandon-after-failures} failures in a row. */
+        ABANDONED,
+        /** Stopped, or never started, because {@code max-duration-ms} ran out. */
+        TIMED_OUT
+    }
+
+    /**
+     * @param firstCallNanos how long the first call took, before anything was warm
+     * @param lastCallNanos  how long the last call to finish took
+     */
+    public record Step(String name, Outcome outcome, int calls, int failures,
+                       long elapsedNanos, long firstCallNanos, long lastCallNanos) {
+    }
+
+    /** True if every step ran all of its calls. */
+    public boolean completed() {
+        return steps.stream().allMatch(s -> s.outcome() == Outcome.COMPLETED);
+    }
+}
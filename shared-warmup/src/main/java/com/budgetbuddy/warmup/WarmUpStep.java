@@ -0,0 +1,7 @@
+package com.budgetbuddy.warmup;
+
+/** One call on a hot path. Called {@code iterations} times, from several threads at once. */
+@FunctionalInterface
+public interface WarmUpStep {
+    void call(int iteration) throws Exception;
+}
@@ -0,0 +1,85 @@
+package com.budgetbuddy.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmUpTest {
+
+    private static WarmUpOptions options(int iterations, long maxDurationMs) {
+        WarmUpOptions options = new WarmUpOptions();
+        options.setIterations(iterations);
+        options.setConcurrency(3);
+        options.setMaxDurationMs(maxDurationMs);
+        options.setAbandonAfterFailures(2);
+        return options;
+    }
+
+    @Test
+    void runsEveryStepItsIterationsInOrder() {
+        AtomicInteger json = new AtomicInteger();
+        AtomicInteger http = new AtomicInteger();
+        List<String> finished = new ArrayList<>();
+
+        WarmUpReport report = new WarmUp(options(50, 10_000), new WarmUpObserver() {
+            @Override
+            public void stepFinished(WarmUpReport.Step step) {
+                finished.add(step.name());
+            }
+        })
+                .step("json", i -> json.incrementAndGet())
+                .step("http", i -> {
+                    assertEquals(50, json.get(), "steps run one after another");
+                    http.incrementAndGet();
+                })
+                .run();
+
+        assertTrue(report.completed());
+        assertEquals(List.of("json", "http"), finished);
+        assertEquals(50, http.get());
+        assertEquals(50, report.steps().get(1).calls());
+        assertEquals(0, report.steps().get(1).failures());
+    }
+
+    @Test
+    void abandonsAFailingStepAndCarriesOn() {
+        AtomicInteger after = new AtomicInteger();
+
+        WarmUpReport report = new WarmUp(options(100, 10_000))
+                .step("repository", i -> {
+                    throw new IOException("database down");
+                })
+                .step("json", i -> after.incrementAndGet())
+                .run();
+
+        WarmUpReport.Step failed = report.steps().get(0);
+        assertEquals(WarmUpReport.Outcome.ABANDONED, failed.outcome());
+        assertTrue(failed.calls() < 100, "stopped early: " + failed.calls());
+        assertEquals(failed.calls(), failed.failures());
+        assertEquals(WarmUpReport.Outcome.COMPLETED, report.steps().get(1).outcome());
+        assertEquals(100, after.get());
+        assertFalse(report.completed());
+    }
+
+    @Test
+    void stopsWaitingAtTheDeadline() {
+        CountDownLatch never = new CountDownLatch(1);
+        AtomicInteger after = new AtomicInteger();
+
+        WarmUpReport report = new WarmUp(options(10, 200))
+                .step("stuck", i -> never.await())
+                .step("json", i -> after.incrementAndGet())
+                .run();
+
+        assertEquals(WarmUpReport.Outcome.TIMED_OUT, report.steps().get(0).outcome());
+        assertEquals(WarmUpReport.Outcome.TIMED_OUT, report.steps().get(1).outcome());
+        assertEquals(0, after.get());
+        assertTrue(report.elapsedNanos() < 5_000_000_000L, "returned at the deadline");
+    }
+}